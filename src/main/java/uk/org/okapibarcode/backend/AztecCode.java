@@ -19,6 +19,11 @@
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static uk.org.okapibarcode.util.Arrays.insertArray;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * <p>Implements Aztec Code bar code symbology According to ISO/IEC 24778:2008.
  *
@@ -72,7 +77,8 @@ public enum Mode {
         559, 557, 555, 553, 551, 549, 547, 545, 543, 541, 539, 537, 535, 533, 531, 529, 527, 525, 523, 521, 519, 517, 515, 513, 511, 508, 509
     };
 
-    private static final int[][] AZTEC_MAP = new int[151][151];
+    /** The normal (non-compact) symbol map, created lazily (see {@link #getAztecMap(int)}). */
+    private static volatile AztecMap aztecMap;
 
     /* From Table 2:
      *
@@ -106,25 +112,47 @@ public enum Mode {
         25, 26, 27, 29, 25, 30, 26, 27
     };
 
+    /* Latch modes, as used by the optimal encoder; each mode's code set flag is (1 << mode) */
+    private static final int UPPER = 0;
+    private static final int LOWER = 1;
+    private static final int MIXED = 2;
+    private static final int PUNCT = 3;
+    private static final int DIGIT = 4;
+    private static final int BINARY = 5;
+
+    private static final String[] MODE_NAMES = { "U", "L", "M", "P", "D" };
+
+    /* Latch codes, indexed by current mode and target mode (-1 if no direct latch is available) */
+    private static final int[][] LATCH = {
+        { -1, 28, 29, -1, 30 },
+        { -1, -1, 29, -1, 30 },
+        { 29, 28, -1, 30, -1 },
+        { 31, -1, -1, -1, -1 },
+        { 14, -1, -1, -1, -1 }
+    };
+
+    /* Shift codes, indexed by current mode and target mode (-1 if no shift is available) */
+    private static final int[][] SHIFT = {
+        { -1, -1, -1, 0, -1 },
+        { 28, -1, -1, 0, -1 },
+        { -1, -1, -1, 0, -1 },
+        { -1, -1, -1, -1, -1 },
+        { 15, -1, -1, 0, -1 }
+    };
+
+    /** Placeholder for the ECI flag at the start of the data, as used by the optimal encoder. */
+    private static final int ECI_FLAG = -10;
+
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    /* The max number of symbols in a structured append sequence. */
+    private static final int MAX_STRUCTURED_APPEND_SYMBOLS = 26;
+
     /* Problem characters are:
      * 300: Carriage Return (ASCII 13)
      * 301: Comma (ASCII 44)
      * 302: Full Stop (ASCII 46)
      */
-    private static final String[] PENTBIT = {
-        "00000", "00001", "00010", "00011", "00100", "00101", "00110", "00111", "01000", "01001",
-        "01010", "01011", "01100", "01101", "01110", "01111", "10000", "10001", "10010", "10011", "10100", "10101",
-        "10110", "10111", "11000", "11001", "11010", "11011", "11100", "11101", "11110", "11111"
-    };
-
-    private static final String[] QUADBIT = {
-        "0000", "0001", "0010", "0011", "0100", "0101", "0110", "0111", "1000", "1001",
-        "1010", "1011", "1100", "1101", "1110", "1111"
-    };
-
-    private static final String[] TRIBIT = {
-        "000", "001", "010", "011", "100", "101", "110", "111"
-    };
 
     /** Symbol bit capacity (see Table 1) */
     protected static final int[] AZTEC_BIT_CAPACITIES = {
@@ -148,122 +176,6 @@ public enum Mode {
         6, 4, 2, 0
     };
 
-    /* Initialize AZTEC_MAP */
-    static {
-
-        int layer, start, length, n, i;
-        int x, y;
-
-        for (x = 0; x < 151; x++) {
-            for (y = 0; y < 151; y++) {
-                AZTEC_MAP[x][y] = 0;
-            }
-        }
-
-        for (layer = 1; layer < 33; layer++) {
-            start = (112 * (layer - 1)) + (16 * (layer - 1) * (layer - 1)) + 2;
-            length = 28 + ((layer - 1) * 4) + (layer * 4);
-            /* Top */
-            i = 0;
-            x = 64 - ((layer - 1) * 2);
-            y = 63 - ((layer - 1) * 2);
-            for (n = start; n < (start + length); n += 2) {
-                AZTEC_MAP[avoidReferenceGrid(x + i)][avoidReferenceGrid(y)] = n;
-                AZTEC_MAP[avoidReferenceGrid(x + i)][avoidReferenceGrid(y - 1)] = n + 1;
-                i++;
-            }
-            /* Right */
-            i = 0;
-            x = 78 + ((layer - 1) * 2);
-            y = 64 - ((layer - 1) * 2);
-            for (n = start + length; n < (start + (length * 2)); n += 2) {
-                AZTEC_MAP[avoidReferenceGrid(x)][avoidReferenceGrid(y + i)] = n;
-                AZTEC_MAP[avoidReferenceGrid(x + 1)][avoidReferenceGrid(y + i)] = n + 1;
-                i++;
-            }
-            /* Bottom */
-            i = 0;
-            x = 77 + ((layer - 1) * 2);
-            y = 78 + ((layer - 1) * 2);
-            for (n = start + (length * 2); n < (start + (length * 3)); n += 2) {
-                AZTEC_MAP[avoidReferenceGrid(x - i)][avoidReferenceGrid(y)] = n;
-                AZTEC_MAP[avoidReferenceGrid(x - i)][avoidReferenceGrid(y + 1)] = n + 1;
-                i++;
-            }
-            /* Left */
-            i = 0;
-            x = 63 - ((layer - 1) * 2);
-            y = 77 + ((layer - 1) * 2);
-            for (n = start + (length * 3); n < (start + (length * 4)); n += 2) {
-                AZTEC_MAP[avoidReferenceGrid(x)][avoidReferenceGrid(y - i)] = n;
-                AZTEC_MAP[avoidReferenceGrid(x - 1)][avoidReferenceGrid(y - i)] = n + 1;
-                i++;
-            }
-        }
-
-        /* Central finder pattern */
-        for (y = 69; y <= 81; y++) {
-            for (x = 69; x <= 81; x++) {
-                AZTEC_MAP[x][y] = 1;
-            }
-        }
-        for (y = 70; y <= 80; y++) {
-            for (x = 70; x <= 80; x++) {
-                AZTEC_MAP[x][y] = 0;
-            }
-        }
-        for (y = 71; y <= 79; y++) {
-            for (x = 71; x <= 79; x++) {
-                AZTEC_MAP[x][y] = 1;
-            }
-        }
-        for (y = 72; y <= 78; y++) {
-            for (x = 72; x <= 78; x++) {
-                AZTEC_MAP[x][y] = 0;
-            }
-        }
-        for (y = 73; y <= 77; y++) {
-            for (x = 73; x <= 77; x++) {
-                AZTEC_MAP[x][y] = 1;
-            }
-        }
-        for (y = 74; y <= 76; y++) {
-            for (x = 74; x <= 76; x++) {
-                AZTEC_MAP[x][y] = 0;
-            }
-        }
-
-        /* Guide bars */
-        for (y = 11; y < 151; y += 16) {
-            for (x = 1; x < 151; x += 2) {
-                AZTEC_MAP[x][y] = 1;
-                AZTEC_MAP[y][x] = 1;
-            }
-        }
-
-        /* Descriptor */
-        for (i = 0; i < 10; i++) { /* Top */
-            AZTEC_MAP[avoidReferenceGrid(66 + i)][avoidReferenceGrid(64)] = 20000 + i;
-        }
-        for (i = 0; i < 10; i++) { /* Right */
-            AZTEC_MAP[avoidReferenceGrid(77)][avoidReferenceGrid(66 + i)] = 20010 + i;
-        }
-        for (i = 0; i < 10; i++) { /* Bottom */
-            AZTEC_MAP[avoidReferenceGrid(75 - i)][avoidReferenceGrid(77)] = 20020 + i;
-        }
-        for (i = 0; i < 10; i++) { /* Left */
-            AZTEC_MAP[avoidReferenceGrid(64)][avoidReferenceGrid(75 - i)] = 20030 + i;
-        }
-
-        /* Orientation */
-        AZTEC_MAP[avoidReferenceGrid(64)][avoidReferenceGrid(64)] = 1;
-        AZTEC_MAP[avoidReferenceGrid(65)][avoidReferenceGrid(64)] = 1;
-        AZTEC_MAP[avoidReferenceGrid(64)][avoidReferenceGrid(65)] = 1;
-        AZTEC_MAP[avoidReferenceGrid(77)][avoidReferenceGrid(64)] = 1;
-        AZTEC_MAP[avoidReferenceGrid(77)][avoidReferenceGrid(65)] = 1;
-        AZTEC_MAP[avoidReferenceGrid(77)][avoidReferenceGrid(76)] = 1;
-    }
-
     private static int avoidReferenceGrid(int input) {
         int output = input;
         if (output > 10) {
@@ -296,12 +208,37 @@ private static int avoidReferenceGrid(int input) {
         return output;
     }
 
+    /**
+     * Returns a map which covers normal (non-compact) symbols with the specified number of layers, creating a larger
+     * map if the current map is too small.
+     *
+     * @param layers the number of layers in the symbol
+     * @return a map which covers symbols with the specified number of layers
+     */
+    private static AztecMap getAztecMap(int layers) {
+        AztecMap map = aztecMap;
+        if (map == null || map.layers < layers) {
+            synchronized (AztecMap.class) {
+                map = aztecMap;
+                if (map == null || map.layers < layers) {
+                    map = new AztecMap(layers);
+                    aztecMap = map;
+                }
+            }
+        }
+        return map;
+    }
+
     private Mode mode;
     private int preferredSize = 0;
     private int preferredEccPercentage = 23;
     private String structuredAppendMessageId;
     private int structuredAppendPosition = 1;
     private int structuredAppendTotal = 1;
+    private boolean optimalEncoding;
+
+    private final BitBuffer binary = new BitBuffer(256);   // data bits, as generated from the input data
+    private final BitBuffer adjusted = new BitBuffer(256); // data bits after bit stuffing and padding, followed by ECC bits
 
     /**
      * Creates a new instance, using mode {@link Mode#ANY}.
@@ -452,7 +389,7 @@ public int getPreferredEccPercentage() {
      * @param position the position of this Aztec Code symbol in the structured append series
      */
     public void setStructuredAppendPosition(int position) {
-        if (position < 1 || position > 26) {
+        if (position < 1 || position > MAX_STRUCTURED_APPEND_SYMBOLS) {
             throw new IllegalArgumentException("Invalid Aztec Code structured append position: " + position);
         }
         this.structuredAppendPosition = position;
@@ -477,7 +414,7 @@ public int getStructuredAppendPosition() {
      * @param total the total number of Aztec Code symbols in the structured append series
      */
     public void setStructuredAppendTotal(int total) {
-        if (total < 1 || total > 26) {
+        if (total < 1 || total > MAX_STRUCTURED_APPEND_SYMBOLS) {
             throw new IllegalArgumentException("Invalid Aztec Code structured append total: " + total);
         }
         this.structuredAppendTotal = total;
@@ -519,6 +456,28 @@ public String getStructuredAppendMessageId() {
         return structuredAppendMessageId;
     }
 
+    /**
+     * Sets whether or not to choose the modes, latches and shifts which minimize the number of bits required to
+     * encode the data, instead of using the default block-based mode selection. Optimal encoding may result in
+     * smaller symbols, but is somewhat slower and generates different bits than other encoders for the same data.
+     * By default, optimal encoding is not used.
+     *
+     * @param optimalEncoding whether or not to choose the modes which minimize the number of bits required
+     */
+    public void setOptimalEncoding(boolean optimalEncoding) {
+        this.optimalEncoding = optimalEncoding;
+    }
+
+    /**
+     * Returns whether or not this symbol chooses the modes, latches and shifts which minimize the number of bits
+     * required to encode the data, instead of using the default block-based mode selection.
+     *
+     * @return whether or not this symbol chooses the modes which minimize the number of bits required
+     */
+    public boolean getOptimalEncoding() {
+        return optimalEncoding;
+    }
+
     @Override
     public boolean supportsGs1() {
         return true;
@@ -534,7 +493,6 @@ protected void encode() {
 
         int layers;
         boolean compact;
-        StringBuilder adjustedString;
 
         eciProcess(); // Get ECI mode
 
@@ -551,8 +509,9 @@ protected void encode() {
             inputData = insertArray(inputData, 0, prefixArray);
         }
 
-        CharSequence binaryString = generateAztecBinary();
-        int dataLength = binaryString.length();
+        generateAztecBinary();
+        int dataLength = binary.length();
+        int adjustedCodewordSize = 0; // the codeword size that the adjusted bit stream was created for, if any
 
         if (preferredSize == 0) {
 
@@ -596,8 +555,14 @@ protected void encode() {
                     throw new OkapiInputException("Input too long (too many bits for selected ECC)");
                 }
 
-                adjustedString = adjustBinaryString(binaryString, compact, layers);
-                dataLength = adjustedString.length();
+                /* Bit stuffing only depends on the codeword size, so only redo it if the codeword size changes */
+                int codewordSize = getCodewordSize(layers);
+                if (codewordSize != adjustedCodewordSize) {
+                    adjustBinaryString(codewordSize);
+                    adjustedCodewordSize = codewordSize;
+                }
+                logCodewords(codewordSize);
+                dataLength = adjusted.length();
 
             } while (dataLength > dataMaxSize);
             /* This loop will only repeat on the rare occasions when the rule about not having all 1s or all 0s
@@ -620,11 +585,12 @@ protected void encode() {
                 throw new OkapiInputException("Aztec mode " + mode + " and preferred size " + preferredSize + " are incompatible");
             }
 
-            adjustedString = adjustBinaryString(binaryString, compact, layers);
+            adjustBinaryString(getCodewordSize(layers));
+            logCodewords(getCodewordSize(layers));
 
             /* Check if the data actually fits into the selected symbol size */
             int dataBitCapacity = dataBitCapacity(0, layers, compact);
-            if (adjustedString.length() > dataBitCapacity) {
+            if (adjusted.length() > dataBitCapacity) {
                 throw new OkapiInputException("Data too long for specified Aztec Code symbol size");
             }
         }
@@ -640,7 +606,7 @@ protected void encode() {
         int bitCapacity = compact ? AZTEC_COMPACT_BIT_CAPACITIES[layers - 1] : AZTEC_BIT_CAPACITIES[layers - 1];
         int codewordSize = getCodewordSize(layers);
         int totalBlocks = bitCapacity / codewordSize; // no rounding needed, always an exact multiple
-        int dataBlocks = (int) Math.ceil(adjustedString.length() / (double) codewordSize); // round up
+        int dataBlocks = adjusted.length() / codewordSize; // no rounding needed, always padded to a whole codeword
         int eccBlocks = totalBlocks - dataBlocks;
 
         infoLine("Compact Mode: ", compact);
@@ -649,85 +615,64 @@ protected void encode() {
         infoLine("Data Codewords: ", dataBlocks);
         infoLine("ECC Codewords: ", eccBlocks);
 
-        /* Add ECC data to the adjusted string */
-        addErrorCorrection(adjustedString, codewordSize, dataBlocks, eccBlocks);
-
-        /* Invert the data so that actual data is on the outside and reed-solomon on the inside */
-        for (int i = 0; i < adjustedString.length() / 2; i++) {
-            int mirror = adjustedString.length() - i - 1;
-            char c = adjustedString.charAt(i);
-            adjustedString.setCharAt(i, adjustedString.charAt(mirror));
-            adjustedString.setCharAt(mirror, c);
-        }
+        /* Add ECC data to the adjusted bit stream */
+        addErrorCorrection(codewordSize, dataBlocks, eccBlocks);
 
         /* Create the descriptor / mode message */
-        String descriptor = createDescriptor(compact, layers, dataBlocks);
+        BitBuffer descriptor = createDescriptor(compact, layers, dataBlocks);
 
-        /* Plot all of the data into the symbol in pre-defined spiral pattern */
+        /* Plot all of the data into the symbol in pre-defined spiral pattern; the data is read back to front,
+         * so that the actual data is on the outside and reed-solomon on the inside */
+        int last = adjusted.length() + 1; // map value of the first bit
         if (compact) {
 
+            int offset = AZTEC_COMPACT_OFFSET[layers - 1];
             readable = "";
-            rowCount = 27 - (2 * AZTEC_COMPACT_OFFSET[layers - 1]);
+            rowCount = 27 - (2 * offset);
             rowHeight = new int[rowCount];
             rowHeight[0] = defaultHeight;
             pattern = new String[rowCount];
-            for (int y = AZTEC_COMPACT_OFFSET[layers - 1]; y < (27 - AZTEC_COMPACT_OFFSET[layers - 1]); y++) {
-                StringBuilder bin = new StringBuilder(27);
-                for (int x = AZTEC_COMPACT_OFFSET[layers - 1]; x < (27 - AZTEC_COMPACT_OFFSET[layers - 1]); x++) {
+            boolean[] bin = new boolean[rowCount];
+            StringBuilder pat = new StringBuilder(rowCount);
+            for (int y = offset; y < (27 - offset); y++) {
+                for (int x = offset; x < (27 - offset); x++) {
                     int j = COMPACT_AZTEC_MAP[(y * 27) + x];
-                    if (j == 0) {
-                        bin.append('0');
-                    }
-                    if (j == 1) {
-                        bin.append('1');
-                    }
-                    if (j >= 2) {
-                        if (j - 2 < adjustedString.length()) {
-                            bin.append(adjustedString.charAt(j - 2));
-                        } else {
-                            if (j >= 2000) {
-                                bin.append(descriptor.charAt(j - 2000));
-                            } else {
-                                bin.append('0');
-                            }
-                        }
+                    if (j < 2) {
+                        bin[x - offset] = (j == 1);
+                    } else if (j <= last) {
+                        bin[x - offset] = adjusted.get(last - j);
+                    } else {
+                        bin[x - offset] = (j >= 2000 && descriptor.get(j - 2000));
                     }
                 }
-                rowHeight[y - AZTEC_COMPACT_OFFSET[layers - 1]] = moduleWidth;
-                pattern[y - AZTEC_COMPACT_OFFSET[layers - 1]] = bin2pat(bin);
+                rowHeight[y - offset] = moduleWidth;
+                pattern[y - offset] = bin2pat(bin, 0, rowCount, pat);
             }
 
         } else {
 
+            AztecMap map = getAztecMap(layers);
+            int offset = AZTEC_OFFSET[layers - 1];
             readable = "";
-            rowCount = 151 - (2 * AZTEC_OFFSET[layers - 1]);
+            rowCount = 151 - (2 * offset);
             rowHeight = new int[rowCount];
             rowHeight[0] = defaultHeight;
             pattern = new String[rowCount];
-            for (int y = AZTEC_OFFSET[layers - 1]; y < (151 - AZTEC_OFFSET[layers - 1]); y++) {
-                StringBuilder bin = new StringBuilder(151);
-                for (int x = AZTEC_OFFSET[layers - 1]; x < (151 - AZTEC_OFFSET[layers - 1]); x++) {
-                    int j = AZTEC_MAP[x][y];
-                    if (j == 1) {
-                        bin.append('1');
-                    }
-                    if (j == 0) {
-                        bin.append('0');
-                    }
-                    if (j >= 2) {
-                        if (j - 2 < adjustedString.length()) {
-                            bin.append(adjustedString.charAt(j - 2));
-                        } else {
-                            if (j >= 20000) {
-                                bin.append(descriptor.charAt(j - 20000));
-                            } else {
-                                bin.append('0');
-                            }
-                        }
+            boolean[] bin = new boolean[rowCount];
+            StringBuilder pat = new StringBuilder(rowCount);
+            for (int y = offset; y < (151 - offset); y++) {
+                for (int x = offset; x < (151 - offset); x++) {
+                    int j = map.get(x - offset, y - offset, layers);
+                    if (j < 2) {
+                        bin[x - offset] = (j == 1);
+                    } else if (j <= last) {
+                        bin[x - offset] = adjusted.get(last - j);
+                    } else {
+                        bin[x - offset] = (j >= 20000 && descriptor.get(j - 20000));
                     }
                 }
-                rowHeight[y - AZTEC_OFFSET[layers - 1]] = moduleWidth;
-                pattern[y - AZTEC_OFFSET[layers - 1]] = bin2pat(bin);
+                rowHeight[y - offset] = moduleWidth;
+                pattern[y - offset] = bin2pat(bin, 0, rowCount, pat);
             }
         }
     }
@@ -741,7 +686,12 @@ protected int dataBitCapacity(int preferredEccPercentage, int layers, boolean co
         return totalBitCapacity - requiredEccBits - preferredEccBits;
     }
 
-    private CharSequence generateAztecBinary() {
+    private void generateAztecBinary() {
+
+        if (optimalEncoding) {
+            generateOptimalAztecBinary();
+            return;
+        }
 
         /* Encode input data into a binary string */
         int i, j, k, bytes;
@@ -1027,19 +977,10 @@ private CharSequence generateAztecBinary() {
             }
         }
 
-        StringBuilder binaryString = new StringBuilder();
-        info("Encoding: ");
+        startAztecBinary();
         curtable = 1; /* start with 1 table */
         lasttable = 1;
 
-        /* Optional structured append start flag (Section 8 of spec) */
-        if (structuredAppendTotal != 1) {
-            binaryString.append(PENTBIT[29]);
-            info("ML ");
-            binaryString.append(PENTBIT[29]);
-            info("UL ");
-        }
-
         for (i = 0; i < maplength; i++) {
             newtable = curtable;
             if ((typemap[i] != curtable) && (charmap[i] < 400)) {
@@ -1057,24 +998,24 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 2:
                                     /* US */
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("US ");
                                     break;
                                 case 4:
                                     /* UL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("UL ");
                                     newtable = 1;
                                     break;
                                 case 8:
                                     /* UL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
                                     newtable = 1;
                                     break;
                                 case 16:
                                     /* US */
-                                    binaryString.append(QUADBIT[15]);
+                                    binary.append(15, 4);
                                     info("US ");
                                     break;
                             }
@@ -1084,29 +1025,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* LL */
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 4:
                                     /* LL */
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 8:
                                     /* UL LL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 16:
                                     /* UL LL */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
@@ -1117,29 +1058,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* ML */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 2:
                                     /* ML */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 8:
                                     /* UL ML */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 16:
                                     /* UL ML */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
@@ -1150,22 +1091,22 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* PS */
-                                    binaryString.append(PENTBIT[0]);
+                                    binary.append(0, 5);
                                     info("PS ");
                                     break;
                                 case 2:
                                     /* PS */
-                                    binaryString.append(PENTBIT[0]);
+                                    binary.append(0, 5);
                                     info("PS ");
                                     break;
                                 case 4:
                                     /* PS */
-                                    binaryString.append(PENTBIT[0]);
+                                    binary.append(0, 5);
                                     info("PS ");
                                     break;
                                 case 16:
                                     /* PS */
-                                    binaryString.append(QUADBIT[0]);
+                                    binary.append(0, 4);
                                     info("PS ");
                                     break;
                             }
@@ -1175,29 +1116,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* DL */
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 2:
                                     /* DL */
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 4:
                                     /* UL DL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 8:
                                     /* UL DL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
@@ -1212,27 +1153,27 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 2:
                                     /* ML UL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("UL ");
                                     newtable = 1;
                                     break;
                                 case 4:
                                     /* UL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("UL ");
                                     newtable = 1;
                                     break;
                                 case 8:
                                     /* UL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
                                     newtable = 1;
                                     break;
                                 case 16:
                                     /* UL */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
                                     newtable = 1;
                                     break;
@@ -1243,29 +1184,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* LL */
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 4:
                                     /* LL */
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 8:
                                     /* UL LL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
                                 case 16:
                                     /* UL LL */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[28]);
+                                    binary.append(28, 5);
                                     info("LL ");
                                     newtable = 2;
                                     break;
@@ -1276,29 +1217,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* ML */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 2:
                                     /* ML */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 8:
                                     /* UL ML */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
                                 case 16:
                                     /* UL ML */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
                                     newtable = 4;
                                     break;
@@ -1309,33 +1250,33 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* ML PL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("PL ");
                                     newtable = 8;
                                     break;
                                 case 2:
                                     /* ML PL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("PL ");
                                     newtable = 8;
                                     break;
                                 case 4:
                                     /* PL */
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("PL ");
                                     newtable = 8;
                                     break;
                                 case 16:
                                     /* UL ML PL */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("ML ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("PL ");
                                     newtable = 8;
                                     break;
@@ -1346,29 +1287,29 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* DL */
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 2:
                                     /* DL */
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 4:
                                     /* UL DL */
-                                    binaryString.append(PENTBIT[29]);
+                                    binary.append(29, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
                                 case 8:
                                     /* UL DL */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[30]);
+                                    binary.append(30, 5);
                                     info("DL ");
                                     newtable = 16;
                                     break;
@@ -1380,36 +1321,36 @@ private CharSequence generateAztecBinary() {
                             switch (curtable) {
                                 case 1:
                                     /* BS */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("BS ");
                                     newtable = 32;
                                     break;
                                 case 2:
                                     /* BS */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("BS ");
                                     newtable = 32;
                                     break;
                                 case 4:
                                     /* BS */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("BS ");
                                     newtable = 32;
                                     break;
                                 case 8:
                                     /* UL BS */
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("BS ");
                                     lasttable = 1;
                                     newtable = 32;
                                     break;
                                 case 16:
                                     /* UL BS */
-                                    binaryString.append(QUADBIT[14]);
+                                    binary.append(14, 4);
                                     info("UL ");
-                                    binaryString.append(PENTBIT[31]);
+                                    binary.append(31, 5);
                                     info("BS ");
                                     lasttable = 1;
                                     newtable = 32;
@@ -1427,23 +1368,11 @@ private CharSequence generateAztecBinary() {
 
                             if (bytes > 31) {
                                 /* Put 00000 followed by 11-bit number of bytes less 31 */
-                                binaryString.append("00000");
-                                for (int weight = 0x400; weight > 0; weight = weight >> 1) {
-                                    if (((bytes - 31) & weight) != 0) {
-                                        binaryString.append('1');
-                                    } else {
-                                        binaryString.append('0');
-                                    }
-                                }
+                                binary.append(0, 5);
+                                binary.append(bytes - 31, 11);
                             } else {
                                 /* Put 5-bit number of bytes */
-                                for (int weight = 0x10; weight > 0; weight = weight >> 1) {
-                                    if ((bytes & weight) != 0) {
-                                        binaryString.append('1');
-                                    } else {
-                                        binaryString.append('0');
-                                    }
-                                }
+                                binary.append(bytes, 5);
                             }
 
                             break;
@@ -1463,291 +1392,453 @@ private CharSequence generateAztecBinary() {
                 case 8:
                     if (charmap[i] >= 400) {
                         info("FLG(" + (charmap[i] - 400) + ") ");
-                        binaryString.append(TRIBIT[charmap[i] - 400]);
+                        binary.append(charmap[i] - 400, 3);
                         if (charmap[i] != 400) {
                             /* ECI */
-                            binaryString.append(eciToBinary());
+                            appendEci();
                         }
                     } else {
-                        binaryString.append(PENTBIT[charmap[i]]);
+                        binary.append(charmap[i], 5);
                         infoSpace(charmap[i]);
                     }
                     break;
                 case 16:
-                    binaryString.append(QUADBIT[charmap[i]]);
+                    binary.append(charmap[i], 4);
                     infoSpace(charmap[i]);
                     break;
                 case 32:
-                    for (int weight = 0x80; weight > 0; weight = weight >> 1) {
-                        if ((charmap[i] & weight) != 0) {
-                            binaryString.append('1');
-                        } else {
-                            binaryString.append('0');
-                        }
-                    }
+                    binary.append(charmap[i], 8);
                     infoSpace(charmap[i]);
                     break;
             }
         }
 
         infoLine();
+    }
+
+    /** Starts the binary string, which always starts in the upper mode */
+    private void startAztecBinary() {
 
-        return binaryString;
+        binary.clear();
+        info("Encoding: ");
+
+        /* Optional structured append start flag (Section 8 of spec) */
+        if (structuredAppendTotal != 1) {
+            binary.append(29, 5);
+            info("ML ");
+            binary.append(29, 5);
+            info("UL ");
+        }
     }
 
-    /** Adjusts bit stream so that no codewords are all 0s or all 1s, per Section 7.3.1.2 */
-    private StringBuilder adjustBinaryString(CharSequence binaryString, boolean compact, int layers) {
+    /**
+     * Encodes the input data using the sequence of latches, shifts and binary shifts which minimizes the total
+     * number of bits required. This is a shortest path search over a graph whose nodes are the data positions
+     * combined with the five latch modes (upper, lower, mixed, punctuation and digit). Edges represent latches at
+     * the same data position, data characters encoded in the current mode or in a shifted mode, two character
+     * punctuation pairs, and binary shift segments of any allowed length. Binary shift segments are found using
+     * sliding window minimums over the candidate segment start positions, so the search is linear in the length
+     * of the input data. Bit stuffing is not taken into account.
+     */
+    private void generateOptimalAztecBinary() {
+
+        /* Assemble the data to encode: FNC1 and ECI flags, followed by the message data */
+        int[] data = inputData;
+        int prefix = (inputDataType == DataType.GS1 ? 1 : 0) + (eciMode != 3 ? 1 : 0);
+        if (prefix != 0) {
+            data = new int[inputData.length + prefix];
+            int p = 0;
+            if (inputDataType == DataType.GS1) {
+                data[p++] = FNC1;
+            }
+            if (eciMode != 3) {
+                data[p++] = ECI_FLAG;
+            }
+            System.arraycopy(inputData, 0, data, p, inputData.length);
+        }
+
+        int len = data.length;
+        int modes = MODE_NAMES.length;
+        int[] cost = new int[(len + 1) * modes];
+        int[] prev = new int[(len + 1) * modes]; // the previous node on the cheapest path to each node
+        int[] via = new int[(len + 1) * modes];  // the mode used to encode the data leading to each node, or BINARY
+        Arrays.fill(cost, INFINITY);
+        cost[UPPER] = 0;
+        prev[UPPER] = -1;
+
+        int eciBits = 4 * Integer.toString(eciMode).length();
+        int[][] shortSegments = new int[modes][len + 1]; // candidate start positions for binary segments of 1 - 31 bytes
+        int[][] longSegments = new int[modes][len + 1];  // candidate start positions for binary segments of 32 - 2078 bytes
+        int[] shortHead = new int[modes], shortTail = new int[modes];
+        int[] longHead = new int[modes], longTail = new int[modes];
+        int runStart = 0; // the start of the current run of data which can be encoded in binary
+
+        for (int p = 0; p <= len; p++) {
+
+            /* Binary shift segments which end here (only available from the upper, lower and mixed modes) */
+            if (p > 0) {
+                if (data[p - 1] < 0) {
+                    runStart = p;
+                    Arrays.fill(shortHead, 0);
+                    Arrays.fill(shortTail, 0);
+                    Arrays.fill(longHead, 0);
+                    Arrays.fill(longTail, 0);
+                } else {
+                    for (int m = UPPER; m <= MIXED; m++) {
+                        int[] segments = shortSegments[m];
+                        shortTail[m] = addSegmentStart(segments, shortHead[m], shortTail[m], p - 1, m, cost);
+                        while (shortHead[m] < shortTail[m] && segments[shortHead[m]] < p - 31) {
+                            shortHead[m]++;
+                        }
+                        if (shortHead[m] < shortTail[m]) {
+                            int start = segments[shortHead[m]];
+                            relax(cost, prev, via, start * modes + m, p * modes + m, BINARY, 10 + (8 * (p - start)));
+                        }
+                        segments = longSegments[m];
+                        if (p - 32 >= runStart) {
+                            longTail[m] = addSegmentStart(segments, longHead[m], longTail[m], p - 32, m, cost);
+                        }
+                        while (longHead[m] < longTail[m] && segments[longHead[m]] < p - 2078) {
+                            longHead[m]++;
+                        }
+                        if (longHead[m] < longTail[m]) {
+                            int start = segments[longHead[m]];
+                            relax(cost, prev, via, start * modes + m, p * modes + m, BINARY, 21 + (8 * (p - start)));
+                        }
+                    }
+                }
+            }
 
-        int codewordSize = getCodewordSize(layers);
-        int startCapacity = binaryString.length() + (2 * codewordSize);
-        StringBuilder adjustedString = new StringBuilder(startCapacity);
-        int ones = 0;
+            /* Latches, possibly via intermediate modes (e.g. lower to upper via digit) */
+            for (boolean changed = true; changed; ) {
+                changed = false;
+                for (int from = 0; from < modes; from++) {
+                    for (int to = 0; to < modes; to++) {
+                        int latch = LATCH[from][to];
+                        if (latch >= 0) {
+                            changed |= relax(cost, prev, via, p * modes + from, p * modes + to, to, modeBits(from));
+                        }
+                    }
+                }
+            }
 
-        /* Insert dummy digits needed to prevent codewords of all 0s or all 1s */
-        for (int i = 0; i < binaryString.length(); i++) {
-            if ((adjustedString.length() + 1) % codewordSize == 0) {
-                if (ones == codewordSize - 1) {
-                    // codeword of B-1 1s, add dummy 0
-                    adjustedString.append('0');
-                    i--;
-                } else if (ones == 0) {
-                    // codeword of B-1 0s, add dummy 1
-                    adjustedString.append('1');
-                    i--;
+            if (p == len) {
+                break;
+            }
+
+            /* Data characters, encoded in the current mode or via a shift */
+            int c = data[p];
+            int pair = (p + 1 < len ? pairCode(c, data[p + 1]) : -1);
+            for (int m = 0; m < modes; m++) {
+                int node = p * modes + m;
+                if (cost[node] >= INFINITY) {
+                    continue;
+                }
+                for (int s = 0; s < modes; s++) {
+                    if (s != m && SHIFT[m][s] < 0) {
+                        continue;
+                    }
+                    int shift = (s != m ? modeBits(m) : 0);
+                    int bits;
+                    if (c == FNC1) {
+                        bits = (s == PUNCT ? 5 + 3 : INFINITY);
+                    } else if (c == ECI_FLAG) {
+                        bits = (s == PUNCT ? 5 + 3 + eciBits : INFINITY);
+                    } else {
+                        bits = (charCode(c, s) >= 0 ? modeBits(s) : INFINITY);
+                    }
+                    if (bits < INFINITY) {
+                        relax(cost, prev, via, node, node + modes, s, shift + bits);
+                    }
+                    if (pair >= 0 && s == PUNCT) {
+                        relax(cost, prev, via, node, node + (2 * modes), s, shift + 5);
+                    }
+                }
+            }
+        }
+
+        /* Find the cheapest path and then walk it, writing the bits as we go */
+        int end = len * modes;
+        for (int m = 1; m < modes; m++) {
+            if (cost[len * modes + m] < cost[end]) {
+                end = len * modes + m;
+            }
+        }
+        if (cost[end] >= INFINITY) {
+            throw new OkapiInternalException("Unable to find an Aztec Code encoding for the input data");
+        }
+
+        int steps = 0;
+        int[] path = new int[(len + 1) * modes];
+        for (int node = end; node != -1; node = prev[node]) {
+            path[steps++] = node;
+        }
+
+        startAztecBinary();
+
+        for (int i = steps - 2; i >= 0; i--) {
+            int from = path[i + 1], to = path[i];
+            int p = from / modes, m = from % modes;
+            int next = to / modes, s = via[to];
+            if (p == next) {
+                /* Latch */
+                binary.append(LATCH[m][s], modeBits(m));
+                info(MODE_NAMES[s] + "L ");
+            } else if (s == BINARY) {
+                binary.append(31, 5);
+                info("BS ");
+                int bytes = next - p;
+                if (bytes > 31) {
+                    /* Put 00000 followed by 11-bit number of bytes less 31 */
+                    binary.append(0, 5);
+                    binary.append(bytes - 31, 11);
                 } else {
-                    // no dummy value needed
-                    adjustedString.append(binaryString.charAt(i));
+                    /* Put 5-bit number of bytes */
+                    binary.append(bytes, 5);
+                }
+                for (int j = p; j < next; j++) {
+                    binary.append(data[j], 8);
+                    infoSpace(data[j]);
                 }
-                ones = 0;
             } else {
-                adjustedString.append(binaryString.charAt(i));
-                if (binaryString.charAt(i) == '1') {
-                    ones++;
+                if (s != m) {
+                    /* Shift */
+                    binary.append(SHIFT[m][s], modeBits(m));
+                    info(MODE_NAMES[s] + "S ");
                 }
+                int c = data[p];
+                if (next - p == 2) {
+                    int code = pairCode(c, data[p + 1]);
+                    binary.append(code, 5);
+                    infoSpace(code);
+                } else if (c == FNC1 || c == ECI_FLAG) {
+                    int flag = (c == FNC1 ? 0 : Integer.toString(eciMode).length());
+                    binary.append(0, 5);
+                    infoSpace(0);
+                    info("FLG(" + flag + ") ");
+                    binary.append(flag, 3);
+                    if (c == ECI_FLAG) {
+                        appendEci();
+                    }
+                } else {
+                    int code = charCode(c, s);
+                    binary.append(code, modeBits(s));
+                    infoSpace(code);
+                }
+            }
+        }
+
+        infoLine();
+    }
+
+    /** Adds a candidate binary segment start position to the back of the specified monotonic queue, returning the new queue tail. */
+    private static int addSegmentStart(int[] queue, int head, int tail, int start, int mode, int[] cost) {
+        int c = cost[start * MODE_NAMES.length + mode];
+        if (c < INFINITY) {
+            while (tail > head && segmentValue(queue[tail - 1], mode, cost) >= c - (8 * start)) {
+                tail--;
             }
+            queue[tail++] = start;
         }
+        return tail;
+    }
 
-        /* Add padding */
-        int adjustedLength = adjustedString.length();
-        int remainder = adjustedLength % codewordSize;
-        int padBits = codewordSize - remainder;
-        if (padBits == codewordSize) {
-            padBits = 0;
+    /** The value which binary segment start positions are ranked by: the cost to reach the start, adjusted for the bytes skipped. */
+    private static int segmentValue(int start, int mode, int[] cost) {
+        return cost[start * MODE_NAMES.length + mode] - (8 * start);
+    }
+
+    /** Updates the cost of reaching the specified node, if the specified edge provides a cheaper path. */
+    private static boolean relax(int[] cost, int[] prev, int[] via, int from, int to, int mode, int bits) {
+        int c = cost[from] + bits;
+        if (c < cost[to]) {
+            cost[to] = c;
+            prev[to] = from;
+            via[to] = mode;
+            return true;
+        } else {
+            return false;
         }
-        for (int i = 0; i < padBits; i++) {
-            adjustedString.append('1');
+    }
+
+    /** Returns the number of bits used by each code in the specified mode. */
+    private static int modeBits(int mode) {
+        return mode == DIGIT ? 4 : 5;
+    }
+
+    /** Returns the code for the specified character in the specified mode, or <code>-1</code> if the mode cannot encode the character. */
+    private static int charCode(int c, int mode) {
+        if (c < 0 || c >= AZTEC_CODE_SET.length || (AZTEC_CODE_SET[c] & (1 << mode)) == 0) {
+            return -1;
+        }
+        switch (AZTEC_SYMBOL_CHAR[c]) {
+            case 300:
+                return mode == PUNCT ? 1 : 14; // Carriage Return
+            case 301:
+                return mode == PUNCT ? 17 : 12; // Comma
+            case 302:
+                return mode == PUNCT ? 19 : 13; // Full Stop
+            default:
+                return AZTEC_SYMBOL_CHAR[c];
         }
-        adjustedLength = adjustedString.length();
+    }
 
-        /* Make sure padding didn't create an invalid (all 1s) codeword */
-        ones = 0;
-        for (int i = adjustedLength - codewordSize; i < adjustedLength && i >= 0; i++) {
-            if (adjustedString.charAt(i) == '1') {
-                ones++;
+    /** Returns the punctuation mode code for the specified pair of characters, or <code>-1</code> if there is no such code. */
+    private static int pairCode(int c1, int c2) {
+        if (c1 == '\r' && c2 == '\n') {
+            return 2;
+        } else if (c2 == ' ') {
+            switch (c1) {
+                case '.':
+                    return 3;
+                case ',':
+                    return 4;
+                case ':':
+                    return 5;
+                default:
+                    return -1;
             }
+        } else {
+            return -1;
         }
-        if (ones == codewordSize) {
-            adjustedString.setCharAt(adjustedLength - 1, '0');
+    }
+
+    /** Adjusts bit stream so that no codewords are all 0s or all 1s, per Section 7.3.1.2 */
+    private void adjustBinaryString(int codewordSize) {
+
+        int length = binary.length();
+        int n = codewordSize - 1;
+        int ones = (1 << n) - 1;
+        int i = 0;
+
+        adjusted.clear();
+
+        /* Insert dummy digits needed to prevent codewords of all 0s or all 1s */
+        while (i + n <= length) {
+            int value = binary.get(i, n);
+            if (value == ones) {
+                // codeword of B-1 1s, add dummy 0
+                adjusted.append(value << 1, codewordSize);
+                i += n;
+            } else if (value == 0) {
+                // codeword of B-1 0s, add dummy 1
+                adjusted.append(1, codewordSize);
+                i += n;
+            } else if (i + n < length) {
+                // no dummy value needed
+                adjusted.append((value << 1) | binary.get(i + n, 1), codewordSize);
+                i += codewordSize;
+            } else {
+                break;
+            }
+        }
+        if (i < length) {
+            adjusted.append(binary.get(i, length - i), length - i);
         }
 
-        /* Log the codewords */
-        info("Codewords: ");
-        for (int i = 0; i < (adjustedLength / codewordSize); i++) {
-            int l = 0, m = (1 << (codewordSize - 1));
-            for (int j = 0; j < codewordSize; j++) {
-                if (adjustedString.charAt((i * codewordSize) + j) == '1') {
-                    l += m;
-                }
-                m = m >> 1;
+        /* Add padding, making sure that it doesn't create an invalid (all 1s) codeword */
+        int remainder = adjusted.length() % codewordSize;
+        if (remainder != 0) {
+            int padBits = codewordSize - remainder;
+            int pad = (1 << padBits) - 1;
+            if (adjusted.get(adjusted.length() - remainder, remainder) == (1 << remainder) - 1) {
+                pad--;
             }
-            infoSpace(l);
+            adjusted.append(pad, padBits);
         }
-        infoLine();
+    }
 
-        /* Return the adjusted bit string */
-        return adjustedString;
+    /** Logs the codewords in the adjusted bit stream */
+    private void logCodewords(int codewordSize) {
+        info("Codewords: ");
+        for (int i = 0; i < (adjusted.length() / codewordSize); i++) {
+            infoSpace(adjusted.get(i * codewordSize, codewordSize));
+        }
+        infoLine();
     }
 
-    private CharSequence eciToBinary() {
+    private void appendEci() {
         String eciNumber = Integer.toString(eciMode);
-        StringBuilder binary = new StringBuilder(4 * eciNumber.length());
         for (int i = 0; i < eciNumber.length(); i++) {
-            binary.append(QUADBIT[(eciNumber.charAt(i) - '0') + 2]);
+            binary.append((eciNumber.charAt(i) - '0') + 2, 4);
             infoSpace(eciNumber.charAt(i));
         }
-        return binary;
     }
 
     /** Creates the descriptor / mode message, per Section 7.2 */
-    private String createDescriptor(boolean compact, int layers, int dataBlocks) {
+    private BitBuffer createDescriptor(boolean compact, int layers, int dataBlocks) {
 
-        StringBuilder descriptor = new StringBuilder();
+        BitBuffer descriptor = new BitBuffer(40);
         int descDataSize;
 
         if (compact) {
             /* The first 2 bits represent the number of layers minus 1 */
-            if (((layers - 1) & 0x02) != 0) {
-                descriptor.append('1');
-            } else {
-                descriptor.append('0');
-            }
-            if (((layers - 1) & 0x01) != 0) {
-                descriptor.append('1');
-            } else {
-                descriptor.append('0');
-            }
+            descriptor.append(layers - 1, 2);
             /* The next 6 bits represent the number of data blocks minus 1 */
-            if (readerInit) {
-                descriptor.append('1');
-            } else {
-                if (((dataBlocks - 1) & 0x20) != 0) {
-                    descriptor.append('1');
-                } else {
-                    descriptor.append('0');
-                }
-            }
-            for (int i = 0x10; i > 0; i = i >> 1) {
-                if (((dataBlocks - 1) & i) != 0) {
-                    descriptor.append('1');
-                } else {
-                    descriptor.append('0');
-                }
-            }
+            descriptor.append(readerInit ? 1 : (dataBlocks - 1) >> 5, 1);
+            descriptor.append(dataBlocks - 1, 5);
             descDataSize = 2;
         } else {
             /* The first 5 bits represent the number of layers minus 1 */
-            for (int i = 0x10; i > 0; i = i >> 1) {
-                if (((layers - 1) & i) != 0) {
-                    descriptor.append('1');
-                } else {
-                    descriptor.append('0');
-                }
-            }
-
+            descriptor.append(layers - 1, 5);
             /* The next 11 bits represent the number of data blocks minus 1 */
-            if (readerInit) {
-                descriptor.append('1');
-            } else {
-                if (((dataBlocks - 1) & 0x400) != 0) {
-                    descriptor.append('1');
-                } else {
-                    descriptor.append('0');
-                }
-            }
-            for (int i = 0x200; i > 0; i = i >> 1) {
-                if (((dataBlocks - 1) & i) != 0) {
-                    descriptor.append('1');
-                } else {
-                    descriptor.append('0');
-                }
-            }
+            descriptor.append(readerInit ? 1 : (dataBlocks - 1) >> 10, 1);
+            descriptor.append(dataBlocks - 1, 10);
             descDataSize = 4;
         }
 
-        infoLine("Mode Message: ", descriptor);
+        infoLine("Mode Message: ", descriptor.toString());
 
         /* Split into 4-bit codewords */
         int[] desc_data = new int[descDataSize];
         for (int i = 0; i < descDataSize; i++) {
-            for (int weight = 0; weight < 4; weight++) {
-                if (descriptor.charAt((i * 4) + weight) == '1') {
-                    desc_data[i] += (8 >> weight);
-                }
-            }
+            desc_data[i] = descriptor.get(i * 4, 4);
         }
 
         /* Add Reed-Solomon error correction with Galois Field GF(16) and prime modulus x^4 + x + 1 (Section 7.2.3) */
-        if (compact) {
-            ReedSolomon rs = ReedSolomon.get(0x13, 5, 1, true);
-            int[] result = rs.encode(2, desc_data);
-            int[] desc_ecc = new int[6];
-            for (int i = 0; i < 5; i++) {
-                desc_ecc[i] = result[i];
-            }
-            for (int i = 0; i < 5; i++) {
-                for (int weight = 0x08; weight > 0; weight = weight >> 1) {
-                    if ((desc_ecc[4 - i] & weight) != 0) {
-                        descriptor.append('1');
-                    } else {
-                        descriptor.append('0');
-                    }
-                }
-            }
-        } else {
-            ReedSolomon rs = ReedSolomon.get(0x13, 6, 1, true);
-            int[] result = rs.encode(4, desc_data);
-            int[] desc_ecc = new int[6];
-            for (int i = 0; i < 6; i++) {
-                desc_ecc[i] = result[i];
-            }
-            for (int i = 0; i < 6; i++) {
-                for (int weight = 0x08; weight > 0; weight = weight >> 1) {
-                    if ((desc_ecc[5 - i] & weight) != 0) {
-                        descriptor.append('1');
-                    } else {
-                        descriptor.append('0');
-                    }
-                }
-            }
+        int descEccSize = (compact ? 5 : 6);
+        ReedSolomon rs = ReedSolomon.get(0x13, descEccSize, 1, true);
+        int[] result = rs.encode(descDataSize, desc_data);
+        for (int i = descEccSize - 1; i >= 0; i--) {
+            descriptor.append(result[i], 4);
         }
 
-        return descriptor.toString();
+        return descriptor;
     }
 
-    /** Adds error correction data to the specified binary string, which already contains the primary data */
-    private void addErrorCorrection(StringBuilder adjustedString, int codewordSize, int dataBlocks, int eccBlocks) {
+    /** Adds error correction data to the adjusted bit stream, which already contains the primary data */
+    private void addErrorCorrection(int codewordSize, int dataBlocks, int eccBlocks) {
 
-        int x, poly, startWeight;
+        int poly;
 
         /* Split into codewords and calculate Reed-Solomon error correction codes */
         switch (codewordSize) {
             case 6:
-                x = 32;
                 poly = 0x43;
-                startWeight = 0x20;
                 break;
             case 8:
-                x = 128;
                 poly = 0x12d;
-                startWeight = 0x80;
                 break;
             case 10:
-                x = 512;
                 poly = 0x409;
-                startWeight = 0x200;
                 break;
             case 12:
-                x = 2048;
                 poly = 0x1069;
-                startWeight = 0x800;
                 break;
             default:
                 throw new OkapiInternalException("Unrecognized codeword size: " + codewordSize);
         }
 
-        int[] data = new int[dataBlocks + 3];
-        int[] ecc = new int[eccBlocks + 3];
-
+        int[] data = new int[dataBlocks];
         for (int i = 0; i < dataBlocks; i++) {
-            for (int weight = 0; weight < codewordSize; weight++) {
-                if (adjustedString.charAt((i * codewordSize) + weight) == '1') {
-                    data[i] += (x >> weight);
-                }
-            }
+            data[i] = adjusted.get(i * codewordSize, codewordSize);
         }
 
         ReedSolomon rs = ReedSolomon.get(poly, eccBlocks, 1, false);
-        int[] result = rs.encode(dataBlocks, data);
-        System.arraycopy(result, 0, ecc, 0, eccBlocks);
+        int[] ecc = rs.encode(dataBlocks, data);
 
         for (int i = (eccBlocks - 1); i >= 0; i--) {
-            for (int weight = startWeight; weight > 0; weight = weight >> 1) {
-                if ((ecc[i] & weight) != 0) {
-                    adjustedString.append('1');
-                } else {
-                    adjustedString.append('0');
-                }
-            }
+            adjusted.append(ecc[i], codewordSize);
         }
     }
 
@@ -1763,4 +1854,348 @@ protected static int getCodewordSize(int layers) {
             return 6;
         }
     }
+
+    /**
+     * Creates a list of Aztec Code symbols for structured append from a string, using a template symbol.
+     * The template's settings (including the structured append message ID) are cloned for each symbol created.
+     *
+     * @param data the input data
+     * @param template the template Aztec Code symbol
+     * @return a list of Aztec Code symbols with structured append set
+     * @throws OkapiException if no data or data is invalid
+     */
+    public static List< AztecCode > createStructuredAppendSymbols(String data, AztecCode template) {
+        return createStructuredAppendSymbols(data, template, null);
+    }
+
+    /**
+     * Creates a list of Aztec Code symbols for structured append from a string, using a template symbol.
+     * The template's settings (including the structured append message ID) are cloned for each symbol created.
+     * Once the data has been split, the symbols are encoded in parallel using the specified executor (for
+     * example, {@link java.util.concurrent.ForkJoinPool#commonPool()}).
+     *
+     * @param data the input data
+     * @param template the template Aztec Code symbol
+     * @param executor the executor to use to encode the symbols, or <code>null</code> to encode them on the calling thread
+     * @return a list of Aztec Code symbols with structured append set, in segment order
+     * @throws OkapiException if no data or data is invalid
+     */
+    public static List< AztecCode > createStructuredAppendSymbols(String data, AztecCode template, Executor executor) {
+        List< String > split = splitData(data, template);
+        int count = split.size();
+        return createSymbols(count, i -> {
+            AztecCode symbol = new AztecCode();
+            clone(template, symbol);
+            symbol.setStructuredAppendPosition(i + 1);
+            symbol.setStructuredAppendTotal(count);
+            symbol.setContent(split.get(i));
+            return symbol;
+        }, executor);
+    }
+
+    /**
+     * Splits the specified data for structured append. The structured append position and total are encoded at the
+     * start of each symbol, and bit stuffing depends on the actual bits encoded, so each segment is checked using its
+     * real position and total; a segment which passes this check is therefore guaranteed to fit. The total is not
+     * known until the data has been split, so if the number of segments differs from the total assumed, the data is
+     * split again using the new total (this is rarely necessary more than once).
+     */
+    private static List< String > splitData(String data, AztecCode template) {
+
+        AztecCode testSymbol = new AztecCode() {
+            @Override protected void plotSymbol() {} // expensive plotting is not required
+        };
+        clone(template, testSymbol);
+        BitCostModel model = new BitCostModel(template);
+
+        boolean[] tried = new boolean[MAX_STRUCTURED_APPEND_SYMBOLS + 1];
+        int total = 2;
+        while (true) {
+            tried[total] = true;
+            List< String > split = splitData(data, testSymbol, model, total);
+            int count = split.size();
+            if (count == total || count == 0) {
+                return split;
+            }
+            if (tried[count]) {
+                throw new OkapiInputException("Unable to split the data into a consistent number of structured append symbols");
+            }
+            total = count;
+        }
+    }
+
+    private static List< String > splitData(String data, AztecCode testSymbol, BitCostModel model, int total) {
+
+        testSymbol.setStructuredAppendTotal(total);
+
+        List< String > split = new ArrayList<>();
+        int length = data.length();
+        int start = 0;
+
+        while (start < length) {
+            if (split.size() == MAX_STRUCTURED_APPEND_SYMBOLS) {
+                throw new OkapiInputException("The specified template is too small to hold both data and structured append metadata");
+            }
+            testSymbol.setStructuredAppendPosition(split.size() + 1);
+            int end = splitNext(data, start, testSymbol, (s, symbol, last) -> fits(s, symbol), model);
+            split.add(data.substring(start, end));
+            start = end;
+        }
+
+        return split;
+    }
+
+    private static boolean fits(String data, AztecCode testSymbol) {
+        if (!data.isEmpty()) {
+            testSymbol.eciMode = -1; // each check needs to auto-detect the ECI mode afresh
+            try {
+                testSymbol.setContent(data);
+            } catch (OkapiInputException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void clone(AztecCode template, AztecCode target) {
+        target.setFontName(template.getFontName());
+        target.setFontSize(template.getFontSize());
+        target.setDataType(template.getDataType());
+        target.setEmptyContentAllowed(template.getEmptyContentAllowed());
+        target.setHumanReadableAlignment(template.getHumanReadableAlignment());
+        target.setHumanReadableLocation(template.getHumanReadableLocation());
+        target.setModuleWidth(template.getModuleWidth());
+        target.setQuietZoneHorizontal(template.getQuietZoneHorizontal());
+        target.setQuietZoneVertical(template.getQuietZoneVertical());
+        target.setReaderInit(template.getReaderInit());
+        target.setBarHeight(template.getBarHeight());
+        target.setMode(template.getMode());
+        target.setPreferredEccPercentage(template.getPreferredEccPercentage());
+        if (template.getPreferredSize() != 0) {
+            target.setPreferredSize(template.getPreferredSize());
+        }
+        target.setStructuredAppendMessageId(template.getStructuredAppendMessageId());
+        target.setOptimalEncoding(template.getOptimalEncoding());
+    }
+
+    /**
+     * Estimates the number of bits needed to encode a structured append segment. The cheapest segmentation into
+     * the upper, lower, mixed, digit and binary code sets is tracked incrementally, one character at a time, with
+     * punctuation shifted in from any of the text code sets. Latches are assumed to be direct, and bit stuffing
+     * is ignored, so this estimate is usually slightly optimistic.
+     */
+    private static final class BitCostModel implements CostModel {
+
+        /** Upper, lower, mixed and digit code set flags, as used in {@link AztecCode#AZTEC_CODE_SET}. */
+        private static final int[] TEXT_SETS = { 1, 2, 4, 16 };
+
+        private final int baseOverhead;
+        private final int capacity;
+        private final int[] text = new int[TEXT_SETS.length]; // cheapest cost so far, ending in each text code set
+
+        private int overhead;
+        private int binary; // cheapest cost so far, ending in binary mode
+
+        private BitCostModel(AztecCode template) {
+
+            int bits = 10; // structured append ML + UL start flag
+            bits += 2 * 5; // structured append position and total
+            String messageId = template.getStructuredAppendMessageId();
+            if (messageId != null) {
+                bits += (messageId.length() + 2) * 10;
+            }
+            if (template.getDataType() == DataType.GS1) {
+                bits += 10;
+            }
+
+            int dataBits = 0;
+            int size = template.getPreferredSize();
+            if (size != 0) {
+                boolean compact = (size <= 4);
+                dataBits = template.dataBitCapacity(0, compact ? size : size - 4, compact);
+            } else {
+                Mode mode = template.getMode();
+                boolean readerInit = template.getReaderInit();
+                int eccPercentage = template.getPreferredEccPercentage();
+                if (mode == Mode.NORMAL || mode == Mode.ANY) {
+                    dataBits = template.dataBitCapacity(eccPercentage, readerInit ? 22 : 32, false);
+                } else {
+                    dataBits = template.dataBitCapacity(eccPercentage, readerInit ? 1 : 4, true);
+                }
+            }
+
+            this.baseOverhead = bits;
+            this.capacity = Math.max(dataBits, 0);
+
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            overhead = baseOverhead;
+            Arrays.fill(text, INFINITY);
+            text[0] = 0; // start in upper
+            binary = INFINITY;
+        }
+
+        @Override
+        public int add(char c) {
+
+            if (c > 0xff && overhead == baseOverhead) {
+                overhead += 25; // auto-detected ECI will need to be specified explicitly
+            }
+
+            int best = binary;
+            for (int cost : text) {
+                best = Math.min(best, cost);
+            }
+
+            int set = (c < AZTEC_CODE_SET.length ? AZTEC_CODE_SET[c] : 32);
+            for (int i = 0; i < text.length; i++) {
+                int latched = Math.min(text[i], best + 5);
+                if ((set & TEXT_SETS[i]) != 0) {
+                    text[i] = latched + (TEXT_SETS[i] == 16 ? 4 : 5);
+                } else if ((set & 8) != 0) {
+                    text[i] = latched + 10; // punctuation shift
+                } else {
+                    text[i] = INFINITY;
+                }
+            }
+
+            int bytes = (c <= 0xff ? 1 : c < 0x800 ? 2 : 3);
+            binary = Math.min(binary, best + 10) + (bytes * 8);
+
+            best = binary;
+            for (int cost : text) {
+                best = Math.min(best, cost);
+            }
+
+            return overhead + best;
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * The module map for the largest normal (non-compact) symbol needed so far: values 0 and 1 are fixed light and
+     * dark modules, values from 2 are data bits, and values from 20000 are descriptor / mode message bits. Smaller
+     * symbols use the center of the map. The map is created lazily and only grows when a larger symbol is needed,
+     * so that applications which only use small symbols (or compact symbols, which don't use this map at all) don't
+     * pay to create the full 151 x 151 map.
+     */
+    private static final class AztecMap {
+
+        private final int layers; // the number of layers covered by this map
+        private final int size;   // the width and height of this map
+        private final int[] grid; // the map values, indexed as (y * size) + x
+
+        private AztecMap(int layers) {
+
+            this.layers = layers;
+            this.size = 151 - (2 * AZTEC_OFFSET[layers - 1]);
+            this.grid = new int[size * size];
+
+            int layer, start, length, n, i;
+            int x, y;
+
+            for (layer = 1; layer <= layers; layer++) {
+                start = (112 * (layer - 1)) + (16 * (layer - 1) * (layer - 1)) + 2;
+                length = 28 + ((layer - 1) * 4) + (layer * 4);
+                /* Top */
+                i = 0;
+                x = 64 - ((layer - 1) * 2);
+                y = 63 - ((layer - 1) * 2);
+                for (n = start; n < (start + length); n += 2) {
+                    set(avoidReferenceGrid(x + i), avoidReferenceGrid(y), n);
+                    set(avoidReferenceGrid(x + i), avoidReferenceGrid(y - 1), n + 1);
+                    i++;
+                }
+                /* Right */
+                i = 0;
+                x = 78 + ((layer - 1) * 2);
+                y = 64 - ((layer - 1) * 2);
+                for (n = start + length; n < (start + (length * 2)); n += 2) {
+                    set(avoidReferenceGrid(x), avoidReferenceGrid(y + i), n);
+                    set(avoidReferenceGrid(x + 1), avoidReferenceGrid(y + i), n + 1);
+                    i++;
+                }
+                /* Bottom */
+                i = 0;
+                x = 77 + ((layer - 1) * 2);
+                y = 78 + ((layer - 1) * 2);
+                for (n = start + (length * 2); n < (start + (length * 3)); n += 2) {
+                    set(avoidReferenceGrid(x - i), avoidReferenceGrid(y), n);
+                    set(avoidReferenceGrid(x - i), avoidReferenceGrid(y + 1), n + 1);
+                    i++;
+                }
+                /* Left */
+                i = 0;
+                x = 63 - ((layer - 1) * 2);
+                y = 77 + ((layer - 1) * 2);
+                for (n = start + (length * 3); n < (start + (length * 4)); n += 2) {
+                    set(avoidReferenceGrid(x), avoidReferenceGrid(y - i), n);
+                    set(avoidReferenceGrid(x - 1), avoidReferenceGrid(y - i), n + 1);
+                    i++;
+                }
+            }
+
+            /* Central finder pattern */
+            for (n = 0; n <= 5; n++) {
+                for (y = 69 + n; y <= 81 - n; y++) {
+                    for (x = 69 + n; x <= 81 - n; x++) {
+                        set(x, y, (n + 1) & 1);
+                    }
+                }
+            }
+
+            /* Guide bars */
+            for (y = 11; y < 151; y += 16) {
+                for (x = 1; x < 151; x += 2) {
+                    set(x, y, 1);
+                    set(y, x, 1);
+                }
+            }
+
+            /* Descriptor */
+            for (i = 0; i < 10; i++) { /* Top */
+                set(avoidReferenceGrid(66 + i), avoidReferenceGrid(64), 20000 + i);
+            }
+            for (i = 0; i < 10; i++) { /* Right */
+                set(avoidReferenceGrid(77), avoidReferenceGrid(66 + i), 20010 + i);
+            }
+            for (i = 0; i < 10; i++) { /* Bottom */
+                set(avoidReferenceGrid(75 - i), avoidReferenceGrid(77), 20020 + i);
+            }
+            for (i = 0; i < 10; i++) { /* Left */
+                set(avoidReferenceGrid(64), avoidReferenceGrid(75 - i), 20030 + i);
+            }
+
+            /* Orientation */
+            set(avoidReferenceGrid(64), avoidReferenceGrid(64), 1);
+            set(avoidReferenceGrid(65), avoidReferenceGrid(64), 1);
+            set(avoidReferenceGrid(64), avoidReferenceGrid(65), 1);
+            set(avoidReferenceGrid(77), avoidReferenceGrid(64), 1);
+            set(avoidReferenceGrid(77), avoidReferenceGrid(65), 1);
+            set(avoidReferenceGrid(77), avoidReferenceGrid(76), 1);
+        }
+
+        /** Sets the map value at the specified position, in full size (151 x 151) symbol coordinates. */
+        private void set(int x, int y, int value) {
+            int offset = AZTEC_OFFSET[layers - 1];
+            x -= offset;
+            y -= offset;
+            if (x >= 0 && x < size && y >= 0 && y < size) {
+                grid[(y * size) + x] = value;
+            }
+        }
+
+        /** Returns the map value at the specified position, in the coordinates of a symbol with the specified number of layers. */
+        private int get(int x, int y, int symbolLayers) {
+            int offset = AZTEC_OFFSET[symbolLayers - 1] - AZTEC_OFFSET[layers - 1];
+            return grid[((y + offset) * size) + x + offset];
+        }
+    }
 }
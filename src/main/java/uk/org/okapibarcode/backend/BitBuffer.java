@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import java.util.Arrays;
+
+/**
+ * A growable sequence of bits, packed 64 to a <code>long</code>. Used by symbologies to build their binary
+ * data streams without the overhead of storing one character per bit. Values are appended and read most
+ * significant bit first, and the buffer can be cleared and reused across encodes.
+ */
+final class BitBuffer {
+
+    private long[] words;
+    private int length;
+
+    /**
+     * Creates a new bit buffer with the specified initial capacity.
+     *
+     * @param capacity the initial capacity, in bits
+     */
+    BitBuffer(int capacity) {
+        words = new long[(capacity >>> 6) + 1];
+    }
+
+    /**
+     * Returns the number of bits in this buffer.
+     *
+     * @return the number of bits in this buffer
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Removes all bits from this buffer, retaining the current capacity.
+     */
+    void clear() {
+        Arrays.fill(words, 0, Math.min((length >>> 6) + 1, words.length), 0);
+        length = 0;
+    }
+
+    /**
+     * Removes all bits after the specified length. Lengths greater than the current length are ignored.
+     *
+     * @param length the new length, in bits
+     */
+    void truncate(int length) {
+        if (length >= this.length) {
+            return;
+        }
+        int index = length >>> 6;
+        if ((length & 63) != 0) {
+            words[index] &= -1L << (64 - (length & 63));
+            index++;
+        }
+        Arrays.fill(words, index, Math.min((this.length >>> 6) + 1, words.length), 0);
+        this.length = length;
+    }
+
+    /**
+     * Appends the specified number of low-order bits from the specified value, most significant bit first.
+     *
+     * @param value the value to append
+     * @param bits the number of bits to append (0 - 32)
+     */
+    void append(int value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int index = length >>> 6;
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        long v = value & (-1L >>> (64 - bits));
+        int free = 64 - (length & 63);
+        if (bits <= free) {
+            words[index] |= v << (free - bits);
+        } else {
+            words[index] |= v >>> (bits - free);
+            words[index + 1] |= v << (64 - bits + free);
+        }
+        length += bits;
+    }
+
+    /**
+     * Appends the specified number of zero bits. Zero or negative counts are ignored.
+     *
+     * @param bits the number of zero bits to append
+     */
+    void appendZeros(int bits) {
+        while (bits > 0) {
+            int n = Math.min(bits, 32);
+            append(0, n);
+            bits -= n;
+        }
+    }
+
+    /**
+     * Returns the bit at the specified index.
+     *
+     * @param index the index of the bit to return
+     * @return whether or not the bit at the specified index is set
+     */
+    boolean get(int index) {
+        return (words[index >>> 6] << (index & 63)) < 0;
+    }
+
+    /**
+     * Sets the bit at the specified index, which must be less than the current length.
+     *
+     * @param index the index of the bit to set
+     * @param bit the new value of the bit
+     */
+    void set(int index, boolean bit) {
+        long mask = Long.MIN_VALUE >>> (index & 63);
+        if (bit) {
+            words[index >>> 6] |= mask;
+        } else {
+            words[index >>> 6] &= ~mask;
+        }
+    }
+
+    /**
+     * Returns the value of the specified number of bits, starting at the specified index.
+     *
+     * @param index the index of the first (most significant) bit to return
+     * @param bits the number of bits to return (1 - 32)
+     * @return the value of the specified bits
+     */
+    int get(int index, int bits) {
+        int word = index >>> 6;
+        int offset = index & 63;
+        long v = words[word] << offset;
+        if (offset + bits > 64) {
+            v |= words[word + 1] >>> (64 - offset);
+        }
+        return (int) (v >>> (64 - bits));
+    }
+
+    /**
+     * Returns the bits in this buffer as hexadecimal digits, four bits per digit. If the length is not a multiple
+     * of four, the last digit is padded with zero bits.
+     *
+     * @return the bits in this buffer as hexadecimal digits
+     */
+    String toHexString() {
+        StringBuilder sb = new StringBuilder((length + 3) >>> 2);
+        for (int i = 0; i < length; i += 4) {
+            int bits = Math.min(length - i, 4);
+            sb.append(Character.forDigit(get(i, bits) << (4 - bits), 16));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(get(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+}
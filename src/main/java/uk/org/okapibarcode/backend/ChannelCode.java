@@ -25,12 +25,41 @@
  */
 public class ChannelCode extends Symbol {
 
-    private int preferredNumberOfChannels = 3;
+    /* Pattern flags: whether or not the last bar is narrow, and whether or not the last three elements are all narrow */
+    private static final int FLAG_NONE = 0;
+    private static final int FLAG_LAST_BAR_NARROW = 1;
+    private static final int FLAG_LAST_THREE_NARROW = 2;
+
+    /**
+     * The number of valid patterns which complete a partial pattern, indexed by the number of space / bar pairs remaining
+     * after the next pair, the maximum width of the next space, the maximum width of the next bar, and the pattern flags.
+     * Patterns are ordered as per the search described in the specification (shorter spaces and bars first), so these
+     * counts allow the pattern for any value to be calculated directly, without enumerating all of the preceding patterns.
+     */
+    private static final int[][][][] COUNTS = new int[8][9][9][3];
+
+    static {
+        for (int remaining = 0; remaining < 8; remaining++) {
+            for (int maxSpace = 1; maxSpace <= 8; maxSpace++) {
+                for (int maxBar = 1; maxBar <= 8; maxBar++) {
+                    for (int flags = FLAG_NONE; flags <= FLAG_LAST_THREE_NARROW; flags++) {
+                        int count = 0;
+                        if (remaining == 0) {
+                            /* the last space and bar use up any remaining width */
+                            count = minBar(maxSpace, flags) <= maxBar ? 1 : 0;
+                        } else {
+                            for (int s = 1; s <= maxSpace; s++) {
+                                count += countBars(remaining, s, maxSpace, maxBar, flags);
+                            }
+                        }
+                        COUNTS[remaining][maxSpace][maxBar][flags] = count;
+                    }
+                }
+            }
+        }
+    }
 
-    private int[] space = new int[11];
-    private int[] bar = new int[11];
-    private int currentValue;
-    private int targetValue;
+    private int preferredNumberOfChannels = 3;
 
     /**
      * Sets the preferred number of channels used to encode data. This setting will be
@@ -66,7 +95,7 @@ protected void encode() {
         }
 
         int channels = preferredNumberOfChannels;
-        targetValue = Integer.parseInt(content);
+        int targetValue = Integer.parseInt(content);
         switch (channels) {
             case 3:
                 if (targetValue > 26) {
@@ -100,15 +129,45 @@ protected void encode() {
 
         infoLine("Channels Used: ", channels);
 
-        for (int i = 0; i < 11; i++) {
-            bar[i] = 0;
-            space[i] = 0;
+        int[] space = new int[11];
+        int[] bar = new int[11];
+        bar[0] = space[1] = bar[1] = space[2] = bar[2] = 1;
+
+        int value = targetValue;
+        int maxSpace = channels;
+        int maxBar = channels;
+        int flags = FLAG_LAST_THREE_NARROW;
+
+        for (int i = 3; i < channels + 3; i++) {
+            int remaining = channels + 2 - i;
+            int s, b;
+            if (remaining == 0) {
+                /* the last space and bar use up any remaining width */
+                s = maxSpace;
+                b = maxBar;
+            } else {
+                /* skip over all of the patterns which use narrower spaces and bars at this position */
+                for (s = 1; value >= countBars(remaining, s, maxSpace, maxBar, flags); s++) {
+                    value -= countBars(remaining, s, maxSpace, maxBar, flags);
+                }
+                for (b = minBar(s, flags); value >= countSpaces(remaining, s, b, maxSpace, maxBar, flags); b++) {
+                    value -= countSpaces(remaining, s, b, maxSpace, maxBar, flags);
+                }
+            }
+            space[i] = s;
+            bar[i] = b;
+            flags = nextFlags(s, b, flags);
+            maxSpace = maxSpace + 1 - s;
+            maxBar = maxBar + 1 - b;
         }
 
-        bar[0] = space[1] = bar[1] = space[2] = bar[2] = 1;
-        currentValue = 0;
-        pattern = new String[1];
-        nextSpace(channels, 3, channels, channels);
+        byte[] row = new byte[5 + 22];
+        row[0] = row[1] = row[2] = row[3] = 1;
+        for (int i = 0; i < 11; i++) {
+            row[5 + (i * 2)] = (byte) space[i];
+            row[6 + (i * 2)] = (byte) bar[i];
+        }
+        widths = new byte[][] { row };
 
         StringBuilder text = new StringBuilder();
         int leadingZeroCount = channels - 1 - content.length();
@@ -122,37 +181,52 @@ protected void encode() {
         rowCount = 1;
     }
 
-    private void nextSpace(int channels, int i, int maxSpace, int maxBar) {
-        for (int s = (i < channels + 2) ? 1 : maxSpace; s <= maxSpace; s++) {
-            space[i] = s;
-            nextBar(channels, i, maxBar, maxSpace + 1 - s);
+    /**
+     * Returns the number of valid patterns which complete a partial pattern, if the next space has the specified width.
+     *
+     * @param remaining the number of space / bar pairs remaining after the next pair
+     * @param s the width of the next space
+     * @param maxSpace the maximum width of the next space
+     * @param maxBar the maximum width of the next bar
+     * @param flags the pattern flags
+     * @return the number of valid patterns which complete the partial pattern
+     */
+    private static int countBars(int remaining, int s, int maxSpace, int maxBar, int flags) {
+        int count = 0;
+        for (int b = minBar(s, flags); b <= maxBar; b++) {
+            count += countSpaces(remaining, s, b, maxSpace, maxBar, flags);
         }
+        return count;
     }
 
-    private void nextBar(int channels, int i, int maxBar, int maxSpace) {
-        int b = (space[i] + bar[i - 1] + space[i - 1] + bar[i - 2] > 4) ? 1 : 2;
-        if (i < channels + 2) {
-            for (; b <= maxBar; b++) {
-                bar[i] = b;
-                nextSpace(channels, i + 1, maxSpace, maxBar + 1 - b);
-            }
-        } else if (b <= maxBar) {
-            bar[i] = maxBar;
-            checkIfDone();
-            currentValue++;
-        }
+    /**
+     * Returns the number of valid patterns which complete a partial pattern, if the next space and bar have the specified widths.
+     *
+     * @param remaining the number of space / bar pairs remaining after the next pair
+     * @param s the width of the next space
+     * @param b the width of the next bar
+     * @param maxSpace the maximum width of the next space
+     * @param maxBar the maximum width of the next bar
+     * @param flags the pattern flags
+     * @return the number of valid patterns which complete the partial pattern
+     */
+    private static int countSpaces(int remaining, int s, int b, int maxSpace, int maxBar, int flags) {
+        return COUNTS[remaining - 1][maxSpace + 1 - s][maxBar + 1 - b][nextFlags(s, b, flags)];
     }
 
-    private void checkIfDone() {
-        if (currentValue == targetValue) {
-            /* Target reached - save the generated pattern */
-            StringBuilder sb = new StringBuilder();
-            sb.append("11110");
-            for (int i = 0; i < 11; i++) {
-                sb.append((char) (space[i] + '0'));
-                sb.append((char) (bar[i] + '0'));
-            }
-            pattern[0] = sb.toString();
+    /** Returns the minimum width of a bar following a space of the specified width (no four consecutive narrow elements). */
+    private static int minBar(int s, int flags) {
+        return (s == 1 && flags == FLAG_LAST_THREE_NARROW ? 2 : 1);
+    }
+
+    /** Returns the pattern flags after adding a space and bar with the specified widths. */
+    private static int nextFlags(int s, int b, int flags) {
+        if (b != 1) {
+            return FLAG_NONE;
+        } else if (s == 1 && flags != FLAG_NONE) {
+            return FLAG_LAST_THREE_NARROW;
+        } else {
+            return FLAG_LAST_BAR_NARROW;
         }
     }
 }
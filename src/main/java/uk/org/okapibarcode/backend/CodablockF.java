@@ -41,27 +41,17 @@ private enum CfMode {
         MODEA, MODEB, MODEC
     }
 
-    /* Annex A Table A.1 */
-    private static final String[] C_128_TABLE = {
-        "212222", "222122", "222221", "121223", "121322", "131222", "122213",
-        "122312", "132212", "221213", "221312", "231212", "112232", "122132", "122231", "113222",
-        "123122", "123221", "223211", "221132", "221231", "213212", "223112", "312131", "311222",
-        "321122", "321221", "312212", "322112", "322211", "212123", "212321", "232121", "111323",
-        "131123", "131321", "112313", "132113", "132311", "211313", "231113", "231311", "112133",
-        "112331", "132131", "113123", "113321", "133121", "313121", "211331", "231131", "213113",
-        "213311", "213131", "311123", "311321", "331121", "312113", "312311", "332111", "314111",
-        "221411", "431111", "111224", "111422", "121124", "121421", "141122", "141221", "112214",
-        "112412", "122114", "122411", "142112", "142211", "241211", "221114", "413111", "241112",
-        "134111", "111242", "121142", "121241", "114212", "124112", "124211", "411212", "421112",
-        "421211", "212141", "214121", "412121", "111143", "111341", "131141", "114113", "114311",
-        "411113", "411311", "113141", "114131", "311141", "411131", "211412", "211214", "211232",
-        "2331112"};
+    /* Annex A Table A.1 (identical to the Code 128 table) */
+    private static final byte[][] C_128_TABLE = Code128.CODE128_TABLE;
 
     private int[][] blockmatrix = new int[44][62];
     private int columns;
     private int rows;
     private CfMode finalMode;
     private CfMode[] subsets = new CfMode[44];
+    private Mode[] charModes;
+    private int preferredColumns;
+    private int preferredRows;
 
     /**
      * Creates a new instance.
@@ -81,69 +71,136 @@ public boolean supportsGs1() {
         return true;
     }
 
+    /**
+     * Sets the preferred width of the symbol, by specifying the number of data characters in each row. Valid values
+     * are 4 - 62, or <code>0</code> to choose the width automatically (the default).
+     *
+     * @param columns the number of data characters in each row
+     */
+    public void setPreferredColumns(int columns) {
+        if (columns != 0 && (columns < 4 || columns > 62)) {
+            throw new IllegalArgumentException("Invalid column count: " + columns);
+        }
+        preferredColumns = columns;
+    }
+
+    /**
+     * Returns the preferred width of the symbol, as the number of data characters in each row.
+     *
+     * @return the number of data characters in each row, or <code>0</code> if the width is chosen automatically
+     */
+    public int getPreferredColumns() {
+        return preferredColumns;
+    }
+
+    /**
+     * Sets the preferred height of the symbol, by specifying the number of rows. Valid values are 2 - 44, or
+     * <code>0</code> to choose the height automatically (the default).
+     *
+     * @param rows the number of rows in the symbol
+     */
+    public void setPreferredRows(int rows) {
+        if (rows != 0 && (rows < 2 || rows > 44)) {
+            throw new IllegalArgumentException("Invalid row count: " + rows);
+        }
+        preferredRows = rows;
+    }
+
+    /**
+     * Returns the preferred height of the symbol, as the number of rows.
+     *
+     * @return the number of rows in the symbol, or <code>0</code> if the height is chosen automatically
+     */
+    public int getPreferredRows() {
+        return preferredRows;
+    }
+
     @Override
     protected void encode() {
 
         int input_length, i, j, k;
         int min_module_height;
-        Mode last_mode, this_mode;
-        double estimate_codelength;
-        String row_pattern;
+        int estimate, minRows, maxRows;
+        WidthBuffer row_widths;
         int[] row_indicator = new int[44];
         int[] row_check = new int[44];
 
         finalMode = CfMode.MODEA;
 
-        if (!content.matches("[\u0000-\u00FF]*")) {
+        inputData = toBytes(content, StandardCharsets.ISO_8859_1, 0x00);
+        if (inputData == null) {
             throw OkapiInputException.invalidCharactersInInput();
         }
 
-        inputData = toBytes(content, StandardCharsets.ISO_8859_1, 0x00);
         input_length = inputData.length - 1;
 
         if (input_length > 5450) {
             throw OkapiInputException.inputTooLong();
         }
 
-        // guess how many characters will be needed to encode the data,
-        // we need two characters right off the bat for the check digits
-        estimate_codelength = 2.0;
-        last_mode = Mode.AORB; // Codablock always starts with Code A
+        // work out the character subset requirements of the input data just once, since
+        // the encodation rules check them repeatedly and we may need more than one layout pass
+        charModes = new Mode[inputData.length];
+        for (i = 0; i < inputData.length; i++) {
+            charModes[i] = findSubset(inputData[i]);
+        }
+
+        // estimate how many characters will be needed to encode the data, in half characters (two digits
+        // share a single character in Code C); we need two characters right off the bat for the check digits
+        estimate = 4;
+        Mode last_mode = Mode.AORB; // Codablock always starts with Code A
         for (i = 0; i < input_length; i++) {
-            this_mode = findSubset(inputData[i]);
+            Mode this_mode = charModes[i];
             if (this_mode != last_mode) {
-                estimate_codelength += 1.0;
+                estimate += 2;
             }
             if (this_mode != Mode.ABORC) {
-                estimate_codelength += 1.0;
+                estimate += 2;
             } else {
-                estimate_codelength += 0.5;
+                estimate += 1;
             }
             if (inputData[i] > 127) {
-                estimate_codelength += 1.0;
+                estimate += 2;
             }
             last_mode = this_mode;
         }
 
-        /* Decide symbol size based on the above guess */
-        rows = (int) (0.5 + Math.sqrt(estimate_codelength / 1.45));
-        if (rows < 2) {
+        /* Decide symbol size based on the above estimate */
+        minRows = (preferredRows != 0 ? preferredRows : 2);
+        maxRows = (preferredRows != 0 ? preferredRows : 44);
+        if (preferredColumns != 0) {
+            columns = preferredColumns;
+        } else if (preferredRows != 0) {
+            columns = Math.max(4, (estimate + (2 * preferredRows) - 1) / (2 * preferredRows));
+        } else {
+            // aim for a height to width ratio of about 1.45 characters, i.e. the largest row count
+            // for which (rows - 0.5) squared does not exceed the number of characters / 1.45
             rows = 2;
+            while (rows < 44 && 29 * ((2 * rows) + 1) * ((2 * rows) + 1) <= 40 * estimate) {
+                rows++;
+            }
+            columns = Math.max(4, (estimate / 2) / rows);
         }
-        if (rows > 44) {
-            rows = 44;
-        }
-        columns = (int) estimate_codelength / rows;
-        if (columns < 4) {
-            columns = 4;
+
+        /* Encode the data, widening the rows if the data does not fit in the available rows */
+        rows = columns <= 62 ? data_encode_blockf(minRows, maxRows) : 0;
+        if (rows == 0 && preferredColumns == 0) {
+            columns = Math.max(columns + 1, (estimate + (2 * maxRows) - 1) / (2 * maxRows));
+            while (columns <= 62 && (rows = data_encode_blockf(minRows, maxRows)) == 0) {
+                columns++;
+            }
         }
-        if (columns > 62) {
-            throw OkapiInputException.inputTooLong();
+        if (rows == 0) {
+            if (preferredColumns != 0 || preferredRows != 0) {
+                throw new OkapiInputException("Input too long for Codablock F with " +
+                    (preferredColumns != 0 ? preferredColumns + " columns" : "") +
+                    (preferredColumns != 0 && preferredRows != 0 ? " and " : "") +
+                    (preferredRows != 0 ? preferredRows + " rows" : ""));
+            } else {
+                throw OkapiInputException.inputTooLong();
+            }
         }
 
-        /* Encode the data */
-        data_encode_blockf();
-
         /* Add check digits - Annex F */
         int k1 = 0;
         int k2 = 0;
@@ -220,7 +277,7 @@ protected void encode() {
 
         readable = "";
         rowCount = rows;
-        pattern = new String[rowCount];
+        widths = new byte[rowCount][];
         rowHeight = new int[rowCount];
 
         infoLine("Grid Size: " + columns + " X " + rows);
@@ -229,42 +286,43 @@ protected void encode() {
 
         /* Resolve the data into patterns and place in symbol structure */
         info("Encoding: ");
+        row_widths = new WidthBuffer((columns + 5) * 6 + 1);
         for (i = 0; i < rows; i++) {
 
-            row_pattern = "";
+            row_widths.clear();
             /* Start character */
-            row_pattern += C_128_TABLE[103]; /* Always Start A */
+            row_widths.append(C_128_TABLE[103]); /* Always Start A */
 
             switch (subsets[i]) {
                 case MODEA:
-                    row_pattern += C_128_TABLE[98];
+                    row_widths.append(C_128_TABLE[98]);
                     info("MODEA ");
                     break;
                 case MODEB:
-                    row_pattern += C_128_TABLE[100];
+                    row_widths.append(C_128_TABLE[100]);
                     info("MODEB ");
                     break;
                 case MODEC:
-                    row_pattern += C_128_TABLE[99];
+                    row_widths.append(C_128_TABLE[99]);
                     info("MODEC ");
                     break;
             }
-            row_pattern += C_128_TABLE[row_indicator[i]];
+            row_widths.append(C_128_TABLE[row_indicator[i]]);
             infoSpace(row_indicator[i]);
 
             for (j = 0; j < columns; j++) {
-                row_pattern += C_128_TABLE[blockmatrix[i][j]];
+                row_widths.append(C_128_TABLE[blockmatrix[i][j]]);
                 infoSpace(blockmatrix[i][j]);
             }
 
-            row_pattern += C_128_TABLE[row_check[i]];
+            row_widths.append(C_128_TABLE[row_check[i]]);
             info("(" + row_check[i] + ") ");
 
             /* Stop character */
-            row_pattern += C_128_TABLE[106];
+            row_widths.append(C_128_TABLE[106]);
 
             /* Write the information into the symbol */
-            pattern[i] = row_pattern;
+            widths[i] = row_widths.toArray();
             rowHeight[i] = defaultHeight;
         }
         infoLine();
@@ -306,7 +364,15 @@ private static int toSymbolValue(int k, CfMode mode) {
         return k - 22;
     }
 
-    private void data_encode_blockf() {
+    /**
+     * Encodes the input data into rows of the current column count, padding the symbol to at least the specified
+     * number of rows.
+     *
+     * @param minRows the minimum number of rows in the symbol
+     * @param maxRows the maximum number of rows in the symbol
+     * @return the number of rows used, or <code>0</code> if the data does not fit into the maximum number of rows
+     */
+    private int data_encode_blockf(int minRows, int maxRows) {
 
         int i, j, input_position, current_row;
         int column_position, c;
@@ -352,14 +418,14 @@ private void data_encode_blockf() {
                     /* Ensure that there is sufficient encodation capacity to continue (using the rules of Annex B.2). */
                     switch (current_mode) {
                         case MODEA: /* Table B1 applies */
-                            if (findSubset(inputData[input_position]) == Mode.ABORC) {
+                            if (charModes[input_position] == Mode.ABORC) {
                                 blockmatrix[current_row][column_position] = a3_convert(inputData[input_position]);
                                 column_position++;
                                 c--;
                                 input_position++;
                                 done = true;
                             }
-                            if ((findSubset(inputData[input_position]) == Mode.SHIFTB) && (c == 1)) {
+                            if ((charModes[input_position] == Mode.SHIFTB) && (c == 1)) {
                                 /* Needs two symbols */
                                 blockmatrix[current_row][column_position] = 100; /* Code B */
                                 column_position++;
@@ -387,14 +453,14 @@ private void data_encode_blockf() {
                             }
                             break;
                         case MODEB: /* Table B2 applies */
-                            if (findSubset(inputData[input_position]) == Mode.ABORC) {
+                            if (charModes[input_position] == Mode.ABORC) {
                                 blockmatrix[current_row][column_position] = a3_convert(inputData[input_position]);
                                 column_position++;
                                 c--;
                                 input_position++;
                                 done = true;
                             }
-                            if ((findSubset(inputData[input_position]) == Mode.SHIFTA) && (c == 1)) {
+                            if ((charModes[input_position] == Mode.SHIFTA) && (c == 1)) {
                                 /* Needs two symbols */
                                 blockmatrix[current_row][column_position] = 101; /* Code A */
                                 column_position++;
@@ -423,15 +489,15 @@ private void data_encode_blockf() {
                             }
                             break;
                         case MODEC: /* Table B3 applies */
-                            if ((findSubset(inputData[input_position]) != Mode.ABORC) && (c == 1)) {
+                            if ((charModes[input_position] != Mode.ABORC) && (c == 1)) {
                                 /* Needs two symbols */
                                 blockmatrix[current_row][column_position] = 101; /* Code A */
                                 column_position++;
                                 c--;
                                 done = true;
                             }
-                            if (((findSubset(inputData[input_position]) == Mode.ABORC)
-                                    && (findSubset(inputData[input_position + 1]) != Mode.ABORC))
+                            if (((charModes[input_position] == Mode.ABORC)
+                                    && (charModes[input_position + 1] != Mode.ABORC))
                                     && (c == 1)) {
                                 /* Needs two symbols */
                                 blockmatrix[current_row][column_position] = 101; /* Code A */
@@ -457,8 +523,8 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if (((findSubset(inputData[input_position]) == Mode.AORB)
-                        || (findSubset(inputData[input_position]) == Mode.SHIFTA))
+                if (((charModes[input_position] == Mode.AORB)
+                        || (charModes[input_position] == Mode.SHIFTA))
                         && (current_mode == CfMode.MODEA)) {
                     /* Annex B section 1 rule 2 */
                     /* If in Code Subset A and the next data character can be encoded in Subset A encode the next
@@ -478,8 +544,8 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if (((findSubset(inputData[input_position]) == Mode.AORB)
-                        || (findSubset(inputData[input_position]) == Mode.SHIFTB))
+                if (((charModes[input_position] == Mode.AORB)
+                        || (charModes[input_position] == Mode.SHIFTB))
                         && (current_mode == CfMode.MODEB)) {
                     /* Annex B section 1 rule 3 */
                     /* If in Code Subset B and the next data character can be encoded in subset B, encode the next
@@ -499,8 +565,8 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if (((findSubset(inputData[input_position]) == Mode.ABORC)
-                        && (findSubset(inputData[input_position + 1]) == Mode.ABORC))
+                if (((charModes[input_position] == Mode.ABORC)
+                        && (charModes[input_position + 1] == Mode.ABORC))
                         && (current_mode == CfMode.MODEC)) {
                     /* Annex B section 1 rule 4 */
                     /* If in Code Subset C and the next data are 2 digits, encode them. */
@@ -516,7 +582,7 @@ private void data_encode_blockf() {
 
             if (!done) {
                 if (((current_mode == CfMode.MODEA) || (current_mode == CfMode.MODEB))
-                        && ((findSubset(inputData[input_position]) == Mode.ABORC)
+                        && ((charModes[input_position] == Mode.ABORC)
                         || (inputData[input_position] == FNC1))) {
                     // Count the number of numeric digits
                     // If 4 or more numeric data characters occur together when in subsets A or B:
@@ -532,7 +598,7 @@ private void data_encode_blockf() {
                             i++;
                         }
                         j++;
-                    } while ((findSubset(inputData[input_position + j]) == Mode.ABORC)
+                    } while ((charModes[input_position + j] == Mode.ABORC)
                             || ((inputData[input_position + j] == FNC1) && i % 2 == 0));
                     i--;
 
@@ -569,7 +635,7 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if ((current_mode == CfMode.MODEB) && (findSubset(inputData[input_position]) == Mode.SHIFTA)) {
+                if ((current_mode == CfMode.MODEB) && (charModes[input_position] == Mode.SHIFTA)) {
                     /* Annex B section 1 rule 6 */
                     /*  When in subset B and an ASCII control character occurs in the data:
                      a.   If there is a lower case character immediately following the control character, insert a Shift
@@ -612,15 +678,15 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if ((current_mode == CfMode.MODEA) && (findSubset(inputData[input_position]) == Mode.SHIFTB)) {
+                if ((current_mode == CfMode.MODEA) && (charModes[input_position] == Mode.SHIFTB)) {
                     /* Annex B section 1 rule 7 */
                     /* When in subset A and a lower case character occurs in the data:
                      a.   If following that character, a control character occurs in the data before the occurrence of
                      another lower case character, insert a Shift character before the lower case character.
                      b.   Otherwise, insert a Code B character before the lower case character to change to subset B. */
                     if (input_position + 2 < inputData.length
-                            && (findSubset(inputData[input_position + 1]) == Mode.SHIFTA)
-                            && (findSubset(inputData[input_position + 2]) == Mode.SHIFTB)) {
+                            && (charModes[input_position + 1] == Mode.SHIFTA)
+                            && (charModes[input_position + 2] == Mode.SHIFTB)) {
                         /* Annex B section 1 rule 7a */
                         blockmatrix[current_row][column_position] = 98; /* Shift */
                         column_position++;
@@ -657,8 +723,8 @@ private void data_encode_blockf() {
             }
 
             if (!done) {
-                if ((current_mode == CfMode.MODEC) && ((findSubset(inputData[input_position]) != Mode.ABORC)
-                        || (findSubset(inputData[input_position + 1]) != Mode.ABORC))) {
+                if ((current_mode == CfMode.MODEC) && ((charModes[input_position] != Mode.ABORC)
+                        || (charModes[input_position + 1] != Mode.ABORC))) {
                     /* Annex B section 1 rule 8 */
                     /*  When in subset C and a non-numeric character (or a single digit) occurs in the data, insert a Code
                      A or Code B character before that character, following rules 8a and 8b to determine between code
@@ -666,7 +732,7 @@ private void data_encode_blockf() {
                      a.    If an ASCII control character (eg NUL) occurs in the data before any lower case character, use
                      Code A.
                      b.    Otherwise use Code B. */
-                    if (findSubset(inputData[input_position]) == Mode.SHIFTA) {
+                    if (charModes[input_position] == Mode.SHIFTA) {
                         /* Annex B section 1 rule 8a */
                         blockmatrix[current_row][column_position] = 101; /* Code A */
                         column_position++;
@@ -722,6 +788,9 @@ a.    If an ASCII control character (eg NUL) occurs in the data before any lower
                     column_position = 0;
                     c = columns;
                     current_row++;
+                    if (current_row >= maxRows) {
+                        return 0;
+                    }
                     subsets[current_row] = CfMode.MODEA;
                     current_mode = CfMode.MODEA;
                 }
@@ -750,31 +819,34 @@ a.    If an ASCII control character (eg NUL) occurs in the data before any lower
                     /* Start new row - Annex B rule 5b */
                     column_position = 0;
                     current_row++;
-                    if (current_row > 43) {
-                        throw new OkapiInputException("Too many rows.");
+                    if (current_row >= maxRows) {
+                        return 0;
                     }
                 }
             }
 
         } while (!exit_status);
 
-        if (current_row == 0) {
-            /* fill up the first row */
-            for(c = column_position; c <= columns; c++) {
-                if(current_mode == CfMode.MODEA) {
-                    blockmatrix[current_row][c] = 100; /* Code B */
-                    current_mode = CfMode.MODEB;
-                } else {
-                    blockmatrix[current_row][c] = 101; /* Code A */
-                    current_mode = CfMode.MODEA;
+        if (current_row < minRows - 1) {
+            do {
+                /* fill up the current row and add another row */
+                for (c = column_position; c < columns; c++) {
+                    if (current_mode == CfMode.MODEA) {
+                        blockmatrix[current_row][c] = 100; /* Code B */
+                        current_mode = CfMode.MODEB;
+                    } else {
+                        blockmatrix[current_row][c] = 101; /* Code A */
+                        current_mode = CfMode.MODEA;
+                    }
                 }
-            }
-            current_row++;
-            /* add a second row */
-            subsets[current_row] = CfMode.MODEA;
-            current_mode = CfMode.MODEA;
-            for(c = 0; c <= columns - 2; c++) {
-                if(current_mode == CfMode.MODEA) {
+                current_row++;
+                column_position = 0;
+                subsets[current_row] = CfMode.MODEA;
+                current_mode = CfMode.MODEA;
+            } while (current_row < minRows - 1);
+            /* fill up the last row, leaving room for the check digits */
+            for (c = 0; c < columns - 2; c++) {
+                if (current_mode == CfMode.MODEA) {
                     blockmatrix[current_row][c] = 100; /* Code B */
                     current_mode = CfMode.MODEB;
                 } else {
@@ -782,9 +854,10 @@ a.    If an ASCII control character (eg NUL) occurs in the data before any lower
                     current_mode = CfMode.MODEA;
                 }
             }
+            finalMode = current_mode;
         }
 
-        rows = current_row + 1;
+        return current_row + 1;
     }
 
     private CfMode character_subset_select(int input_position) {
@@ -839,9 +912,9 @@ protected void plotSymbol() {
             black = true;
             x = 0;
             h = rowHeight[yBlock];
-            for (xBlock = 0; xBlock < pattern[yBlock].length(); xBlock++) {
-                char c = pattern[yBlock].charAt(xBlock);
-                w = (c - '0') * moduleWidth;
+            byte[] row = widths[yBlock];
+            for (xBlock = 0; xBlock < row.length; xBlock++) {
+                w = row[xBlock] * moduleWidth;
                 if (black) {
                     if (w != 0 && h != 0) {
                         addRectangle(new Rectangle(x, y, w, h));
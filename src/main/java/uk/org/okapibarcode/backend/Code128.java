@@ -18,6 +18,8 @@
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
+import java.util.Arrays;
+
 /**
  * <p>Implements Code 128 bar code symbology according to ISO/IEC 15417:2007.
  *
@@ -56,26 +58,50 @@ private enum Composite {
         OFF, CCA, CCB, CCC
     }
 
-    protected static final String[] CODE128_TABLE = {
-        "212222", "222122", "222221", "121223", "121322", "131222", "122213",
-        "122312", "132212", "221213", "221312", "231212", "112232", "122132",
-        "122231", "113222", "123122", "123221", "223211", "221132", "221231",
-        "213212", "223112", "312131", "311222", "321122", "321221", "312212",
-        "322112", "322211", "212123", "212321", "232121", "111323", "131123",
-        "131321", "112313", "132113", "132311", "211313", "231113", "231311",
-        "112133", "112331", "132131", "113123", "113321", "133121", "313121",
-        "211331", "231131", "213113", "213311", "213131", "311123", "311321",
-        "331121", "312113", "312311", "332111", "314111", "221411", "431111",
-        "111224", "111422", "121124", "121421", "141122", "141221", "112214",
-        "112412", "122114", "122411", "142112", "142211", "241211", "221114",
-        "413111", "241112", "134111", "111242", "121142", "121241", "114212",
-        "124112", "124211", "411212", "421112", "421211", "212141", "214121",
-        "412121", "111143", "111341", "131141", "114113", "114311", "411113",
-        "411311", "113141", "114131", "311141", "411131", "211412", "211214",
-        "211232", "2331112"
+    protected static final byte[][] CODE128_TABLE = {
+        { 2, 1, 2, 2, 2, 2 }, { 2, 2, 2, 1, 2, 2 }, { 2, 2, 2, 2, 2, 1 }, { 1, 2, 1, 2, 2, 3 }, { 1, 2, 1, 3, 2, 2 },
+        { 1, 3, 1, 2, 2, 2 }, { 1, 2, 2, 2, 1, 3 }, { 1, 2, 2, 3, 1, 2 }, { 1, 3, 2, 2, 1, 2 }, { 2, 2, 1, 2, 1, 3 },
+        { 2, 2, 1, 3, 1, 2 }, { 2, 3, 1, 2, 1, 2 }, { 1, 1, 2, 2, 3, 2 }, { 1, 2, 2, 1, 3, 2 }, { 1, 2, 2, 2, 3, 1 },
+        { 1, 1, 3, 2, 2, 2 }, { 1, 2, 3, 1, 2, 2 }, { 1, 2, 3, 2, 2, 1 }, { 2, 2, 3, 2, 1, 1 }, { 2, 2, 1, 1, 3, 2 },
+        { 2, 2, 1, 2, 3, 1 }, { 2, 1, 3, 2, 1, 2 }, { 2, 2, 3, 1, 1, 2 }, { 3, 1, 2, 1, 3, 1 }, { 3, 1, 1, 2, 2, 2 },
+        { 3, 2, 1, 1, 2, 2 }, { 3, 2, 1, 2, 2, 1 }, { 3, 1, 2, 2, 1, 2 }, { 3, 2, 2, 1, 1, 2 }, { 3, 2, 2, 2, 1, 1 },
+        { 2, 1, 2, 1, 2, 3 }, { 2, 1, 2, 3, 2, 1 }, { 2, 3, 2, 1, 2, 1 }, { 1, 1, 1, 3, 2, 3 }, { 1, 3, 1, 1, 2, 3 },
+        { 1, 3, 1, 3, 2, 1 }, { 1, 1, 2, 3, 1, 3 }, { 1, 3, 2, 1, 1, 3 }, { 1, 3, 2, 3, 1, 1 }, { 2, 1, 1, 3, 1, 3 },
+        { 2, 3, 1, 1, 1, 3 }, { 2, 3, 1, 3, 1, 1 }, { 1, 1, 2, 1, 3, 3 }, { 1, 1, 2, 3, 3, 1 }, { 1, 3, 2, 1, 3, 1 },
+        { 1, 1, 3, 1, 2, 3 }, { 1, 1, 3, 3, 2, 1 }, { 1, 3, 3, 1, 2, 1 }, { 3, 1, 3, 1, 2, 1 }, { 2, 1, 1, 3, 3, 1 },
+        { 2, 3, 1, 1, 3, 1 }, { 2, 1, 3, 1, 1, 3 }, { 2, 1, 3, 3, 1, 1 }, { 2, 1, 3, 1, 3, 1 }, { 3, 1, 1, 1, 2, 3 },
+        { 3, 1, 1, 3, 2, 1 }, { 3, 3, 1, 1, 2, 1 }, { 3, 1, 2, 1, 1, 3 }, { 3, 1, 2, 3, 1, 1 }, { 3, 3, 2, 1, 1, 1 },
+        { 3, 1, 4, 1, 1, 1 }, { 2, 2, 1, 4, 1, 1 }, { 4, 3, 1, 1, 1, 1 }, { 1, 1, 1, 2, 2, 4 }, { 1, 1, 1, 4, 2, 2 },
+        { 1, 2, 1, 1, 2, 4 }, { 1, 2, 1, 4, 2, 1 }, { 1, 4, 1, 1, 2, 2 }, { 1, 4, 1, 2, 2, 1 }, { 1, 1, 2, 2, 1, 4 },
+        { 1, 1, 2, 4, 1, 2 }, { 1, 2, 2, 1, 1, 4 }, { 1, 2, 2, 4, 1, 1 }, { 1, 4, 2, 1, 1, 2 }, { 1, 4, 2, 2, 1, 1 },
+        { 2, 4, 1, 2, 1, 1 }, { 2, 2, 1, 1, 1, 4 }, { 4, 1, 3, 1, 1, 1 }, { 2, 4, 1, 1, 1, 2 }, { 1, 3, 4, 1, 1, 1 },
+        { 1, 1, 1, 2, 4, 2 }, { 1, 2, 1, 1, 4, 2 }, { 1, 2, 1, 2, 4, 1 }, { 1, 1, 4, 2, 1, 2 }, { 1, 2, 4, 1, 1, 2 },
+        { 1, 2, 4, 2, 1, 1 }, { 4, 1, 1, 2, 1, 2 }, { 4, 2, 1, 1, 1, 2 }, { 4, 2, 1, 2, 1, 1 }, { 2, 1, 2, 1, 4, 1 },
+        { 2, 1, 4, 1, 2, 1 }, { 4, 1, 2, 1, 2, 1 }, { 1, 1, 1, 1, 4, 3 }, { 1, 1, 1, 3, 4, 1 }, { 1, 3, 1, 1, 4, 1 },
+        { 1, 1, 4, 1, 1, 3 }, { 1, 1, 4, 3, 1, 1 }, { 4, 1, 1, 1, 1, 3 }, { 4, 1, 1, 3, 1, 1 }, { 1, 1, 3, 1, 4, 1 },
+        { 1, 1, 4, 1, 3, 1 }, { 3, 1, 1, 1, 4, 1 }, { 4, 1, 1, 1, 3, 1 }, { 2, 1, 1, 4, 1, 2 }, { 2, 1, 1, 2, 1, 4 },
+        { 2, 1, 1, 2, 3, 2 }, { 2, 3, 3, 1, 1, 1, 2 }
+    };
+
+    /**
+     * Optimal encoder states: code set B, code set B in extended mode, code set A, code set A in extended mode, code set C.
+     * Code set B comes first, so that it is preferred over code set A when both are equally short.
+     */
+    private static final int OPT_B = 0, OPT_B_EXT = 1, OPT_A = 2, OPT_A_EXT = 3, OPT_C = 4;
+
+    /** The number of symbol characters required to move between optimal encoder states (latches and double FNC4s). */
+    private static final int[][] OPT_TRANSITION_COST = {
+        { 0, 2, 1, 3, 1 },
+        { 2, 0, 3, 1, 3 },
+        { 1, 3, 0, 2, 1 },
+        { 3, 1, 2, 0, 3 },
+        { 1, 3, 1, 3, 0 }
     };
 
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
     private CodeSet codeSet;
+    private boolean optimalEncoding;
     private Composite compositeMode = Composite.OFF;
 
     /**
@@ -118,6 +144,29 @@ public CodeSet getCodeSet() {
         return codeSet;
     }
 
+    /**
+     * Sets whether or not to choose the code sets, shifts and extended mode latches which minimize the number of symbol
+     * characters required to encode the data, instead of using the heuristics suggested in ISO/IEC 15417 Annex E. Optimal
+     * encoding may result in narrower symbols, but generates different symbol characters than other encoders for the same
+     * data. Any code set restrictions are still respected. By default, optimal encoding is not used.
+     *
+     * @param optimalEncoding whether or not to choose the code sets which minimize the number of symbol characters required
+     * @see #setCodeSet(CodeSet)
+     */
+    public void setOptimalEncoding(boolean optimalEncoding) {
+        this.optimalEncoding = optimalEncoding;
+    }
+
+    /**
+     * Returns whether or not this symbol chooses the code sets, shifts and extended mode latches which minimize the number
+     * of symbol characters required to encode the data, instead of using the heuristics suggested in ISO/IEC 15417 Annex E.
+     *
+     * @return whether or not this symbol chooses the code sets which minimize the number of symbol characters required
+     */
+    public boolean getOptimalEncoding() {
+        return optimalEncoding;
+    }
+
     protected void setCca() {
         compositeMode = Composite.CCA;
     }
@@ -161,13 +210,12 @@ protected void encode() {
         Mode mode, last_mode;
         Mode last_set, current_set;
         double glyph_count;
-        int bar_characters = 0, total_sum = 0;
+        int bar_characters = 0;
         FMode f_state = FMode.LATCHN;
         Mode[] mode_type = new Mode[200];
         int[] mode_length = new int[200];
         int[] values = new int[200];
         int c;
-        int linkage_flag = 0;
         int index_point = 0;
         int read = 0;
 
@@ -181,6 +229,11 @@ protected void encode() {
             throw OkapiInputException.inputTooLong();
         }
 
+        if (optimalEncoding && sourcelen > 0) {
+            encodeOptimal(values);
+            return;
+        }
+
         /* Decide on mode using same system as PDF417 and rules of ISO 15417 Annex E */
         if (sourcelen > 0) {
             int letter = inputData[input_point];
@@ -598,6 +651,23 @@ protected void encode() {
 
         infoLine();
 
+        buildSymbol(values, bar_characters, set[Math.max(sourcelen - 1, 0)]);
+    }
+
+    /**
+     * Adds the linkage flag (if necessary), check digit and stop character to the specified symbol character values,
+     * and builds the symbol bar and space widths.
+     *
+     * @param values the symbol character values, starting with the start character
+     * @param bar_characters the number of symbol character values
+     * @param last_set the code set used for the last data character
+     */
+    private void buildSymbol(int[] values, int bar_characters, Mode last_set) {
+
+        int i;
+        int linkage_flag = 0;
+        int total_sum = 0;
+
         /* "...note that the linkage flag is an extra code set character between
         the last data character and the Symbol Check Character" (GS1 Specification) */
 
@@ -607,7 +677,7 @@ protected void encode() {
             case CCA:
             case CCB:
                 /* CC-A or CC-B 2D component */
-                switch(set[sourcelen - 1]) {
+                switch(last_set) {
                     case LATCHA: linkage_flag = 100; break;
                     case LATCHB: linkage_flag = 99; break;
                     case LATCHC: linkage_flag = 101; break;
@@ -616,7 +686,7 @@ protected void encode() {
                 break;
             case CCC:
                 /* CC-C 2D component */
-                switch(set[sourcelen - 1]) {
+                switch(last_set) {
                     case LATCHA: linkage_flag = 99; break;
                     case LATCHB: linkage_flag = 101; break;
                     case LATCHC: linkage_flag = 100; break;
@@ -641,8 +711,8 @@ protected void encode() {
         int checkDigit = total_sum % 103;
         infoLine("Check Digit: ", checkDigit);
 
-        /* Build pattern string */
-        StringBuilder dest = new StringBuilder((6 * bar_characters) + 6 + 7);
+        /* Build bar and space widths */
+        WidthBuffer dest = new WidthBuffer((6 * bar_characters) + 6 + 7);
         for (i = 0; i < bar_characters; i++) {
             dest.append(CODE128_TABLE[values[i]]);
         }
@@ -658,17 +728,308 @@ protected void encode() {
         }
 
         if (compositeMode == Composite.OFF) {
-            pattern = new String[] { dest.toString() };
+            widths = new byte[][] { dest.toArray() };
             rowHeight = new int[] { defaultHeight };
             rowCount = 1;
         } else {
-            /* Add the separator pattern for composite symbols */
-            pattern = new String[] { "0" + dest, dest.toString() };
+            /* Add the separator pattern for composite symbols (the inverse of the linear row) */
+            byte[] row = dest.toArray();
+            byte[] separator = new byte[row.length + 1];
+            System.arraycopy(row, 0, separator, 1, row.length);
+            widths = new byte[][] { separator, row };
             rowHeight = new int[] { 1, defaultHeight };
             rowCount = 2;
         }
     }
 
+    /**
+     * Encodes the input data using the code sets, shifts and extended mode latches which minimize the total number of
+     * symbol characters. Each input position is visited once, tracking the cheapest way to reach each of the five encoder
+     * states (code set A, B or C, with code sets A and B either in or out of extended mode) after encoding the data up to
+     * that position. Code set C is never used in extended mode, matching the default encoder.
+     *
+     * @param values the array to write the symbol character values to
+     */
+    private void encodeOptimal(int[] values) {
+
+        int sourcelen = inputData.length;
+        int[] cost = new int[(sourcelen + 1) * 5]; // indexed by (position * 5) + state
+        byte[] from = new byte[cost.length]; // the state before the transition and encoding of the previous character(s)
+        byte[] step = new byte[cost.length]; // the number of characters encoded by the last step, negative if shifted
+
+        Arrays.fill(cost, INFINITY);
+        for (int state = OPT_B; state <= OPT_C; state++) {
+            if (isAllowed(state)) {
+                int extra = (state == OPT_A_EXT || state == OPT_B_EXT ? 2 : 0) + (state == OPT_C && readerInit ? 1 : 0);
+                cost[state] = 1 + extra;
+            }
+        }
+
+        for (int i = 0; i < sourcelen; i++) {
+            for (int state = OPT_B; state <= OPT_C; state++) {
+                if (!isAllowed(state)) {
+                    continue;
+                }
+                /* find the cheapest way to arrive in this state before encoding the next character */
+                int best = INFINITY;
+                int prev = 0;
+                for (int s = OPT_B; s <= OPT_C; s++) {
+                    int arrive = cost[(i * 5) + s] + OPT_TRANSITION_COST[s][state];
+                    if (arrive < best) {
+                        best = arrive;
+                        prev = s;
+                    }
+                }
+                if (best >= INFINITY) {
+                    continue;
+                }
+                /* encode the next character (or two) in this state, possibly using a shift */
+                int c = inputData[i];
+                int length = 1;
+                int chars;
+                boolean shift = false;
+                if (state == OPT_C) {
+                    if (c == FNC1) {
+                        chars = 1;
+                    } else if (isDigit(c) && i + 1 < sourcelen && isDigit(inputData[i + 1])) {
+                        chars = 1;
+                        length = 2;
+                    } else {
+                        continue;
+                    }
+                } else {
+                    chars = characterCost(c, state);
+                    if (chars == INFINITY) {
+                        if (codeSet == CodeSet.A || codeSet == CodeSet.B) {
+                            continue;
+                        }
+                        chars = characterCost(c, state ^ 2) + 1; // SHIFT
+                        shift = true;
+                    }
+                }
+                int total = best + chars;
+                int index = ((i + length) * 5) + state;
+                if (total < cost[index]) {
+                    cost[index] = total;
+                    from[index] = (byte) prev;
+                    step[index] = (byte) (shift ? -length : length);
+                }
+            }
+        }
+
+        /* find the cheapest final state */
+        int state = -1;
+        int best = INFINITY;
+        for (int s = OPT_B; s <= OPT_C; s++) {
+            if (cost[(sourcelen * 5) + s] < best) {
+                best = cost[(sourcelen * 5) + s];
+                state = s;
+            }
+        }
+        if (state == -1) {
+            throw new OkapiInputException("Unable to encode the specified data using only code set " + codeSet);
+        }
+
+        /* walk back through the chosen path to find the state used for each step */
+        int last = state;
+        int steps = 0;
+        int[] states = new int[sourcelen];
+        int[] starts = new int[sourcelen];
+        boolean[] shifts = new boolean[sourcelen];
+        for (int i = sourcelen; i > 0; steps++) {
+            states[steps] = state;
+            int index = (i * 5) + state;
+            shifts[steps] = step[index] < 0;
+            int length = Math.abs(step[index]);
+            state = from[index];
+            i -= length;
+            starts[steps] = i;
+        }
+        int first = state;
+
+        /* same limit as the default encoder, which does not count the extra reader initialisation characters */
+        if (best - (first == OPT_C && readerInit ? 1 : 0) > 80) {
+            throw OkapiInputException.inputTooLong();
+        }
+
+        info("Encoding: ");
+
+        /* start character */
+        int bar_characters;
+        if (readerInit) {
+            values[0] = (isCodeSetA(first) ? 103 : 104);
+            values[1] = 96;
+            bar_characters = 2;
+            if (first == OPT_C) {
+                values[bar_characters++] = 99;
+            }
+            info(first == OPT_C ? "STARTB FNC3 CODEC " : isCodeSetA(first) ? "STARTA FNC3 " : "STARTB FNC3 ");
+        } else {
+            values[0] = (first == OPT_C ? 105 : isCodeSetA(first) ? 103 : 104);
+            bar_characters = 1;
+            info(first == OPT_C ? "STARTC " : isCodeSetA(first) ? "STARTA " : "STARTB ");
+        }
+
+        if (inputDataType == DataType.GS1) {
+            values[bar_characters++] = 102;
+            info("FNC1 ");
+        }
+
+        if (first == OPT_A_EXT || first == OPT_B_EXT) {
+            bar_characters = doubleFnc4(first, values, bar_characters);
+        }
+
+        /* data characters */
+        state = first;
+        for (int j = steps - 1; j >= 0; j--) {
+            bar_characters = transition(state, states[j], values, bar_characters);
+            state = states[j];
+            int c = inputData[starts[j]];
+            if (state == OPT_C) {
+                if (c == FNC1) {
+                    values[bar_characters] = 102;
+                    info("FNC1 ");
+                } else {
+                    values[bar_characters] = (10 * (c - '0')) + (inputData[starts[j] + 1] - '0');
+                    infoSpace(values[bar_characters]);
+                }
+            } else {
+                int set = (shifts[j] ? state ^ 2 : state);
+                if (c >= 128 != ((state & 1) != 0)) {
+                    values[bar_characters++] = (isCodeSetA(state) ? 101 : 100);
+                    info("FNC4 ");
+                }
+                if (shifts[j]) {
+                    values[bar_characters++] = 98;
+                    info("SHFT ");
+                }
+                values[bar_characters] = characterValue(c, set);
+                switch (c) {
+                    case FNC1:
+                        info("FNC1 ");
+                        break;
+                    case FNC2:
+                        info("FNC2 ");
+                        break;
+                    case FNC3:
+                        info("FNC3 ");
+                        break;
+                    case FNC4:
+                        info("FNC4 ");
+                        break;
+                    default:
+                        infoSpace(values[bar_characters]);
+                        break;
+                }
+            }
+            bar_characters++;
+        }
+
+        infoLine();
+
+        buildSymbol(values, bar_characters, last == OPT_C ? Mode.LATCHC : isCodeSetA(last) ? Mode.LATCHA : Mode.LATCHB);
+    }
+
+    /**
+     * Adds the symbol characters required to move from one optimal encoder state to another.
+     *
+     * @param from the current state
+     * @param to the new state
+     * @param values the symbol character values
+     * @param bar_characters the current number of symbol character values
+     * @return the new number of symbol character values
+     */
+    private int transition(int from, int to, int[] values, int bar_characters) {
+        if (from == to) {
+            return bar_characters;
+        }
+        if (to == OPT_C) {
+            /* code set C is never used in extended mode */
+            if ((from & 1) != 0) {
+                bar_characters = doubleFnc4(from, values, bar_characters);
+            }
+            values[bar_characters++] = 99;
+            info("CODEC ");
+            return bar_characters;
+        }
+        if (from == OPT_C || (from & 2) != (to & 2)) {
+            /* latch to the new code set; extended mode, if any, remains in effect */
+            values[bar_characters++] = (isCodeSetA(to) ? 101 : 100);
+            info(isCodeSetA(to) ? "CODEA " : "CODEB ");
+            from = (from == OPT_C ? to & ~1 : (to & ~1) | (from & 1));
+        }
+        if (from != to) {
+            /* enter or leave extended mode */
+            bar_characters = doubleFnc4(to, values, bar_characters);
+        }
+        return bar_characters;
+    }
+
+    private int doubleFnc4(int state, int[] values, int bar_characters) {
+        int fnc4 = (isCodeSetA(state) ? 101 : 100);
+        values[bar_characters++] = fnc4;
+        values[bar_characters++] = fnc4;
+        info("FNC4 FNC4 ");
+        return bar_characters;
+    }
+
+    /** Returns whether or not the specified optimal encoder state may be used, given the current code set restrictions. */
+    private boolean isAllowed(int state) {
+        switch (codeSet) {
+            case A:
+                return state == OPT_A || state == OPT_A_EXT;
+            case B:
+                return state == OPT_B || state == OPT_B_EXT;
+            case C:
+                return state == OPT_C;
+            case AB:
+                return state != OPT_C;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the number of symbol characters required to encode the specified character in the specified code set A or B
+     * state (including any FNC4 shift required), or {@link #INFINITY} if the character is not available in the code set.
+     */
+    private static int characterCost(int c, int state) {
+        if (c < 0) {
+            return 1; // FNC1 - FNC4
+        }
+        int low = c & 0x7f;
+        if (isCodeSetA(state) ? low >= 96 : low < 32) {
+            return INFINITY;
+        }
+        boolean ext = (state & 1) != 0;
+        return (c >= 128) != ext ? 2 : 1;
+    }
+
+    /** Returns the symbol character value for the specified character in the specified code set A or B state. */
+    private static int characterValue(int c, int state) {
+        switch (c) {
+            case FNC1:
+                return 102;
+            case FNC2:
+                return 97;
+            case FNC3:
+                return 96;
+            case FNC4:
+                return (isCodeSetA(state) ? 101 : 100);
+            default:
+                int low = c & 0x7f;
+                return (isCodeSetA(state) && low < 32 ? low + 64 : low - 32);
+        }
+    }
+
+    private static boolean isCodeSetA(int state) {
+        return state == OPT_A || state == OPT_A_EXT;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
     private static String removeFncEscapeSequences(String s) {
         return s.replace(FNC1_STRING, "")
                 .replace(FNC2_STRING, "")
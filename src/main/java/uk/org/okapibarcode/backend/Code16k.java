@@ -37,29 +37,25 @@ private enum Mode {
         NULL, SHIFTA, LATCHA, SHIFTB, LATCHB, SHIFTC, LATCHC, AORB, ABORC, CANDB, CANDBB
     }
 
-    /* EN 12323 Table 1 - "Code 16K" character encodations */
-    private static final String[] C16K_TABLE = {
-        "212222", "222122", "222221", "121223", "121322", "131222", "122213",
-        "122312", "132212", "221213", "221312", "231212", "112232", "122132",
-        "122231", "113222", "123122", "123221", "223211", "221132", "221231",
-        "213212", "223112", "312131", "311222", "321122", "321221", "312212",
-        "322112", "322211", "212123", "212321", "232121", "111323", "131123",
-        "131321", "112313", "132113", "132311", "211313", "231113", "231311",
-        "112133", "112331", "132131", "113123", "113321", "133121", "313121",
-        "211331", "231131", "213113", "213311", "213131", "311123", "311321",
-        "331121", "312113", "312311", "332111", "314111", "221411", "431111",
-        "111224", "111422", "121124", "121421", "141122", "141221", "112214",
-        "112412", "122114", "122411", "142112", "142211", "241211", "221114",
-        "413111", "241112", "134111", "111242", "121142", "121241", "114212",
-        "124112", "124211", "411212", "421112", "421211", "212141", "214121",
-        "412121", "111143", "111341", "131141", "114113", "114311", "411113",
-        "411311", "113141", "114131", "311141", "411131", "211412", "211214",
-        "211232", "211133"
+    /* EN 12323 Table 1 - "Code 16K" character encodations (11 modules each, packed one bit per module, most
+     * significant bit first, with alternating runs of 1 and 0 bits giving the element widths) */
+    private static final char[] C16K_TABLE = {
+        0x6cc, 0x66c, 0x666, 0x498, 0x48c, 0x44c, 0x4c8, 0x4c4, 0x464, 0x648,
+        0x644, 0x624, 0x59c, 0x4dc, 0x4ce, 0x5cc, 0x4ec, 0x4e6, 0x672, 0x65c,
+        0x64e, 0x6e4, 0x674, 0x76e, 0x74c, 0x72c, 0x726, 0x764, 0x734, 0x732,
+        0x6d8, 0x6c6, 0x636, 0x518, 0x458, 0x446, 0x588, 0x468, 0x462, 0x688,
+        0x628, 0x622, 0x5b8, 0x58e, 0x46e, 0x5d8, 0x5c6, 0x476, 0x776, 0x68e,
+        0x62e, 0x6e8, 0x6e2, 0x6ee, 0x758, 0x746, 0x716, 0x768, 0x762, 0x71a,
+        0x77a, 0x642, 0x78a, 0x530, 0x50c, 0x4b0, 0x486, 0x42c, 0x426, 0x590,
+        0x584, 0x4d0, 0x4c2, 0x434, 0x432, 0x612, 0x650, 0x7ba, 0x614, 0x47a,
+        0x53c, 0x4bc, 0x49e, 0x5e4, 0x4f4, 0x4f2, 0x7a4, 0x794, 0x792, 0x6de,
+        0x6f6, 0x7b6, 0x578, 0x51e, 0x45e, 0x5e8, 0x5e2, 0x7a8, 0x7a2, 0x5de,
+        0x5ee, 0x75e, 0x7ae, 0x684, 0x690, 0x69c, 0x6b8
     };
 
-    /* EN 12323 Table 3 and Table 4 - Start patterns and stop patterns */
-    private static final String[] C16K_START_STOP = {
-        "3211", "2221", "2122", "1411", "1132", "1231", "1114", "3112"
+    /* EN 12323 Table 3 and Table 4 - Start patterns and stop patterns (7 modules each, packed as above) */
+    private static final char[] C16K_START_STOP = {
+        0x72, 0x66, 0x6c, 0x42, 0x5c, 0x4e, 0x50, 0x74
     };
 
     /* EN 12323 Table 5 - Start and stop values defining row numbers */
@@ -91,7 +87,7 @@ protected void encode() {
 
         // TODO: is it possible to share any of this code with Code128, which is more up to date?
 
-        String width_pattern;
+        WidthBuffer row_widths;
         int current_row, rows_needed, first_check, second_check;
         int indexchaine, pads_needed;
         char[] set, fset;
@@ -536,7 +532,7 @@ protected void encode() {
         bar_characters += 2;
 
         readable = "";
-        pattern = new String[rows_needed];
+        widths = new byte[rows_needed][];
         rowHeight = new int[rows_needed];
         rowCount = rows_needed;
 
@@ -545,16 +541,17 @@ protected void encode() {
         infoLine("Second Check Digit: ", second_check);
 
         info("Codewords: ");
+        row_widths = new WidthBuffer(4 + 1 + (5 * 6) + 4);
         for (current_row = 0; current_row < rows_needed; current_row++) {
-            width_pattern = "";
-            width_pattern += C16K_START_STOP[C16K_START_VALUES[current_row]];
-            width_pattern += "1";
+            row_widths.clear();
+            row_widths.appendModules(C16K_START_STOP[C16K_START_VALUES[current_row]], 7);
+            row_widths.append(1);
             for (i = 0; i < 5; i++) {
-                width_pattern += C16K_TABLE[values[(current_row * 5) + i]];
+                row_widths.appendModules(C16K_TABLE[values[(current_row * 5) + i]], 11);
                 infoSpace(values[(current_row * 5) + i]);
             }
-            width_pattern += C16K_START_STOP[C16K_STOP_VALUES[current_row]];
-            pattern[current_row] = width_pattern;
+            row_widths.appendModules(C16K_START_STOP[C16K_STOP_VALUES[current_row]], 7);
+            widths[current_row] = row_widths.toArray();
             rowHeight[current_row] = 10;
         }
         infoLine();
@@ -754,10 +751,11 @@ protected void plotSymbol() {
             black = true;
             x = 15;
             h = rowHeight[yBlock];
-            for (xBlock = 0; xBlock < pattern[yBlock].length(); xBlock++) {
+            byte[] row = widths[yBlock];
+            for (xBlock = 0; xBlock < row.length; xBlock++) {
+                w = row[xBlock];
                 if (black) {
                     black = false;
-                    w = pattern[yBlock].charAt(xBlock) - '0';
                     if (w != 0 && h != 0) {
                         addRectangle(new Rectangle(x, y, w, h));
                     }
@@ -767,7 +765,7 @@ protected void plotSymbol() {
                 } else {
                     black = true;
                 }
-                x += pattern[yBlock].charAt(xBlock) - '0';
+                x += w;
             }
             y += h;
             if (y > symbolHeight) {
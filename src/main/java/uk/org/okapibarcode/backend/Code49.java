@@ -70,924 +70,761 @@ public class Code49 extends Symbol {
         "OEEO", "EOEO", "OOEE", "EEOO", "OEOE", "EOOE", "OOOO", "EEEE"
     };
 
-    private static final String[] C49_APPXE_EVEN = {
+    /* Each symbol character pattern is 16 modules wide, and is packed into a char, one bit per module (1 = bar,
+     * 0 = space), most significant bit first */
+
+    private static final char[] C49_APPXE_EVEN = {
         /* Appendix E - Code 49 Encodation Patterns (Even Symbol Character Parity) */
         /* Column 1 */
-        "11521132", "25112131", "14212132", "25121221", "14221222", "12412132",
-        "23321221", "12421222", "21521221", "15112222", "15121312", "13312222",
-        "24221311", "13321312", "11512222", "22421311", "11521312", "25112311",
-        "14212312", "23312311", "12412312", "21512311", "16121131", "14321131",
-        "12521131", "15212131", "15221221", "13412131", "13421221", "11612131",
-        "16112221", "16121311", "14312221", "14321311", "12512221", "12521311",
-        "15212311", "13412311", "11612311", "11131135", "31131133", "51131131",
-        "21122134", "41122132", "21131224", "41131222", "11113135", "31113133",
-        "51113131", "11122225", "31122223", "51122221", "11131315", "31131313",
-        "51131311", "21113224", "41113222", "21122314",
+        0xbe5c, 0xc16e, 0x86dc, 0xc126, 0x864c, 0x9edc, 0xc726, 0x9e4c,
+        0xdf26, 0x82cc, 0x8244, 0x8ecc, 0xc322, 0x8e44, 0xbecc, 0xcf22,
+        0xbe44, 0xc162, 0x86c4, 0xc762, 0x9ec4, 0xdf62, 0x812e, 0x872e,
+        0x9f2e, 0x836e, 0x8326, 0x8f6e, 0x8f26, 0xbf6e, 0x8166, 0x8122,
+        0x8766, 0x8722, 0x9f66, 0x9f22, 0x8362, 0x8f62, 0xbf62, 0xa2e0,
+        0xe8b8, 0xfa2e, 0xd370, 0xf4dc, 0xd130, 0xf44c, 0xaee0, 0xebb8,
+        0xfaee, 0xa660, 0xe998, 0xfa66, 0xa220, 0xe888, 0xfa22, 0xd730,
+        0xf5cc, 0xd310,
         /* Column 2 */
-        "41122312", "11113315", "31113313", "51113311", "12131134", "32131132",
-        "21231133", "41231131", "22122133", "42122131", "11222134", "22131223",
-        "42131221", "11231224", "31231222", "12113134", "32113132", "12122224",
-        "32122222", "12131314", "32131312", "21231313", "41231311", "22113223",
-        "42113221", "11213224", "22122313", "42122311", "11222314", "31222312",
-        "12113314", "32113312", "21213313", "41213311", "13131133", "33131131",
-        "22231132", "11331133", "31331131", "23122132", "12222133", "23131222",
-        "12231223", "32231221", "21331222", "13113133", "33113131", "13122223",
-        "33122221", "11313133", "13131313", "33131311", "11322223", "22231312",
-        "11331313", "31331311", "23113222", "12213223",
+        0xf4c4, 0xae20, 0xeb88, 0xfae2, 0x9170, 0xe45c, 0xd8b8, 0xf62e,
+        0xc9b8, 0xf26e, 0xb370, 0xc898, 0xf226, 0xb130, 0xec4c, 0x9770,
+        0xe5dc, 0x9330, 0xe4cc, 0x9110, 0xe444, 0xd888, 0xf622, 0xcb98,
+        0xf2e6, 0xb730, 0xc988, 0xf262, 0xb310, 0xecc4, 0x9710, 0xe5c4,
+        0xdb88, 0xf6e2, 0x88b8, 0xe22e, 0xcc5c, 0xb8b8, 0xee2e, 0xc4dc,
+        0x99b8, 0xc44c, 0x9898, 0xe626, 0xdc4c, 0x8bb8, 0xe2ee, 0x8998,
+        0xe266, 0xbbb8, 0x8888, 0xe222, 0xb998, 0xcc44, 0xb888, 0xee22,
+        0xc5cc, 0x9b98,
         /* Column 3 */
-        "23122312", "12222313", "32222311", "21322312", "13113313", "33113311",
-        "22213312", "11313313", "31313311", "14131132", "23231131", "12331132",
-        "21431131", "24122131", "13222132", "24131221", "13231222", "11422132",
-        "22331221", "11431222", "14113132", "14122222", "12313132", "14131312",
-        "12322222", "23231311", "12331312", "21431311", "24113221", "13213222",
-        "24122311", "13222312", "11413222", "22322311", "11422312", "14113312",
-        "23213311", "12313312", "21413311", "15131131", "13331131", "14222131",
-        "14231221", "12422131", "12431221", "15113131", "15122221", "13313131",
-        "15131311", "13322221", "11513131", "13331311", "11522221", "14213221",
-        "14222311", "12413221", "12422311", "15113311",
+        0xc4c4, 0x9988, 0xe662, 0xdcc4, 0x8b88, 0xe2e2, 0xcdc4, 0xbb88,
+        0xeee2, 0x845c, 0xc62e, 0x9c5c, 0xde2e, 0xc26e, 0x8cdc, 0xc226,
+        0x8c4c, 0xbcdc, 0xce26, 0xbc4c, 0x85dc, 0x84cc, 0x9ddc, 0x8444,
+        0x9ccc, 0xc622, 0x9c44, 0xde22, 0xc2e6, 0x8dcc, 0xc262, 0x8cc4,
+        0xbdcc, 0xce62, 0xbcc4, 0x85c4, 0xc6e2, 0x9dc4, 0xdee2, 0x822e,
+        0x8e2e, 0x866e, 0x8626, 0x9e6e, 0x9e26, 0x82ee, 0x8266, 0x8eee,
+        0x8222, 0x8e66, 0xbeee, 0x8e22, 0xbe66, 0x86e6, 0x8662, 0x9ee6,
+        0x9e62, 0x82e2,
         /* Column 4 */
-        "13313311", "11513311", "11141134", "31141132", "21132133", "41132131",
-        "21141223", "41141221", "11123134", "31123132", "11132224", "31132222",
-        "11141314", "31141312", "21114133", "41114131", "21123223", "41123221",
-        "21132313", "41132311", "11114224", "31114222", "11123314", "31123312",
-        "21114313", "41114311", "12141133", "32141131", "21241132", "22132132",
-        "11232133", "22141222", "11241223", "31241221", "12123133", "32123131",
-        "12132223", "32132221", "12141313", "32141311", "21241312", "22114132",
-        "11214133", "22123222", "11223223", "22132312", "11232313", "31232311",
-        "12114223", "32114221", "12123313", "32123311", "21223312", "22114312",
-        "11214313", "31214311", "13141132", "22241131",
+        0x8ee2, 0xbee2, 0xa170, 0xe85c, 0xd1b8, 0xf46e, 0xd098, 0xf426,
+        0xa770, 0xe9dc, 0xa330, 0xe8cc, 0xa110, 0xe844, 0xd7b8, 0xf5ee,
+        0xd398, 0xf4e6, 0xd188, 0xf462, 0xaf30, 0xebcc, 0xa710, 0xe9c4,
+        0xd788, 0xf5e2, 0x90b8, 0xe42e, 0xd85c, 0xc8dc, 0xb1b8, 0xc84c,
+        0xb098, 0xec26, 0x93b8, 0xe4ee, 0x9198, 0xe466, 0x9088, 0xe422,
+        0xd844, 0xcbdc, 0xb7b8, 0xc9cc, 0xb398, 0xc8c4, 0xb188, 0xec62,
+        0x9798, 0xe5e6, 0x9388, 0xe4e2, 0xd9c4, 0xcbc4, 0xb788, 0xede2,
+        0x885c, 0xcc2e,
         /* Column 5 */
-        "11341132", "23132131", "12232132", "23141221", "12241222", "21341221",
-        "13123132", "13132222", "11323132", "13141312", "11332222", "22241311",
-        "11341312", "23114131", "12214132", "23123221", "12223222", "23132311",
-        "12232312", "21332311", "13114222", "13123312", "11314222", "22223311",
-        "11323312", "23114311", "12214312", "21314311", "14141131", "12341131",
-        "13232131", "13241221", "11432131", "14123131", "14132221", "12323131",
-        "14141311", "12332221", "12341311", "13214131", "13223221", "11414131",
-        "13232311", "11423221", "11432311", "14114221", "14123311", "12314221",
-        "12323311", "13214311", "11414311", "11151133", "31151131", "21142132",
-        "21151222", "11133133", "31133131", "11142223",
+        0xb85c, 0xc46e, 0x98dc, 0xc426, 0x984c, 0xdc26, 0x89dc, 0x88cc,
+        0xb9dc, 0x8844, 0xb8cc, 0xcc22, 0xb844, 0xc5ee, 0x9bdc, 0xc4e6,
+        0x99cc, 0xc462, 0x98c4, 0xdc62, 0x8bcc, 0x89c4, 0xbbcc, 0xcce2,
+        0xb9c4, 0xc5e2, 0x9bc4, 0xdde2, 0x842e, 0x9c2e, 0x8c6e, 0x8c26,
+        0xbc6e, 0x84ee, 0x8466, 0x9cee, 0x8422, 0x9c66, 0x9c22, 0x8dee,
+        0x8ce6, 0xbdee, 0x8c62, 0xbce6, 0xbc62, 0x85e6, 0x84e2, 0x9de6,
+        0x9ce2, 0x8de2, 0xbde2, 0xa0b8, 0xe82e, 0xd0dc, 0xd04c, 0xa3b8,
+        0xe8ee, 0xa198,
         /* Column 6 */
-        "31142221", "11151313", "31151311", "21124132", "21133222", "21142312",
-        "11115133", "31115131", "11124223", "31124221", "11133313", "31133311",
-        "21115222", "21124312", "12151132", "21251131", "22142131", "11242132",
-        "22151221", "11251222", "12133132", "12142222", "12151312", "21251311",
-        "22124131", "11224132", "22133221", "11233222", "22142311", "11242312",
-        "12115132", "12124222", "12133312", "21233311", "22115221", "11215222",
-        "22124311", "11224312", "13151131", "12242131", "12251221", "13133131",
-        "13142221", "11333131", "13151311", "11342221", "12224131", "12233221",
-        "12242311", "13115131", "13124221", "11315131", "13133311", "11324221",
-        "11333311", "12215221", "12224311", "11161132",
+        0xe866, 0xa088, 0xe822, 0xd3dc, 0xd1cc, 0xd0c4, 0xafb8, 0xebee,
+        0xa798, 0xe9e6, 0xa388, 0xe8e2, 0xd7cc, 0xd3c4, 0x905c, 0xd82e,
+        0xc86e, 0xb0dc, 0xc826, 0xb04c, 0x91dc, 0x90cc, 0x9044, 0xd822,
+        0xc9ee, 0xb3dc, 0xc8e6, 0xb1cc, 0xc862, 0xb0c4, 0x97dc, 0x93cc,
+        0x91c4, 0xd8e2, 0xcbe6, 0xb7cc, 0xc9e2, 0xb3c4, 0x882e, 0x986e,
+        0x9826, 0x88ee, 0x8866, 0xb8ee, 0x8822, 0xb866, 0x99ee, 0x98e6,
+        0x9862, 0x8bee, 0x89e6, 0xbbee, 0x88e2, 0xb9e6, 0xb8e2, 0x9be6,
+        0x99e2, 0xa05c,
         /* Column 7 */
-        "21152131", "21161221", "11143132", "11152222", "11161312", "21134131",
-        "21143221", "21152311", "11125132", "11134222", "11143312", "21116131",
-        "21125221", "21134311", "12161131", "11252131", "12143131", "12152221",
-        "12161311", "11234131", "11243221", "11252311", "12125131", "12134221",
-        "12143311", "11216131", "11225221", "11234311", "11111236", "31111234",
-        "51111232", "21111325", "41111323", "61111321", "11111416", "31111414",
-        "51111412", "31211143", "51211141", "12111235", "32111233", "52111231",
-        "21211234", "41211232", "22111324", "42111322", "11211325", "31211323",
-        "51211321", "12111415", "32111413", "52111411", "21211414", "41211412",
-        "12211144", "32211142", "21311143", "41311141",
+        0xd06e, 0xd026, 0xa1dc, 0xa0cc, 0xa044, 0xd1ee, 0xd0e6, 0xd062,
+        0xa7dc, 0xa3cc, 0xa1c4, 0xd7ee, 0xd3e6, 0xd1e2, 0x902e, 0xb06e,
+        0x90ee, 0x9066, 0x9022, 0xb1ee, 0xb0e6, 0xb062, 0x93ee, 0x91e6,
+        0x90e2, 0xb7ee, 0xb3e6, 0xb1e2, 0xa9c0, 0xea70, 0xfa9c, 0xd460,
+        0xf518, 0xfd46, 0xa840, 0xea10, 0xfa84, 0xed78, 0xfb5e, 0x94e0,
+        0xe538, 0xf94e, 0xda70, 0xf69c, 0xca30, 0xf28c, 0xb460, 0xed18,
+        0xfb46, 0x9420, 0xe508, 0xf942, 0xda10, 0xf684, 0x9af0, 0xe6bc,
+        0xdd78, 0xf75e,
         /* Column 8 */
-        "13111234", "33111232", "22211233", "42211231", "11311234", "31311232",
-        "23111323", "43111321", "12211324", "32211322", "21311323", "41311321",
-        "13111414", "33111412", "22211413", "42211411", "11311414", "31311412",
-        "13211143", "33211141", "22311142", "11411143", "31411141", "14111233",
-        "34111231", "23211232", "12311233", "32311231", "21411232", "24111322",
-        "13211323", "33211321", "22311322", "11411323", "31411321", "14111413",
-        "34111411", "23211412", "12311413", "32311411", "21411412", "14211142",
-        "23311141", "12411142", "21511141", "15111232", "24211231", "13311232",
-        "22411231", "11511232", "25111321", "14211322", "23311321", "12411322",
-        "21511321", "15111412", "24211411", "13311412",
+        0x8a70, 0xe29c, 0xcd38, 0xf34e, 0xba70, 0xee9c, 0xc518, 0xf146,
+        0x9a30, 0xe68c, 0xdd18, 0xf746, 0x8a10, 0xe284, 0xcd08, 0xf342,
+        0xba10, 0xee84, 0x8d78, 0xe35e, 0xcebc, 0xbd78, 0xef5e, 0x8538,
+        0xe14e, 0xc69c, 0x9d38, 0xe74e, 0xde9c, 0xc28c, 0x8d18, 0xe346,
+        0xce8c, 0xbd18, 0xef46, 0x8508, 0xe142, 0xc684, 0x9d08, 0xe742,
+        0xde84, 0x86bc, 0xc75e, 0x9ebc, 0xdf5e, 0x829c, 0xc34e, 0x8e9c,
+        0xcf4e, 0xbe9c, 0xc146, 0x868c, 0xc746, 0x9e8c, 0xdf46, 0x8284,
+        0xc342, 0x8e84,
         /* Column 9 */
-        "22411411", "11511412", "15211141", "13411141", "11611141", "16111231",
-        "14311231", "12511231", "15211321", "13411321", "11611321", "16111411",
-        "14311411", "12511411", "21121144", "41121142", "11112145", "31112143",
-        "51112141", "11121235", "31121233", "51121231", "21112234", "41112232",
-        "21121324", "41121322", "11112325", "31112323", "51112321", "11121415",
-        "31121413", "51121411", "21112414", "41112412", "22121143", "42121141",
-        "11221144", "31221142", "12112144", "32112142", "12121234", "32121232",
-        "21221233", "41221231", "22112233", "42112231", "11212234", "22121323",
-        "42121321", "11221324", "31221322", "12112324", "32112322", "12121414",
-        "32121412", "21221413", "41221411", "22112413",
+        0xcf42, 0xbe84, 0x835e, 0x8f5e, 0xbf5e, 0x814e, 0x874e, 0x9f4e,
+        0x8346, 0x8f46, 0xbf46, 0x8142, 0x8742, 0x9f42, 0xd2f0, 0xf4bc,
+        0xade0, 0xeb78, 0xfade, 0xa4e0, 0xe938, 0xfa4e, 0xd670, 0xf59c,
+        0xd230, 0xf48c, 0xac60, 0xeb18, 0xfac6, 0xa420, 0xe908, 0xfa42,
+        0xd610, 0xf584, 0xc978, 0xf25e, 0xb2f0, 0xecbc, 0x96f0, 0xe5bc,
+        0x9270, 0xe49c, 0xd938, 0xf64e, 0xcb38, 0xf2ce, 0xb670, 0xc918,
+        0xf246, 0xb230, 0xec8c, 0x9630, 0xe58c, 0x9210, 0xe484, 0xd908,
+        0xf642, 0xcb08,
         /* Column 10 */
-        "42112411", "11212414", "31212412", "23121142", "12221143", "32221141",
-        "21321142", "13112143", "33112141", "13121233", "33121231", "11312143",
-        "22221232", "11321233", "31321231", "23112232", "12212233", "23121322",
-        "12221323", "32221321", "21321322", "13112323", "33112321", "13121413",
-        "33121411", "11312323", "22221412", "11321413", "31321411", "23112412",
-        "12212413", "32212411", "21312412", "24121141", "13221142", "22321141",
-        "11421142", "14112142", "14121232", "12312142", "23221231", "12321232",
-        "21421231", "24112231", "13212232", "24121321", "13221322", "11412232",
-        "22321321", "11421322", "14112322", "14121412", "12312322", "23221411",
-        "12321412", "21421411", "24112411", "13212412",
+        0xf2c2, 0xb610, 0xed84, 0xc4bc, 0x9978, 0xe65e, 0xdcbc, 0x8b78,
+        0xe2de, 0x8938, 0xe24e, 0xbb78, 0xcc9c, 0xb938, 0xee4e, 0xc59c,
+        0x9b38, 0xc48c, 0x9918, 0xe646, 0xdc8c, 0x8b18, 0xe2c6, 0x8908,
+        0xe242, 0xbb18, 0xcc84, 0xb908, 0xee42, 0xc584, 0x9b08, 0xe6c2,
+        0xdd84, 0xc25e, 0x8cbc, 0xce5e, 0xbcbc, 0x85bc, 0x849c, 0x9dbc,
+        0xc64e, 0x9c9c, 0xde4e, 0xc2ce, 0x8d9c, 0xc246, 0x8c8c, 0xbd9c,
+        0xce46, 0xbc8c, 0x858c, 0x8484, 0x9d8c, 0xc642, 0x9c84, 0xde42,
+        0xc2c2, 0x8d84,
         /* Column 11 */
-        "22312411", "11412412", "14221141", "12421141", "15112141", "15121231",
-        "13312141", "13321231", "11512141", "11521231", "14212231", "14221321",
-        "12412231", "12421321", "15112321", "15121411", "13312321", "13321411",
-        "11512321", "11521411", "14212411", "12412411", "21131143", "41131141",
-        "11122144", "31122142", "11131234", "31131232", "21113143", "41113141",
-        "21122233", "41122231", "21131323", "41131321", "11113234", "31113232",
-        "11122324", "31122322", "11131414", "31131412", "21113323", "41113321",
-        "21122413", "41122411", "11113414", "31113412", "22131142", "11231143",
-        "31231141", "12122143", "32122141", "12131233", "32131231", "21231232",
-        "22113142", "11213143", "22122232", "11222233",
+        0xcec2, 0xbd84, 0x865e, 0x9e5e, 0x82de, 0x824e, 0x8ede, 0x8e4e,
+        0xbede, 0xbe4e, 0x86ce, 0x8646, 0x9ece, 0x9e46, 0x82c6, 0x8242,
+        0x8ec6, 0x8e42, 0xbec6, 0xbe42, 0x86c2, 0x9ec2, 0xd178, 0xf45e,
+        0xa6f0, 0xe9bc, 0xa270, 0xe89c, 0xd778, 0xf5de, 0xd338, 0xf4ce,
+        0xd118, 0xf446, 0xae70, 0xeb9c, 0xa630, 0xe98c, 0xa210, 0xe884,
+        0xd718, 0xf5c6, 0xd308, 0xf4c2, 0xae10, 0xeb84, 0xc8bc, 0xb178,
+        0xec5e, 0x9378, 0xe4de, 0x9138, 0xe44e, 0xd89c, 0xcbbc, 0xb778,
+        0xc99c, 0xb338,
         /* Column 12 */
-        "22131322", "11231323", "31231321", "12113233", "32113231", "12122323",
-        "32122321", "12131413", "32131411", "21231412", "22113322", "11213323",
-        "22122412", "11222413", "31222411", "12113413", "32113411", "21213412",
-        "23131141", "12231142", "21331141", "13122142", "13131232", "11322142",
-        "22231231", "11331232", "23113141", "12213142", "23122231", "12222232",
-        "23131321", "12231322", "21331321", "13113232", "13122322", "11313232",
-        "13131412", "11322322", "22231411", "11331412", "23113321", "12213322",
-        "23122411", "12222412", "21322411", "13113412", "22213411", "11313412",
-        "13231141", "11431141", "14122141", "14131231", "12322141", "12331231",
-        "13213141", "13222231", "11413141", "13231321",
+        0xc88c, 0xb118, 0xec46, 0x9738, 0xe5ce, 0x9318, 0xe4c6, 0x9108,
+        0xe442, 0xd884, 0xcb8c, 0xb718, 0xc984, 0xb308, 0xecc2, 0x9708,
+        0xe5c2, 0xdb84, 0xc45e, 0x98bc, 0xdc5e, 0x89bc, 0x889c, 0xb9bc,
+        0xcc4e, 0xb89c, 0xc5de, 0x9bbc, 0xc4ce, 0x999c, 0xc446, 0x988c,
+        0xdc46, 0x8b9c, 0x898c, 0xbb9c, 0x8884, 0xb98c, 0xcc42, 0xb884,
+        0xc5c6, 0x9b8c, 0xc4c2, 0x9984, 0xdcc2, 0x8b84, 0xcdc2, 0xbb84,
+        0x8c5e, 0xbc5e, 0x84de, 0x844e, 0x9cde, 0x9c4e, 0x8dde, 0x8cce,
+        0xbdde, 0x8c46,
         /* Column 13 */
-        "11422231", "11431321", "14113231", "14122321", "12313231", "14131411",
-        "12322321", "12331411", "13213321", "13222411", "11413321", "11422411",
-        "14113411", "12313411", "21141142", "11132143", "31132141", "11141233",
-        "31141231", "21123142", "21132232", "21141322", "11114143", "31114141",
-        "11123233", "31123231", "11132323", "31132321", "11141413", "31141411",
-        "21114232", "21123322", "21132412", "11114323", "31114321", "11123413",
-        "31123411", "22141141", "11241142", "12132142", "12141232", "21241231",
-        "22123141", "11223142", "22132231", "11232232", "22141321", "11241322",
-        "12114142", "12123232", "12132322", "12141412", "21241411", "22114231",
-        "11214232", "22123321", "11223322", "22132411",
+        0xbcce, 0xbc46, 0x85ce, 0x84c6, 0x9dce, 0x8442, 0x9cc6, 0x9c42,
+        0x8dc6, 0x8cc2, 0xbdc6, 0xbcc2, 0x85c2, 0x9dc2, 0xd0bc, 0xa378,
+        0xe8de, 0xa138, 0xe84e, 0xd3bc, 0xd19c, 0xd08c, 0xaf78, 0xebde,
+        0xa738, 0xe9ce, 0xa318, 0xe8c6, 0xa108, 0xe842, 0xd79c, 0xd38c,
+        0xd184, 0xaf18, 0xebc6, 0xa708, 0xe9c2, 0xc85e, 0xb0bc, 0x91bc,
+        0x909c, 0xd84e, 0xc9de, 0xb3bc, 0xc8ce, 0xb19c, 0xc846, 0xb08c,
+        0x97bc, 0x939c, 0x918c, 0x9084, 0xd842, 0xcbce, 0xb79c, 0xc9c6,
+        0xb38c, 0xc8c2,
         /* Column 14 */
-        "11232412", "12114322", "12123412", "21223411", "12241141", "13132141",
-        "13141231", "11332141", "11341231", "12223141", "12232231", "12241321",
-        "13114141", "13123231", "11314141", "13132321", "11323231", "13141411",
-        "11332321", "11341411", "12214231", "12223321", "12232411", "13114321",
-        "13123411", "11314321", "11323411", "21151141", "11142142", "11151232",
-        "21133141", "21142231", "21151321", "11124142", "11133232", "11142322",
-        "11151412", "21115141", "21124231", "21133321", "21142411", "11115232",
-        "11124322", "11133412", "11251141", "12142141", "12151231", "11233141",
-        "11242231", "11251321", "12124141", "12133231", "12142321", "12151411",
-        "11215141", "11224231", "11233321", "11242411",
+        0xb184, 0x978c, 0x9384, 0xd9c2, 0x985e, 0x88de, 0x884e, 0xb8de,
+        0xb84e, 0x99de, 0x98ce, 0x9846, 0x8bde, 0x89ce, 0xbbde, 0x88c6,
+        0xb9ce, 0x8842, 0xb8c6, 0xb842, 0x9bce, 0x99c6, 0x98c2, 0x8bc6,
+        0x89c2, 0xbbc6, 0xb9c2, 0xd05e, 0xa1bc, 0xa09c, 0xd1de, 0xd0ce,
+        0xd046, 0xa7bc, 0xa39c, 0xa18c, 0xa084, 0xd7de, 0xd3ce, 0xd1c6,
+        0xd0c2, 0xaf9c, 0xa78c, 0xa384, 0xb05e, 0x90de, 0x904e, 0xb1de,
+        0xb0ce, 0xb046, 0x93de, 0x91ce, 0x90c6, 0x9042, 0xb7de, 0xb3ce,
+        0xb1c6, 0xb0c2,
         /* Column 15 */
-        "12115231", "12124321", "12133411", "11152141", "11161231", "11134141",
-        "11143231", "11152321", "11161411", "11116141", "11125231", "11134321",
-        "11143411", "21111244", "41111242", "11111335", "31111333", "51111331",
-        "21111424", "41111422", "11111515", "31111513", "51111511", "21211153",
-        "41211151", "22111243", "42111241", "11211244", "31211242", "12111334",
-        "32111332", "21211333", "41211331", "22111423", "42111421", "11211424",
-        "31211422", "12111514", "32111512", "21211513", "41211511", "22211152",
-        "11311153", "31311151", "23111242", "12211243", "32211241", "21311242",
-        "13111333", "33111331", "22211332", "11311333", "31311331", "23111422",
-        "12211423", "32211421", "21311422", "13111513",
+        0x97ce, 0x93c6, 0x91c2, 0xa0de, 0xa04e, 0xa3de, 0xa1ce, 0xa0c6,
+        0xa042, 0xafde, 0xa7ce, 0xa3c6, 0xa1c2, 0xd4f0, 0xf53c, 0xa8e0,
+        0xea38, 0xfa8e, 0xd430, 0xf50c, 0xa820, 0xea08, 0xfa82, 0xdaf8,
+        0xf6be, 0xca78, 0xf29e, 0xb4f0, 0xed3c, 0x9470, 0xe51c, 0xda38,
+        0xf68e, 0xca18, 0xf286, 0xb430, 0xed0c, 0x9410, 0xe504, 0xda08,
+        0xf682, 0xcd7c, 0xbaf8, 0xeebe, 0xc53c, 0x9a78, 0xe69e, 0xdd3c,
+        0x8a38, 0xe28e, 0xcd1c, 0xba38, 0xee8e, 0xc50c, 0x9a18, 0xe686,
+        0xdd0c, 0x8a08,
         /* Column 16 */
-        "33111511", "22211512", "11311513", "31311511", "23211151", "12311152",
-        "21411151", "24111241", "13211242", "22311241", "11411242", "14111332",
-        "23211331", "12311332", "21411331", "24111421", "13211422", "22311421",
-        "11411422", "14111512", "23211511", "12311512", "21411511", "13311151",
-        "11511151", "14211241", "12411241", "15111331", "13311331", "11511331",
-        "14211421", "12411421", "15111511", "13311511", "11511511", "31121152",
-        "21112153", "41112151", "21121243", "41121241", "11112244", "31112242",
-        "11121334", "31121332", "21112333", "41112331", "21121423", "41121421",
-        "11112424", "31112422", "11121514", "31121512", "21112513", "41112511",
-        "12121153", "32121151", "21221152", "22112152",
+        0xe282, 0xcd04, 0xba08, 0xee82, 0xc6be, 0x9d7c, 0xdebe, 0xc29e,
+        0x8d3c, 0xce9e, 0xbd3c, 0x851c, 0xc68e, 0x9d1c, 0xde8e, 0xc286,
+        0x8d0c, 0xce86, 0xbd0c, 0x8504, 0xc682, 0x9d04, 0xde82, 0x8ebe,
+        0xbebe, 0x869e, 0x9e9e, 0x828e, 0x8e8e, 0xbe8e, 0x8686, 0x9e86,
+        0x8282, 0x8e82, 0xbe82, 0xe97c, 0xd6f8, 0xf5be, 0xd278, 0xf49e,
+        0xacf0, 0xeb3c, 0xa470, 0xe91c, 0xd638, 0xf58e, 0xd218, 0xf486,
+        0xac30, 0xeb0c, 0xa410, 0xe904, 0xd608, 0xf582, 0x92f8, 0xe4be,
+        0xd97c, 0xcb7c,
         /* Column 17 */
-        "11212153", "22121242", "11221243", "31221241", "12112243", "32112241",
-        "12121333", "32121331", "21221332", "22112332", "11212333", "22121422",
-        "11221423", "31221421", "12112423", "32112421", "12121513", "32121511",
-        "21221512", "22112512", "11212513", "31212511", "13121152", "22221151",
-        "11321152", "23112151", "12212152", "23121241", "12221242", "21321241",
-        "13112242", "13121332", "11312242", "22221331", "11321332", "23112331",
-        "12212332", "23121421", "12221422", "21321421", "13112422", "13121512",
-        "11312422", "22221511", "11321512", "23112511", "12212512", "21312511",
-        "14121151", "12321151", "13212151", "13221241", "11412151", "11421241",
-        "14112241", "14121331", "12312241", "12321331",
+        0xb6f8, 0xc93c, 0xb278, 0xec9e, 0x9678, 0xe59e, 0x9238, 0xe48e,
+        0xd91c, 0xcb1c, 0xb638, 0xc90c, 0xb218, 0xec86, 0x9618, 0xe586,
+        0x9208, 0xe482, 0xd904, 0xcb04, 0xb608, 0xed82, 0x897c, 0xccbe,
+        0xb97c, 0xc5be, 0x9b7c, 0xc49e, 0x993c, 0xdc9e, 0x8b3c, 0x891c,
+        0xbb3c, 0xcc8e, 0xb91c, 0xc58e, 0x9b1c, 0xc486, 0x990c, 0xdc86,
+        0x8b0c, 0x8904, 0xbb0c, 0xcc82, 0xb904, 0xc582, 0x9b04, 0xdd82,
+        0x84be, 0x9cbe, 0x8dbe, 0x8c9e, 0xbdbe, 0xbc9e, 0x859e, 0x848e,
+        0x9d9e, 0x9c8e,
         /* Column 18 */
-        "13212331", "13221421", "11412331", "11421421", "14112421", "14121511",
-        "12312421", "12321511", "13212511", "11412511", "11131153", "31131151",
-        "21122152", "21131242", "11113153", "31113151", "11122243", "31122241",
-        "11131333", "31131331", "21113242", "21122332", "21131422", "11113333",
-        "31113331", "11122423", "31122421", "11131513", "31131511", "21113422",
-        "21122512", "12131152", "21231151", "22122151", "11222152", "22131241",
-        "11231242", "12113152", "12122242", "12131332", "21231331", "22113241",
-        "11213242", "22122331", "11222332", "22131421", "11231422", "12113332",
-        "12122422", "12131512", "21231511", "22113421", "11213422", "22122511",
-        "11222512", "13131151", "11331151", "12222151",
+        0x8d8e, 0x8c86, 0xbd8e, 0xbc86, 0x8586, 0x8482, 0x9d86, 0x9c82,
+        0x8d82, 0xbd82, 0xa2f8, 0xe8be, 0xd37c, 0xd13c, 0xaef8, 0xebbe,
+        0xa678, 0xe99e, 0xa238, 0xe88e, 0xd73c, 0xd31c, 0xd10c, 0xae38,
+        0xeb8e, 0xa618, 0xe986, 0xa208, 0xe882, 0xd70c, 0xd304, 0x917c,
+        0xd8be, 0xc9be, 0xb37c, 0xc89e, 0xb13c, 0x977c, 0x933c, 0x911c,
+        0xd88e, 0xcb9e, 0xb73c, 0xc98e, 0xb31c, 0xc886, 0xb10c, 0x971c,
+        0x930c, 0x9104, 0xd882, 0xcb86, 0xb70c, 0xc982, 0xb304, 0x88be,
+        0xb8be, 0x99be,
         /* Column 19 */
-        "12231241", "13113151", "13122241", "11313151", "13131331", "11322241",
-        "11331331", "12213241", "12222331", "12231421", "13113331", "13122421",
-        "11313331", "13131511", "11322421", "11331511", "12213421", "12222511",
-        "11141152", "21132151", "21141241", "11123152", "11132242", "11141332",
-        "21114151", "21123241", "21132331", "21141421", "11114242", "11123332",
-        "11132422", "11141512", "21114331", "21123421", "21132511", "12141151",
-        "11232151", "11241241", "12123151", "12132241", "12141331", "11214151",
-        "11223241", "11232331", "11241421", "12114241", "12123331", "12132421",
-        "12141511", "11214331", "11223421", "11232511", "11151151", "11133151",
-        "11142241", "11151331", "11115151", "11124241",
+        0x989e, 0x8bbe, 0x899e, 0xbbbe, 0x888e, 0xb99e, 0xb88e, 0x9b9e,
+        0x998e, 0x9886, 0x8b8e, 0x8986, 0xbb8e, 0x8882, 0xb986, 0xb882,
+        0x9b86, 0x9982, 0xa17c, 0xd1be, 0xd09e, 0xa77c, 0xa33c, 0xa11c,
+        0xd7be, 0xd39e, 0xd18e, 0xd086, 0xaf3c, 0xa71c, 0xa30c, 0xa104,
+        0xd78e, 0xd386, 0xd182, 0x90be, 0xb1be, 0xb09e, 0x93be, 0x919e,
+        0x908e, 0xb7be, 0xb39e, 0xb18e, 0xb086, 0x979e, 0x938e, 0x9186,
+        0x9082, 0xb78e, 0xb386, 0xb182, 0xa0be, 0xa3be, 0xa19e, 0xa08e,
+        0xafbe, 0xa79e,
         /* Column 20 */
-        "11133331", "11142421", "11151511", "11111254", "31111252", "21111343",
-        "41111341", "11111434", "31111432", "21111523", "41111521", "11111614",
-        "31111612", "31211161", "12111253", "32111251", "21211252", "22111342",
-        "11211343", "31211341", "12111433", "32111431", "21211432", "22111522",
-        "11211523", "31211521", "12111613", "32111611", "21211612", "12211162",
-        "21311161", "13111252", "22211251", "11311252", "23111341", "12211342",
-        "21311341", "13111432", "22211431", "11311432", "23111521", "12211522",
-        "21311521", "13111612", "22211611", "11311612", "13211161", "11411161",
-        "14111251", "12311251", "13211341", "11411341", "14111431", "12311431",
-        "13211521", "11411521", "14111611", "12311611",
+        0xa38e, 0xa186, 0xa082, 0xa9f0, 0xea7c, 0xd478, 0xf51e, 0xa870,
+        0xea1c, 0xd418, 0xf506, 0xa810, 0xea04, 0xed7e, 0x94f8, 0xe53e,
+        0xda7c, 0xca3c, 0xb478, 0xed1e, 0x9438, 0xe50e, 0xda1c, 0xca0c,
+        0xb418, 0xed06, 0x9408, 0xe502, 0xda04, 0x9afc, 0xdd7e, 0x8a7c,
+        0xcd3e, 0xba7c, 0xc51e, 0x9a3c, 0xdd1e, 0x8a1c, 0xcd0e, 0xba1c,
+        0xc506, 0x9a0c, 0xdd06, 0x8a04, 0xcd02, 0xba04, 0x8d7e, 0xbd7e,
+        0x853e, 0x9d3e, 0x8d1e, 0xbd1e, 0x850e, 0x9d0e, 0x8d06, 0xbd06,
+        0x8502, 0x9d02,
         /* Column 21 */
-        "21121162", "11112163", "31112161", "11121253", "31121251", "21112252",
-        "21121342", "11112343", "31112341", "11121433", "31121431", "21112432",
-        "21121522", "11112523", "31112521", "11121613", "31121611", "22121161",
-        "11221162", "12112162", "12121252", "21221251", "22112251", "11212252",
-        "22121341", "11221342", "12112342", "12121432", "21221431", "22112431",
-        "11212432", "22121521", "11221522", "12112522", "12121612", "21221611",
-        "12221161", "13112161", "13121251", "11312161", "11321251", "32121115",
-        "52121113", "21221116", "41221114", "61221112", "22112116", "42112114",
-        "31212115", "51212113", "13121116", "33121114", "22221115", "42221113",
-        "11321116", "31321114", "51321112", "23112115",
+        0xd2fc, 0xadf8, 0xeb7e, 0xa4f8, 0xe93e, 0xd67c, 0xd23c, 0xac78,
+        0xeb1e, 0xa438, 0xe90e, 0xd61c, 0xd20c, 0xac18, 0xeb06, 0xa408,
+        0xe902, 0xc97e, 0xb2fc, 0x96fc, 0x927c, 0xd93e, 0xcb3e, 0xb67c,
+        0xc91e, 0xb23c, 0x963c, 0x921c, 0xd90e, 0xcb0e, 0xb61c, 0xc906,
+        0xb20c, 0x960c, 0x9204, 0xd902, 0x997e, 0x8b7e, 0x893e, 0xbb7e,
+        0xb93e, 0xe4a0, 0xf928, 0xd940, 0xf650, 0xfd94, 0xcb40, 0xf2d0,
+        0xeda0, 0xfb68, 0x8940, 0xe250, 0xcca0, 0xf328, 0xb940, 0xee50,
+        0xfb94, 0xc5a0,
         /* Column 22 */
-        "43112113", "12212116", "32212114", "52212112", "21312115", "41312113",
-        "61312111", "14121115", "34121113", "23221114", "43221112", "12321115",
-        "32321113", "52321111", "21421114", "41421112", "24112114", "13212115",
-        "33212113", "22312114", "42312112", "11412115", "31412113", "51412111",
-        "15121114", "24221113", "13321114", "33321112", "22421113", "42421111",
-        "11521114", "31521112", "25112113", "14212114", "34212112", "23312113",
-        "43312111", "12412114", "32412112", "21512113", "41512111", "16121113",
-        "25221112", "14321113", "34321111", "23421112", "12521113", "32521111",
-        "15212113", "24312112", "13412113", "33412111", "22512112", "11612113",
-        "31612111", "31131115", "51131113", "21122116",
+        0xf168, 0x9b40, 0xe6d0, 0xf9b4, 0xdda0, 0xf768, 0xfdda, 0x84a0,
+        0xe128, 0xc650, 0xf194, 0x9ca0, 0xe728, 0xf9ca, 0xde50, 0xf794,
+        0xc2d0, 0x8da0, 0xe368, 0xced0, 0xf3b4, 0xbda0, 0xef68, 0xfbda,
+        0x8250, 0xc328, 0x8e50, 0xe394, 0xcf28, 0xf3ca, 0xbe50, 0xef94,
+        0xc168, 0x86d0, 0xe1b4, 0xc768, 0xf1da, 0x9ed0, 0xe7b4, 0xdf68,
+        0xf7da, 0x8128, 0xc194, 0x8728, 0xe1ca, 0xc794, 0x9f28, 0xe7ca,
+        0x8368, 0xc3b4, 0x8f68, 0xe3da, 0xcfb4, 0xbf68, 0xefda, 0xe8a0,
+        0xfa28, 0xd340,
         /* Column 23 */
-        "41122114", "61122112", "31113115", "51113113", "12131116", "32131114",
-        "52131112", "21231115", "41231113", "61231111", "22122115", "42122113",
-        "11222116", "31222114", "51222112", "12113116", "32113114", "52113112",
-        "21213115", "41213113", "61213111", "13131115", "33131113", "22231114",
-        "42231112", "11331115", "31331113", "51331111", "23122114", "43122112",
-        "12222115", "32222113", "52222111", "21322114", "41322112", "13113115",
-        "33113113", "22213114", "42213112", "11313115", "31313113", "51313111",
-        "14131114", "34131112", "23231113", "43231111", "12331114", "32331112",
-        "21431113", "41431111", "24122113", "13222114", "33222112", "22322113",
-        "42322111", "11422114", "31422112", "14113114",
+        0xf4d0, 0xfd34, 0xeba0, 0xfae8, 0x9140, 0xe450, 0xf914, 0xd8a0,
+        0xf628, 0xfd8a, 0xc9a0, 0xf268, 0xb340, 0xecd0, 0xfb34, 0x9740,
+        0xe5d0, 0xf974, 0xdba0, 0xf6e8, 0xfdba, 0x88a0, 0xe228, 0xcc50,
+        0xf314, 0xb8a0, 0xee28, 0xfb8a, 0xc4d0, 0xf134, 0x99a0, 0xe668,
+        0xf99a, 0xdcd0, 0xf734, 0x8ba0, 0xe2e8, 0xcdd0, 0xf374, 0xbba0,
+        0xeee8, 0xfbba, 0x8450, 0xe114, 0xc628, 0xf18a, 0x9c50, 0xe714,
+        0xde28, 0xf78a, 0xc268, 0x8cd0, 0xe334, 0xce68, 0xf39a, 0xbcd0,
+        0xef34, 0x85d0,
         /* Column 24 */
-        "34113112", "23213113", "43213111", "12313114", "32313112", "21413113",
-        "41413111", "15131113", "24231112", "13331113", "33331111", "22431112",
-        "25122112", "14222113", "34222111", "23322112", "12422113", "32422111",
-        "21522112", "15113113", "24213112", "13313113", "33313111", "22413112",
-        "11513113", "31513111", "16131112", "25231111", "14331112", "23431111",
-        "15222112", "24322111", "13422112", "22522111", "16113112", "25213111",
-        "14313112", "23413111", "12513112", "21613111", "11141116", "31141114",
-        "51141112", "21132115", "41132113", "61132111", "11123116", "31123114",
-        "51123112", "21114115", "41114113", "61114111", "12141115", "32141113",
-        "52141111", "21241114", "41241112", "22132114",
+        0xe174, 0xc6e8, 0xf1ba, 0x9dd0, 0xe774, 0xdee8, 0xf7ba, 0x8228,
+        0xc314, 0x8e28, 0xe38a, 0xcf14, 0xc134, 0x8668, 0xe19a, 0xc734,
+        0x9e68, 0xe79a, 0xdf34, 0x82e8, 0xc374, 0x8ee8, 0xe3ba, 0xcf74,
+        0xbee8, 0xefba, 0x8114, 0xc18a, 0x8714, 0xc78a, 0x8334, 0xc39a,
+        0x8f34, 0xcf9a, 0x8174, 0xc1ba, 0x8774, 0xc7ba, 0x9f74, 0xdfba,
+        0xa140, 0xe850, 0xfa14, 0xd1a0, 0xf468, 0xfd1a, 0xa740, 0xe9d0,
+        0xfa74, 0xd7a0, 0xf5e8, 0xfd7a, 0x90a0, 0xe428, 0xf90a, 0xd850,
+        0xf614, 0xc8d0,
         /* Column 25 */
-        "42132112", "11232115", "31232113", "51232111", "12123115", "32123113",
-        "52123111", "21223114", "41223112", "22114114", "42114112", "11214115",
-        "31214113", "51214111", "13141114", "33141112", "22241113", "42241111",
-        "11341114", "31341112", "23132113", "43132111", "12232114", "32232112",
-        "21332113", "41332111", "13123114", "33123112", "22223113", "42223111",
-        "11323114", "31323112", "23114113", "43114111", "12214114", "32214112",
-        "21314113", "41314111", "14141113", "34141111", "23241112", "12341113",
-        "32341111", "24132112", "13232113", "33232111", "22332112", "11432113",
-        "31432111", "14123113", "34123111", "23223112", "12323113", "32323111",
-        "21423112", "24114112", "13214113", "33214111",
+        0xf234, 0xb1a0, 0xec68, 0xfb1a, 0x93a0, 0xe4e8, 0xf93a, 0xd9d0,
+        0xf674, 0xcbd0, 0xf2f4, 0xb7a0, 0xede8, 0xfb7a, 0x8850, 0xe214,
+        0xcc28, 0xf30a, 0xb850, 0xee14, 0xc468, 0xf11a, 0x98d0, 0xe634,
+        0xdc68, 0xf71a, 0x89d0, 0xe274, 0xcce8, 0xf33a, 0xb9d0, 0xee74,
+        0xc5e8, 0xf17a, 0x9bd0, 0xe6f4, 0xdde8, 0xf77a, 0x8428, 0xe10a,
+        0xc614, 0x9c28, 0xe70a, 0xc234, 0x8c68, 0xe31a, 0xce34, 0xbc68,
+        0xef1a, 0x84e8, 0xe13a, 0xc674, 0x9ce8, 0xe73a, 0xde74, 0xc2f4,
+        0x8de8, 0xe37a,
         /* Column 26 */
-        "22314112", "11414113", "31414111", "15141112", "24241111", "13341112",
-        "25132111", "14232112", "23332111", "12432112", "15123112", "24223111",
-        "13323112", "22423111", "11523112", "25114111", "14214112", "23314111",
-        "12414112", "21514111", "16141111", "14341111", "15232111", "13432111",
-        "16123111", "14323111", "12523111", "15214111", "13414111", "11614111",
-        "11151115", "31151113", "51151111", "21142114", "41142112", "11133115",
-        "31133113", "51133111", "21124114", "41124112", "11115115", "31115113",
-        "51115111", "12151114", "32151112", "21251113", "41251111", "22142113",
-        "42142111", "11242114", "31242112", "12133114", "32133112", "21233113",
-        "41233111", "22124113", "42124111", "11224114",
+        0xcef4, 0xbde8, 0xef7a, 0x8214, 0xc30a, 0x8e14, 0xc11a, 0x8634,
+        0xc71a, 0x9e34, 0x8274, 0xc33a, 0x8e74, 0xcf3a, 0xbe74, 0xc17a,
+        0x86f4, 0xc77a, 0x9ef4, 0xdf7a, 0x810a, 0x870a, 0x831a, 0x8f1a,
+        0x813a, 0x873a, 0x9f3a, 0x837a, 0x8f7a, 0xbf7a, 0xa0a0, 0xe828,
+        0xfa0a, 0xd0d0, 0xf434, 0xa3a0, 0xe8e8, 0xfa3a, 0xd3d0, 0xf4f4,
+        0xafa0, 0xebe8, 0xfafa, 0x9050, 0xe414, 0xd828, 0xf60a, 0xc868,
+        0xf21a, 0xb0d0, 0xec34, 0x91d0, 0xe474, 0xd8e8, 0xf63a, 0xc9e8,
+        0xf27a, 0xb3d0,
         /* Column 27 */
-        "31224112", "12115114", "32115112", "21215113", "41215111", "13151113",
-        "33151111", "22251112", "23142112", "12242113", "32242111", "21342112",
-        "13133113", "33133111", "22233112", "11333113", "31333111", "23124112",
-        "12224113", "32224111", "21324112", "13115113", "33115111", "22215112",
-        "11315113", "31315111", "14151112", "23251111", "24142111", "13242112",
-        "22342111", "14133112", "23233111", "12333112", "21433111", "24124111",
-        "13224112", "22324111", "11424112", "14115112", "23215111", "12315112",
-        "21415111", "15151111", "14242111", "15133111", "13333111", "14224111",
-        "12424111", "15115111", "13315111", "11515111", "11161114", "31161112",
-        "21152113", "41152111", "11143114", "31143112",
+        0xecf4, 0x97d0, 0xe5f4, 0xdbe8, 0xf6fa, 0x8828, 0xe20a, 0xcc14,
+        0xc434, 0x9868, 0xe61a, 0xdc34, 0x88e8, 0xe23a, 0xcc74, 0xb8e8,
+        0xee3a, 0xc4f4, 0x99e8, 0xe67a, 0xdcf4, 0x8be8, 0xe2fa, 0xcdf4,
+        0xbbe8, 0xeefa, 0x8414, 0xc60a, 0xc21a, 0x8c34, 0xce1a, 0x8474,
+        0xc63a, 0x9c74, 0xde3a, 0xc27a, 0x8cf4, 0xce7a, 0xbcf4, 0x85f4,
+        0xc6fa, 0x9df4, 0xdefa, 0x820a, 0x861a, 0x823a, 0x8e3a, 0x867a,
+        0x9e7a, 0x82fa, 0x8efa, 0xbefa, 0xa050, 0xe814, 0xd068, 0xf41a,
+        0xa1d0, 0xe874,
         /* Column 28 */
-        "21134113", "41134111", "11125114", "31125112", "21116113", "41116111",
-        "12161113", "32161111", "22152112", "11252113", "31252111", "12143113",
-        "32143111", "21243112", "22134112", "11234113", "31234111", "12125113",
-        "32125111", "21225112", "22116112", "11216113", "31216111", "13161112",
-        "23152111", "12252112", "13143112", "22243111", "11343112", "23134111",
-        "12234112", "21334111", "13125112", "22225111", "11325112", "23116111",
-        "12216112", "21316111", "14161111", "13252111", "14143111", "12343111",
-        "13234111", "11434111", "14125111", "12325111", "13216111", "11416111",
-        "31111216", "51111214", "31211125", "51211123", "32111215", "52111213",
-        "21211216", "41211214", "61211212", "12211126",
+        0xd1e8, 0xf47a, 0xa7d0, 0xe9f4, 0xd7e8, 0xf5fa, 0x9028, 0xe40a,
+        0xc834, 0xb068, 0xec1a, 0x90e8, 0xe43a, 0xd874, 0xc8f4, 0xb1e8,
+        0xec7a, 0x93e8, 0xe4fa, 0xd9f4, 0xcbf4, 0xb7e8, 0xedfa, 0x8814,
+        0xc41a, 0x9834, 0x8874, 0xcc3a, 0xb874, 0xc47a, 0x98f4, 0xdc7a,
+        0x89f4, 0xccfa, 0xb9f4, 0xc5fa, 0x9bf4, 0xddfa, 0x840a, 0x8c1a,
+        0x843a, 0x9c3a, 0x8c7a, 0xbc7a, 0x84fa, 0x9cfa, 0x8dfa, 0xbdfa,
+        0xea40, 0xfa90, 0xed60, 0xfb58, 0xe520, 0xf948, 0xda40, 0xf690,
+        0xfda4, 0x9ac0,
         /* Column 29 */
-        "32211124", "52211122", "21311125", "41311123", "61311121", "13111216",
-        "33111214", "22211215", "42211213", "11311216", "31311214", "51311212",
-        "13211125", "33211123", "22311124", "42311122", "11411125", "31411123",
-        "51411121", "14111215", "34111213", "23211214", "43211212", "12311215",
-        "32311213", "52311211", "21411214", "41411212", "14211124", "34211122",
-        "23311123", "43311121", "12411124", "32411122", "21511123", "41511121",
-        "15111214", "24211213", "13311214", "33311212", "22411213", "42411211",
-        "11511214", "31511212", "15211123", "24311122", "13411123", "33411121",
-        "22511122", "11611123", "31611121", "16111213", "25211212", "14311213",
-        "34311211", "23411212", "12511213", "32511211",
+        0xe6b0, 0xf9ac, 0xdd60, 0xf758, 0xfdd6, 0x8a40, 0xe290, 0xcd20,
+        0xf348, 0xba40, 0xee90, 0xfba4, 0x8d60, 0xe358, 0xceb0, 0xf3ac,
+        0xbd60, 0xef58, 0xfbd6, 0x8520, 0xe148, 0xc690, 0xf1a4, 0x9d20,
+        0xe748, 0xf9d2, 0xde90, 0xf7a4, 0x86b0, 0xe1ac, 0xc758, 0xf1d6,
+        0x9eb0, 0xe7ac, 0xdf58, 0xf7d6, 0x8290, 0xc348, 0x8e90, 0xe3a4,
+        0xcf48, 0xf3d2, 0xbe90, 0xefa4, 0x8358, 0xc3ac, 0x8f58, 0xe3d6,
+        0xcfac, 0xbf58, 0xefd6, 0x8148, 0xc1a4, 0x8748, 0xe1d2, 0xc7a4,
+        0x9f48, 0xe7d2,
         /* Column 30 */
-        "21611212", "21121126", "41121124", "61121122", "31112125", "51112123",
-        "31121215", "51121213", "21112216", "41112214", "61112212", "22121125",
-        "42121123", "11221126", "31221124", "51221122", "12112126", "32112124",
-        "52112122", "12121216", "32121214", "52121212", "21221215", "41221213",
-        "61221211", "22112215", "42112213", "11212216", "31212214", "51212212",
-        "23121124", "43121122", "12221125", "32221123", "52221121", "21321124",
-        "41321122", "13112125", "33112123", "13121215", "33121213", "11312125",
-        "22221214", "42221212", "11321215", "31321213", "51321211", "23112214",
-        "43112212", "12212215", "32212213", "52212211", "21312214", "41312212",
-        "24121123", "13221124", "33221122", "22321123",
+        0xdfa4, 0xd2c0, 0xf4b0, 0xfd2c, 0xeb60, 0xfad8, 0xe920, 0xfa48,
+        0xd640, 0xf590, 0xfd64, 0xc960, 0xf258, 0xb2c0, 0xecb0, 0xfb2c,
+        0x96c0, 0xe5b0, 0xf96c, 0x9240, 0xe490, 0xf924, 0xd920, 0xf648,
+        0xfd92, 0xcb20, 0xf2c8, 0xb640, 0xed90, 0xfb64, 0xc4b0, 0xf12c,
+        0x9960, 0xe658, 0xf996, 0xdcb0, 0xf72c, 0x8b60, 0xe2d8, 0x8920,
+        0xe248, 0xbb60, 0xcc90, 0xf324, 0xb920, 0xee48, 0xfb92, 0xc590,
+        0xf164, 0x9b20, 0xe6c8, 0xf9b2, 0xdd90, 0xf764, 0xc258, 0x8cb0,
+        0xe32c, 0xce58,
         /* Column 31 */
-        "42321121", "11421124", "31421122", "14112124", "34112122", "14121214",
-        "34121212", "12312124", "23221213", "43221211", "12321214", "32321212",
-        "21421213", "41421211", "24112213", "13212214", "33212212", "22312213",
-        "42312211", "11412214", "31412212", "25121122", "14221123", "34221121",
-        "23321122", "12421123", "32421121", "21521122", "15112123", "15121213",
-        "13312123", "24221212", "13321213", "33321211", "11512123", "22421212",
-        "11521213", "31521211", "25112212", "14212213", "34212211", "23312212",
-        "12412213", "32412211", "21512212", "15221122", "24321121", "13421122",
-        "22521121", "16112122", "16121212", "14312122", "25221211", "14321212",
-        "12512122", "23421211", "12521212", "15212212",
+        0xf396, 0xbcb0, 0xef2c, 0x85b0, 0xe16c, 0x8490, 0xe124, 0x9db0,
+        0xc648, 0xf192, 0x9c90, 0xe724, 0xde48, 0xf792, 0xc2c8, 0x8d90,
+        0xe364, 0xcec8, 0xf3b2, 0xbd90, 0xef64, 0xc12c, 0x8658, 0xe196,
+        0xc72c, 0x9e58, 0xe796, 0xdf2c, 0x82d8, 0x8248, 0x8ed8, 0xc324,
+        0x8e48, 0xe392, 0xbed8, 0xcf24, 0xbe48, 0xef92, 0xc164, 0x86c8,
+        0xe1b2, 0xc764, 0x9ec8, 0xe7b2, 0xdf64, 0x832c, 0xc396, 0x8f2c,
+        0xcf96, 0x816c, 0x8124, 0x876c, 0xc192, 0x8724, 0x9f6c, 0xc792,
+        0x9f24, 0x8364,
         /* Column 32 */
-        "24312211", "13412212", "22512211", "11612212", "21131125", "41131123",
-        "61131121", "11122126", "31122124", "51122122", "11131216", "31131214",
-        "51131212", "21113125", "41113123", "61113121", "21122215", "41122213",
-        "61122211", "11113216", "31113214", "51113212", "22131124", "42131122",
-        "11231125", "31231123", "51231121", "12122125", "32122123", "52122121",
-        "12131215", "32131213", "52131211", "21231214", "41231212", "22113124",
-        "42113122", "11213125", "22122214", "42122212", "11222215", "31222213",
-        "51222211", "12113215", "32113213", "52113211", "21213214", "41213212",
-        "23131123", "43131121", "12231124", "32231122", "21331123", "41331121",
-        "13122124", "33122122", "13131214", "33131212",
+        0xc3b2, 0x8f64, 0xcfb2, 0xbf64, 0xd160, 0xf458, 0xfd16, 0xa6c0,
+        0xe9b0, 0xfa6c, 0xa240, 0xe890, 0xfa24, 0xd760, 0xf5d8, 0xfd76,
+        0xd320, 0xf4c8, 0xfd32, 0xae40, 0xeb90, 0xfae4, 0xc8b0, 0xf22c,
+        0xb160, 0xec58, 0xfb16, 0x9360, 0xe4d8, 0xf936, 0x9120, 0xe448,
+        0xf912, 0xd890, 0xf624, 0xcbb0, 0xf2ec, 0xb760, 0xc990, 0xf264,
+        0xb320, 0xecc8, 0xfb32, 0x9720, 0xe5c8, 0xf972, 0xdb90, 0xf6e4,
+        0xc458, 0xf116, 0x98b0, 0xe62c, 0xdc58, 0xf716, 0x89b0, 0xe26c,
+        0x8890, 0xe224,
         /* Column 33 */
-        "11322124", "22231213", "42231211", "11331214", "31331212", "23113123",
-        "43113121", "12213124", "23122213", "43122211", "12222214", "32222212",
-        "21322213", "41322211", "13113214", "33113212", "22213213", "42213211",
-        "11313214", "31313212", "24131122", "13231123", "33231121", "22331122",
-        "11431123", "31431121", "14122123", "34122121", "14131213", "34131211",
-        "12322123", "23231212", "12331213", "32331211", "21431212", "24113122",
-        "13213123", "24122212", "13222213", "33222211", "11413123", "22322212",
-        "11422213", "31422211", "14113213", "34113211", "23213212", "12313213",
-        "32313211", "21413212", "25131121", "14231122", "23331121", "12431122",
-        "15122122", "15131212", "13322122", "24231211",
+        0xb9b0, 0xcc48, 0xf312, 0xb890, 0xee24, 0xc5d8, 0xf176, 0x9bb0,
+        0xc4c8, 0xf132, 0x9990, 0xe664, 0xdcc8, 0xf732, 0x8b90, 0xe2e4,
+        0xcdc8, 0xf372, 0xbb90, 0xeee4, 0xc22c, 0x8c58, 0xe316, 0xce2c,
+        0xbc58, 0xef16, 0x84d8, 0xe136, 0x8448, 0xe112, 0x9cd8, 0xc624,
+        0x9c48, 0xe712, 0xde24, 0xc2ec, 0x8dd8, 0xc264, 0x8cc8, 0xe332,
+        0xbdd8, 0xce64, 0xbcc8, 0xef32, 0x85c8, 0xe172, 0xc6e4, 0x9dc8,
+        0xe772, 0xdee4, 0xc116, 0x862c, 0xc716, 0x9e2c, 0x826c, 0x8224,
+        0x8e6c, 0xc312,
         /* Column 34 */
-        "13331212", "11522122", "22431211", "25113121", "14213122", "25122211",
-        "14222212", "12413122", "23322211", "12422212", "21522211", "15113212",
-        "24213211", "13313212", "22413211", "11513212", "15231121", "13431121",
-        "16122121", "16131211", "14322121", "14331211", "12522121", "15213121",
-        "15222211", "13413121", "13422211", "11613121", "16113211", "14313211",
-        "12513211", "21141124", "41141122", "11132125", "31132123", "51132121",
-        "11141215", "31141213", "51141211", "21123124", "41123122", "21132214",
-        "41132212", "11114125", "31114123", "51114121", "11123215", "31123213",
-        "51123211", "21114214", "41114212", "22141123", "42141121", "11241124",
-        "31241122", "12132124", "32132122", "12141214",
+        0x8e24, 0xbe6c, 0xcf12, 0xc176, 0x86ec, 0xc132, 0x8664, 0x9eec,
+        0xc732, 0x9e64, 0xdf32, 0x82e4, 0xc372, 0x8ee4, 0xcf72, 0xbee4,
+        0x8316, 0x8f16, 0x8136, 0x8112, 0x8736, 0x8712, 0x9f36, 0x8376,
+        0x8332, 0x8f76, 0x8f32, 0xbf76, 0x8172, 0x8772, 0x9f72, 0xd0b0,
+        0xf42c, 0xa360, 0xe8d8, 0xfa36, 0xa120, 0xe848, 0xfa12, 0xd3b0,
+        0xf4ec, 0xd190, 0xf464, 0xaf60, 0xebd8, 0xfaf6, 0xa720, 0xe9c8,
+        0xfa72, 0xd790, 0xf5e4, 0xc858, 0xf216, 0xb0b0, 0xec2c, 0x91b0,
+        0xe46c, 0x9090,
         /* Column 35 */
-        "32141212", "21241213", "41241211", "22123123", "42123121", "11223124",
-        "22132213", "42132211", "11232214", "31232212", "12114124", "32114122",
-        "12123214", "32123212", "21223213", "41223211", "22114213", "42114211",
-        "11214214", "31214212", "23141122", "12241123", "32241121", "21341122",
-        "13132123", "33132121", "13141213", "33141211", "11332123", "22241212",
-        "11341213", "31341211", "23123122", "12223123", "23132212", "12232213",
-        "32232211", "21332212", "13114123", "33114121", "13123213", "33123211",
-        "11314123", "22223212", "11323213", "31323211", "23114212", "12214213",
-        "32214211", "21314212", "24141121", "13241122", "22341121", "14132122",
-        "14141212", "12332122", "23241211", "12341212",
+        0xe424, 0xd848, 0xf612, 0xc9d8, 0xf276, 0xb3b0, 0xc8c8, 0xf232,
+        0xb190, 0xec64, 0x97b0, 0xe5ec, 0x9390, 0xe4e4, 0xd9c8, 0xf672,
+        0xcbc8, 0xf2f2, 0xb790, 0xede4, 0xc42c, 0x9858, 0xe616, 0xdc2c,
+        0x88d8, 0xe236, 0x8848, 0xe212, 0xb8d8, 0xcc24, 0xb848, 0xee12,
+        0xc4ec, 0x99d8, 0xc464, 0x98c8, 0xe632, 0xdc64, 0x8bd8, 0xe2f6,
+        0x89c8, 0xe272, 0xbbd8, 0xcce4, 0xb9c8, 0xee72, 0xc5e4, 0x9bc8,
+        0xe6f2, 0xdde4, 0xc216, 0x8c2c, 0xce16, 0x846c, 0x8424, 0x9c6c,
+        0xc612, 0x9c24,
         /* Column 36 */
-        "24123121", "13223122", "24132211", "13232212", "11423122", "22332211",
-        "11432212", "14114122", "14123212", "12314122", "23223211", "12323212",
-        "21423211", "24114211", "13214212", "22314211", "11414212", "14241121",
-        "15132121", "15141211", "13332121", "13341211", "14223121", "14232211",
-        "12423121", "12432211", "15114121", "15123211", "13314121", "13323211",
-        "11514121", "11523211", "14214211", "12414211", "21151123", "41151121",
-        "11142124", "31142122", "11151214", "31151212", "21133123", "41133121",
-        "21142213", "41142211", "11124124", "31124122", "11133214", "31133212",
-        "21115123", "41115121", "21124213", "41124211", "11115214", "31115212",
-        "22151122", "11251123", "31251121", "12142123",
+        0xc276, 0x8cec, 0xc232, 0x8c64, 0xbcec, 0xce32, 0xbc64, 0x85ec,
+        0x84e4, 0x9dec, 0xc672, 0x9ce4, 0xde72, 0xc2f2, 0x8de4, 0xcef2,
+        0xbde4, 0x8616, 0x8236, 0x8212, 0x8e36, 0x8e12, 0x8676, 0x8632,
+        0x9e76, 0x9e32, 0x82f6, 0x8272, 0x8ef6, 0x8e72, 0xbef6, 0xbe72,
+        0x86f2, 0x9ef2, 0xd058, 0xf416, 0xa1b0, 0xe86c, 0xa090, 0xe824,
+        0xd1d8, 0xf476, 0xd0c8, 0xf432, 0xa7b0, 0xe9ec, 0xa390, 0xe8e4,
+        0xd7d8, 0xf5f6, 0xd3c8, 0xf4f2, 0xaf90, 0xebe4, 0xc82c, 0xb058,
+        0xec16, 0x90d8,
         /* Column 37 */
-        "32142121", "12151213", "32151211", "21251212", "22133122", "11233123",
-        "22142212", "11242213", "31242211", "12124123", "32124121", "12133213",
-        "32133211", "21233212", "22115122", "11215123", "22124212", "11224213",
-        "31224211", "12115213", "32115211", "21215212", "23151121", "12251122",
-        "13142122", "13151212", "11342122", "22251211", "23133121", "12233122",
-        "23142211", "12242212", "21342211", "13124122", "13133212", "11324122",
-        "22233211", "11333212", "23115121", "12215122", "23124211", "12224212",
-        "21324211", "13115212", "22215211", "11315212", "13251121", "14142121",
-        "14151211", "12342121", "13233121", "13242211", "11433121", "14124121",
-        "14133211", "12324121", "12333211", "13215121",
+        0xe436, 0x9048, 0xe412, 0xd824, 0xc8ec, 0xb1d8, 0xc864, 0xb0c8,
+        0xec32, 0x93d8, 0xe4f6, 0x91c8, 0xe472, 0xd8e4, 0xcbec, 0xb7d8,
+        0xc9e4, 0xb3c8, 0xecf2, 0x97c8, 0xe5f2, 0xdbe4, 0xc416, 0x982c,
+        0x886c, 0x8824, 0xb86c, 0xcc12, 0xc476, 0x98ec, 0xc432, 0x9864,
+        0xdc32, 0x89ec, 0x88e4, 0xb9ec, 0xcc72, 0xb8e4, 0xc5f6, 0x9bec,
+        0xc4f2, 0x99e4, 0xdcf2, 0x8be4, 0xcdf2, 0xbbe4, 0x8c16, 0x8436,
+        0x8412, 0x9c36, 0x8c76, 0x8c32, 0xbc76, 0x84f6, 0x8472, 0x9cf6,
+        0x9c72, 0x8df6,
         /* Column 38 */
-        "13224211", "11415121", "11424211", "14115211", "12315211", "21161122",
-        "11152123", "31152121", "11161213", "31161211", "21143122", "21152212",
-        "11134123", "31134121", "11143213", "31143211", "21125122", "21134212",
-        "11116123", "31116121", "11125213", "31125211", "22161121", "12152122",
-        "12161212", "22143121", "11243122", "22152211", "11252212", "12134122",
-        "12143212", "21243211", "22125121", "11225122", "22134211", "11234212",
-        "12116122", "12125212", "21225211", "13152121", "13161211", "12243121",
-        "12252211", "13134121", "13143211", "11334121", "11343211", "12225121",
-        "12234211", "13116121", "13125211", "11316121", "11325211", "21111226",
-        "41111224", "61111222", "31111315", "51111313",
+        0x8cf2, 0xbdf6, 0xbcf2, 0x85f2, 0x9df2, 0xd02c, 0xa0d8, 0xe836,
+        0xa048, 0xe812, 0xd0ec, 0xd064, 0xa3d8, 0xe8f6, 0xa1c8, 0xe872,
+        0xd3ec, 0xd1e4, 0xafd8, 0xebf6, 0xa7c8, 0xe9f2, 0xc816, 0x906c,
+        0x9024, 0xc876, 0xb0ec, 0xc832, 0xb064, 0x91ec, 0x90e4, 0xd872,
+        0xc9f6, 0xb3ec, 0xc8f2, 0xb1e4, 0x97ec, 0x93e4, 0xd9f2, 0x8836,
+        0x8812, 0x9876, 0x9832, 0x88f6, 0x8872, 0xb8f6, 0xb872, 0x99f6,
+        0x98f2, 0x8bf6, 0x89f2, 0xbbf6, 0xb9f2, 0xd4c0, 0xf530, 0xfd4c,
+        0xea20, 0xfa88,
         /* Column 39 */
-        "21211135", "41211133", "61211131", "22111225", "42111223", "11211226",
-        "31211224", "51211222", "12111316", "32111314", "52111312", "21211315",
-        "41211313", "61211311", "22211134", "42211132", "11311135", "31311133",
-        "51311131", "23111224", "43111222", "12211225", "32211223", "52211221",
-        "21311224", "41311222", "13111315", "33111313", "22211314", "42211312",
-        "11311315", "31311313", "51311311", "23211133", "43211131", "12311134",
-        "32311132", "21411133", "41411131", "24111223", "13211224", "33211222",
-        "22311223", "42311221", "11411224", "31411222", "14111314", "34111312",
-        "23211313", "43211311", "12311314", "32311312", "21411313", "41411311",
-        "24211132", "13311133", "33311131", "22411132",
+        0xdae0, 0xf6b8, 0xfdae, 0xca60, 0xf298, 0xb4c0, 0xed30, 0xfb4c,
+        0x9440, 0xe510, 0xf944, 0xda20, 0xf688, 0xfda2, 0xcd70, 0xf35c,
+        0xbae0, 0xeeb8, 0xfbae, 0xc530, 0xf14c, 0x9a60, 0xe698, 0xf9a6,
+        0xdd30, 0xf74c, 0x8a20, 0xe288, 0xcd10, 0xf344, 0xba20, 0xee88,
+        0xfba2, 0xc6b8, 0xf1ae, 0x9d70, 0xe75c, 0xdeb8, 0xf7ae, 0xc298,
+        0x8d30, 0xe34c, 0xce98, 0xf3a6, 0xbd30, 0xef4c, 0x8510, 0xe144,
+        0xc688, 0xf1a2, 0x9d10, 0xe744, 0xde88, 0xf7a2, 0xc35c, 0x8eb8,
+        0xe3ae, 0xcf5c,
         /* Column 40 */
-        "11511133", "31511131", "25111222", "14211223", "34211221", "23311222",
-        "12411223", "32411221", "21511222", "15111313", "24211312", "13311313",
-        "33311311", "22411312", "11511313", "31511311", "25211131", "14311132",
-        "23411131", "12511132", "21611131", "15211222", "24311221", "13411222",
-        "22511221", "11611222", "16111312", "25211311", "14311312", "23411311",
-        "12511312", "21611311", "31121134", "51121132", "21112135", "41112133",
-        "61112131", "21121225", "41121223", "61121221", "11112226", "31112224",
-        "51112222", "11121316", "31121314", "51121312", "21112315", "41112313",
-        "61112311", "12121135", "32121133", "52121131", "21221134", "41221132",
-        "22112134", "42112132", "11212135", "22121224",
+        0xbeb8, 0xefae, 0xc14c, 0x8698, 0xe1a6, 0xc74c, 0x9e98, 0xe7a6,
+        0xdf4c, 0x8288, 0xc344, 0x8e88, 0xe3a2, 0xcf44, 0xbe88, 0xefa2,
+        0xc1ae, 0x875c, 0xc7ae, 0x9f5c, 0xdfae, 0x834c, 0xc3a6, 0x8f4c,
+        0xcfa6, 0xbf4c, 0x8144, 0xc1a2, 0x8744, 0xc7a2, 0x9f44, 0xdfa2,
+        0xe970, 0xfa5c, 0xd6e0, 0xf5b8, 0xfd6e, 0xd260, 0xf498, 0xfd26,
+        0xacc0, 0xeb30, 0xfacc, 0xa440, 0xe910, 0xfa44, 0xd620, 0xf588,
+        0xfd62, 0x92e0, 0xe4b8, 0xf92e, 0xd970, 0xf65c, 0xcb70, 0xf2dc,
+        0xb6e0, 0xc930,
         /* Column 41 */
-        "42121222", "11221225", "31221223", "51221221", "12112225", "32112223",
-        "52112221", "12121315", "32121313", "52121311", "21221314", "41221312",
-        "22112314", "42112312", "11212315", "31212313", "51212311", "13121134",
-        "33121132", "22221133", "42221131", "11321134", "31321132", "23112133",
-        "43112131", "12212134", "23121223", "43121221", "12221224", "32221222",
-        "21321223", "41321221", "13112224", "33112222", "13121314", "33121312",
-        "11312224", "22221313", "42221311", "11321314", "31321312",
+        0xf24c, 0xb260, 0xec98, 0xfb26, 0x9660, 0xe598, 0xf966, 0x9220,
+        0xe488, 0xf922, 0xd910, 0xf644, 0xcb10, 0xf2c4, 0xb620, 0xed88,
+        0xfb62, 0x8970, 0xe25c, 0xccb8, 0xf32e, 0xb970, 0xee5c, 0xc5b8,
+        0xf16e, 0x9b70, 0xc498, 0xf126, 0x9930, 0xe64c, 0xdc98, 0xf726,
+        0x8b30, 0xe2cc, 0x8910, 0xe244, 0xbb30, 0xcc88, 0xf322, 0xb910,
+        0xee44,
         /* Column 42 */
-        "23112313", "43112311", "12212314", "32212312", "21312313", "41312311",
-        "14121133", "34121131", "23221132", "12321133", "32321131", "21421132",
-        "24112132", "13212133", "24121222", "13221223", "33221221", "11412133",
-        "22321222", "11421223", "31421221", "14112223", "34112221", "14121313",
-        "34121311", "12312223", "23221312", "12321313", "32321311", "21421312",
-        "24112312", "13212313", "33212311", "22312312", "11412313", "31412311",
-        "15121132", "24221131", "13321132", "22421131"
+        0xc588, 0xf162, 0x9b10, 0xe6c4, 0xdd88, 0xf762, 0x84b8, 0xe12e,
+        0xc65c, 0x9cb8, 0xe72e, 0xde5c, 0xc2dc, 0x8db8, 0xc24c, 0x8c98,
+        0xe326, 0xbdb8, 0xce4c, 0xbc98, 0xef26, 0x8598, 0xe166, 0x8488,
+        0xe122, 0x9d98, 0xc644, 0x9c88, 0xe722, 0xde44, 0xc2c4, 0x8d88,
+        0xe362, 0xcec4, 0xbd88, 0xef62, 0x825c, 0xc32e, 0x8e5c, 0xcf2e
     };
 
-    private static final String[] C49_APPXE_ODD = {
+    private static final char[] C49_APPXE_ODD = {
         /* Appendix E - Code 49 Encodation Patterns (Odd Symbol Character Parity) */
         /* Column 1 */
-        "22121116", "42121114", "31221115", "51221113", "32112115", "52112113",
-        "21212116", "41212114", "61212112", "23121115", "43121113", "12221116",
-        "32221114", "52221112", "21321115", "41321113", "61321111", "13112116",
-        "33112114", "22212115", "42212113", "11312116", "31312114", "51312112",
-        "24121114", "13221115", "33221113", "22321114", "42321112", "11421115",
-        "31421113", "51421111", "14112115", "34112113", "23212114", "43212112",
-        "12312115", "32312113", "52312111", "21412114", "41412112", "25121113",
-        "14221114", "34221112", "23321113", "43321111", "12421114", "32421112",
-        "21521113", "41521111", "15112114", "24212113", "13312114", "33312112",
-        "22412113", "42412111", "11512114", "31512112",
+        0xc940, 0xf250, 0xeca0, 0xfb28, 0xe5a0, 0xf968, 0xdb40, 0xf6d0,
+        0xfdb4, 0xc4a0, 0xf128, 0x9940, 0xe650, 0xf994, 0xdca0, 0xf728,
+        0xfdca, 0x8b40, 0xe2d0, 0xcda0, 0xf368, 0xbb40, 0xeed0, 0xfbb4,
+        0xc250, 0x8ca0, 0xe328, 0xce50, 0xf394, 0xbca0, 0xef28, 0xfbca,
+        0x85a0, 0xe168, 0xc6d0, 0xf1b4, 0x9da0, 0xe768, 0xf9da, 0xded0,
+        0xf7b4, 0xc128, 0x8650, 0xe194, 0xc728, 0xf1ca, 0x9e50, 0xe794,
+        0xdf28, 0xf7ca, 0x82d0, 0xc368, 0x8ed0, 0xe3b4, 0xcf68, 0xf3da,
+        0xbed0, 0xefb4,
         /* Column 2 */
-        "15221113", "24321112", "13421113", "33421111", "22521112", "16112113",
-        "25212112", "14312113", "34312111", "23412112", "12512113", "32512111",
-        "21612112", "21131116", "41131114", "61131112", "31122115", "51122113",
-        "21113116", "41113114", "61113112", "22131115", "42131113", "11231116",
-        "31231114", "51231112", "12122116", "32122114", "52122112", "21222115",
-        "41222113", "61222111", "22113115", "42113113", "11213116", "31213114",
-        "51213112", "23131114", "43131112", "12231115", "32231113", "52231111",
-        "21331114", "41331112", "13122115", "33122113", "22222114", "42222112",
-        "11322115", "31322113", "51322111", "23113114", "43113112", "12213115",
-        "32213113", "52213111", "21313114", "41313112",
+        0x8328, 0xc394, 0x8f28, 0xe3ca, 0xcf94, 0x8168, 0xc1b4, 0x8768,
+        0xe1da, 0xc7b4, 0x9f68, 0xe7da, 0xdfb4, 0xd140, 0xf450, 0xfd14,
+        0xe9a0, 0xfa68, 0xd740, 0xf5d0, 0xfd74, 0xc8a0, 0xf228, 0xb140,
+        0xec50, 0xfb14, 0x9340, 0xe4d0, 0xf934, 0xd9a0, 0xf668, 0xfd9a,
+        0xcba0, 0xf2e8, 0xb740, 0xedd0, 0xfb74, 0xc450, 0xf114, 0x98a0,
+        0xe628, 0xf98a, 0xdc50, 0xf714, 0x89a0, 0xe268, 0xccd0, 0xf334,
+        0xb9a0, 0xee68, 0xfb9a, 0xc5d0, 0xf174, 0x9ba0, 0xe6e8, 0xf9ba,
+        0xddd0, 0xf774,
         /* Column 3 */
-        "24131113", "13231114", "33231112", "22331113", "42331111", "11431114",
-        "31431112", "14122114", "34122112", "23222113", "43222111", "12322114",
-        "32322112", "21422113", "41422111", "24113113", "13213114", "33213112",
-        "22313113", "42313111", "11413114", "31413112", "25131112", "14231113",
-        "34231111", "23331112", "12431113", "32431111", "15122113", "24222112",
-        "13322113", "33322111", "22422112", "11522113", "31522111", "25113112",
-        "14213113", "34213111", "23313112", "12413113", "32413111", "21513112",
-        "15231112", "24331111", "13431112", "16122112", "25222111", "14322112",
-        "23422111", "12522112", "15213112", "24313111", "13413112", "22513111",
-        "11613112", "21141115", "41141113", "61141111",
+        0xc228, 0x8c50, 0xe314, 0xce28, 0xf38a, 0xbc50, 0xef14, 0x84d0,
+        0xe134, 0xc668, 0xf19a, 0x9cd0, 0xe734, 0xde68, 0xf79a, 0xc2e8,
+        0x8dd0, 0xe374, 0xcee8, 0xf3ba, 0xbdd0, 0xef74, 0xc114, 0x8628,
+        0xe18a, 0xc714, 0x9e28, 0xe78a, 0x8268, 0xc334, 0x8e68, 0xe39a,
+        0xcf34, 0xbe68, 0xef9a, 0xc174, 0x86e8, 0xe1ba, 0xc774, 0x9ee8,
+        0xe7ba, 0xdf74, 0x8314, 0xc38a, 0x8f14, 0x8134, 0xc19a, 0x8734,
+        0xc79a, 0x9f34, 0x8374, 0xc3ba, 0x8f74, 0xcfba, 0xbf74, 0xd0a0,
+        0xf428, 0xfd0a,
         /* Column 4 */
-        "11132116", "31132114", "51132112", "21123115", "41123113", "61123111",
-        "11114116", "31114114", "51114112", "22141114", "42141112", "11241115",
-        "31241113", "51241111", "12132115", "32132113", "52132111", "21232114",
-        "41232112", "22123114", "42123112", "11223115", "31223113", "51223111",
-        "12114115", "32114113", "52114111", "21214114", "41214112", "23141113",
-        "43141111", "12241114", "32241112", "21341113", "41341111", "13132114",
-        "33132112", "22232113", "42232111", "11332114", "31332112", "23123113",
-        "43123111", "12223114", "32223112", "21323113", "41323111", "13114114",
-        "33114112", "22214113", "42214111", "11314114", "31314112", "24141112",
-        "13241113", "33241111", "22341112", "14132113",
+        0xa340, 0xe8d0, 0xfa34, 0xd3a0, 0xf4e8, 0xfd3a, 0xaf40, 0xebd0,
+        0xfaf4, 0xc850, 0xf214, 0xb0a0, 0xec28, 0xfb0a, 0x91a0, 0xe468,
+        0xf91a, 0xd8d0, 0xf634, 0xc9d0, 0xf274, 0xb3a0, 0xece8, 0xfb3a,
+        0x97a0, 0xe5e8, 0xf97a, 0xdbd0, 0xf6f4, 0xc428, 0xf10a, 0x9850,
+        0xe614, 0xdc28, 0xf70a, 0x88d0, 0xe234, 0xcc68, 0xf31a, 0xb8d0,
+        0xee34, 0xc4e8, 0xf13a, 0x99d0, 0xe674, 0xdce8, 0xf73a, 0x8bd0,
+        0xe2f4, 0xcde8, 0xf37a, 0xbbd0, 0xeef4, 0xc214, 0x8c28, 0xe30a,
+        0xce14, 0x8468,
         /* Column 5 */
-        "34132111", "23232112", "12332113", "32332111", "21432112", "24123112",
-        "13223113", "33223111", "22323112", "11423113", "31423111", "14114113",
-        "34114111", "23214112", "12314113", "32314111", "21414112", "25141111",
-        "14241112", "23341111", "15132112", "24232111", "13332112", "22432111",
-        "25123111", "14223112", "23323111", "12423112", "21523111", "15114112",
-        "24214111", "13314112", "22414111", "11514112", "15241111", "16132111",
-        "14332111", "15223111", "13423111", "16114111", "14314111", "12514111",
-        "21151114", "41151112", "11142115", "31142113", "51142111", "21133114",
-        "41133112", "11124115", "31124113", "51124111", "21115114", "41115112",
-        "22151113", "42151111", "11251114", "31251112",
+        0xe11a, 0xc634, 0x9c68, 0xe71a, 0xde34, 0xc274, 0x8ce8, 0xe33a,
+        0xce74, 0xbce8, 0xef3a, 0x85e8, 0xe17a, 0xc6f4, 0x9de8, 0xe77a,
+        0xdef4, 0xc10a, 0x8614, 0xc70a, 0x8234, 0xc31a, 0x8e34, 0xcf1a,
+        0xc13a, 0x8674, 0xc73a, 0x9e74, 0xdf3a, 0x82f4, 0xc37a, 0x8ef4,
+        0xcf7a, 0xbef4, 0x830a, 0x811a, 0x871a, 0x833a, 0x8f3a, 0x817a,
+        0x877a, 0x9f7a, 0xd050, 0xf414, 0xa1a0, 0xe868, 0xfa1a, 0xd1d0,
+        0xf474, 0xa7a0, 0xe9e8, 0xfa7a, 0xd7d0, 0xf5f4, 0xc828, 0xf20a,
+        0xb050, 0xec14,
         /* Column 6 */
-        "12142114", "32142112", "21242113", "41242111", "22133113", "42133111",
-        "11233114", "31233112", "12124114", "32124112", "21224113", "41224111",
-        "22115113", "42115111", "11215114", "31215112", "23151112", "12251113",
-        "32251111", "13142113", "33142111", "22242112", "11342113", "31342111",
-        "23133112", "12233113", "32233111", "21333112", "13124113", "33124111",
-        "22224112", "11324113", "31324111", "23115112", "12215113", "32215111",
-        "21315112", "24151111", "13251112", "14142112", "23242111", "12342112",
-        "24133111", "13233112", "22333111", "11433112", "14124112", "23224111",
-        "12324112", "21424111", "24115111", "13215112", "22315111", "11415112",
-        "14251111", "15142111", "13342111", "14233111",
+        0x90d0, 0xe434, 0xd868, 0xf61a, 0xc8e8, 0xf23a, 0xb1d0, 0xec74,
+        0x93d0, 0xe4f4, 0xd9e8, 0xf67a, 0xcbe8, 0xf2fa, 0xb7d0, 0xedf4,
+        0xc414, 0x9828, 0xe60a, 0x8868, 0xe21a, 0xcc34, 0xb868, 0xee1a,
+        0xc474, 0x98e8, 0xe63a, 0xdc74, 0x89e8, 0xe27a, 0xccf4, 0xb9e8,
+        0xee7a, 0xc5f4, 0x9be8, 0xe6fa, 0xddf4, 0xc20a, 0x8c14, 0x8434,
+        0xc61a, 0x9c34, 0xc23a, 0x8c74, 0xce3a, 0xbc74, 0x84f4, 0xc67a,
+        0x9cf4, 0xde7a, 0xc2fa, 0x8df4, 0xcefa, 0xbdf4, 0x860a, 0x821a,
+        0x8e1a, 0x863a,
         /* Column 7 */
-        "12433111", "15124111", "13324111", "11524111", "14215111", "12415111",
-        "21161113", "41161111", "11152114", "31152112", "21143113", "41143111",
-        "11134114", "31134112", "21125113", "41125111", "11116114", "31116112",
-        "22161112", "12152113", "32152111", "21252112", "22143112", "11243113",
-        "31243111", "12134113", "32134111", "21234112", "22125112", "11225113",
-        "31225111", "12116113", "32116111", "21216112", "23161111", "13152112",
-        "22252111", "23143111", "12243112", "21343111", "13134112", "22234111",
-        "11334112", "23125111", "12225112", "21325111", "13116112", "22216111",
-        "11316112", "14152111", "13243111", "14134111", "12334111", "13225111",
-        "11425111", "14116111", "12316111", "41111215",
+        0x9e3a, 0x827a, 0x8e7a, 0xbe7a, 0x86fa, 0x9efa, 0xd028, 0xf40a,
+        0xa0d0, 0xe834, 0xd0e8, 0xf43a, 0xa3d0, 0xe8f4, 0xd3e8, 0xf4fa,
+        0xafd0, 0xebf4, 0xc814, 0x9068, 0xe41a, 0xd834, 0xc874, 0xb0e8,
+        0xec3a, 0x91e8, 0xe47a, 0xd8f4, 0xc9f4, 0xb3e8, 0xecfa, 0x97e8,
+        0xe5fa, 0xdbf4, 0xc40a, 0x8834, 0xcc1a, 0xc43a, 0x9874, 0xdc3a,
+        0x88f4, 0xcc7a, 0xb8f4, 0xc4fa, 0x99f4, 0xdcfa, 0x8bf4, 0xcdfa,
+        0xbbf4, 0x841a, 0x8c3a, 0x847a, 0x9c7a, 0x8cfa, 0xbcfa, 0x85fa,
+        0x9dfa, 0xf520,
         /* Column 8 */
-        "61111213", "21211126", "41211124", "61211122", "22111216", "42111214",
-        "31211215", "51211213", "22211125", "42211123", "11311126", "31311124",
-        "51311122", "23111215", "43111213", "12211216", "32211214", "52211212",
-        "21311215", "41311213", "61311211", "23211124", "43211122", "12311125",
-        "32311123", "52311121", "21411124", "41411122", "24111214", "13211215",
-        "33211213", "22311214", "42311212", "11411215", "31411213", "51411211",
-        "24211123", "13311124", "33311122", "22411123", "42411121", "11511124",
-        "31511122", "25111213", "14211214", "34211212", "23311213", "43311211",
-        "12411214", "32411212", "21511213", "41511211", "25211122", "14311123",
-        "34311121", "23411122", "12511123", "32511121",
+        0xfd48, 0xdac0, 0xf6b0, 0xfdac, 0xca40, 0xf290, 0xed20, 0xfb48,
+        0xcd60, 0xf358, 0xbac0, 0xeeb0, 0xfbac, 0xc520, 0xf148, 0x9a40,
+        0xe690, 0xf9a4, 0xdd20, 0xf748, 0xfdd2, 0xc6b0, 0xf1ac, 0x9d60,
+        0xe758, 0xf9d6, 0xdeb0, 0xf7ac, 0xc290, 0x8d20, 0xe348, 0xce90,
+        0xf3a4, 0xbd20, 0xef48, 0xfbd2, 0xc358, 0x8eb0, 0xe3ac, 0xcf58,
+        0xf3d6, 0xbeb0, 0xefac, 0xc148, 0x8690, 0xe1a4, 0xc748, 0xf1d2,
+        0x9e90, 0xe7a4, 0xdf48, 0xf7d2, 0xc1ac, 0x8758, 0xe1d6, 0xc7ac,
+        0x9f58, 0xe7d6,
         /* Column 9 */
-        "21611122", "15211213", "24311212", "13411213", "33411211", "22511212",
-        "11611213", "31611211", "31121125", "51121123", "21112126", "41112124",
-        "61112122", "21121216", "41121214", "61121212", "31112215", "51112213",
-        "12121126", "32121124", "52121122", "21221125", "41221123", "61221121",
-        "22112125", "42112123", "11212126", "22121215", "42121213", "11221216",
-        "31221214", "51221212", "12112216", "32112214", "52112212", "21212215",
-        "41212213", "61212211", "13121125", "33121123", "22221124", "42221122",
-        "11321125", "31321123", "51321121", "23112124", "43112122", "12212125",
-        "23121214", "43121212", "12221215", "32221213", "52221211", "21321214",
-        "41321212", "13112215", "33112213", "22212214",
+        0xdfac, 0x8348, 0xc3a4, 0x8f48, 0xe3d2, 0xcfa4, 0xbf48, 0xefd2,
+        0xe960, 0xfa58, 0xd6c0, 0xf5b0, 0xfd6c, 0xd240, 0xf490, 0xfd24,
+        0xeb20, 0xfac8, 0x92c0, 0xe4b0, 0xf92c, 0xd960, 0xf658, 0xfd96,
+        0xcb60, 0xf2d8, 0xb6c0, 0xc920, 0xf248, 0xb240, 0xec90, 0xfb24,
+        0x9640, 0xe590, 0xf964, 0xdb20, 0xf6c8, 0xfdb2, 0x8960, 0xe258,
+        0xccb0, 0xf32c, 0xb960, 0xee58, 0xfb96, 0xc5b0, 0xf16c, 0x9b60,
+        0xc490, 0xf124, 0x9920, 0xe648, 0xf992, 0xdc90, 0xf724, 0x8b20,
+        0xe2c8, 0xcd90,
         /* Column 10 */
-        "42212212", "11312215", "31312213", "51312211", "14121124", "34121122",
-        "23221123", "43221121", "12321124", "32321122", "21421123", "41421121",
-        "24112123", "13212124", "24121213", "13221214", "33221212", "11412124",
-        "22321213", "42321211", "11421214", "31421212", "14112214", "34112212",
-        "23212213", "43212211", "12312214", "32312212", "21412213", "41412211",
-        "15121123", "24221122", "13321123", "33321121", "22421122", "11521123",
-        "31521121", "25112122", "14212123", "25121212", "14221213", "34221211",
-        "12412123", "23321212", "12421213", "32421211", "21521212", "15112213",
-        "24212212", "13312213", "33312211", "22412212", "11512213", "31512211",
-        "16121122", "25221121", "14321122", "23421121",
+        0xf364, 0xbb20, 0xeec8, 0xfbb2, 0x84b0, 0xe12c, 0xc658, 0xf196,
+        0x9cb0, 0xe72c, 0xde58, 0xf796, 0xc2d8, 0x8db0, 0xc248, 0x8c90,
+        0xe324, 0xbdb0, 0xce48, 0xf392, 0xbc90, 0xef24, 0x8590, 0xe164,
+        0xc6c8, 0xf1b2, 0x9d90, 0xe764, 0xdec8, 0xf7b2, 0x8258, 0xc32c,
+        0x8e58, 0xe396, 0xcf2c, 0xbe58, 0xef96, 0xc16c, 0x86d8, 0xc124,
+        0x8648, 0xe192, 0x9ed8, 0xc724, 0x9e48, 0xe792, 0xdf24, 0x82c8,
+        0xc364, 0x8ec8, 0xe3b2, 0xcf64, 0xbec8, 0xefb2, 0x812c, 0xc196,
+        0x872c, 0xc796,
         /* Column 11 */
-        "12521122", "15212122", "15221212", "13412122", "24321211", "13421212",
-        "11612122", "22521211", "16112212", "25212211", "14312212", "23412211",
-        "12512212", "21612211", "11131126", "31131124", "51131122", "21122125",
-        "41122123", "61122121", "21131215", "41131213", "61131211", "11113126",
-        "31113124", "51113122", "11122216", "31122214", "51122212", "21113215",
-        "41113213", "61113211", "12131125", "32131123", "52131121", "21231124",
-        "41231122", "22122124", "42122122", "11222125", "22131214", "42131212",
-        "11231215", "31231213", "51231211", "12113125", "32113123", "52113121",
-        "12122215", "32122213", "52122211", "21222214", "41222212", "22113214",
-        "42113212", "11213215", "31213213", "51213211",
+        0x9f2c, 0x836c, 0x8324, 0x8f6c, 0xc392, 0x8f24, 0xbf6c, 0xcf92,
+        0x8164, 0xc1b2, 0x8764, 0xc7b2, 0x9f64, 0xdfb2, 0xa2c0, 0xe8b0,
+        0xfa2c, 0xd360, 0xf4d8, 0xfd36, 0xd120, 0xf448, 0xfd12, 0xaec0,
+        0xebb0, 0xfaec, 0xa640, 0xe990, 0xfa64, 0xd720, 0xf5c8, 0xfd72,
+        0x9160, 0xe458, 0xf916, 0xd8b0, 0xf62c, 0xc9b0, 0xf26c, 0xb360,
+        0xc890, 0xf224, 0xb120, 0xec48, 0xfb12, 0x9760, 0xe5d8, 0xf976,
+        0x9320, 0xe4c8, 0xf932, 0xd990, 0xf664, 0xcb90, 0xf2e4, 0xb720,
+        0xedc8, 0xfb72,
         /* Column 12 */
-        "13131124", "33131122", "22231123", "42231121", "11331124", "31331122",
-        "23122123", "43122121", "12222124", "23131213", "43131211", "12231214",
-        "32231212", "21331213", "41331211", "13113124", "33113122", "13122214",
-        "33122212", "11313124", "22222213", "42222211", "11322214", "31322212",
-        "23113213", "43113211", "12213214", "32213212", "21313213", "41313211",
-        "14131123", "34131121", "23231122", "12331123", "32331121", "21431122",
-        "24122122", "13222123", "24131212", "13231213", "33231211", "11422123",
-        "22331212", "11431213", "31431211", "14113123", "34113121", "14122213",
-        "34122211", "12313123", "23222212", "12322213", "32322211", "21422212",
-        "24113212", "13213213", "33213211", "22313212",
+        0x88b0, 0xe22c, 0xcc58, 0xf316, 0xb8b0, 0xee2c, 0xc4d8, 0xf136,
+        0x99b0, 0xc448, 0xf112, 0x9890, 0xe624, 0xdc48, 0xf712, 0x8bb0,
+        0xe2ec, 0x8990, 0xe264, 0xbbb0, 0xccc8, 0xf332, 0xb990, 0xee64,
+        0xc5c8, 0xf172, 0x9b90, 0xe6e4, 0xddc8, 0xf772, 0x8458, 0xe116,
+        0xc62c, 0x9c58, 0xe716, 0xde2c, 0xc26c, 0x8cd8, 0xc224, 0x8c48,
+        0xe312, 0xbcd8, 0xce24, 0xbc48, 0xef12, 0x85d8, 0xe176, 0x84c8,
+        0xe132, 0x9dd8, 0xc664, 0x9cc8, 0xe732, 0xde64, 0xc2e4, 0x8dc8,
+        0xe372, 0xcee4,
         /* Column 13 */
-        "11413213", "31413211", "15131122", "24231121", "13331122", "22431121",
-        "25122121", "14222122", "25131211", "14231212", "12422122", "23331211",
-        "12431212", "15113122", "15122212", "13313122", "24222211", "13322212",
-        "11513122", "22422211", "11522212", "25113211", "14213212", "23313211",
-        "12413212", "21513211", "16131121", "14331121", "15222121", "15231211",
-        "13422121", "13431211", "16113121", "16122211", "14313121", "14322211",
-        "12513121", "12522211", "15213211", "13413211", "11613211", "11141125",
-        "31141123", "51141121", "21132124", "41132122", "21141214", "41141212",
-        "11123125", "31123123", "51123121", "11132215", "31132213", "51132211",
-        "21114124", "41114122", "21123214", "41123212",
+        0xbdc8, 0xef72, 0x822c, 0xc316, 0x8e2c, 0xcf16, 0xc136, 0x866c,
+        0xc112, 0x8624, 0x9e6c, 0xc712, 0x9e24, 0x82ec, 0x8264, 0x8eec,
+        0xc332, 0x8e64, 0xbeec, 0xcf32, 0xbe64, 0xc172, 0x86e4, 0xc772,
+        0x9ee4, 0xdf72, 0x8116, 0x8716, 0x8336, 0x8312, 0x8f36, 0x8f12,
+        0x8176, 0x8132, 0x8776, 0x8732, 0x9f76, 0x9f32, 0x8372, 0x8f72,
+        0xbf72, 0xa160, 0xe858, 0xfa16, 0xd1b0, 0xf46c, 0xd090, 0xf424,
+        0xa760, 0xe9d8, 0xfa76, 0xa320, 0xe8c8, 0xfa32, 0xd7b0, 0xf5ec,
+        0xd390, 0xf4e4,
         /* Column 14 */
-        "11114215", "31114213", "51114211", "12141124", "32141122", "21241123",
-        "41241121", "22132123", "42132121", "11232124", "22141213", "42141211",
-        "11241214", "31241212", "12123124", "32123122", "12132214", "32132212",
-        "21232213", "41232211", "22114123", "42114121", "11214124", "22123213",
-        "42123211", "11223214", "31223212", "12114214", "32114212", "21214213",
-        "41214211", "13141123", "33141121", "22241122", "11341123", "31341121",
-        "23132122", "12232123", "23141212", "12241213", "32241211", "21341212",
-        "13123123", "33123121", "13132213", "33132211", "11323123", "22232212",
-        "11332213", "31332211", "23114122", "12214123", "23123212", "12223213",
-        "32223211", "21323212", "13114213", "33114211",
+        0xaf20, 0xebc8, 0xfaf2, 0x90b0, 0xe42c, 0xd858, 0xf616, 0xc8d8,
+        0xf236, 0xb1b0, 0xc848, 0xf212, 0xb090, 0xec24, 0x93b0, 0xe4ec,
+        0x9190, 0xe464, 0xd8c8, 0xf632, 0xcbd8, 0xf2f6, 0xb7b0, 0xc9c8,
+        0xf272, 0xb390, 0xece4, 0x9790, 0xe5e4, 0xdbc8, 0xf6f2, 0x8858,
+        0xe216, 0xcc2c, 0xb858, 0xee16, 0xc46c, 0x98d8, 0xc424, 0x9848,
+        0xe612, 0xdc24, 0x89d8, 0xe276, 0x88c8, 0xe232, 0xb9d8, 0xcc64,
+        0xb8c8, 0xee32, 0xc5ec, 0x9bd8, 0xc4e4, 0x99c8, 0xe672, 0xdce4,
+        0x8bc8, 0xe2f2,
         /* Column 15 */
-        "22214212", "11314213", "31314211", "14141122", "23241121", "12341122",
-        "24132121", "13232122", "24141211", "13241212", "11432122", "22341211",
-        "14123122", "14132212", "12323122", "23232211", "12332212", "21432211",
-        "24114121", "13214122", "24123211", "13223212", "11414122", "22323211",
-        "11423212", "14114212", "23214211", "12314212", "21414211", "15141121",
-        "13341121", "14232121", "14241211", "12432121", "15123121", "15132211",
-        "13323121", "13332211", "11523121", "14214121", "14223211", "12414121",
-        "12423211", "15114211", "13314211", "11514211", "11151124", "31151122",
-        "21142123", "41142121", "21151213", "41151211", "11133124", "31133122",
-        "11142214", "31142212", "21124123", "41124121",
+        0xcde4, 0xbbc8, 0xeef2, 0x842c, 0xc616, 0x9c2c, 0xc236, 0x8c6c,
+        0xc212, 0x8c24, 0xbc6c, 0xce12, 0x84ec, 0x8464, 0x9cec, 0xc632,
+        0x9c64, 0xde32, 0xc2f6, 0x8dec, 0xc272, 0x8ce4, 0xbdec, 0xce72,
+        0xbce4, 0x85e4, 0xc6f2, 0x9de4, 0xdef2, 0x8216, 0x8e16, 0x8636,
+        0x8612, 0x9e36, 0x8276, 0x8232, 0x8e76, 0x8e32, 0xbe76, 0x86f6,
+        0x8672, 0x9ef6, 0x9e72, 0x82f2, 0x8ef2, 0xbef2, 0xa0b0, 0xe82c,
+        0xd0d8, 0xf436, 0xd048, 0xf412, 0xa3b0, 0xe8ec, 0xa190, 0xe864,
+        0xd3d8, 0xf4f6,
         /* Column 16 */
-        "21133213", "41133211", "11115124", "31115122", "11124214", "31124212",
-        "21115213", "41115211", "12151123", "32151121", "21251122", "22142122",
-        "11242123", "22151212", "11251213", "31251211", "12133123", "32133121",
-        "12142213", "32142211", "21242212", "22124122", "11224123", "22133212",
-        "11233213", "31233211", "12115123", "32115121", "12124213", "32124211",
-        "21224212", "22115212", "11215213", "31215211", "13151122", "22251121",
-        "23142121", "12242122", "23151211", "12251212", "13133122", "13142212",
-        "11333122", "22242211", "11342212", "23124121", "12224122", "23133211",
-        "12233212", "21333211", "13115122", "13124212", "11315122", "22224211",
-        "11324212", "23115211", "12215212", "21315211",
+        0xd1c8, 0xf472, 0xafb0, 0xebec, 0xa790, 0xe9e4, 0xd7c8, 0xf5f2,
+        0x9058, 0xe416, 0xd82c, 0xc86c, 0xb0d8, 0xc824, 0xb048, 0xec12,
+        0x91d8, 0xe476, 0x90c8, 0xe432, 0xd864, 0xc9ec, 0xb3d8, 0xc8e4,
+        0xb1c8, 0xec72, 0x97d8, 0xe5f6, 0x93c8, 0xe4f2, 0xd9e4, 0xcbe4,
+        0xb7c8, 0xedf2, 0x882c, 0xcc16, 0xc436, 0x986c, 0xc412, 0x9824,
+        0x88ec, 0x8864, 0xb8ec, 0xcc32, 0xb864, 0xc4f6, 0x99ec, 0xc472,
+        0x98e4, 0xdc72, 0x8bec, 0x89e4, 0xbbec, 0xccf2, 0xb9e4, 0xc5f2,
+        0x9be4, 0xddf2,
         /* Column 17 */
-        "14151121", "13242121", "13251211", "14133121", "14142211", "12333121",
-        "12342211", "13224121", "13233211", "11424121", "11433211", "14115121",
-        "14124211", "12315121", "12324211", "13215211", "11415211", "11161123",
-        "31161121", "21152122", "21161212", "11143123", "31143121", "11152213",
-        "31152211", "21134122", "21143212", "11125123", "31125121", "11134213",
-        "31134211", "21116122", "21125212", "12161122", "22152121", "11252122",
-        "22161211", "12143122", "12152212", "21252211", "22134121", "11234122",
-        "22143211", "11243212", "12125122", "12134212", "21234211", "22116121",
-        "11216122", "22125211", "11225212", "13161121", "12252121", "13143121",
-        "13152211", "11343121", "12234121", "12243211",
+        0x8416, 0x8c36, 0x8c12, 0x8476, 0x8432, 0x9c76, 0x9c32, 0x8cf6,
+        0x8c72, 0xbcf6, 0xbc72, 0x85f6, 0x84f2, 0x9df6, 0x9cf2, 0x8df2,
+        0xbdf2, 0xa058, 0xe816, 0xd06c, 0xd024, 0xa1d8, 0xe876, 0xa0c8,
+        0xe832, 0xd1ec, 0xd0e4, 0xa7d8, 0xe9f6, 0xa3c8, 0xe8f2, 0xd7ec,
+        0xd3e4, 0x902c, 0xc836, 0xb06c, 0xc812, 0x90ec, 0x9064, 0xd832,
+        0xc8f6, 0xb1ec, 0xc872, 0xb0e4, 0x93ec, 0x91e4, 0xd8f2, 0xcbf6,
+        0xb7ec, 0xc9f2, 0xb3e4, 0x8816, 0x9836, 0x8876, 0x8832, 0xb876,
+        0x98f6, 0x9872,
         /* Column 18 */
-        "13125121", "13134211", "11325121", "11334211", "12216121", "12225211",
-        "31111225", "51111223", "21111316", "41111314", "61111312", "31211134",
-        "51211132", "12111226", "32111224", "52111222", "21211225", "41211223",
-        "61211221", "22111315", "42111313", "11211316", "31211314", "51211312",
-        "12211135", "32211133", "52211131", "21311134", "41311132", "13111225",
-        "33111223", "22211224", "42211222", "11311225", "31311223", "51311221",
-        "23111314", "43111312", "12211315", "32211313", "52211311", "21311314",
-        "41311312", "13211134", "33211132", "22311133", "42311131", "11411134",
-        "31411132", "14111224", "34111222", "23211223", "43211221", "12311224",
-        "32311222", "21411223", "41411221", "24111313",
+        0x89f6, 0x88f2, 0xb9f6, 0xb8f2, 0x9bf6, 0x99f2, 0xea60, 0xfa98,
+        0xd440, 0xf510, 0xfd44, 0xed70, 0xfb5c, 0x94c0, 0xe530, 0xf94c,
+        0xda60, 0xf698, 0xfda6, 0xca20, 0xf288, 0xb440, 0xed10, 0xfb44,
+        0x9ae0, 0xe6b8, 0xf9ae, 0xdd70, 0xf75c, 0x8a60, 0xe298, 0xcd30,
+        0xf34c, 0xba60, 0xee98, 0xfba6, 0xc510, 0xf144, 0x9a20, 0xe688,
+        0xf9a2, 0xdd10, 0xf744, 0x8d70, 0xe35c, 0xceb8, 0xf3ae, 0xbd70,
+        0xef5c, 0x8530, 0xe14c, 0xc698, 0xf1a6, 0x9d30, 0xe74c, 0xde98,
+        0xf7a6, 0xc288,
         /* Column 19 */
-        "13211314", "33211312", "22311313", "42311311", "11411314", "31411312",
-        "14211133", "34211131", "23311132", "12411133", "32411131", "21511132",
-        "15111223", "24211222", "13311223", "33311221", "22411222", "11511223",
-        "31511221", "25111312", "14211313", "34211311", "23311312", "12411313",
-        "32411311", "21511312", "15211132", "24311131", "13411132", "22511131",
-        "11611132", "16111222", "25211221", "14311222", "23411221", "12511222",
-        "21611221", "15211312", "24311311", "13411312", "22511311", "11611312",
-        "21121135", "41121133", "61121131", "11112136", "31112134", "51112132",
-        "11121226", "31121224", "51121222", "21112225", "41112223", "61112221",
-        "21121315", "41121313", "61121311", "11112316",
+        0x8d10, 0xe344, 0xce88, 0xf3a2, 0xbd10, 0xef44, 0x86b8, 0xe1ae,
+        0xc75c, 0x9eb8, 0xe7ae, 0xdf5c, 0x8298, 0xc34c, 0x8e98, 0xe3a6,
+        0xcf4c, 0xbe98, 0xefa6, 0xc144, 0x8688, 0xe1a2, 0xc744, 0x9e88,
+        0xe7a2, 0xdf44, 0x835c, 0xc3ae, 0x8f5c, 0xcfae, 0xbf5c, 0x814c,
+        0xc1a6, 0x874c, 0xc7a6, 0x9f4c, 0xdfa6, 0x8344, 0xc3a2, 0x8f44,
+        0xcfa2, 0xbf44, 0xd2e0, 0xf4b8, 0xfd2e, 0xadc0, 0xeb70, 0xfadc,
+        0xa4c0, 0xe930, 0xfa4c, 0xd660, 0xf598, 0xfd66, 0xd220, 0xf488,
+        0xfd22, 0xac40,
         /* Column 20 */
-        "31112314", "51112312", "22121134", "42121132", "11221135", "31221133",
-        "51221131", "12112135", "32112133", "52112131", "12121225", "32121223",
-        "52121221", "21221224", "41221222", "22112224", "42112222", "11212225",
-        "22121314", "42121312", "11221315", "31221313", "51221311", "12112315",
-        "32112313", "52112311", "21212314", "41212312", "23121133", "43121131",
-        "12221134", "32221132", "21321133", "41321131", "13112134", "33112132",
-        "13121224", "33121222", "11312134", "22221223", "42221221", "11321224",
-        "31321222", "23112223", "43112221", "12212224", "23121313", "43121311",
-        "12221314", "32221312", "21321313", "41321311", "13112314", "33112312",
-        "22212313", "42212311", "11312314", "31312312",
+        0xeb10, 0xfac4, 0xc970, 0xf25c, 0xb2e0, 0xecb8, 0xfb2e, 0x96e0,
+        0xe5b8, 0xf96e, 0x9260, 0xe498, 0xf926, 0xd930, 0xf64c, 0xcb30,
+        0xf2cc, 0xb660, 0xc910, 0xf244, 0xb220, 0xec88, 0xfb22, 0x9620,
+        0xe588, 0xf962, 0xdb10, 0xf6c4, 0xc4b8, 0xf12e, 0x9970, 0xe65c,
+        0xdcb8, 0xf72e, 0x8b70, 0xe2dc, 0x8930, 0xe24c, 0xbb70, 0xcc98,
+        0xf326, 0xb930, 0xee4c, 0xc598, 0xf166, 0x9b30, 0xc488, 0xf122,
+        0x9910, 0xe644, 0xdc88, 0xf722, 0x8b10, 0xe2c4, 0xcd88, 0xf362,
+        0xbb10, 0xeec4,
         /* Column 21 */
-        "24121132", "13221133", "33221131", "22321132", "11421133", "31421131",
-        "14112133", "34112131", "14121223", "34121221", "12312133", "23221222",
-        "12321223", "32321221", "21421222", "24112222", "13212223", "24121312",
-        "13221313", "33221311", "11412223", "22321312", "11421313", "31421311",
-        "14112313", "34112311", "23212312", "12312313", "32312311", "21412312",
-        "25121131", "14221132", "23321131", "12421132", "21521131", "15112132",
-        "15121222", "13312132", "24221221", "13321222", "11512132", "22421221",
-        "11521222", "25112221", "14212222", "25121311", "14221312", "12412222",
-        "23321311", "12421312", "21521311", "15112312", "24212311", "13312312",
-        "22412311", "11512312", "15221131", "13421131",
+        0xc25c, 0x8cb8, 0xe32e, 0xce5c, 0xbcb8, 0xef2e, 0x85b8, 0xe16e,
+        0x8498, 0xe126, 0x9db8, 0xc64c, 0x9c98, 0xe726, 0xde4c, 0xc2cc,
+        0x8d98, 0xc244, 0x8c88, 0xe322, 0xbd98, 0xce44, 0xbc88, 0xef22,
+        0x8588, 0xe162, 0xc6c4, 0x9d88, 0xe762, 0xdec4, 0xc12e, 0x865c,
+        0xc72e, 0x9e5c, 0xdf2e, 0x82dc, 0x824c, 0x8edc, 0xc326, 0x8e4c,
+        0xbedc, 0xcf26, 0xbe4c, 0xc166, 0x86cc, 0xc122, 0x8644, 0x9ecc,
+        0xc722, 0x9e44, 0xdf22, 0x82c4, 0xc362, 0x8ec4, 0xcf62, 0xbec4,
+        0x832e, 0x8f2e,
         /* Column 22 */
-        "16112131", "16121221", "14312131", "14321221", "12512131", "12521221",
-        "15212221", "15221311", "13412221", "13421311", "11612221", "16112311",
-        "14312311", "12512311", "21131134", "41131132", "11122135", "31122133",
-        "51122131", "11131225", "31131223", "51131221", "21113134", "41113132",
-        "21122224", "41122222", "21131314", "41131312", "11113225", "31113223",
-        "51113221", "11122315", "31122313", "51122311", "21113314", "41113312",
-        "22131133", "42131131", "11231134", "31231132", "12122134", "32122132",
-        "12131224", "32131222", "21231223", "41231221", "22113133", "42113131",
-        "11213134", "22122223", "42122221", "11222224", "22131313", "42131311",
-        "11231314", "31231312", "12113224", "32113222",
+        0x816e, 0x8126, 0x876e, 0x8726, 0x9f6e, 0x9f26, 0x8366, 0x8322,
+        0x8f66, 0x8f22, 0xbf66, 0x8162, 0x8762, 0x9f62, 0xd170, 0xf45c,
+        0xa6e0, 0xe9b8, 0xfa6e, 0xa260, 0xe898, 0xfa26, 0xd770, 0xf5dc,
+        0xd330, 0xf4cc, 0xd110, 0xf444, 0xae60, 0xeb98, 0xfae6, 0xa620,
+        0xe988, 0xfa62, 0xd710, 0xf5c4, 0xc8b8, 0xf22e, 0xb170, 0xec5c,
+        0x9370, 0xe4dc, 0x9130, 0xe44c, 0xd898, 0xf626, 0xcbb8, 0xf2ee,
+        0xb770, 0xc998, 0xf266, 0xb330, 0xc888, 0xf222, 0xb110, 0xec44,
+        0x9730, 0xe5cc,
         /* Column 23 */
-        "12122314", "32122312", "21222313", "41222311", "22113313", "42113311",
-        "11213314", "31213312", "23131132", "12231133", "32231131", "21331132",
-        "13122133", "33122131", "13131223", "33131221", "11322133", "22231222",
-        "11331223", "31331221", "23113132", "12213133", "23122222", "12222223",
-        "23131312", "12231313", "32231311", "21331312", "13113223", "33113221",
-        "13122313", "33122311", "11313223", "22222312", "11322313", "31322311",
-        "23113312", "12213313", "32213311", "21313312", "24131131", "13231132",
-        "22331131", "11431132", "14122132", "14131222", "12322132", "23231221",
-        "12331222", "21431221", "24113131", "13213132", "24122221", "13222222",
-        "24131311", "11413132", "13231312", "11422222",
+        0x9310, 0xe4c4, 0xd988, 0xf662, 0xcb88, 0xf2e2, 0xb710, 0xedc4,
+        0xc45c, 0x98b8, 0xe62e, 0xdc5c, 0x89b8, 0xe26e, 0x8898, 0xe226,
+        0xb9b8, 0xcc4c, 0xb898, 0xee26, 0xc5dc, 0x9bb8, 0xc4cc, 0x9998,
+        0xc444, 0x9888, 0xe622, 0xdc44, 0x8b98, 0xe2e6, 0x8988, 0xe262,
+        0xbb98, 0xccc4, 0xb988, 0xee62, 0xc5c4, 0x9b88, 0xe6e2, 0xddc4,
+        0xc22e, 0x8c5c, 0xce2e, 0xbc5c, 0x84dc, 0x844c, 0x9cdc, 0xc626,
+        0x9c4c, 0xde26, 0xc2ee, 0x8ddc, 0xc266, 0x8ccc, 0xc222, 0xbddc,
+        0x8c44, 0xbccc,
         /* Column 24 */
-        "22331311", "11431312", "14113222", "14122312", "12313222", "23222311",
-        "12322312", "21422311", "24113311", "13213312", "22313311", "11413312",
-        "14231131", "12431131", "15122131", "15131221", "13322131", "13331221",
-        "11522131", "14213131", "14222221", "12413131", "14231311", "12422221",
-        "12431311", "15113221", "15122311", "13313221", "13322311", "11513221",
-        "11522311", "14213311", "12413311", "21141133", "41141131", "11132134",
-        "31132132", "11141224", "31141222", "21123133", "41123131", "21132223",
-        "41132221", "21141313", "41141311", "11114134", "31114132", "11123224",
-        "31123222", "11132314", "31132312", "21114223", "41114221", "21123313",
-        "41123311", "11114314", "31114312", "22141132",
+        0xce22, 0xbc44, 0x85cc, 0x84c4, 0x9dcc, 0xc662, 0x9cc4, 0xde62,
+        0xc2e2, 0x8dc4, 0xcee2, 0xbdc4, 0x862e, 0x9e2e, 0x826e, 0x8226,
+        0x8e6e, 0x8e26, 0xbe6e, 0x86ee, 0x8666, 0x9eee, 0x8622, 0x9e66,
+        0x9e22, 0x82e6, 0x8262, 0x8ee6, 0x8e62, 0xbee6, 0xbe62, 0x86e2,
+        0x9ee2, 0xd0b8, 0xf42e, 0xa370, 0xe8dc, 0xa130, 0xe84c, 0xd3b8,
+        0xf4ee, 0xd198, 0xf466, 0xd088, 0xf422, 0xaf70, 0xebdc, 0xa730,
+        0xe9cc, 0xa310, 0xe8c4, 0xd798, 0xf5e6, 0xd388, 0xf4e2, 0xaf10,
+        0xebc4, 0xc85c,
         /* Column 25 */
-        "11241133", "31241131", "12132133", "32132131", "12141223", "32141221",
-        "21241222", "22123132", "11223133", "22132222", "11232223", "22141312",
-        "11241313", "31241311", "12114133", "32114131", "12123223", "32123221",
-        "12132313", "32132311", "21232312", "22114222", "11214223", "22123312",
-        "11223313", "31223311", "12114313", "32114311", "21214312", "23141131",
-        "12241132", "21341131", "13132132", "13141222", "11332132", "22241221",
-        "11341222", "23123131", "12223132", "23132221", "12232222", "23141311",
-        "12241312", "21341311", "13114132", "13123222", "11314132", "13132312",
-        "11323222", "22232311", "11332312", "23114221", "12214222", "23123311",
-        "12223312", "21323311", "13114312", "22214311",
+        0xb0b8, 0xec2e, 0x91b8, 0xe46e, 0x9098, 0xe426, 0xd84c, 0xc9dc,
+        0xb3b8, 0xc8cc, 0xb198, 0xc844, 0xb088, 0xec22, 0x97b8, 0xe5ee,
+        0x9398, 0xe4e6, 0x9188, 0xe462, 0xd8c4, 0xcbcc, 0xb798, 0xc9c4,
+        0xb388, 0xece2, 0x9788, 0xe5e2, 0xdbc4, 0xc42e, 0x985c, 0xdc2e,
+        0x88dc, 0x884c, 0xb8dc, 0xcc26, 0xb84c, 0xc4ee, 0x99dc, 0xc466,
+        0x98cc, 0xc422, 0x9844, 0xdc22, 0x8bdc, 0x89cc, 0xbbdc, 0x88c4,
+        0xb9cc, 0xcc62, 0xb8c4, 0xc5e6, 0x9bcc, 0xc4e2, 0x99c4, 0xdce2,
+        0x8bc4, 0xcde2,
         /* Column 26 */
-        "11314312", "13241131", "14132131", "14141221", "12332131", "12341221",
-        "13223131", "13232221", "11423131", "13241311", "11432221", "14114131",
-        "14123221", "12314131", "14132311", "12323221", "12332311", "13214221",
-        "13223311", "11414221", "11423311", "14114311", "12314311", "21151132",
-        "11142133", "31142131", "11151223", "31151221", "21133132", "21142222",
-        "21151312", "11124133", "31124131", "11133223", "31133221", "11142313",
-        "31142311", "21115132", "21124222", "21133312", "11115223", "31115221",
-        "11124313", "31124311", "22151131", "11251132", "12142132", "12151222",
-        "21251221", "22133131", "11233132", "22142221", "11242222", "22151311",
-        "11251312", "12124132", "12133222", "12142312",
+        0xbbc4, 0x8c2e, 0x846e, 0x8426, 0x9c6e, 0x9c26, 0x8cee, 0x8c66,
+        0xbcee, 0x8c22, 0xbc66, 0x85ee, 0x84e6, 0x9dee, 0x8462, 0x9ce6,
+        0x9c62, 0x8de6, 0x8ce2, 0xbde6, 0xbce2, 0x85e2, 0x9de2, 0xd05c,
+        0xa1b8, 0xe86e, 0xa098, 0xe826, 0xd1dc, 0xd0cc, 0xd044, 0xa7b8,
+        0xe9ee, 0xa398, 0xe8e6, 0xa188, 0xe862, 0xd7dc, 0xd3cc, 0xd1c4,
+        0xaf98, 0xebe6, 0xa788, 0xe9e2, 0xc82e, 0xb05c, 0x90dc, 0x904c,
+        0xd826, 0xc8ee, 0xb1dc, 0xc866, 0xb0cc, 0xc822, 0xb044, 0x93dc,
+        0x91cc, 0x90c4,
         /* Column 27 */
-        "21242311", "22115131", "11215132", "22124221", "11224222", "22133311",
-        "11233312", "12115222", "12124312", "21224311", "12251131", "13142131",
-        "13151221", "11342131", "12233131", "12242221", "12251311", "13124131",
-        "13133221", "11324131", "13142311", "11333221", "11342311", "12215131",
-        "12224221", "12233311", "13115221", "13124311", "11315221", "11324311",
-        "21161131", "11152132", "11161222", "21143131", "21152221", "21161311",
-        "11134132", "11143222", "11152312", "21125131", "21134221", "21143311",
-        "11116132", "11125222", "11134312", "12152131", "12161221", "11243131",
-        "11252221", "12134131", "12143221", "12152311", "11225131", "11234221",
-        "11243311", "12116131", "12125221", "12134311",
+        0xd862, 0xcbee, 0xb7dc, 0xc9e6, 0xb3cc, 0xc8e2, 0xb1c4, 0x97cc,
+        0x93c4, 0xd9e2, 0x982e, 0x886e, 0x8826, 0xb86e, 0x98ee, 0x9866,
+        0x9822, 0x89ee, 0x88e6, 0xb9ee, 0x8862, 0xb8e6, 0xb862, 0x9bee,
+        0x99e6, 0x98e2, 0x8be6, 0x89e2, 0xbbe6, 0xb9e2, 0xd02e, 0xa0dc,
+        0xa04c, 0xd0ee, 0xd066, 0xd022, 0xa3dc, 0xa1cc, 0xa0c4, 0xd3ee,
+        0xd1e6, 0xd0e2, 0xafdc, 0xa7cc, 0xa3c4, 0x906e, 0x9026, 0xb0ee,
+        0xb066, 0x91ee, 0x90e6, 0x9062, 0xb3ee, 0xb1e6, 0xb0e2, 0x97ee,
+        0x93e6, 0x91e2,
         /* Column 28 */
-        "21111235", "41111233", "61111231", "11111326", "31111324", "51111322",
-        "21111415", "41111413", "61111411", "21211144", "41211142", "22111234",
-        "42111232", "11211235", "31211233", "51211231", "12111325", "32111323",
-        "52111321", "21211324", "41211322", "22111414", "42111412", "11211415",
-        "31211413", "51211411", "22211143", "42211141", "11311144", "31311142",
-        "23111233", "43111231", "12211234", "32211232", "21311233", "41311231",
-        "13111324", "33111322", "22211323", "42211321", "11311324", "31311322",
-        "23111413", "43111411", "12211414", "32211412", "21311413", "41311411",
-        "23211142", "12311143", "32311141", "21411142", "24111232", "13211233",
-        "33211231", "22311232", "11411233", "31411231",
+        0xd4e0, 0xf538, 0xfd4e, 0xa8c0, 0xea30, 0xfa8c, 0xd420, 0xf508,
+        0xfd42, 0xdaf0, 0xf6bc, 0xca70, 0xf29c, 0xb4e0, 0xed38, 0xfb4e,
+        0x9460, 0xe518, 0xf946, 0xda30, 0xf68c, 0xca10, 0xf284, 0xb420,
+        0xed08, 0xfb42, 0xcd78, 0xf35e, 0xbaf0, 0xeebc, 0xc538, 0xf14e,
+        0x9a70, 0xe69c, 0xdd38, 0xf74e, 0x8a30, 0xe28c, 0xcd18, 0xf346,
+        0xba30, 0xee8c, 0xc508, 0xf142, 0x9a10, 0xe684, 0xdd08, 0xf742,
+        0xc6bc, 0x9d78, 0xe75e, 0xdebc, 0xc29c, 0x8d38, 0xe34e, 0xce9c,
+        0xbd38, 0xef4e,
         /* Column 29 */
-        "14111323", "34111321", "23211322", "12311323", "32311321", "21411322",
-        "24111412", "13211413", "33211411", "22311412", "11411413", "31411411",
-        "24211141", "13311142", "22411141", "11511142", "25111231", "14211232",
-        "23311231", "12411232", "21511231", "15111322", "24211321", "13311322",
-        "22411321", "11511322", "25111411", "14211412", "23311411", "12411412",
-        "21511411", "14311141", "12511141", "15211231", "13411231", "11611231",
-        "16111321", "14311321", "12511321", "15211411", "13411411", "11611411",
-        "31121143", "51121141", "21112144", "41112142", "21121234", "41121232",
-        "11112235", "31112233", "51112231", "11121325", "31121323", "51121321",
-        "21112324", "41112322", "21121414", "41121412",
+        0x8518, 0xe146, 0xc68c, 0x9d18, 0xe746, 0xde8c, 0xc284, 0x8d08,
+        0xe342, 0xce84, 0xbd08, 0xef42, 0xc35e, 0x8ebc, 0xcf5e, 0xbebc,
+        0xc14e, 0x869c, 0xc74e, 0x9e9c, 0xdf4e, 0x828c, 0xc346, 0x8e8c,
+        0xcf46, 0xbe8c, 0xc142, 0x8684, 0xc742, 0x9e84, 0xdf42, 0x875e,
+        0x9f5e, 0x834e, 0x8f4e, 0xbf4e, 0x8146, 0x8746, 0x9f46, 0x8342,
+        0x8f42, 0xbf42, 0xe978, 0xfa5e, 0xd6f0, 0xf5bc, 0xd270, 0xf49c,
+        0xace0, 0xeb38, 0xface, 0xa460, 0xe918, 0xfa46, 0xd630, 0xf58c,
+        0xd210, 0xf484,
         /* Column 30 */
-        "11112415", "31112413", "51112411", "12121144", "32121142", "21221143",
-        "41221141", "22112143", "42112141", "11212144", "22121233", "42121231",
-        "11221234", "31221232", "12112234", "32112232", "12121324", "32121322",
-        "21221323", "41221321", "22112323", "42112321", "11212324", "22121413",
-        "42121411", "11221414", "31221412", "12112414", "32112412", "21212413",
-        "41212411", "13121143", "33121141", "22221142", "11321143", "31321141",
-        "23112142", "12212143", "23121232", "12221233", "32221231", "21321232",
-        "13112233", "33112231", "13121323", "33121321", "11312233", "22221322",
-        "11321323", "31321321", "23112322", "12212323", "23121412", "12221413",
-        "32221411", "21321412", "13112413", "33112411",
+        0xac20, 0xeb08, 0xfac2, 0x92f0, 0xe4bc, 0xd978, 0xf65e, 0xcb78,
+        0xf2de, 0xb6f0, 0xc938, 0xf24e, 0xb270, 0xec9c, 0x9670, 0xe59c,
+        0x9230, 0xe48c, 0xd918, 0xf646, 0xcb18, 0xf2c6, 0xb630, 0xc908,
+        0xf242, 0xb210, 0xec84, 0x9610, 0xe584, 0xdb08, 0xf6c2, 0x8978,
+        0xe25e, 0xccbc, 0xb978, 0xee5e, 0xc5bc, 0x9b78, 0xc49c, 0x9938,
+        0xe64e, 0xdc9c, 0x8b38, 0xe2ce, 0x8918, 0xe246, 0xbb38, 0xcc8c,
+        0xb918, 0xee46, 0xc58c, 0x9b18, 0xc484, 0x9908, 0xe642, 0xdc84,
+        0x8b08, 0xe2c2,
         /* Column 31 */
-        "22212412", "11312413", "31312411", "14121142", "23221141", "12321142",
-        "21421141", "24112141", "13212142", "24121231", "13221232", "11412142",
-        "22321231", "11421232", "14112232", "14121322", "12312232", "23221321",
-        "12321322", "21421321", "24112321", "13212322", "24121411", "13221412",
-        "11412322", "22321411", "11421412", "14112412", "23212411", "12312412",
-        "21412411", "15121141", "13321141", "11521141", "14212141", "14221231",
-        "12412141", "12421231", "15112231", "15121321", "13312231", "13321321",
-        "11512231", "11521321", "14212321", "14221411", "12412321", "12421411",
-        "15112411", "13312411", "11512411", "11131144", "31131142", "21122143",
-        "41122141", "21131233", "41131231", "11113144",
+        0xcd84, 0xbb08, 0xeec2, 0x84bc, 0xc65e, 0x9cbc, 0xde5e, 0xc2de,
+        0x8dbc, 0xc24e, 0x8c9c, 0xbdbc, 0xce4e, 0xbc9c, 0x859c, 0x848c,
+        0x9d9c, 0xc646, 0x9c8c, 0xde46, 0xc2c6, 0x8d8c, 0xc242, 0x8c84,
+        0xbd8c, 0xce42, 0xbc84, 0x8584, 0xc6c2, 0x9d84, 0xdec2, 0x825e,
+        0x8e5e, 0xbe5e, 0x86de, 0x864e, 0x9ede, 0x9e4e, 0x82ce, 0x8246,
+        0x8ece, 0x8e46, 0xbece, 0xbe46, 0x86c6, 0x8642, 0x9ec6, 0x9e42,
+        0x82c2, 0x8ec2, 0xbec2, 0xa2f0, 0xe8bc, 0xd378, 0xf4de, 0xd138,
+        0xf44e, 0xaef0,
         /* Column 32 */
-        "31113142", "11122234", "31122232", "11131324", "31131322", "21113233",
-        "41113231", "21122323", "41122321", "21131413", "41131411", "11113324",
-        "31113322", "11122414", "31122412", "21113413", "41113411", "12131143",
-        "32131141", "21231142", "22122142", "11222143", "22131232", "11231233",
-        "31231231", "12113143", "32113141", "12122233", "32122231", "12131323",
-        "32131321", "21231322", "22113232", "11213233", "22122322", "11222323",
-        "22131412", "11231413", "31231411", "12113323", "32113321", "12122413",
-        "32122411", "21222412", "22113412", "11213413", "31213411", "13131142",
-        "22231141", "11331142", "23122141", "12222142", "23131231", "12231232",
-        "21331231", "13113142", "13122232", "11313142",
+        0xebbc, 0xa670, 0xe99c, 0xa230, 0xe88c, 0xd738, 0xf5ce, 0xd318,
+        0xf4c6, 0xd108, 0xf442, 0xae30, 0xeb8c, 0xa610, 0xe984, 0xd708,
+        0xf5c2, 0x9178, 0xe45e, 0xd8bc, 0xc9bc, 0xb378, 0xc89c, 0xb138,
+        0xec4e, 0x9778, 0xe5de, 0x9338, 0xe4ce, 0x9118, 0xe446, 0xd88c,
+        0xcb9c, 0xb738, 0xc98c, 0xb318, 0xc884, 0xb108, 0xec42, 0x9718,
+        0xe5c6, 0x9308, 0xe4c2, 0xd984, 0xcb84, 0xb708, 0xedc2, 0x88bc,
+        0xcc5e, 0xb8bc, 0xc4de, 0x99bc, 0xc44e, 0x989c, 0xdc4e, 0x8bbc,
+        0x899c, 0xbbbc,
         /* Column 33 */
-        "13131322", "11322232", "22231321", "11331322", "23113231", "12213232",
-        "23122321", "12222322", "23131411", "12231412", "21331411", "13113322",
-        "13122412", "11313322", "22222411", "11322412", "23113411", "12213412",
-        "21313411", "14131141", "12331141", "13222141", "13231231", "11422141",
-        "11431231", "14113141", "14122231", "12313141", "14131321", "12322231",
-        "12331321", "13213231", "13222321", "11413231", "13231411", "11422321",
-        "11431411", "14113321", "14122411", "12313321", "12322411", "13213411",
-        "11413411", "11141143", "31141141", "21132142", "21141232", "11123143",
-        "31123141", "11132233", "31132231", "11141323", "31141321", "21114142",
-        "21123232", "21132322", "21141412", "11114233",
+        0x888c, 0xb99c, 0xcc46, 0xb88c, 0xc5ce, 0x9b9c, 0xc4c6, 0x998c,
+        0xc442, 0x9884, 0xdc42, 0x8b8c, 0x8984, 0xbb8c, 0xccc2, 0xb984,
+        0xc5c2, 0x9b84, 0xddc2, 0x845e, 0x9c5e, 0x8cde, 0x8c4e, 0xbcde,
+        0xbc4e, 0x85de, 0x84ce, 0x9dde, 0x8446, 0x9cce, 0x9c46, 0x8dce,
+        0x8cc6, 0xbdce, 0x8c42, 0xbcc6, 0xbc42, 0x85c6, 0x84c2, 0x9dc6,
+        0x9cc2, 0x8dc2, 0xbdc2, 0xa178, 0xe85e, 0xd1bc, 0xd09c, 0xa778,
+        0xe9de, 0xa338, 0xe8ce, 0xa118, 0xe846, 0xd7bc, 0xd39c, 0xd18c,
+        0xd084, 0xaf38,
         /* Column 34 */
-        "31114231", "11123323", "31123321", "11132413", "31132411", "21114322",
-        "21123412", "12141142", "21241141", "22132141", "11232142", "22141231",
-        "11241232", "12123142", "12132232", "12141322", "21241321", "22114141",
-        "11214142", "22123231", "11223232", "22132321", "11232322", "22141411",
-        "11241412", "12114232", "12123322", "12132412", "21232411", "22114321",
-        "11214322", "22123411", "11223412", "13141141", "11341141", "12232141",
-        "12241231", "13123141", "13132231", "11323141", "13141321", "11332231",
-        "11341321", "12214141", "12223231", "12232321", "12241411", "13114231",
-        "13123321", "11314231", "13132411", "11323321", "11332411", "12214321",
-        "12223411", "11151142", "21142141", "21151231",
+        0xebce, 0xa718, 0xe9c6, 0xa308, 0xe8c2, 0xd78c, 0xd384, 0x90bc,
+        0xd85e, 0xc8de, 0xb1bc, 0xc84e, 0xb09c, 0x93bc, 0x919c, 0x908c,
+        0xd846, 0xcbde, 0xb7bc, 0xc9ce, 0xb39c, 0xc8c6, 0xb18c, 0xc842,
+        0xb084, 0x979c, 0x938c, 0x9184, 0xd8c2, 0xcbc6, 0xb78c, 0xc9c2,
+        0xb384, 0x885e, 0xb85e, 0x98de, 0x984e, 0x89de, 0x88ce, 0xb9de,
+        0x8846, 0xb8ce, 0xb846, 0x9bde, 0x99ce, 0x98c6, 0x9842, 0x8bce,
+        0x89c6, 0xbbce, 0x88c2, 0xb9c6, 0xb8c2, 0x9bc6, 0x99c2, 0xa0bc,
+        0xd0de, 0xd04e,
         /* Column 35 */
-        "11133142", "11142232", "11151322", "21124141", "21133231", "21142321",
-        "21151411", "11115142", "11124232", "11133322", "11142412", "21115231",
-        "21124321", "21133411", "12151141", "11242141", "11251231", "12133141",
-        "12142231", "12151321", "11224141", "11233231", "11242321", "11251411",
-        "12115141", "12124231", "12133321", "12142411", "11215231", "11224321",
-        "11233411", "11161141", "11143141", "11152231", "11161321", "11125141",
-        "11134231", "11143321", "11152411", "11111245", "31111243", "51111241",
-        "21111334", "41111332", "11111425", "31111423", "51111421", "21111514",
-        "41111512", "31211152", "12111244", "32111242", "21211243", "41211241",
-        "22111333", "42111331", "11211334", "31211332",
+        0xa3bc, 0xa19c, 0xa08c, 0xd3de, 0xd1ce, 0xd0c6, 0xd042, 0xafbc,
+        0xa79c, 0xa38c, 0xa184, 0xd7ce, 0xd3c6, 0xd1c2, 0x905e, 0xb0de,
+        0xb04e, 0x91de, 0x90ce, 0x9046, 0xb3de, 0xb1ce, 0xb0c6, 0xb042,
+        0x97de, 0x93ce, 0x91c6, 0x90c2, 0xb7ce, 0xb3c6, 0xb1c2, 0xa05e,
+        0xa1de, 0xa0ce, 0xa046, 0xa7de, 0xa3ce, 0xa1c6, 0xa0c2, 0xa9e0,
+        0xea78, 0xfa9e, 0xd470, 0xf51c, 0xa860, 0xea18, 0xfa86, 0xd410,
+        0xf504, 0xed7c, 0x94f0, 0xe53c, 0xda78, 0xf69e, 0xca38, 0xf28e,
+        0xb470, 0xed1c,
         /* Column 36 */
-        "12111424", "32111422", "21211423", "41211421", "22111513", "42111511",
-        "11211514", "31211512", "12211153", "32211151", "21311152", "13111243",
-        "33111241", "22211242", "11311243", "31311241", "23111332", "12211333",
-        "32211331", "21311332", "13111423", "33111421", "22211422", "11311423",
-        "31311421", "23111512", "12211513", "32211511", "21311512", "13211152",
-        "22311151", "11411152", "14111242", "23211241", "12311242", "21411241",
-        "24111331", "13211332", "22311331", "11411332", "14111422", "23211421",
-        "12311422", "21411421", "24111511", "13211512", "22311511", "11411512",
-        "14211151", "12411151", "15111241", "13311241", "11511241", "14211331",
-        "12411331", "15111421", "13311421", "11511421",
+        0x9430, 0xe50c, 0xda18, 0xf686, 0xca08, 0xf282, 0xb410, 0xed04,
+        0x9af8, 0xe6be, 0xdd7c, 0x8a78, 0xe29e, 0xcd3c, 0xba78, 0xee9e,
+        0xc51c, 0x9a38, 0xe68e, 0xdd1c, 0x8a18, 0xe286, 0xcd0c, 0xba18,
+        0xee86, 0xc504, 0x9a08, 0xe682, 0xdd04, 0x8d7c, 0xcebe, 0xbd7c,
+        0x853c, 0xc69e, 0x9d3c, 0xde9e, 0xc28e, 0x8d1c, 0xce8e, 0xbd1c,
+        0x850c, 0xc686, 0x9d0c, 0xde86, 0xc282, 0x8d04, 0xce82, 0xbd04,
+        0x86be, 0x9ebe, 0x829e, 0x8e9e, 0xbe9e, 0x868e, 0x9e8e, 0x8286,
+        0x8e86, 0xbe86,
         /* Column 37 */
-        "14211511", "12411511", "21121153", "41121151", "11112154", "31112152",
-        "11121244", "31121242", "21112243", "41112241", "21121333", "41121331",
-        "11112334", "31112332", "11121424", "31121422", "21112423", "41112421",
-        "21121513", "41121511", "11112514", "31112512", "22121152", "11221153",
-        "31221151", "12112153", "32112151", "12121243", "32121241", "21221242",
-        "22112242", "11212243", "22121332", "11221333", "31221331", "12112333",
-        "32112331", "12121423", "32121421", "21221422", "22112422", "11212423",
-        "22121512", "11221513", "31221511", "12112513", "32112511", "21212512",
-        "23121151", "12221152", "21321151", "13112152", "13121242", "11312152",
-        "22221241", "11321242", "23112241", "12212242",
+        0x8682, 0x9e82, 0xd2f8, 0xf4be, 0xadf0, 0xeb7c, 0xa4f0, 0xe93c,
+        0xd678, 0xf59e, 0xd238, 0xf48e, 0xac70, 0xeb1c, 0xa430, 0xe90c,
+        0xd618, 0xf586, 0xd208, 0xf482, 0xac10, 0xeb04, 0xc97c, 0xb2f8,
+        0xecbe, 0x96f8, 0xe5be, 0x9278, 0xe49e, 0xd93c, 0xcb3c, 0xb678,
+        0xc91c, 0xb238, 0xec8e, 0x9638, 0xe58e, 0x9218, 0xe486, 0xd90c,
+        0xcb0c, 0xb618, 0xc904, 0xb208, 0xec82, 0x9608, 0xe582, 0xdb04,
+        0xc4be, 0x997c, 0xdcbe, 0x8b7c, 0x893c, 0xbb7c, 0xcc9e, 0xb93c,
+        0xc59e, 0x9b3c,
         /* Column 38 */
-        "23121331", "12221332", "21321331", "13112332", "13121422", "11312332",
-        "22221421", "11321422", "23112421", "12212422", "23121511", "12221512",
-        "21321511", "13112512", "22212511", "11312512", "13221151", "11421151",
-        "14112151", "14121241", "12312151", "12321241", "13212241", "13221331",
-        "11412241", "11421331", "14112331", "14121421", "12312331", "12321421",
-        "13212421", "13221511", "11412421", "11421511", "14112511", "12312511",
-        "21131152", "11122153", "31122151", "11131243", "31131241", "21113152",
-        "21122242", "21131332", "11113243", "31113241", "11122333", "31122331",
-        "11131423", "31131421", "21113332", "21122422", "21131512", "11113423",
-        "31113421", "11122513", "31122511", "22131151",
+        0xc48e, 0x991c, 0xdc8e, 0x8b1c, 0x890c, 0xbb1c, 0xcc86, 0xb90c,
+        0xc586, 0x9b0c, 0xc482, 0x9904, 0xdc82, 0x8b04, 0xcd82, 0xbb04,
+        0x8cbe, 0xbcbe, 0x85be, 0x849e, 0x9dbe, 0x9c9e, 0x8d9e, 0x8c8e,
+        0xbd9e, 0xbc8e, 0x858e, 0x8486, 0x9d8e, 0x9c86, 0x8d86, 0x8c82,
+        0xbd86, 0xbc82, 0x8582, 0x9d82, 0xd17c, 0xa6f8, 0xe9be, 0xa278,
+        0xe89e, 0xd77c, 0xd33c, 0xd11c, 0xae78, 0xeb9e, 0xa638, 0xe98e,
+        0xa218, 0xe886, 0xd71c, 0xd30c, 0xd104, 0xae18, 0xeb86, 0xa608,
+        0xe982, 0xc8be,
         /* Column 39 */
-        "11231152", "12122152", "12131242", "21231241", "22113151", "11213152",
-        "22122241", "11222242", "22131331", "11231332", "12113242", "12122332",
-        "12131422", "21231421", "22113331", "11213332", "22122421", "11222422",
-        "22131511", "11231512", "12113422", "12122512", "21222511", "12231151",
-        "13122151", "13131241", "11322151", "11331241", "12213151", "12222241",
-        "12231331", "13113241", "13122331", "11313241", "13131421", "11322331",
-        "11331421", "12213331", "12222421", "12231511", "13113421", "13122511",
-        "11313421", "11322511", "21141151", "11132152", "11141242", "21123151",
-        "21132241", "21141331", "11114152", "11123242", "11132332", "11141422",
-        "21114241", "21123331", "21132421", "21141511",
+        0xb17c, 0x937c, 0x913c, 0xd89e, 0xcbbe, 0xb77c, 0xc99e, 0xb33c,
+        0xc88e, 0xb11c, 0x973c, 0x931c, 0x910c, 0xd886, 0xcb8e, 0xb71c,
+        0xc986, 0xb30c, 0xc882, 0xb104, 0x970c, 0x9304, 0xd982, 0x98be,
+        0x89be, 0x889e, 0xb9be, 0xb89e, 0x9bbe, 0x999e, 0x988e, 0x8b9e,
+        0x898e, 0xbb9e, 0x8886, 0xb98e, 0xb886, 0x9b8e, 0x9986, 0x9882,
+        0x8b86, 0x8982, 0xbb86, 0xb982, 0xd0be, 0xa37c, 0xa13c, 0xd3be,
+        0xd19e, 0xd08e, 0xaf7c, 0xa73c, 0xa31c, 0xa10c, 0xd79e, 0xd38e,
+        0xd186, 0xd082,
         /* Column 40 */
-        "11114332", "11123422", "11132512", "11241151", "12132151", "12141241",
-        "11223151", "11232241", "11241331", "12114151", "12123241", "12132331",
-        "12141421", "11214241", "11223331", "11232421", "11241511", "12114331",
-        "12123421", "12132511", "11142151", "11151241", "11124151", "11133241",
-        "11142331", "11151421", "11115241", "11124331", "11133421", "11142511",
-        "21111253", "41111251", "11111344", "31111342", "21111433", "41111431",
-        "11111524", "31111522", "21111613", "41111611", "21211162", "22111252",
-        "11211253", "31211251", "12111343", "32111341", "21211342", "22111432",
-        "11211433", "31211431", "12111523", "32111521", "21211522", "22111612",
-        "11211613", "31211611", "22211161", "11311162",
+        0xaf1c, 0xa70c, 0xa304, 0xb0be, 0x91be, 0x909e, 0xb3be, 0xb19e,
+        0xb08e, 0x97be, 0x939e, 0x918e, 0x9086, 0xb79e, 0xb38e, 0xb186,
+        0xb082, 0x978e, 0x9386, 0x9182, 0xa1be, 0xa09e, 0xa7be, 0xa39e,
+        0xa18e, 0xa086, 0xaf9e, 0xa78e, 0xa386, 0xa182, 0xd4f8, 0xf53e,
+        0xa8f0, 0xea3c, 0xd438, 0xf50e, 0xa830, 0xea0c, 0xd408, 0xf502,
+        0xdafc, 0xca7c, 0xb4f8, 0xed3e, 0x9478, 0xe51e, 0xda3c, 0xca1c,
+        0xb438, 0xed0e, 0x9418, 0xe506, 0xda0c, 0xca04, 0xb408, 0xed02,
+        0xcd7e, 0xbafc,
         /* Column 41 */
-        "23111251", "12211252", "21311251", "13111342", "22211341", "11311342",
-        "23111431", "12211432", "21311431", "13111522", "22211521", "11311522",
-        "23111611", "12211612", "21311611", "12311161", "13211251", "11411251",
-        "14111341", "12311341", "13211431", "11411431", "14111521", "12311521",
-        "13211611", "11411611", "31121161", "21112162", "21121252", "11112253",
-        "31112251", "11121343", "31121341", "21112342", "21121432", "11112433",
-        "31112431", "11121523", "31121521", "21112522", "21121612",
+        0xc53e, 0x9a7c, 0xdd3e, 0x8a3c, 0xcd1e, 0xba3c, 0xc50e, 0x9a1c,
+        0xdd0e, 0x8a0c, 0xcd06, 0xba0c, 0xc502, 0x9a04, 0xdd02, 0x9d7e,
+        0x8d3e, 0xbd3e, 0x851e, 0x9d1e, 0x8d0e, 0xbd0e, 0x8506, 0x9d06,
+        0x8d02, 0xbd02, 0xe97e, 0xd6fc, 0xd27c, 0xacf8, 0xeb3e, 0xa478,
+        0xe91e, 0xd63c, 0xd21c, 0xac38, 0xeb0e, 0xa418, 0xe906, 0xd60c,
+        0xd204,
         /* Column 42 */
-        "12121162", "21221161", "22112161", "11212162", "22121251", "11221252",
-        "12112252", "12121342", "21221341", "22112341", "11212342", "22121431",
-        "11221432", "12112432", "12121522", "21221521", "22112521", "11212522",
-        "22121611", "11221612", "13121161", "11321161", "12212161", "12221251",
-        "13112251", "13121341", "11312251", "11321341", "12212341", "12221431",
-        "13112431", "13121521", "11312431", "11321521", "12212521", "12221611",
-        "11131162", "21122161", "21131251", "11113162"
+        0x92fc, 0xd97e, 0xcb7e, 0xb6fc, 0xc93e, 0xb27c, 0x967c, 0x923c,
+        0xd91e, 0xcb1e, 0xb63c, 0xc90e, 0xb21c, 0x961c, 0x920c, 0xd906,
+        0xcb06, 0xb60c, 0xc902, 0xb204, 0x897e, 0xb97e, 0x9b7e, 0x993e,
+        0x8b3e, 0x891e, 0xbb3e, 0xb91e, 0x9b1e, 0x990e, 0x8b0e, 0x8906,
+        0xbb0e, 0xb906, 0x9b06, 0x9902, 0xa2fc, 0xd37e, 0xd13e, 0xaefc
     };
 
     private static final char[] C49_SET = {
@@ -1294,31 +1131,32 @@ protected void encode() {
         infoLine();
 
         readable = "";
-        pattern = new String[rows];
+        widths = new byte[rows][];
         rowHeight = new int[rows];
         rowCount = rows;
 
         info("Symbol Characters: ");
+        WidthBuffer rowWidths = new WidthBuffer(3 + (4 * 8));
         for (i = 0; i < rows; i++) {
-            StringBuilder rowPattern = new StringBuilder(3 + (4 * 8));
-            rowPattern.append("11"); /* Start character */
+            rowWidths.clear();
+            rowWidths.append(1).append(1); /* Start character */
             for (int j = 0; j < 4; j++) {
                 infoSpace(w_grid[i][j]);
                 if (i != (rows - 1)) {
                     if (C49_TABLE4[i].charAt(j) == 'E') {
                         /* Even Parity */
-                        rowPattern.append(C49_APPXE_EVEN[w_grid[i][j]]);
+                        rowWidths.appendModules(C49_APPXE_EVEN[w_grid[i][j]], 16);
                     } else {
                         /* Odd Parity */
-                        rowPattern.append(C49_APPXE_ODD[w_grid[i][j]]);
+                        rowWidths.appendModules(C49_APPXE_ODD[w_grid[i][j]], 16);
                     }
                 } else {
                     /* Last row uses all even parity */
-                    rowPattern.append(C49_APPXE_EVEN[w_grid[i][j]]);
+                    rowWidths.appendModules(C49_APPXE_EVEN[w_grid[i][j]], 16);
                 }
             }
-            rowPattern.append('4'); /* Stop character */
-            pattern[i] = rowPattern.toString();
+            rowWidths.append(4); /* Stop character */
+            widths[i] = rowWidths.toArray();
             rowHeight[i] = 10;
         }
         infoLine();
@@ -1340,9 +1178,10 @@ protected void plotSymbol() {
             black = true;
             x = 15;
             h = rowHeight[yBlock];
-            for (xBlock = 0; xBlock < pattern[yBlock].length(); xBlock++) {
+            byte[] row = widths[yBlock];
+            for (xBlock = 0; xBlock < row.length; xBlock++) {
+                w = row[xBlock];
                 if (black) {
-                    w = pattern[yBlock].charAt(xBlock) - '0';
                     if (w != 0 && h != 0) {
                         addRectangle(new Rectangle(x, y, w, h));
                     }
@@ -1351,7 +1190,7 @@ protected void plotSymbol() {
                     }
                 }
                 black = !black;
-                x += pattern[yBlock].charAt(xBlock) - '0';
+                x += w;
             }
             y += h;
             if (y > symbolHeight) {
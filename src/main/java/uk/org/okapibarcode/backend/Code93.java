@@ -58,18 +58,25 @@ public class Code93 extends Symbol {
         'U', 'V', 'W', 'X', 'Y', 'Z', '-', '.', ' ', '$',
         '/', '+', '%', 'a', 'b', 'c', 'd' };
 
-    /** Code 93 pattern table. */
-    private static final String[] CODE_93_TABLE = {
-        "131112", "111213", "111312", "111411", "121113",
-        "121212", "121311", "111114", "131211", "141111",
-        "211113", "211212", "211311", "221112", "221211",
-        "231111", "112113", "112212", "112311", "122112",
-        "132111", "111123", "111222", "111321", "121122",
-        "131121", "212112", "212211", "211122", "211221",
-        "221121", "222111", "112122", "112221", "122121",
-        "123111", "121131", "311112", "311211", "321111",
-        "112131", "113121", "211131", "121221", "312111",
-        "311121", "122211" };
+    /** Code 93 bar / space width table. */
+    private static final byte[][] CODE_93_TABLE = {
+        { 1, 3, 1, 1, 1, 2 }, { 1, 1, 1, 2, 1, 3 }, { 1, 1, 1, 3, 1, 2 }, { 1, 1, 1, 4, 1, 1 }, { 1, 2, 1, 1, 1, 3 },
+        { 1, 2, 1, 2, 1, 2 }, { 1, 2, 1, 3, 1, 1 }, { 1, 1, 1, 1, 1, 4 }, { 1, 3, 1, 2, 1, 1 }, { 1, 4, 1, 1, 1, 1 },
+        { 2, 1, 1, 1, 1, 3 }, { 2, 1, 1, 2, 1, 2 }, { 2, 1, 1, 3, 1, 1 }, { 2, 2, 1, 1, 1, 2 }, { 2, 2, 1, 2, 1, 1 },
+        { 2, 3, 1, 1, 1, 1 }, { 1, 1, 2, 1, 1, 3 }, { 1, 1, 2, 2, 1, 2 }, { 1, 1, 2, 3, 1, 1 }, { 1, 2, 2, 1, 1, 2 },
+        { 1, 3, 2, 1, 1, 1 }, { 1, 1, 1, 1, 2, 3 }, { 1, 1, 1, 2, 2, 2 }, { 1, 1, 1, 3, 2, 1 }, { 1, 2, 1, 1, 2, 2 },
+        { 1, 3, 1, 1, 2, 1 }, { 2, 1, 2, 1, 1, 2 }, { 2, 1, 2, 2, 1, 1 }, { 2, 1, 1, 1, 2, 2 }, { 2, 1, 1, 2, 2, 1 },
+        { 2, 2, 1, 1, 2, 1 }, { 2, 2, 2, 1, 1, 1 }, { 1, 1, 2, 1, 2, 2 }, { 1, 1, 2, 2, 2, 1 }, { 1, 2, 2, 1, 2, 1 },
+        { 1, 2, 3, 1, 1, 1 }, { 1, 2, 1, 1, 3, 1 }, { 3, 1, 1, 1, 1, 2 }, { 3, 1, 1, 2, 1, 1 }, { 3, 2, 1, 1, 1, 1 },
+        { 1, 1, 2, 1, 3, 1 }, { 1, 1, 3, 1, 2, 1 }, { 2, 1, 1, 1, 3, 1 }, { 1, 2, 1, 2, 2, 1 }, { 3, 1, 2, 1, 1, 1 },
+        { 3, 1, 1, 1, 2, 1 }, { 1, 2, 2, 2, 1, 1 }
+    };
+
+    /** Code 93 start character bar / space widths. */
+    private static final byte[] START = { 1, 1, 1, 1, 4, 1 };
+
+    /** Code 93 stop character (and termination bar) bar / space widths. */
+    private static final byte[] STOP = { 1, 1, 1, 1, 4, 1, 1 };
 
     /** Whether or not to show check digits in the human-readable text. */
     private boolean showCheckDigits = true;
@@ -147,7 +154,7 @@ protected void encode() {
 
         infoLine("Check Digit C: ", c);
         infoLine("Check Digit K: ", k);
-        pattern = new String[] { toPattern(values) };
+        widths = new byte[][] { toWidths(values) };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
@@ -190,13 +197,14 @@ private static int calculateCheckDigitK(int[] values, int length) {
         return k;
     }
 
-    private static String toPattern(int[] values) {
-        StringBuilder buffer = new StringBuilder("111141");
+    private static byte[] toWidths(int[] values) {
+        WidthBuffer buffer = new WidthBuffer((6 * values.length) + START.length + STOP.length);
+        buffer.append(START);
         for (int i = 0; i < values.length; i++) {
             buffer.append(CODE_93_TABLE[values[i]]);
         }
-        buffer.append("1111411");
-        return buffer.toString();
+        buffer.append(STOP);
+        return buffer.toArray();
     }
 
     /** {@inheritDoc} */
@@ -16,7 +16,6 @@
 
 package uk.org.okapibarcode.backend;
 
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -191,12 +190,10 @@ protected void encode() {
                 block_width = 2;
             } /* Version S-10 */
 
-            BigInteger elreg = new BigInteger(content);
+            long elreg = Long.parseLong(content);
 
             for (i = 0; i < codewords; i++) {
-                BigInteger codewordValue = elreg.shiftRight(5 * i);
-                codewordValue = codewordValue.and(BigInteger.valueOf(0b11111));
-                data[codewords - i - 1] = codewordValue.intValue();
+                data[codewords - i - 1] = (int) ((elreg >>> (5 * i)) & 0b11111);
             }
 
             logCodewords(codewords);
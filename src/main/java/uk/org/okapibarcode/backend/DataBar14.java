@@ -16,9 +16,7 @@
 
 package uk.org.okapibarcode.backend;
 
-import static uk.org.okapibarcode.backend.DataBarLimited.getWidths;
-
-import java.math.BigInteger;
+import static uk.org.okapibarcode.backend.DataBarLimited.getWidthsTable;
 
 /**
  * <p>Implements GS1 DataBar Omnidirectional and GS1 DataBar Truncated according to ISO/IEC 24724:2011.
@@ -64,6 +62,18 @@ public enum Mode {
         1, 3, 5, 6, 8, 7, 5, 3, 1
     };
 
+    /** Odd and even element widths for each group, indexed by <code>[group][(value * 4) + element]</code>. */
+    private static final byte[][] WIDTHS_ODD = new byte[9][];
+    private static final byte[][] WIDTHS_EVEN = new byte[9][];
+
+    static {
+        for (int group = 0; group < 9; group++) {
+            int noNarrow = group < 5 ? 1 : 0; // outside characters use groups 0 - 4, inside characters use groups 5 - 8
+            WIDTHS_ODD[group] = getWidthsTable(MODULES_ODD[group], 4, WIDEST_ODD[group], noNarrow);
+            WIDTHS_EVEN[group] = getWidthsTable(MODULES_EVEN[group], 4, WIDEST_EVEN[group], 1 - noNarrow);
+        }
+    }
+
     private static final int[] CHECKSUM_WEIGHT = { /* Table 5 */
         1, 3, 9, 27, 2, 6, 18, 54, 4, 12, 36, 29, 8, 24, 72, 58, 16, 48, 65,
         37, 32, 17, 51, 74, 64, 34, 23, 69, 49, 68, 46, 59
@@ -160,9 +170,9 @@ protected boolean getLinkageFlag() {
     protected void encode() {
 
         boolean[][] grid = new boolean[5][100];
-        BigInteger accum;
-        BigInteger left_reg;
-        BigInteger right_reg;
+        long accum;
+        long left_reg;
+        long right_reg;
         int[] data_character = new int[4];
         int[] data_group = new int[4];
         int[] v_odd = new int[4];
@@ -188,25 +198,21 @@ protected void encode() {
             throw OkapiInputException.invalidCharactersInInput();
         }
 
-        accum = new BigInteger(content);
+        accum = Long.parseLong(content);
         if (linkageFlag) {
-            accum = accum.add(new BigInteger("10000000000000"));
+            accum += 10_000_000_000_000L;
             compositeOffset = 1;
         }
 
         /* Calculate left and right pair values */
-        left_reg = accum.divide(new BigInteger("4537077"));
-        right_reg = accum.mod(new BigInteger("4537077"));
+        left_reg = accum / 4_537_077;
+        right_reg = accum % 4_537_077;
 
         /* Calculate four data characters */
-        accum = left_reg.divide(new BigInteger("1597"));
-        data_character[0] = accum.intValue();
-        accum = left_reg.mod(new BigInteger("1597"));
-        data_character[1] = accum.intValue();
-        accum = right_reg.divide(new BigInteger("1597"));
-        data_character[2] = accum.intValue();
-        accum = right_reg.mod(new BigInteger("1597"));
-        data_character[3] = accum.intValue();
+        data_character[0] = (int) (left_reg / 1597);
+        data_character[1] = (int) (left_reg % 1597);
+        data_character[2] = (int) (right_reg / 1597);
+        data_character[3] = (int) (right_reg % 1597);
 
         info("Data Characters: ");
         for (i = 0; i < 4; i++) {
@@ -281,28 +287,11 @@ protected void encode() {
 
         /* Use RSS subset width algorithm */
         for (i = 0; i < 4; i++) {
-            if ((i == 0) || (i == 2)) {
-                int[] widths = getWidths(v_odd[i], MODULES_ODD[data_group[i]], 4, WIDEST_ODD[data_group[i]], 1);
-                data_widths[0][i] = widths[0];
-                data_widths[2][i] = widths[1];
-                data_widths[4][i] = widths[2];
-                data_widths[6][i] = widths[3];
-                widths = getWidths(v_even[i], MODULES_EVEN[data_group[i]], 4, WIDEST_EVEN[data_group[i]], 0);
-                data_widths[1][i] = widths[0];
-                data_widths[3][i] = widths[1];
-                data_widths[5][i] = widths[2];
-                data_widths[7][i] = widths[3];
-            } else {
-                int[] widths = getWidths(v_odd[i], MODULES_ODD[data_group[i]], 4, WIDEST_ODD[data_group[i]], 0);
-                data_widths[0][i] = widths[0];
-                data_widths[2][i] = widths[1];
-                data_widths[4][i] = widths[2];
-                data_widths[6][i] = widths[3];
-                widths = getWidths(v_even[i], MODULES_EVEN[data_group[i]], 4, WIDEST_EVEN[data_group[i]], 1);
-                data_widths[1][i] = widths[0];
-                data_widths[3][i] = widths[1];
-                data_widths[5][i] = widths[2];
-                data_widths[7][i] = widths[3];
+            byte[] odd = WIDTHS_ODD[data_group[i]];
+            byte[] even = WIDTHS_EVEN[data_group[i]];
+            for (j = 0; j < 4; j++) {
+                data_widths[j * 2][i] = odd[(v_odd[i] * 4) + j];
+                data_widths[(j * 2) + 1][i] = even[(v_even[i] * 4) + j];
             }
         }
 
@@ -621,17 +610,17 @@ protected void encode() {
             rowCount = rowCount + 1;
         }
 
-        StringBuilder pat = new StringBuilder(symbolWidth);
-        pattern = new String[rowCount + compositeOffset];
+        WidthBuffer buffer = new WidthBuffer(symbolWidth);
+        widths = new byte[rowCount + compositeOffset][];
         rowHeight = new int[rowCount + compositeOffset];
 
         if (linkageFlag) {
-            pattern[0] = bin2pat(separator, 0, symbolWidth, pat);
+            widths[0] = bin2widths(separator, 0, symbolWidth, buffer);
             rowHeight[0] = 1;
         }
 
         for (i = 0; i < rowCount; i++) {
-            pattern[i + compositeOffset] = bin2pat(grid[i], 0, symbolWidth, pat);
+            widths[i + compositeOffset] = bin2widths(grid[i], 0, symbolWidth, buffer);
         }
 
         if (mode == Mode.LINEAR) {
@@ -16,8 +16,7 @@
 
 package uk.org.okapibarcode.backend;
 
-import static uk.org.okapibarcode.backend.DataBarLimited.getWidths;
-import static uk.org.okapibarcode.util.Strings.binaryAppend;
+import static uk.org.okapibarcode.backend.DataBarLimited.getWidthsTable;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -57,6 +56,17 @@ public class DataBarExpanded extends Symbol {
         2, 4, 5, 6, 8
     };
 
+    /** Odd and even element widths for each group, indexed by <code>[group - 1][(value * 4) + element]</code>. */
+    private static final byte[][] WIDTHS_ODD_EXP = new byte[5][];
+    private static final byte[][] WIDTHS_EVEN_EXP = new byte[5][];
+
+    static {
+        for (int group = 0; group < 5; group++) {
+            WIDTHS_ODD_EXP[group] = getWidthsTable(MODULES_ODD_EXP[group], 4, WIDEST_ODD_EXP[group], 0);
+            WIDTHS_EVEN_EXP[group] = getWidthsTable(MODULES_EVEN_EXP[group], 4, WIDEST_EVEN_EXP[group], 1);
+        }
+    }
+
     /** Table 14 */
     private static final int[] CHECKSUM_WEIGHT_EXP = {
         1, 3, 9, 27, 81, 32, 96, 77, 20, 60, 180, 118, 143, 7, 21, 63, 189,
@@ -106,6 +116,14 @@ protected enum EncodeMode {
         NUMERIC, ALPHA, ISOIEC, ANY_ENC, ALPHA_OR_ISO
     }
 
+    /** Special characters available in alphanumeric encodation, values 58 to 62 (Table 12). */
+    private static final String ALPHA_SPECIALS = "*,-./";
+
+    /** Special characters available in ISO/IEC 646 encodation, values 232 to 252 (Table 13). */
+    private static final String ISO_SPECIALS = "!\"%&'()*+,-./:;<=>?_ ";
+
+    private final BitBuffer binary = new BitBuffer(256); // the binary data, reused across encodes
+
     private boolean linkageFlag;
     private int preferredColumns = 2;
     private boolean stacked = true;
@@ -202,30 +220,20 @@ protected void encode() {
             throw OkapiInputException.invalidCharactersInInput();
         }
 
-        StringBuilder binaryString = new StringBuilder(inputData.length * 8);
-
-        if (linkageFlag) {
-            binaryString.append('1');
-            compositeOffset = 1;
-        } else {
-            binaryString.append('0');
-            compositeOffset = 0;
-        }
+        binary.clear();
+        binary.append(linkageFlag ? 1 : 0, 1);
+        compositeOffset = linkageFlag ? 1 : 0;
 
-        int encodingMethod = calculateBinaryString(stacked, preferredColumns, inputData, binaryString); // updates binaryString
+        int encodingMethod = calculateBinaryString(stacked, preferredColumns, inputData, binary); // updates binary
         infoLine("Encoding Method: ", encodingMethod);
-        logBinaryStringInfo(binaryString);
+        infoLine("Binary Length: ", binary.length());
+        infoLine("Binary String: ", binary.toHexString());
 
-        data_chars = binaryString.length() / 12;
+        data_chars = binary.length() / 12;
 
         info("Data Characters: ");
         for (i = 0; i < data_chars; i++) {
-            vs[i] = 0;
-            for (j = 0; j < 12; j++) {
-                if (binaryString.charAt((i * 12) + j) == '1') {
-                    vs[i] += 2048 >> j;
-                }
-            }
+            vs[i] = binary.get(i * 12, 12);
             infoSpace(vs[i]);
         }
         infoLine();
@@ -249,17 +257,10 @@ protected void encode() {
             v_odd[i] = (vs[i] - G_SUM_EXP[group[i] - 1]) / T_EVEN_EXP[group[i] - 1];
             v_even[i] = (vs[i] - G_SUM_EXP[group[i] - 1]) % T_EVEN_EXP[group[i] - 1];
 
-            int[] widths = getWidths(v_odd[i], MODULES_ODD_EXP[group[i] - 1], 4, WIDEST_ODD_EXP[group[i] - 1], 0);
-            char_widths[i][0] = widths[0];
-            char_widths[i][2] = widths[1];
-            char_widths[i][4] = widths[2];
-            char_widths[i][6] = widths[3];
-
-            widths = getWidths(v_even[i], MODULES_EVEN_EXP[group[i] - 1], 4, WIDEST_EVEN_EXP[group[i] - 1], 1);
-            char_widths[i][1] = widths[0];
-            char_widths[i][3] = widths[1];
-            char_widths[i][5] = widths[2];
-            char_widths[i][7] = widths[3];
+            for (j = 0; j < 4; j++) {
+                char_widths[i][j * 2] = WIDTHS_ODD_EXP[group[i] - 1][(v_odd[i] * 4) + j];
+                char_widths[i][(j * 2) + 1] = WIDTHS_EVEN_EXP[group[i] - 1][(v_even[i] * 4) + j];
+            }
         }
 
         /* 7.2.6 Check character */
@@ -294,17 +295,10 @@ protected void encode() {
         c_odd = (check_char - G_SUM_EXP[c_group - 1]) / T_EVEN_EXP[c_group - 1];
         c_even = (check_char - G_SUM_EXP[c_group - 1]) % T_EVEN_EXP[c_group - 1];
 
-        int[] widths = getWidths(c_odd, MODULES_ODD_EXP[c_group - 1], 4, WIDEST_ODD_EXP[c_group - 1], 0);
-        check_widths[0] = widths[0];
-        check_widths[2] = widths[1];
-        check_widths[4] = widths[2];
-        check_widths[6] = widths[3];
-
-        widths = getWidths(c_even, MODULES_EVEN_EXP[c_group - 1], 4, WIDEST_EVEN_EXP[c_group - 1], 1);
-        check_widths[1] = widths[0];
-        check_widths[3] = widths[1];
-        check_widths[5] = widths[2];
-        check_widths[7] = widths[3];
+        for (j = 0; j < 4; j++) {
+            check_widths[j * 2] = WIDTHS_ODD_EXP[c_group - 1][(c_odd * 4) + j];
+            check_widths[(j * 2) + 1] = WIDTHS_EVEN_EXP[c_group - 1][(c_even * 4) + j];
+        }
 
         /* Initialise element array */
         pattern_width = ((((data_chars + 1) / 2) + ((data_chars + 1) & 1)) * 5) + ((data_chars + 1) * 8) + 4;
@@ -560,11 +554,10 @@ private static String separator(CharSequence pattern, int cols, boolean below, b
     }
 
     /** Handles all data encodation from section 7.2.5 of ISO/IEC 24724. */
-    private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[] inputData, StringBuilder binaryString) {
+    private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[] inputData, BitBuffer binary) {
 
         EncodeMode lastMode = EncodeMode.NUMERIC;
-        int remainder, d1, d2, value;
-        String padstring;
+        int remainder;
 
         /* Decide whether a compressed data field is required and if so what method to use: method 2 = no compressed data field */
 
@@ -682,34 +675,42 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
         /* Encoding method - Table 10 */
         /* Variable length symbol bit field is just given a place holder (XX) for the time being */
         int read_posn;
+        int patch_posn;
         switch (encodingMethod) {
             case 1:
-                binaryString.append("1XX");
+                binary.append(0b1_00, 3); // 1XX
                 read_posn = 16;
+                patch_posn = binary.length() - 2;
                 break;
             case 2:
-                binaryString.append("00XX");
+                binary.append(0b00_00, 4); // 00XX
                 read_posn = 0;
+                patch_posn = binary.length() - 2;
                 break;
             case 3:
-                binaryString.append("0100");
+                binary.append(0b0100, 4);
                 read_posn = inputData.length;
+                patch_posn = -1;
                 break;
             case 4:
-                binaryString.append("0101");
+                binary.append(0b0101, 4);
                 read_posn = inputData.length;
+                patch_posn = -1;
                 break;
             case 5:
-                binaryString.append("01100XX");
+                binary.append(0b01100_00, 7); // 01100XX
                 read_posn = 20;
+                patch_posn = binary.length() - 2;
                 break;
             case 6:
-                binaryString.append("01101XX");
+                binary.append(0b01101_00, 7); // 01101XX
                 read_posn = 23;
+                patch_posn = binary.length() - 2;
                 break;
             default: /* modes 7 (0111000) to 14 (0111111) */
-                binaryString.append("0" + Integer.toBinaryString(56 + encodingMethod - 7));
+                binary.append(56 + encodingMethod - 7, 7);
                 read_posn = inputData.length;
+                patch_posn = -1;
                 break;
         }
 
@@ -725,10 +726,10 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
 
         if (encodingMethod == 1) {
             /* Encoding method field "1" - general item identification data */
-            binaryAppend(binaryString, inputData[2] - '0', 4);
+            binary.append(inputData[2] - '0', 4);
             for (int i = 1; i < 5; i++) {
                 int group = parseInt(inputData, i * 3, 3);
-                binaryAppend(binaryString, group, 10);
+                binary.append(group, 10);
             }
         }
 
@@ -737,13 +738,13 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
             /* Encoding method field "0101" - variable weight item (0,01 or 0,001 pound increment) */
             for (int i = 1; i < 5; i++) {
                 int group = parseInt(inputData, i * 3, 3);
-                binaryAppend(binaryString, group, 10);
+                binary.append(group, 10);
             }
             int group = parseInt(inputData, 20, 6);
             if (encodingMethod == 4 && inputData[19] == '3') {
                 group += 10_000;
             }
-            binaryAppend(binaryString, group, 15);
+            binary.append(group, 15);
         }
 
         if (encodingMethod == 5 || encodingMethod == 6) {
@@ -751,12 +752,12 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
             /* Encoding method "01101" - variable measure item and price with ISO 4217 currency code */
             for (int i = 1; i < 5; i++) {
                 int group = parseInt(inputData, i * 3, 3);
-                binaryAppend(binaryString, group, 10);
+                binary.append(group, 10);
             }
-            binaryAppend(binaryString, inputData[19] - '0', 2);
+            binary.append(inputData[19] - '0', 2);
             if (encodingMethod == 6) {
                 int currency = parseInt(inputData, 20, 3);
-                binaryAppend(binaryString, currency, 10);
+                binary.append(currency, 10);
             }
         }
 
@@ -764,14 +765,14 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
             /* Encoding method fields "0111000" through "0111111" - variable weight item plus date */
             for (int i = 1; i < 5; i++) {
                 int group = parseInt(inputData, i * 3, 3);
-                binaryAppend(binaryString, group, 10);
+                binary.append(group, 10);
             }
             int weight = inputData[19] - '0';
             for (int i = 0; i < 5; i++) {
                 weight *= 10;
                 weight += inputData[21 + i] - '0';
             }
-            binaryAppend(binaryString, weight, 20);
+            binary.append(weight, 20);
             int date;
             if (inputData.length == 34) {
                 /* Date information is included */
@@ -781,7 +782,7 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
             } else {
                 date = 38_400;
             }
-            binaryAppend(binaryString, date, 16);
+            binary.append(date, 16);
         }
 
         /* The compressed data field has been processed if appropriate - the rest of the data (if any) goes into a general-purpose data compaction field */
@@ -790,75 +791,47 @@ private static int calculateBinaryString(boolean stacked, int blocksPerRow, int[
 
         if (generalField.length != 0) {
 
-            EncodeMode[] generalFieldType = getInitialEncodeModes(generalField);
-            boolean trailingDigit = applyGeneralFieldRules(generalFieldType); // modifies generalFieldType
-            lastMode = appendToBinaryString(generalField, generalFieldType, trailingDigit, false, binaryString); // modifies binaryString
-            remainder = calculateRemainder(binaryString.length(), stacked, blocksPerRow);
+            GeneralField field = new GeneralField(generalField, false, binary); // modifies binary
+            lastMode = field.getLastMode();
+            remainder = calculateRemainder(binary.length(), stacked, blocksPerRow);
 
-            if (trailingDigit) {
+            if (field.hasTrailingDigit()) {
                 /* There is still one more numeric digit to encode */
-                int i = generalField.length - 1;
+                int c = generalField[generalField.length - 1];
                 if (lastMode == EncodeMode.NUMERIC) {
                     if (remainder >= 4 && remainder <= 6) {
-                        value = generalField[i] - '0';
-                        value++;
-                        binaryAppend(binaryString, value, 4);
+                        binary.append(c - '0' + 1, 4);
                     } else {
-                        d1 = generalField[i] - '0';
-                        d2 = 10;
-                        value = (11 * d1) + d2 + 8;
-                        binaryAppend(binaryString, value, 7);
+                        binary.append((11 * (c - '0')) + 10 + 8, 7);
                     }
                 } else {
-                    value = generalField[i] - 43;
-                    binaryAppend(binaryString, value, 5);
+                    binary.append(c - 43, 5);
                 }
             }
         }
 
-        if (binaryString.length() > 252) {
+        if (binary.length() > 252) {
             throw OkapiInputException.inputTooLong();
         }
 
-        remainder = calculateRemainder(binaryString.length(), stacked, blocksPerRow);
+        remainder = calculateRemainder(binary.length(), stacked, blocksPerRow);
 
         /* Now add padding to binary string (7.2.5.5.4) */
-        int i = remainder;
         if (lastMode == EncodeMode.NUMERIC) {
-            padstring = "0000";
-            i -= 4;
-        } else {
-            padstring = "";
+            int bits = Math.min(remainder, 4);
+            binary.append(0b0000, bits); /* Alphanumeric latch */
+            remainder -= bits;
         }
-        for (; i > 0; i -= 5) {
-            padstring += "00100";
+        while (remainder > 0) {
+            int bits = Math.min(remainder, 5);
+            binary.append(0b00100 >>> (5 - bits), bits);
+            remainder -= bits;
         }
-        binaryString.append(padstring.substring(0, remainder));
 
         /* Patch variable length symbol bit field */
-        char patchEvenOdd, patchSize;
-        if ((((binaryString.length() / 12) + 1) & 1) == 0) {
-            patchEvenOdd = '0';
-        } else {
-            patchEvenOdd = '1';
-        }
-        if (binaryString.length() <= 156) {
-            patchSize = '0';
-        } else {
-            patchSize = '1';
-        }
-
-        if (encodingMethod == 1) {
-            binaryString.setCharAt(2, patchEvenOdd);
-            binaryString.setCharAt(3, patchSize);
-        }
-        if (encodingMethod == 2) {
-            binaryString.setCharAt(3, patchEvenOdd);
-            binaryString.setCharAt(4, patchSize);
-        }
-        if (encodingMethod == 5 || encodingMethod == 6) {
-            binaryString.setCharAt(6, patchEvenOdd);
-            binaryString.setCharAt(7, patchSize);
+        if (patch_posn != -1) {
+            binary.set(patch_posn, (((binary.length() / 12) + 1) & 1) != 0);
+            binary.set(patch_posn + 1, binary.length() > 156);
         }
 
         return encodingMethod;
@@ -883,347 +856,206 @@ private static int calculateRemainder(int binaryStringLength, boolean stacked, i
         return remainder;
     }
 
-    /** Logs binary string as hexadecimal */
-    private void logBinaryStringInfo(StringBuilder binaryString) {
-
-        infoLine("Binary Length: ", binaryString.length());
-        info("Binary String: ");
-
-        int nibble = 0;
-        for (int i = 0; i < binaryString.length(); i++) {
-            switch (i % 4) {
-                case 0:
-                    if (binaryString.charAt(i) == '1') {
-                        nibble += 8;
-                    }
-                    break;
-                case 1:
-                    if (binaryString.charAt(i) == '1') {
-                        nibble += 4;
-                    }
-                    break;
-                case 2:
-                    if (binaryString.charAt(i) == '1') {
-                        nibble += 2;
-                    }
-                    break;
-                case 3:
-                    if (binaryString.charAt(i) == '1') {
-                        nibble += 1;
-                    }
-                    info(Integer.toHexString(nibble));
-                    nibble = 0;
-                    break;
-            }
+    /**
+     * Appends the specified character using alphanumeric encodation (Table 12).
+     *
+     * @param c the character to append (a digit, an uppercase letter, FNC1 or one of <code>*,-./</code>)
+     * @param binary the binary data to append to
+     */
+    static void appendAlphanumeric(int c, BitBuffer binary) {
+        if (c >= '0' && c <= '9') {
+            binary.append(c - 43, 5);
+        } else if (c >= 'A' && c <= 'Z') {
+            binary.append(c - 33, 6);
+        } else if (c == FNC1) {
+            binary.append(0b01111, 5); /* FNC1 / Numeric latch */
+        } else {
+            binary.append(58 + ALPHA_SPECIALS.indexOf(c), 6);
         }
+    }
 
-        if ((binaryString.length() % 4) != 0) {
-            info(Integer.toHexString(nibble));
+    /**
+     * Appends the specified character using ISO/IEC 646 encodation (Table 13).
+     *
+     * @param c the character to append
+     * @param binary the binary data to append to
+     */
+    private static void appendIsoIec(int c, BitBuffer binary) {
+        if (c >= '0' && c <= '9') {
+            binary.append(c - 43, 5);
+        } else if (c >= 'A' && c <= 'Z') {
+            binary.append(c - 1, 7);
+        } else if (c >= 'a' && c <= 'z') {
+            binary.append(c - 7, 7);
+        } else if (c == FNC1) {
+            binary.append(0b01111, 5); /* FNC1 / Numeric latch */
+        } else {
+            binary.append(232 + ISO_SPECIALS.indexOf(c), 8);
         }
-
-        infoLine();
     }
 
-    protected static EncodeMode[] getInitialEncodeModes(int[] generalField) {
-
-        EncodeMode[] generalFieldType = new EncodeMode[generalField.length];
-
-        for (int i = 0; i < generalField.length; i++) {
-            /* Tables 11, 12, 13 - ISO/IEC 646 encodation */
-            int c = generalField[i];
-            EncodeMode mode;
-            if (c == FNC1) {
-                // FNC1 can be encoded in any system
-                mode = EncodeMode.ANY_ENC;
-            } else if (c >= '0' && c <= '9') {
-                // numbers can be encoded in any system, but will usually narrow down to numeric encodation
-                mode = EncodeMode.ANY_ENC;
-            } else if ((c >= 'A' && c <= 'Z') || c == '*' || c == ',' || c == '-' || c == '.' || c == '/') {
-                // alphanumeric encodation or ISO/IEC encodation
-                mode = EncodeMode.ALPHA_OR_ISO;
-            } else if ((c >= 'a' && c <= 'z') || c == '!' || c == '"' || c == '%' || c == '&' || c == '\'' ||
-                        c == '(' || c == ')' || c == '+' || c == ':' || c == ';' || c == '<' || c == '=' ||
-                        c == '>' || c == '?' || c == '_' || c == ' ') {
-                // ISO/IEC encodation
-                mode = EncodeMode.ISOIEC;
-            } else {
-                // unable to encode this character
-                throw OkapiInputException.invalidCharactersInInput();
-            }
-            generalFieldType[i] = mode;
+    /**
+     * General-purpose data compaction field encoder (section 7.2.5.5 of ISO/IEC 24724, also used by the 2D component
+     * of composite symbols). The field is encoded by a state machine which walks through the runs of characters which
+     * share the same encodation options (Tables 11, 12 and 13), choosing the encodation mode of each run based on the
+     * mode chosen for the previous run (sections 7.2.5.5.1 to 7.2.5.5.3). Consecutive runs which end up in the same
+     * mode are written to the binary data together. If the field ends in an odd number of digits in numeric mode, the
+     * last digit is not encoded, since its encodation depends on the space remaining in the symbol.
+     */
+    static final class GeneralField {
+
+        private final int[] data;
+        private final boolean treatFnc1AsNumericLatch;
+        private final BitBuffer binary;
+        private EncodeMode lastMode = EncodeMode.NUMERIC; // the mode in effect at the end of the binary data
+        private boolean trailingDigit;
+
+        /**
+         * Encodes the specified general field.
+         *
+         * @param data the general field data
+         * @param treatFnc1AsNumericLatch whether or not an FNC1 in alphanumeric or ISO/IEC 646 mode also acts as an implicit numeric latch
+         * @param binary the binary data to append to
+         */
+        GeneralField(int[] data, boolean treatFnc1AsNumericLatch, BitBuffer binary) {
+            this.data = data;
+            this.treatFnc1AsNumericLatch = treatFnc1AsNumericLatch;
+            this.binary = binary;
+            encode();
         }
 
-        for (int i = 0; i < generalField.length - 1; i++) {
-            if (generalFieldType[i] == EncodeMode.ISOIEC && generalField[i + 1] == FNC1) {
-                generalFieldType[i + 1] = EncodeMode.ISOIEC;
-            }
+        /**
+         * Returns the encodation mode in effect at the end of the encoded data.
+         *
+         * @return the encodation mode in effect at the end of the encoded data
+         */
+        EncodeMode getLastMode() {
+            return lastMode;
         }
 
-        for (int i = 0; i < generalField.length - 1; i++) {
-            if (generalFieldType[i] == EncodeMode.ALPHA_OR_ISO && generalField[i + 1] == FNC1) {
-                generalFieldType[i + 1] = EncodeMode.ALPHA_OR_ISO;
-            }
+        /**
+         * Returns whether or not the last character of the field (a digit) still needs to be encoded.
+         *
+         * @return whether or not the last character of the field still needs to be encoded
+         */
+        boolean hasTrailingDigit() {
+            return trailingDigit;
         }
 
-        return generalFieldType;
-    }
-
-    /** Attempts to apply encoding rules from sections 7.2.5.5.1 to 7.2.5.5.3 of ISO/IEC 24724:2006 */
-    protected static boolean applyGeneralFieldRules(EncodeMode[] generalFieldType) {
-
-        int block_count, i, j, k;
-        EncodeMode current, next, last;
-        int[] blockLength = new int[200];
-        EncodeMode[] blockType = new EncodeMode[200];
-
-        block_count = 0;
-
-        blockLength[block_count] = 1;
-        blockType[block_count] = generalFieldType[0];
-
-        for (i = 1; i < generalFieldType.length; i++) {
-            current = generalFieldType[i];
-            last = generalFieldType[i - 1];
-
-            if (current == last) {
-                blockLength[block_count] = blockLength[block_count] + 1;
-            } else {
-                block_count++;
-                blockLength[block_count] = 1;
-                blockType[block_count] = generalFieldType[i];
-            }
-        }
-
-        block_count++;
-
-        for (i = 0; i < block_count; i++) {
-            current = blockType[i];
-            next = blockType[i + 1];
-
-            if (current == EncodeMode.ISOIEC && i != (block_count - 1)) {
-                if (next == EncodeMode.ANY_ENC && blockLength[i + 1] >= 4) {
-                    blockType[i + 1] = EncodeMode.NUMERIC;
-                }
-                if (next == EncodeMode.ANY_ENC && blockLength[i + 1] < 4) {
-                    blockType[i + 1] = EncodeMode.ISOIEC;
+        private void encode() {
+            EncodeMode mode = null; // the mode chosen for the previous run
+            int segmentStart = 0;
+            int start = 0;
+            while (start < data.length) {
+                /* FNC1 can be encoded in any mode, so it always joins the current run */
+                EncodeMode type = getInitialMode(data[start]);
+                int end = start + 1;
+                while (end < data.length && (data[end] == FNC1 || getInitialMode(data[end]) == type)) {
+                    end++;
                 }
-                if (next == EncodeMode.ALPHA_OR_ISO && blockLength[i + 1] >= 5) {
-                    blockType[i + 1] = EncodeMode.ALPHA;
+                EncodeMode next = getMode(mode, type, end - start, end == data.length);
+                if (mode != null && next != mode) {
+                    segmentStart = appendSegment(mode, segmentStart, start, false);
                 }
-                if (next == EncodeMode.ALPHA_OR_ISO && blockLength[i + 1] < 5) {
-                    blockType[i + 1] = EncodeMode.ISOIEC;
-                }
-            }
-
-            if (current == EncodeMode.ALPHA_OR_ISO) {
-                blockType[i] = EncodeMode.ALPHA;
-                current = EncodeMode.ALPHA;
+                mode = next;
+                start = end;
             }
-
-            if (current == EncodeMode.ALPHA && i != (block_count - 1)) {
-                if (next == EncodeMode.ANY_ENC && blockLength[i + 1] >= 6) {
-                    blockType[i + 1] = EncodeMode.NUMERIC;
-                }
-                if (next == EncodeMode.ANY_ENC && blockLength[i + 1] < 6) {
-                    if (i == block_count - 2 && blockLength[i + 1] >= 4) {
-                        blockType[i + 1] = EncodeMode.NUMERIC;
-                    } else {
-                        blockType[i + 1] = EncodeMode.ALPHA;
-                    }
-                }
+            if (mode != null) {
+                appendSegment(mode, segmentStart, data.length, true);
             }
+        }
 
-            if (current == EncodeMode.ANY_ENC) {
-                blockType[i] = EncodeMode.NUMERIC;
+        /** Returns the encodation options for the specified character (Tables 11, 12 and 13). */
+        private static EncodeMode getInitialMode(int c) {
+            if (c == FNC1 || (c >= '0' && c <= '9')) {
+                // numbers and FNC1 can be encoded in any system, but will usually narrow down to numeric encodation
+                return EncodeMode.ANY_ENC;
+            } else if ((c >= 'A' && c <= 'Z') || ALPHA_SPECIALS.indexOf(c) != -1) {
+                // alphanumeric encodation or ISO/IEC encodation
+                return EncodeMode.ALPHA_OR_ISO;
+            } else if ((c >= 'a' && c <= 'z') || ISO_SPECIALS.indexOf(c) != -1) {
+                // ISO/IEC encodation
+                return EncodeMode.ISOIEC;
+            } else {
+                // unable to encode this character
+                throw OkapiInputException.invalidCharactersInInput();
             }
         }
 
-        if (block_count > 1) {
-            i = 1;
-            while (i < block_count) {
-                if (blockType[i - 1] == blockType[i]) {
-                    /* bring together */
-                    blockLength[i - 1] = blockLength[i - 1] + blockLength[i];
-                    j = i + 1;
-
-                    /* decrease the list */
-                    while (j < block_count) {
-                        blockLength[j - 1] = blockLength[j];
-                        blockType[j - 1] = blockType[j];
-                        j++;
-                    }
-                    block_count--;
-                    i--;
+        /** Applies the encoding rules from sections 7.2.5.5.1 to 7.2.5.5.3 of ISO/IEC 24724:2006 to choose the mode for a run. */
+        private static EncodeMode getMode(EncodeMode previous, EncodeMode type, int length, boolean last) {
+            if (previous == EncodeMode.ISOIEC) {
+                if (type == EncodeMode.ANY_ENC) {
+                    return length >= 4 ? EncodeMode.NUMERIC : EncodeMode.ISOIEC;
+                }
+                if (type == EncodeMode.ALPHA_OR_ISO) {
+                    return length >= 5 ? EncodeMode.ALPHA : EncodeMode.ISOIEC;
                 }
-                i++;
             }
-        }
-
-        for (i = 0; i < block_count - 1; i++) {
-            if (blockType[i] == EncodeMode.NUMERIC && (blockLength[i] & 1) != 0) {
-                /* Odd size numeric block */
-                blockLength[i] = blockLength[i] - 1;
-                blockLength[i + 1] = blockLength[i + 1] + 1;
+            if (previous == EncodeMode.ALPHA && type == EncodeMode.ANY_ENC) {
+                return length >= 6 || (last && length >= 4) ? EncodeMode.NUMERIC : EncodeMode.ALPHA;
             }
-        }
-
-        j = 0;
-        for (i = 0; i < block_count; i++) {
-            for (k = 0; k < blockLength[i]; k++) {
-                generalFieldType[j] = blockType[i];
-                j++;
+            switch (type) {
+                case ANY_ENC:
+                    return EncodeMode.NUMERIC;
+                case ALPHA_OR_ISO:
+                    return EncodeMode.ALPHA;
+                default:
+                    return type;
             }
         }
 
-        if (blockType[block_count - 1] == EncodeMode.NUMERIC && (blockLength[block_count - 1] & 1) != 0) {
-            /* If the last block is numeric and an odd size, further processing needs to be done outside this procedure */
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    protected static EncodeMode appendToBinaryString(int[] generalField, EncodeMode[] generalFieldType, boolean trailingDigit, boolean treatFnc1AsNumericLatch, StringBuilder binaryString) {
+        /** Appends the specified characters in the specified mode, returning the index at which the next segment starts. */
+        private int appendSegment(EncodeMode mode, int start, int end, boolean last) {
 
-        EncodeMode lastMode = EncodeMode.NUMERIC;
-        int value, d1, d2;
-
-        /* Set initial mode if not NUMERIC */
-        if (generalFieldType[0] == EncodeMode.ALPHA) {
-            binaryString.append("0000"); /* Alphanumeric latch */
-            lastMode = EncodeMode.ALPHA;
-        }
-        if (generalFieldType[0] == EncodeMode.ISOIEC) {
-            binaryString.append("0000"); /* Alphanumeric latch */
-            binaryString.append("00100"); /* ISO/IEC 646 latch */
-            lastMode = EncodeMode.ISOIEC;
-        }
-
-        int i = 0;
-
-        int current_length = i;
-        if (trailingDigit) {
-            current_length++;
-        }
-
-        while (current_length < generalField.length) {
-
-            switch (generalFieldType[i]) {
-            case NUMERIC:
-                if (lastMode != EncodeMode.NUMERIC) {
-                    binaryString.append("000"); /* Numeric latch */
-                }
-                if (generalField[i] != FNC1) {
-                    d1 = generalField[i] - '0';
-                } else {
-                    d1 = 10;
-                }
-                if (generalField[i + 1] != FNC1) {
-                    d2 = generalField[i + 1] - '0';
-                } else {
-                    d2 = 10;
-                }
-                value = (11 * d1) + d2 + 8;
-                binaryAppend(binaryString, value, 7);
-                i += 2;
-                lastMode = EncodeMode.NUMERIC;
-                break;
-
-            case ALPHA:
-                if (i != 0) {
-                    if (lastMode == EncodeMode.NUMERIC) {
-                        binaryString.append("0000"); /* Alphanumeric latch */
-                    }
-                    if (lastMode == EncodeMode.ISOIEC) {
-                        binaryString.append("00100"); /* Alphanumeric latch */
-                    }
-                }
-                if (generalField[i] >= '0' && generalField[i] <= '9') {
-                    value = generalField[i] - 43;
-                    binaryAppend(binaryString, value, 5);
-                }
-                if (generalField[i] >= 'A' && generalField[i] <= 'Z') {
-                    value = generalField[i] - 33;
-                    binaryAppend(binaryString, value, 6);
-                }
-                lastMode = EncodeMode.ALPHA;
-                if (generalField[i] == FNC1) {
-                    binaryString.append("01111");
-                    // TODO: FNC1 should act as an implicit numeric latch, so the commented out line below should be correct, but ZXing cannot
-                    // read barcodes which use FNC1 as an implicit numeric latch... so for now, and in order to achieve widest compatibility,
-                    // we sometimes waste 3 bits and don't perform the implicit mode change (see https://sourceforge.net/p/zint/tickets/145/)
-                    if (treatFnc1AsNumericLatch) lastMode = EncodeMode.NUMERIC;
-                } /* FNC1 / Numeric latch */
-                if (generalField[i] == '*') binaryString.append("111010"); /* asterisk */
-                if (generalField[i] == ',') binaryString.append("111011"); /* comma */
-                if (generalField[i] == '-') binaryString.append("111100"); /* minus or hyphen */
-                if (generalField[i] == '.') binaryString.append("111101"); /* period or full stop */
-                if (generalField[i] == '/') binaryString.append("111110"); /* slash or solidus */
-                i++;
-                break;
+            if (mode == EncodeMode.NUMERIC && ((end - start) & 1) != 0) {
+                /* Odd size numeric segment: the last digit moves to the next segment, or is left for the caller */
+                end--;
+                trailingDigit = last;
+            }
 
-            case ISOIEC:
-                if (i != 0) {
-                    if (lastMode == EncodeMode.NUMERIC) {
-                        binaryString.append("0000"); /* Alphanumeric latch */
-                        binaryString.append("00100"); /* ISO/IEC 646 latch */
-                    }
-                    if (lastMode == EncodeMode.ALPHA) {
-                        binaryString.append("00100"); /* ISO/IEC 646 latch */
-                    }
-                }
-                if (generalField[i] >= '0' && generalField[i] <= '9') {
-                    value = generalField[i] - 43;
-                    binaryAppend(binaryString, value, 5);
-                }
-                if (generalField[i] >= 'A' && generalField[i] <= 'Z') {
-                    value = generalField[i] - 1;
-                    binaryAppend(binaryString, value, 7);
+            for (int i = start; i < end; i++) {
+                int c = data[i];
+                switch (mode) {
+                    case NUMERIC:
+                        if (lastMode != EncodeMode.NUMERIC) {
+                            binary.append(0b000, 3); /* Numeric latch */
+                        }
+                        int d1 = (c != FNC1 ? c - '0' : 10);
+                        int d2 = (data[i + 1] != FNC1 ? data[i + 1] - '0' : 10);
+                        binary.append((11 * d1) + d2 + 8, 7);
+                        i++;
+                        break;
+                    case ALPHA:
+                        if (lastMode == EncodeMode.NUMERIC) {
+                            binary.append(0b0000, 4); /* Alphanumeric latch */
+                        }
+                        if (lastMode == EncodeMode.ISOIEC) {
+                            binary.append(0b00100, 5); /* Alphanumeric latch */
+                        }
+                        appendAlphanumeric(c, binary);
+                        break;
+                    default:
+                        if (lastMode == EncodeMode.NUMERIC) {
+                            binary.append(0b0000, 4); /* Alphanumeric latch */
+                        }
+                        if (lastMode != EncodeMode.ISOIEC) {
+                            binary.append(0b00100, 5); /* ISO/IEC 646 latch */
+                        }
+                        appendIsoIec(c, binary);
+                        break;
                 }
-                if (generalField[i] >= 'a' && generalField[i] <= 'z') {
-                    value = generalField[i] - 7;
-                    binaryAppend(binaryString, value, 7);
+                lastMode = mode;
+                if (c == FNC1 && mode != EncodeMode.NUMERIC && treatFnc1AsNumericLatch) {
+                    // TODO: FNC1 should act as an implicit numeric latch, but ZXing cannot read barcodes which use FNC1 as an implicit
+                    // numeric latch... so for now, and in order to achieve widest compatibility, DataBar Expanded sometimes wastes 3 bits
+                    // and doesn't perform the implicit mode change (see https://sourceforge.net/p/zint/tickets/145/)
+                    lastMode = EncodeMode.NUMERIC;
                 }
-                lastMode = EncodeMode.ISOIEC;
-                if (generalField[i] == FNC1) {
-                    binaryString.append("01111");
-                    // TODO: FNC1 should act as an implicit numeric latch, so the commented out line below should be correct, but ZXing cannot
-                    // read barcodes which use FNC1 as an implicit numeric latch... so for now, and in order to achieve widest compatibility,
-                    // we sometimes waste 3 bits and don't perform the implicit mode change (see https://sourceforge.net/p/zint/tickets/145/)
-                    if (treatFnc1AsNumericLatch) lastMode = EncodeMode.NUMERIC;
-                } /* FNC1 / Numeric latch */
-                if (generalField[i] == '!') binaryString.append("11101000"); /* exclamation mark */
-                if (generalField[i] == 34)  binaryString.append("11101001"); /* quotation mark */
-                if (generalField[i] == 37)  binaryString.append("11101010"); /* percent sign */
-                if (generalField[i] == '&') binaryString.append("11101011"); /* ampersand */
-                if (generalField[i] == 39)  binaryString.append("11101100"); /* apostrophe */
-                if (generalField[i] == '(') binaryString.append("11101101"); /* left parenthesis */
-                if (generalField[i] == ')') binaryString.append("11101110"); /* right parenthesis */
-                if (generalField[i] == '*') binaryString.append("11101111"); /* asterisk */
-                if (generalField[i] == '+') binaryString.append("11110000"); /* plus sign */
-                if (generalField[i] == ',') binaryString.append("11110001"); /* comma */
-                if (generalField[i] == '-') binaryString.append("11110010"); /* minus or hyphen */
-                if (generalField[i] == '.') binaryString.append("11110011"); /* period or full stop */
-                if (generalField[i] == '/') binaryString.append("11110100"); /* slash or solidus */
-                if (generalField[i] == ':') binaryString.append("11110101"); /* colon */
-                if (generalField[i] == ';') binaryString.append("11110110"); /* semicolon */
-                if (generalField[i] == '<') binaryString.append("11110111"); /* less-than sign */
-                if (generalField[i] == '=') binaryString.append("11111000"); /* equals sign */
-                if (generalField[i] == '>') binaryString.append("11111001"); /* greater-than sign */
-                if (generalField[i] == '?') binaryString.append("11111010"); /* question mark */
-                if (generalField[i] == '_') binaryString.append("11111011"); /* underline or low line */
-                if (generalField[i] == ' ') binaryString.append("11111100"); /* space */
-                i++;
-                break;
             }
 
-            current_length = i;
-            if (trailingDigit) {
-                current_length++;
-            }
+            return end;
         }
-
-        return lastMode;
     }
 
     private static int parseInt(int[] chars, int index, int length) {
@@ -16,8 +16,6 @@
 
 package uk.org.okapibarcode.backend;
 
-import java.math.BigInteger;
-
 /**
  * <p>Implements GS1 DataBar Limited according to ISO/IEC 24724:2011.
  *
@@ -48,6 +46,18 @@ public class DataBarLimited extends Symbol {
         3, 4, 6, 4, 5, 1, 8
     };
 
+    /** Binomial coefficients, indexed by <code>[n][r]</code>; width calculations never need <code>n</code> above 17. */
+    private static final int[][] COMBINATIONS = new int[18][18];
+
+    static {
+        for (int n = 0; n < COMBINATIONS.length; n++) {
+            COMBINATIONS[n][0] = 1;
+            for (int r = 1; r <= n; r++) {
+                COMBINATIONS[n][r] = COMBINATIONS[n - 1][r - 1] + COMBINATIONS[n - 1][r];
+            }
+        }
+    }
+
     private static final int[] CHECKSUM_WEIGHT_LTD = { /* Table 7 */
         1, 3, 9, 27, 81, 65, 17, 51, 64, 14, 42, 37, 22, 66,
         20, 60, 2, 6, 18, 54, 73, 41, 34, 13, 39, 28, 84, 74
@@ -166,9 +176,9 @@ protected void unsetLinkageFlag() {
 
     @Override
     protected void encode() {
-        BigInteger accum;
-        BigInteger left_reg;
-        BigInteger right_reg;
+        long accum;
+        long left_reg;
+        long right_reg;
         int left_group;
         int right_group;
         int i, j;
@@ -202,54 +212,54 @@ protected void encode() {
             throw new OkapiInputException("Input out of range");
         }
 
-        accum = new BigInteger(content);
+        accum = Long.parseLong(content);
 
         if (linkageFlag) {
             /* Add symbol linkage flag */
-            accum = accum.add(new BigInteger("2015133531096"));
+            accum += 2_015_133_531_096L;
         }
 
         /* Calculate left and right pair values */
-        left_reg = accum.divide(new BigInteger("2013571"));
-        right_reg = accum.mod(new BigInteger("2013571"));
+        left_reg = accum / 2_013_571;
+        right_reg = accum % 2_013_571;
 
         left_group = 0;
-        if (left_reg.compareTo(new BigInteger("183063")) == 1) {
+        if (left_reg > 183_063) {
             left_group = 1;
         }
-        if (left_reg.compareTo(new BigInteger("820063")) == 1) {
+        if (left_reg > 820_063) {
             left_group = 2;
         }
-        if (left_reg.compareTo(new BigInteger("1000775")) == 1) {
+        if (left_reg > 1_000_775) {
             left_group = 3;
         }
-        if (left_reg.compareTo(new BigInteger("1491020")) == 1) {
+        if (left_reg > 1_491_020) {
             left_group = 4;
         }
-        if (left_reg.compareTo(new BigInteger("1979844")) == 1) {
+        if (left_reg > 1_979_844) {
             left_group = 5;
         }
-        if (left_reg.compareTo(new BigInteger("1996938")) == 1) {
+        if (left_reg > 1_996_938) {
             left_group = 6;
         }
 
         right_group = 0;
-        if (right_reg.compareTo(new BigInteger("183063")) == 1) {
+        if (right_reg > 183_063) {
             right_group = 1;
         }
-        if (right_reg.compareTo(new BigInteger("820063")) == 1) {
+        if (right_reg > 820_063) {
             right_group = 2;
         }
-        if (right_reg.compareTo(new BigInteger("1000775")) == 1) {
+        if (right_reg > 1_000_775) {
             right_group = 3;
         }
-        if (right_reg.compareTo(new BigInteger("1491020")) == 1) {
+        if (right_reg > 1_491_020) {
             right_group = 4;
         }
-        if (right_reg.compareTo(new BigInteger("1979844")) == 1) {
+        if (right_reg > 1_979_844) {
             right_group = 5;
         }
-        if (right_reg.compareTo(new BigInteger("1996938")) == 1) {
+        if (right_reg > 1_996_938) {
             right_group = 6;
         }
 
@@ -257,48 +267,48 @@ protected void encode() {
 
         switch(left_group) {
             case 1:
-                left_reg = left_reg.subtract(new BigInteger("183064"));
+                left_reg -= 183_064;
                 break;
             case 2:
-                left_reg = left_reg.subtract(new BigInteger("820064"));
+                left_reg -= 820_064;
                 break;
             case 3:
-                left_reg = left_reg.subtract(new BigInteger("1000776"));
+                left_reg -= 1_000_776;
                 break;
             case 4:
-                left_reg = left_reg.subtract(new BigInteger("1491021"));
+                left_reg -= 1_491_021;
                 break;
             case 5:
-                left_reg = left_reg.subtract(new BigInteger("1979845"));
+                left_reg -= 1_979_845;
                 break;
             case 6:
-                left_reg = left_reg.subtract(new BigInteger("1996939"));
+                left_reg -= 1_996_939;
                 break;
         }
 
         switch(right_group) {
             case 1:
-                right_reg = right_reg.subtract(new BigInteger("183064"));
+                right_reg -= 183_064;
                 break;
             case 2:
-                right_reg = right_reg.subtract(new BigInteger("820064"));
+                right_reg -= 820_064;
                 break;
             case 3:
-                right_reg = right_reg.subtract(new BigInteger("1000776"));
+                right_reg -= 1_000_776;
                 break;
             case 4:
-                right_reg = right_reg.subtract(new BigInteger("1491021"));
+                right_reg -= 1_491_021;
                 break;
             case 5:
-                right_reg = right_reg.subtract(new BigInteger("1979845"));
+                right_reg -= 1_979_845;
                 break;
             case 6:
-                right_reg = right_reg.subtract(new BigInteger("1996939"));
+                right_reg -= 1_996_939;
                 break;
         }
 
-        left_character = left_reg.intValue();
-        right_character = right_reg.intValue();
+        left_character = (int) left_reg;
+        right_character = (int) right_reg;
 
         left_odd = left_character / T_EVEN_LTD[left_group];
         left_even = left_character % T_EVEN_LTD[left_group];
@@ -414,50 +424,22 @@ protected void encode() {
         rowCount = 1 + compositeOffset;
         rowHeight = new int[1 + compositeOffset];
         rowHeight[0 + compositeOffset] = defaultHeight;
-        pattern = new String[1 + compositeOffset];
-        pattern[0 + compositeOffset] = bin2pat(bin);
+        WidthBuffer buffer = new WidthBuffer(bin.length());
+        this.widths = new byte[1 + compositeOffset][];
+        this.widths[0 + compositeOffset] = bin2widths(bin, buffer);
 
         if (linkageFlag) {
             // Add composite symbol separator
             notbin.delete(70, notbin.length());
             notbin.delete(0, 4);
             rowHeight[0] = 1;
-            pattern[0] = "04" + bin2pat(notbin);
+            byte[] separator = bin2widths(notbin, buffer);
+            this.widths[0] = new byte[separator.length + 2];
+            this.widths[0][1] = 4; // "04" prefix
+            System.arraycopy(separator, 0, this.widths[0], 2, separator.length);
         }
     }
 
-    private static int getCombinations(int n, int r) {
-
-        int i, j;
-        int maxDenom, minDenom;
-        int val;
-
-        if (n - r > r) {
-            minDenom = r;
-            maxDenom = n - r;
-        } else {
-            minDenom = n - r;
-            maxDenom = r;
-        }
-
-        val = 1;
-        j = 1;
-
-        for (i = n; i > maxDenom; i--) {
-            val *= i;
-            if (j <= minDenom) {
-                val /= j;
-                j++;
-            }
-        }
-
-        for (; j <= minDenom; j++) {
-            val /= j;
-        }
-
-        return val;
-    }
-
     static int[] getWidths(int val, int n, int elements, int maxWidth, int noNarrow) {
 
         int bar;
@@ -471,11 +453,11 @@ static int[] getWidths(int val, int n, int elements, int maxWidth, int noNarrow)
             for (elmWidth = 1, narrowMask |= (1 << bar); ;
                     elmWidth++, narrowMask &= ~ (1 << bar)) {
                 /* get all combinations */
-                subVal = getCombinations(n - elmWidth - 1, elements - bar - 2);
+                subVal = COMBINATIONS[n - elmWidth - 1][elements - bar - 2];
                 /* less combinations with no single-module element */
                 if ((noNarrow == 0) && (narrowMask == 0)
                         && (n - elmWidth - (elements - bar - 1) >= elements - bar - 1)) {
-                    subVal -= getCombinations(n - elmWidth - (elements - bar), elements - bar - 2);
+                    subVal -= COMBINATIONS[n - elmWidth - (elements - bar)][elements - bar - 2];
                 }
                 /* less combinations with elements > maxVal */
                 if (elements - bar - 1 > 1) {
@@ -483,7 +465,7 @@ static int[] getWidths(int val, int n, int elements, int maxWidth, int noNarrow)
                     for (mxwElement = n - elmWidth - (elements - bar - 2);
                     mxwElement > maxWidth;
                     mxwElement--) {
-                        lessVal += getCombinations(n - elmWidth - mxwElement - 1, elements - bar - 3);
+                        lessVal += COMBINATIONS[n - elmWidth - mxwElement - 1][elements - bar - 3];
                     }
                     subVal -= lessVal * (elements - 1 - bar);
                 } else if (n - elmWidth > maxWidth) {
@@ -501,4 +483,40 @@ static int[] getWidths(int val, int n, int elements, int maxWidth, int noNarrow)
 
         return widths;
     }
+
+    /**
+     * Returns the element widths for every possible value of a character subset, so that callers which need
+     * the widths of many characters can look them up instead of calling {@link #getWidths(int, int, int, int, int)}
+     * for each character. The widths for value <code>v</code> are found at indices <code>v * elements</code>
+     * to <code>(v * elements) + elements - 1</code>.
+     *
+     * @param n the total number of modules in the subset elements
+     * @param elements the number of elements in the subset
+     * @param maxWidth the maximum element width
+     * @param noNarrow <code>0</code> if at least one element must be a single module wide, <code>1</code> otherwise
+     * @return the element widths for every possible value, in value order
+     */
+    static byte[] getWidthsTable(int n, int elements, int maxWidth, int noNarrow) {
+        WidthBuffer table = new WidthBuffer(elements * 64);
+        addWidths(table, new int[elements], 0, n, maxWidth, noNarrow != 0);
+        return table.toArray();
+    }
+
+    /** Appends all valid width combinations for the remaining elements, in ascending order of value. */
+    private static void addWidths(WidthBuffer table, int[] widths, int index, int n, int maxWidth, boolean narrow) {
+        int last = widths.length - 1;
+        if (index == last) {
+            if (n <= maxWidth && (narrow || n == 1)) {
+                widths[last] = n;
+                for (int width : widths) {
+                    table.append(width);
+                }
+            }
+        } else {
+            for (int width = 1; width <= maxWidth && width <= n - (last - index); width++) {
+                widths[index] = width;
+                addWidths(table, widths, index + 1, n - width, maxWidth, narrow || width == 1);
+            }
+        }
+    }
 }
@@ -19,6 +19,10 @@
 import static uk.org.okapibarcode.util.Arrays.positionOf;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * <p>Implements Data Matrix ECC 200 bar code symbology According to ISO/IEC 16022:2006.
@@ -124,6 +128,13 @@ private enum Mode {
 
     private static final int DM_SIZES_COUNT = MATRIX_H.length;
 
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    /* The max number of symbols in a structured append sequence. */
+    private static final int MAX_STRUCTURED_APPEND_SYMBOLS = 16;
+
+    private static final Map< Integer, Template > TEMPLATES = new ConcurrentHashMap<>();
+
     // user-specified values and settings
 
     private ForceMode forceMode = ForceMode.NONE;
@@ -132,17 +143,17 @@ private enum Mode {
     private int structuredAppendPosition = 1;
     private int structuredAppendTotal = 1;
     private boolean separatorGs;
+    private boolean optimalEncodation;
 
     // internal state calculated when setContent() is called
 
     private int actualSize = -1;
     private int[] target = new int[2200];
-    private int[] binary = new int[2200];
-    private int binary_length;
     private Mode last_mode;
-    private int[] places;
     private int process_p;
     private int[] process_buffer = new int[8];
+    private boolean[] x12TerminatorFirst;
+    private Mode[][] plan;
     private int codewordCount;
 
     /**
@@ -257,7 +268,7 @@ public int getActualHeight() {
      * @param position the position of this Data Matrix symbol in the structured append series
      */
     public void setStructuredAppendPosition(int position) {
-        if (position < 1 || position > 16) {
+        if (position < 1 || position > MAX_STRUCTURED_APPEND_SYMBOLS) {
             throw new IllegalArgumentException("Invalid Data Matrix structured append position: " + position);
         }
         this.structuredAppendPosition = position;
@@ -282,7 +293,7 @@ public int getStructuredAppendPosition() {
      * @param total the total number of Data Matrix symbols in the structured append series
      */
     public void setStructuredAppendTotal(int total) {
-        if (total < 1 || total > 16) {
+        if (total < 1 || total > MAX_STRUCTURED_APPEND_SYMBOLS) {
             throw new IllegalArgumentException("Invalid Data Matrix structured append total: " + total);
         }
         this.structuredAppendTotal = total;
@@ -346,6 +357,30 @@ public boolean getGs1SeparatorGs() {
         return this.separatorGs;
     }
 
+    /**
+     * Sets whether or not to choose the encodation modes (ASCII, C40, Text, X12, EDIFACT and Base 256) which
+     * minimize the number of codewords required, instead of using the look-ahead test described in Annex P of
+     * the specification. Minimal encodation may result in smaller symbols, but the codewords generated may differ
+     * from those generated by other encoders which use the standard look-ahead test. Minimal encodation never
+     * requires more codewords than the standard look-ahead test, except possibly when Base 256 segments longer than
+     * 249 bytes are required. By default, the standard look-ahead test is used.
+     *
+     * @param optimalEncodation whether or not to choose the encodation modes which minimize the number of codewords required
+     */
+    public void setOptimalEncodation(boolean optimalEncodation) {
+        this.optimalEncodation = optimalEncodation;
+    }
+
+    /**
+     * Returns whether or not this symbol chooses the encodation modes which minimize the number of codewords
+     * required, instead of using the look-ahead test described in Annex P of the specification.
+     *
+     * @return whether or not this symbol chooses the encodation modes which minimize the number of codewords required
+     */
+    public boolean getOptimalEncodation() {
+        return optimalEncodation;
+    }
+
     @Override
     public boolean supportsGs1() {
         return true;
@@ -359,23 +394,79 @@ public boolean supportsEci() {
     @Override
     protected void encode() {
 
-        int i, binlen;
-        int symbolsize, optionsize, calcsize;
+        int binlen;
+        int symbolsize, optionsize;
         int taillength;
-        int H, W, FH, FW, datablock, bytes, rsblock;
-        int x, y, NC, NR, v;
+        int H, W, datablock, bytes, rsblock;
+        int y;
         int[] grid;
 
         eciProcess(); // Get ECI mode
 
-        binlen = generateCodewords();
-
         if (preferredSize >= 1 && preferredSize <= DM_SIZES_COUNT) {
             optionsize = INT_SYMBOL[preferredSize - 1];
         } else {
             optionsize = -1;
         }
 
+        binlen = encodeCodewords(optionsize, optimalEncodation);
+
+        // the codewords now fill the smallest suitable symbol, whether or not encodeRemainder() added trailing codewords
+        symbolsize = selectSymbolSize(binlen, optionsize);
+        H = MATRIX_H[symbolsize];
+        W = MATRIX_W[symbolsize];
+        bytes = MATRIX_BYTES[symbolsize];
+        datablock = MATRIX_DATA_BLOCK[symbolsize];
+        rsblock = MATRIX_RS_BLOCK[symbolsize];
+
+        codewordCount = datablock + rsblock; // data codewords + error correction codewords
+
+        taillength = bytes - binlen;
+
+        if (taillength != 0) {
+            addPadBits(binlen, taillength);
+        }
+
+        // ecc code
+        boolean skew = (symbolsize == 29);
+        calculateErrorCorrection(bytes, datablock, rsblock, skew);
+        Template template = TEMPLATES.computeIfAbsent(symbolsize, Template::new);
+        grid = template.fill(target);
+
+        actualSize = positionOf(symbolsize, INT_SYMBOL) + 1;
+        readable = "";
+        pattern = new String[H];
+        rowCount = H;
+        rowHeight = new int[H];
+
+        StringBuilder pat = new StringBuilder(W);
+        for (y = H - 1; y >= 0; y--) {
+            pattern[(H - y) - 1] = bin2pat(grid, W * y, W, pat);
+            rowHeight[(H - y) - 1] = moduleWidth;
+        }
+
+        infoLine("Grid Size: " + W + " X " + H);
+        infoLine("Data Codewords: ", datablock);
+        infoLine("ECC Codewords: ", rsblock);
+    }
+
+    @Override
+    protected int[] getCodewords() {
+        return Arrays.copyOf(target, codewordCount);
+    }
+
+    /**
+     * Generates the data codewords, chooses the symbol size and then encodes whatever data remains in the
+     * process buffer.
+     *
+     * @param optionsize the symbol size selected by the user, or <code>-1</code> for automatic size selection
+     * @param planned whether to choose the encodation modes via {@link #planEncodation(int, int, int)} rather than via the
+     *        look-ahead test from Annex P
+     * @return the number of data codewords generated
+     */
+    private int encodeCodewords(int optionsize, boolean planned) {
+
+        int binlen = generateCodewords(optionsize, planned);
         int required = binlen + process_p;
 
         // In 99% of cases N trailing data characters can be encoded using N codewords, thanks to implicit ASCII
@@ -391,8 +482,30 @@ protected void encode() {
             required++;
         }
 
-        calcsize = DM_SIZES_COUNT - 1;
-        for (i = DM_SIZES_COUNT - 1; i > -1; i--) {
+        int symbolsize = selectSymbolSize(required, optionsize);
+
+        // Now that we know the symbol size we can handle the remaining data in the process buffer.
+        int symbolsLeft = MATRIX_BYTES[symbolsize] - binlen;
+        binlen = encodeRemainder(symbolsLeft, binlen);
+        if (binlen > MATRIX_BYTES[symbolsize]) {
+            throw new OkapiInternalException("Input unexpectedly too long to fit in the selected symbol size");
+        }
+
+        return binlen;
+    }
+
+    /**
+     * Returns the smallest symbol size which can hold the specified number of data codewords, taking into account
+     * the symbol size and shape options selected by the user.
+     *
+     * @param required the number of data codewords required
+     * @param optionsize the symbol size selected by the user, or <code>-1</code> for automatic size selection
+     * @return the symbol size to use
+     */
+    private int selectSymbolSize(int required, int optionsize) {
+
+        int calcsize = DM_SIZES_COUNT - 1;
+        for (int i = DM_SIZES_COUNT - 1; i > -1; i--) {
             if (MATRIX_BYTES[i] >= required) {
                 calcsize = i;
             }
@@ -415,104 +528,24 @@ protected void encode() {
             if (calcsize >= DM_SIZES_COUNT) {
                 throw new OkapiInputException("Input too long to fit in any of the available symbol sizes");
             }
-            symbolsize = calcsize;
+            return calcsize;
         } else {
             // The symbol size was specified by the user
             // Thus check if the data fits into this symbol size and use this size
             if (calcsize > optionsize) {
                 throw new OkapiInputException("Input too long to fit in the selected symbol size");
             }
-            symbolsize = optionsize;
+            return optionsize;
         }
-
-        // Now that we know the symbol size we can handle the remaining data in the process buffer.
-        int symbolsLeft = MATRIX_BYTES[symbolsize] - binlen;
-        binlen = encodeRemainder(symbolsLeft, binlen);
-        if (binlen > MATRIX_BYTES[symbolsize]) {
-            throw new OkapiInternalException("Input unexpectedly too long to fit in the selected symbol size");
-        }
-
-        H = MATRIX_H[symbolsize];
-        W = MATRIX_W[symbolsize];
-        FH = MATRIX_FH[symbolsize];
-        FW = MATRIX_FW[symbolsize];
-        bytes = MATRIX_BYTES[symbolsize];
-        datablock = MATRIX_DATA_BLOCK[symbolsize];
-        rsblock = MATRIX_RS_BLOCK[symbolsize];
-
-        codewordCount = datablock + rsblock; // data codewords + error correction codewords
-
-        taillength = bytes - binlen;
-
-        if (taillength != 0) {
-            addPadBits(binlen, taillength);
-        }
-
-        // ecc code
-        boolean skew = (symbolsize == 29);
-        calculateErrorCorrection(bytes, datablock, rsblock, skew);
-        NC = W - 2 * (W / FW);
-        NR = H - 2 * (H / FH);
-        places = new int[NC * NR];
-        placeData(NR, NC);
-        grid = new int[W * H];
-        for (i = 0; i < (W * H); i++) {
-            grid[i] = 0;
-        }
-        for (y = 0; y < H; y += FH) {
-            for (x = 0; x < W; x++) {
-                grid[y * W + x] = 1;
-            }
-            for (x = 0; x < W; x += 2) {
-                grid[(y + FH - 1) * W + x] = 1;
-            }
-        }
-        for (x = 0; x < W; x += FW) {
-            for (y = 0; y < H; y++) {
-                grid[y * W + x] = 1;
-            }
-            for (y = 0; y < H; y += 2) {
-                grid[y * W + x + FW - 1] = 1;
-            }
-        }
-        for (y = 0; y < NR; y++) {
-            for (x = 0; x < NC; x++) {
-                v = places[(NR - y - 1) * NC + x];
-                if (v == 1 || (v > 7 && (target[(v >> 3) - 1] & (1 << (v & 7))) != 0)) {
-                    grid[(1 + y + 2 * (y / (FH - 2))) * W + 1 + x + 2 * (x / (FW - 2))] = 1;
-                }
-            }
-        }
-
-        actualSize = positionOf(symbolsize, INT_SYMBOL) + 1;
-        readable = "";
-        pattern = new String[H];
-        rowCount = H;
-        rowHeight = new int[H];
-
-        StringBuilder pat = new StringBuilder(W);
-        for (y = H - 1; y >= 0; y--) {
-            pattern[(H - y) - 1] = bin2pat(grid, W * y, W, pat);
-            rowHeight[(H - y) - 1] = moduleWidth;
-        }
-
-        infoLine("Grid Size: " + W + " X " + H);
-        infoLine("Data Codewords: ", datablock);
-        infoLine("ECC Codewords: ", rsblock);
-    }
-
-    @Override
-    protected int[] getCodewords() {
-        return Arrays.copyOf(target, codewordCount);
     }
 
-    private int generateCodewords() {
+    private int generateCodewords(int optionsize, boolean planned) {
         /* Encodes data using ASCII, C40, Text, X12, EDIFACT or Base 256 modes as appropriate */
         /* Supports encoding FNC1 in supporting systems */
         /* Supports ECI encoding for whole message only, not inline switching */
 
         info("Encoding: ");
-        int sp, tp, i;
+        int sp, tp, i, b256_start = 0;
         Mode current_mode, next_mode;
         int inputlen = inputData.length;
 
@@ -523,7 +556,6 @@ private int generateCodewords() {
         for (i = 0; i < 8; i++) {
             process_buffer[i] = 0;
         }
-        binary_length = 0;
 
         /* step (a) */
         current_mode = Mode.DM_ASCII;
@@ -534,85 +566,59 @@ private int generateCodewords() {
             /* FNC2 */
             target[tp] = 233;
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             info("FNC2 ");
 
             /* symbol sequence indicator (position + total) */
             int ssi = ((structuredAppendPosition - 1) << 4) | (17 - structuredAppendTotal);
             target[tp] = ssi;
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             infoSpace(ssi);
 
             /* file identification codeword 1 (valid values 1 - 254) */
             int id1 = 1 + ((structuredAppendFileId - 1) / 254);
             target[tp] = id1;
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             infoSpace(id1);
 
             /* file identification codeword 2 (valid values 1 - 254) */
             int id2 = 1 + ((structuredAppendFileId - 1) % 254);
             target[tp] = id2;
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             infoSpace(id2);
         }
 
         if (inputDataType == DataType.GS1) {
             target[tp] = 232;
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             info("FNC1 ");
         } /* FNC1 */
 
         if (readerInit) {
             target[tp] = 234; /* FNC3 */
             tp++; /* Reader Programming */
-            binary[binary_length] = ' ';
-            binary_length++;
             info("RP ");
         }
 
         if (eciMode != 3) {
             target[tp] = 241; // ECI
             tp++;
-            binary[binary_length] = ' ';
-            binary_length++;
             if (eciMode <= 126) {
                 target[tp] = eciMode + 1;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
             }
             if ((eciMode >= 127) && (eciMode <= 16382)) {
                 target[tp] = ((eciMode - 127) / 254) + 128;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
                 target[tp] = ((eciMode - 127) % 254) + 1;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
             }
             if (eciMode >= 16383) {
                 target[tp] = ((eciMode - 16383) / 64516) + 192;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
                 target[tp] = (((eciMode - 16383) / 254) % 254) + 1;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
                 target[tp] = ((eciMode - 16383) % 254) + 1;
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
             }
             info("ECI " + eciMode + " ");
         }
@@ -636,8 +642,6 @@ private int generateCodewords() {
                     info("Macro06 ");
                 }
                 tp++;
-                binary[binary_length] = ' ';
-                binary_length++;
                 /* Remove macro characters from input string */
                 sp = 7;
                 inputlen -= 2;
@@ -645,6 +649,14 @@ private int generateCodewords() {
             }
         }
 
+        if (planned) {
+            x12TerminatorFirst = null;
+            plan = planEncodation(sp, tp, optionsize);
+        } else {
+            x12TerminatorFirst = findX12TerminatorsFirst(inputData);
+            plan = null;
+        }
+
         while (sp < inputlen) {
 
             current_mode = next_mode;
@@ -662,47 +674,37 @@ private int generateCodewords() {
                             + Character.getNumericValue(inputData[sp + 1]) + 130;
                     infoSpace(target[tp] - 130);
                     tp++;
-                    binary[binary_length] = ' ';
-                    binary_length++;
                     sp += 2;
                 } else {
-                    next_mode = lookAheadTest(sp, current_mode);
+                    next_mode = selectMode(sp, current_mode);
 
                     if (next_mode != Mode.DM_ASCII) {
                         switch (next_mode) {
                             case DM_C40:
                                 target[tp] = 230;
                                 tp++;
-                                binary[binary_length] = ' ';
-                                binary_length++;
                                 info("C40 ");
                                 break;
                             case DM_TEXT:
                                 target[tp] = 239;
                                 tp++;
-                                binary[binary_length] = ' ';
-                                binary_length++;
                                 info("TEX ");
                                 break;
                             case DM_X12:
                                 target[tp] = 238;
                                 tp++;
-                                binary[binary_length] = ' ';
-                                binary_length++;
                                 info("X12 ");
                                 break;
                             case DM_EDIFACT:
                                 target[tp] = 240;
                                 tp++;
-                                binary[binary_length] = ' ';
-                                binary_length++;
                                 info("EDI ");
                                 break;
                             case DM_BASE256:
                                 target[tp] = 231;
                                 tp++;
-                                binary[binary_length] = ' ';
-                                binary_length++;
+                                b256_start = tp;
+                                tp++; /* Length field, filled in when the segment ends */
                                 info("BAS ");
                                 break;
                         }
@@ -715,10 +717,6 @@ private int generateCodewords() {
                             target[tp] = (inputData[sp] - 128) + 1;
                             infoSpace(target[tp] - 1);
                             tp++;
-                            binary[binary_length] = ' ';
-                            binary_length++;
-                            binary[binary_length] = ' ';
-                            binary_length++;
                         } else {
                             if (inputData[sp] == FNC1) {
                                 if (separatorGs) {
@@ -733,8 +731,6 @@ private int generateCodewords() {
                                 infoSpace(target[tp] - 1);
                             }
                             tp++;
-                            binary[binary_length] = ' ';
-                            binary_length++;
                         }
                         sp++;
                     }
@@ -747,14 +743,12 @@ private int generateCodewords() {
 
                 next_mode = Mode.DM_C40;
                 if (process_p == 0) {
-                    next_mode = lookAheadTest(sp, current_mode);
+                    next_mode = selectMode(sp, current_mode);
                 }
 
                 if (next_mode != Mode.DM_C40) {
                     target[tp] = 254;
-                    tp++;
-                    binary[binary_length] = ' ';
-                    binary_length++; /* Unlatch */
+                    tp++; /* Unlatch */
 
                     next_mode = Mode.DM_ASCII;
                     info("ASC ");
@@ -790,10 +784,6 @@ private int generateCodewords() {
                     while (process_p >= 3) {
                         tp = addTriplet(process_buffer[0], process_buffer[1], process_buffer[2], target, tp);
 
-                        binary[binary_length] = ' ';
-                        binary_length++;
-                        binary[binary_length] = ' ';
-                        binary_length++;
                         info("(" + process_buffer[0] + " " + process_buffer[1] + " " + process_buffer[2] + ") ");
 
                         process_buffer[0] = process_buffer[3];
@@ -814,14 +804,12 @@ private int generateCodewords() {
 
                 next_mode = Mode.DM_TEXT;
                 if (process_p == 0) {
-                    next_mode = lookAheadTest(sp, current_mode);
+                    next_mode = selectMode(sp, current_mode);
                 }
 
                 if (next_mode != Mode.DM_TEXT) {
                     target[tp] = 254;
-                    tp++;
-                    binary[binary_length] = ' ';
-                    binary_length++; /* Unlatch */
+                    tp++; /* Unlatch */
 
                     next_mode = Mode.DM_ASCII;
                     info("ASC ");
@@ -857,10 +845,6 @@ private int generateCodewords() {
                     while (process_p >= 3) {
                         tp = addTriplet(process_buffer[0], process_buffer[1], process_buffer[2], target, tp);
 
-                        binary[binary_length] = ' ';
-                        binary_length++;
-                        binary[binary_length] = ' ';
-                        binary_length++;
                         info("(" + process_buffer[0] + " " + process_buffer[1] + " " + process_buffer[2] + ") ");
 
                         process_buffer[0] = process_buffer[3];
@@ -882,7 +866,7 @@ private int generateCodewords() {
                 if (isX12(inputData[sp])) {
                     next_mode = Mode.DM_X12;
                     if (process_p == 0) {
-                        next_mode = lookAheadTest(sp, current_mode);
+                        next_mode = selectMode(sp, current_mode);
                     }
                 } else {
                     next_mode = Mode.DM_ASCII;
@@ -892,9 +876,7 @@ private int generateCodewords() {
                     sp -= process_p; // we're about to throw away the buffer, so we'll need to re-process buffered data
                     process_p = 0; // throw away buffer, if any
                     target[tp] = 254;
-                    tp++;
-                    binary[binary_length] = ' ';
-                    binary_length++; /* Unlatch */
+                    tp++; /* Unlatch */
 
                     next_mode = Mode.DM_ASCII;
                     info("ASC ");
@@ -924,10 +906,6 @@ private int generateCodewords() {
                     while (process_p >= 3) {
                         tp = addTriplet(process_buffer[0], process_buffer[1], process_buffer[2], target, tp);
 
-                        binary[binary_length] = ' ';
-                        binary_length++;
-                        binary[binary_length] = ' ';
-                        binary_length++;
                         info("(" + process_buffer[0] + " " + process_buffer[1] + " " + process_buffer[2] + ") ");
 
                         process_buffer[0] = process_buffer[3];
@@ -948,7 +926,7 @@ private int generateCodewords() {
 
                 next_mode = Mode.DM_EDIFACT;
                 if (process_p == 3) {
-                    next_mode = lookAheadTest(sp, current_mode);
+                    next_mode = selectMode(sp, current_mode);
                 }
 
                 if (next_mode != Mode.DM_EDIFACT) {
@@ -978,12 +956,6 @@ private int generateCodewords() {
                     target[tp] = ((process_buffer[2] & 0x03) << 6)
                             + process_buffer[3];
                     tp++;
-                    binary[binary_length] = ' ';
-                    binary_length++;
-                    binary[binary_length] = ' ';
-                    binary_length++;
-                    binary[binary_length] = ' ';
-                    binary_length++;
                     info("(" + process_buffer[0] + " " + process_buffer[1] + " " + process_buffer[2] + " " + process_buffer[3] + ") ");
 
                     process_buffer[0] = process_buffer[4];
@@ -1000,16 +972,15 @@ private int generateCodewords() {
 
             /* step (g) Base 256 encodation */
             if (current_mode == Mode.DM_BASE256) {
-                next_mode = lookAheadTest(sp, current_mode);
+                next_mode = selectMode(sp, current_mode);
 
                 if (next_mode == Mode.DM_BASE256) {
                     target[tp] = inputData[sp];
                     infoSpace(target[tp]);
                     tp++;
                     sp++;
-                    binary[binary_length] = 'b';
-                    binary_length++;
                 } else {
+                    tp = closeBase256(b256_start, tp);
                     next_mode = Mode.DM_ASCII;
                     info("ASC ");
                 }
@@ -1021,46 +992,8 @@ private int generateCodewords() {
 
         } /* while */
 
-        /* Add length and randomising algorithm to b256 */
-        i = 0;
-        while (i < tp) {
-            if (binary[i] == 'b') {
-                if ((i == 0) || (binary[i - 1] != 'b')) {
-                    /* start of binary data */
-                    int binary_count; /* length of b256 data */
-
-                    for (binary_count = 0; binary_count + i < tp && binary[binary_count + i] == 'b';
-                            binary_count++);
-
-                    if (binary_count <= 249) {
-                        insertAt(i, 'b');
-                        insertValueAt(i, tp, (char) binary_count);
-                        tp++;
-                    } else {
-                        insertAt(i, 'b');
-                        insertAt(i + 1, 'b');
-                        insertValueAt(i, tp, (char) ((binary_count / 250) + 249));
-                        tp++;
-                        insertValueAt(i + 1, tp, (char) (binary_count % 250));
-                        tp++;
-                    }
-                }
-            }
-            i++;
-        }
-
-        for (i = 0; i < tp; i++) {
-            if (binary[i] == 'b') {
-                int prn, temp;
-
-                prn = ((149 * (i + 1)) % 255) + 1;
-                temp = target[i] + prn;
-                if (temp <= 255) {
-                    target[i] = temp;
-                } else {
-                    target[i] = temp - 256;
-                }
-            }
+        if (current_mode == Mode.DM_BASE256) {
+            tp = closeBase256(b256_start, tp);
         }
 
         last_mode = current_mode;
@@ -1236,6 +1169,9 @@ private Mode lookAheadTest(int position, Mode current_mode) {
         Mode best_scheme = Mode.NULL;
         double stiction = (1.0F / 24.0F); // smallest change to act on, to get around floating point inaccuracies
 
+        // NOTE: the floating point inaccuracies can still affect the rounding in step (k), so these counts cannot
+        // be replaced with exact arithmetic without changing the codewords generated for some existing inputs
+
         /* step (j) */
         if (current_mode == Mode.DM_ASCII) {
             ascii_count = 0.0;
@@ -1396,7 +1332,7 @@ private Mode lookAheadTest(int position, Mode current_mode) {
 
                     if ((c40_count >= (x12_count - stiction))
                             && (c40_count <= (x12_count + stiction))) {
-                        if (p_r_6_2_1(sp, sourcelen)) {
+                        if (x12TerminatorFirst[sp]) {
                             // Test (r)(6)(ii)(i)
                             best_scheme = Mode.DM_X12;
                         } else {
@@ -1458,41 +1394,263 @@ private Mode lookAheadTest(int position, Mode current_mode) {
         return best_scheme;
     }
 
-    private boolean p_r_6_2_1(int position, int sourcelen) {
-        /* Annex P section (r)(6)(ii)(I)
-           "If one of the three X12 terminator/separator characters first
-            occurs in the yet to be processed data before a non-X12 character..."
-        */
+    /**
+     * Annex P section (r)(6)(ii)(I): "If one of the three X12 terminator/separator characters first occurs in
+     * the yet to be processed data before a non-X12 character..." Rather than re-scanning the rest of the data
+     * each time the look-ahead test needs this answer, it is calculated for every position in a single backward
+     * pass.
+     */
+    private static boolean[] findX12TerminatorsFirst(int[] data) {
+        boolean[] terminatorFirst = new boolean[data.length + 1];
+        boolean nonX12Found = false;
+        for (int i = data.length - 1; i >= 0; i--) {
+            int c = data[i];
+            if (c == 13 || c == '*' || c == '>') {
+                terminatorFirst[i] = nonX12Found;
+            } else if (!isX12(c)) {
+                terminatorFirst[i] = false;
+                nonX12Found = true;
+            } else {
+                terminatorFirst[i] = terminatorFirst[i + 1];
+            }
+        }
+        return terminatorFirst;
+    }
 
-        int i;
-        int nonX12Position = 0;
-        int specialX12Position = 0;
-        boolean retval = false;
+    /**
+     * Chooses the encodation mode to use next, either via the look-ahead test from Annex P or via the plan
+     * created by {@link #planEncodation(int, int, int)}.
+     */
+    private Mode selectMode(int position, Mode current_mode) {
+        if (plan != null) {
+            return plan[current_mode.ordinal()][position];
+        } else {
+            return lookAheadTest(position, current_mode);
+        }
+    }
 
-        for (i = position; i < sourcelen; i++) {
-            if (nonX12Position == 0 && !isX12(inputData[i])) {
-                nonX12Position = i;
-            }
+    /**
+     * Finds the encodation modes which minimize the total number of codewords required, using a single backward
+     * pass over the input data. For each position and each mode, we calculate the smallest number of codewords
+     * needed to encode the rest of the data, given that we are currently in that mode at that position, and
+     * record the corresponding choice of next mode. The costs mirror the behavior of {@link #generateCodewords(int, boolean)}
+     * and {@link #encodeRemainder(int, int)}: the plan is consulted at exactly the positions where the encoder
+     * makes a choice (at C40, Text and X12 triplet boundaries, at EDIFACT quadruplet boundaries, etc), and modes
+     * are never chosen for data which they cannot encode. The only simplification is that Base 256 segments are
+     * always assumed to need a single length codeword.
+     *
+     * <p>At the end of the data {@link #encodeRemainder(int, int)} only writes the final unlatch (or the EDIFACT
+     * unlatch value) if the symbol has room for it, so this trailing codeword does not affect the symbol size.
+     * All costs are therefore doubled, and the trailing codeword counts as half a codeword: the plan minimizes
+     * the number of codewords which determine the symbol size, and only then the total number of codewords.
+     * The EDIFACT unlatch value is only written if the symbol has more than 2 spare codewords (more than 1
+     * if there is 1 data character left in the buffer), so if the symbol selected for the first plan has
+     * 1 or 2 spare codewords, we plan again knowing exactly which trailing codewords will be written.
+     *
+     * @param start the position of the first data character to encode
+     * @param tp the number of codewords already generated (structured append, FNC1, ECI, etc)
+     * @param optionsize the symbol size selected by the user, or <code>-1</code> for automatic size selection
+     * @return the planned next mode, indexed by current mode and by data position
+     */
+    private Mode[][] planEncodation(int start, int tp, int optionsize) {
+        int[] ascii = new int[inputData.length + 1];
+        Mode[][] plan = planEncodation(ascii, Integer.MAX_VALUE);
+        int required = tp + (ascii[start] / 2);
+        int slack = MATRIX_BYTES[selectSymbolSize(required, optionsize)] - required;
+        if (slack == 1 || slack == 2) {
+            plan = planEncodation(ascii, slack);
+        }
+        return plan;
+    }
 
-            if (specialX12Position == 0) {
-                if ((inputData[i] == (char) 13) ||
-                    (inputData[i] == '*') ||
-                    (inputData[i] == '>')) {
-                    specialX12Position = i;
-                }
+    /**
+     * Performs a single planning pass (see {@link #planEncodation(int, int, int)}).
+     *
+     * @param ascii the array to populate with the (doubled) cost of encoding the rest of the data from each position in ASCII mode
+     * @param slack the number of spare codewords in the symbol, or {@link Integer#MAX_VALUE} if not yet known
+     * @return the planned next mode, indexed by current mode and by data position
+     */
+    private Mode[][] planEncodation(int[] ascii, int slack) {
+
+        int[] data = inputData;
+        int len = data.length;
+
+        // C40 and Text values required per data character, accumulated, so that we can find triplet boundaries
+        int[] c40Values = new int[len + 1];
+        int[] textValues = new int[len + 1];
+        for (int i = 0; i < len; i++) {
+            int c = data[i];
+            int c40, text;
+            if (c == FNC1) {
+                c40 = 2;
+                text = 2;
+            } else if (c > 127) {
+                c40 = (C40_SHIFT[c - 128] != 0 ? 4 : 3);
+                text = (TEXT_SHIFT[c - 128] != 0 ? 4 : 3);
+            } else {
+                c40 = (C40_SHIFT[c] != 0 ? 2 : 1);
+                text = (TEXT_SHIFT[c] != 0 ? 2 : 1);
             }
+            c40Values[i + 1] = c40Values[i] + c40;
+            textValues[i + 1] = textValues[i] + text;
         }
 
-        if ((nonX12Position != 0) && (specialX12Position != 0)) {
-            if (specialX12Position < nonX12Position) {
-                retval = true;
+        // all costs below are doubled (see above), with the EDIFACT trailing codeword (indexed by the number
+        // of values left in the buffer) only counted if the symbol has room for it
+        int[] edifactUnlatch = { (slack > 2 ? 1 : 0), (slack > 1 ? 1 : 0), 1 };
+        int[] c40 = new int[len + 1];
+        int[] text = new int[len + 1];
+        int[] x12 = new int[len + 1];
+        int[] edifact = new int[len + 1]; // with 3 values already in the buffer (the point at which the plan is consulted)
+        int[] base256 = new int[len + 1];
+        int[] edifactRun = new int[len + 1];
+        int[] c40Next = { -1, -1, -1 };
+        int[] textNext = { -1, -1, -1 };
+
+        Mode[][] plan = new Mode[Mode.values().length][len + 1];
+        Mode[] asciiPlan = plan[Mode.DM_ASCII.ordinal()];
+        Mode[] c40Plan = plan[Mode.DM_C40.ordinal()];
+        Mode[] textPlan = plan[Mode.DM_TEXT.ordinal()];
+        Mode[] x12Plan = plan[Mode.DM_X12.ordinal()];
+        Mode[] edifactPlan = plan[Mode.DM_EDIFACT.ordinal()];
+        Mode[] base256Plan = plan[Mode.DM_BASE256.ordinal()];
+
+        for (int i = len; i >= 0; i--) {
+
+            int c40Stay, textStay, x12Stay, edifactStay, edifactLatch, base256Stay;
+
+            // find the next triplet boundaries, i.e. the next positions with the same number of values modulo 3
+            int c40End = c40Next[c40Values[i] % 3];
+            int textEnd = textNext[textValues[i] % 3];
+            c40Next[c40Values[i] % 3] = i;
+            textNext[textValues[i] % 3] = i;
+
+            if (i == len) {
+                c40Stay = 1; // encodeRemainder() unlatches, if there is room
+                textStay = 1;
+                x12Stay = 1;
+                edifactStay = 6; // encodeRemainder() completes the quadruplet with an unlatch value
+                edifactLatch = INFINITY;
+                base256Stay = 0;
+                ascii[i] = 0;
+                asciiPlan[i] = Mode.DM_ASCII;
+            } else {
+
+                int c = data[i];
+                boolean edi = (c >= ' ' && c <= '^');
+                edifactRun[i] = (edi ? edifactRun[i + 1] + 1 : 0);
+
+                c40Stay = tripletCost(c40End, c40, c40Values, i, C40_SHIFT);
+                textStay = tripletCost(textEnd, text, textValues, i, TEXT_SHIFT);
+
+                if (!isX12(c)) {
+                    x12Stay = INFINITY;
+                } else if (i + 1 == len) {
+                    x12Stay = 3; // encodeRemainder() switches back to ASCII, unlatching if there is room
+                } else if (i + 2 == len && isX12(data[i + 1])) {
+                    x12Stay = 6; // encodeRemainder() needs an explicit unlatch
+                } else if (i + 2 < len && isX12(data[i + 1]) && isX12(data[i + 2])) {
+                    x12Stay = 4 + x12[i + 3];
+                } else {
+                    x12Stay = INFINITY;
+                }
+
+                // completing the current quadruplet, then buffering up to 3 more values (which encodeRemainder()
+                // completes with an unlatch value if there is room, and otherwise encodes in ASCII)
+                int run = edifactRun[i];
+                if (run >= 4) {
+                    edifactStay = 6 + edifact[i + 4];
+                } else if (run > 0 && i + run == len) {
+                    edifactStay = (2 * (3 + run - 1)) + edifactUnlatch[run - 1];
+                } else {
+                    edifactStay = INFINITY;
+                }
+
+                // latching to EDIFACT, then buffering up to 3 values
+                if (run >= 3) {
+                    edifactLatch = 2 + edifact[i + 3];
+                } else if (run > 0 && i + run == len) {
+                    edifactLatch = (2 * (1 + run)) + edifactUnlatch[run];
+                } else {
+                    edifactLatch = INFINITY;
+                }
+
+                base256Stay = (c != FNC1 ? 2 + base256[i + 1] : INFINITY);
+
+                if (isTwoDigits(i)) {
+                    // digit pairs are always encoded in ASCII mode, without checking for a better mode
+                    ascii[i] = 2 + ascii[i + 2];
+                    asciiPlan[i] = Mode.DM_ASCII;
+                } else {
+                    ascii[i] = (c > 127 ? 4 : 2) + ascii[i + 1];
+                    asciiPlan[i] = Mode.DM_ASCII;
+                    if (2 + c40Stay < ascii[i]) {
+                        ascii[i] = 2 + c40Stay;
+                        asciiPlan[i] = Mode.DM_C40;
+                    }
+                    if (2 + textStay < ascii[i]) {
+                        ascii[i] = 2 + textStay;
+                        asciiPlan[i] = Mode.DM_TEXT;
+                    }
+                    if (2 + x12Stay < ascii[i]) {
+                        ascii[i] = 2 + x12Stay;
+                        asciiPlan[i] = Mode.DM_X12;
+                    }
+                    if (edifactLatch < ascii[i]) {
+                        ascii[i] = edifactLatch;
+                        asciiPlan[i] = Mode.DM_EDIFACT;
+                    }
+                    if (4 + base256Stay < ascii[i]) {
+                        ascii[i] = 4 + base256Stay;
+                        asciiPlan[i] = Mode.DM_BASE256;
+                    }
+                }
             }
+
+            // all other modes can also switch back to ASCII (C40, Text, X12 via an unlatch codeword, EDIFACT
+            // via an unlatch value which completes the current quadruplet, Base 256 implicitly)
+            c40[i] = Math.min(c40Stay, 2 + ascii[i]);
+            c40Plan[i] = (c40Stay <= 2 + ascii[i] ? Mode.DM_C40 : Mode.DM_ASCII);
+            text[i] = Math.min(textStay, 2 + ascii[i]);
+            textPlan[i] = (textStay <= 2 + ascii[i] ? Mode.DM_TEXT : Mode.DM_ASCII);
+            x12[i] = Math.min(x12Stay, 2 + ascii[i]);
+            x12Plan[i] = (x12Stay <= 2 + ascii[i] ? Mode.DM_X12 : Mode.DM_ASCII);
+            edifact[i] = Math.min(edifactStay, 6 + ascii[i]);
+            edifactPlan[i] = (edifactStay <= 6 + ascii[i] ? Mode.DM_EDIFACT : Mode.DM_ASCII);
+            base256[i] = Math.min(base256Stay, ascii[i]);
+            base256Plan[i] = (base256Stay <= ascii[i] ? Mode.DM_BASE256 : Mode.DM_ASCII);
         }
 
-        return retval;
+        return plan;
+    }
+
+    /**
+     * Returns the (doubled) number of codewords needed to encode the data starting at the specified position in C40
+     * or Text mode, up to the end of the current triplet (and then continuing optimally), or up to the end of the data.
+     */
+    private int tripletCost(int end, int[] costs, int[] values, int start, int[] shift) {
+        if (end != -1) {
+            return (4 * (values[end] - values[start]) / 3) + costs[end];
+        }
+        int count = values[values.length - 1] - values[start];
+        int cost = (4 * (count / 3)) + 1; // encodeRemainder() unlatches at the end, if there is room
+        if (count % 3 == 0) {
+            return cost;
+        } else if (count % 3 == 2) {
+            return cost + 4; // encodeRemainder() pads the last triplet
+        }
+        // encodeRemainder() switches back to ASCII for the last character, unless it has already been upper shifted
+        int c = inputData[inputData.length - 1];
+        if (c == FNC1) {
+            return INFINITY;
+        } else if (c > 127) {
+            return (shift[c - 128] == 0 ? cost + 4 : INFINITY);
+        } else {
+            return cost + 2;
+        }
     }
 
-    private boolean isX12(int source) {
+    private static boolean isX12(int source) {
         return source == 13 ||
                source == 42 ||
                source == 62 ||
@@ -1502,52 +1660,64 @@ private boolean isX12(int source) {
     }
 
     private void calculateErrorCorrection(int bytes, int datablock, int rsblock, boolean skew) {
-        // calculate and append ecc code, and if necessary interleave
+        // calculate and append ecc code, and if necessary interleave; each block's data is read in place
+        // from the interleaved codewords, and its ecc is written directly to its final interleaved positions
         ReedSolomon rs = ReedSolomon.get(0x12d, rsblock, 1, true);
         int blocks = (bytes + 2) / datablock, b;
-        int n, p;
+        int[] ecc = new int[rsblock];
+        int n, p, offset;
         for (b = 0; b < blocks; b++) {
-            int[] buf = new int[256];
-            int[] ecc = new int[256];
-            p = 0;
-            for (n = b; n < bytes; n += blocks) {
-                buf[p++] = target[n];
+            rs.encode(target, b, blocks, (bytes - b + blocks - 1) / blocks, ecc);
+            if (skew) {
+                /* Rotate ecc data to make 144x144 size symbols acceptable */
+                /* See http://groups.google.com/group/postscriptbarcode/msg/5ae8fda7757477da */
+                offset = (b < 8 ? 2 : -8);
+            } else {
+                offset = 0;
             }
-            int[] result = rs.encode(p, buf);
-            System.arraycopy(result, 0, ecc, 0, rsblock);
             p = rsblock - 1; // comes back reversed
             for (n = b; n < rsblock * blocks; n += blocks) {
-                if (skew) {
-                    /* Rotate ecc data to make 144x144 size symbols acceptable */
-                    /* See http://groups.google.com/group/postscriptbarcode/msg/5ae8fda7757477da */
-                    if (b < 8) {
-                        target[bytes + n + 2] = ecc[p--];
-                    } else {
-                        target[bytes + n - 8] = ecc[p--];
-                    }
-                } else {
-                    target[bytes + n] = ecc[p--];
-                }
+                target[bytes + n + offset] = ecc[p--];
             }
         }
     }
 
-    private void insertAt(int pos, char newbit) {
-        /* Insert a character into the middle of a string at position posn */
-        for (int i = binary_length; i > pos; i--) {
-            binary[i] = binary[i - 1];
+    /**
+     * Completes the Base 256 segment which starts at the specified position, by filling in the length field reserved
+     * when the segment was latched into and then applying the 255-state randomising algorithm to the whole segment.
+     * Segments longer than 249 bytes need a two byte length field, in which case the segment data is moved over by one.
+     *
+     * @param start the position of the segment's (reserved) length field
+     * @param tp the current codeword count
+     * @return the updated codeword count
+     */
+    private int closeBase256(int start, int tp) {
+
+        int count = tp - start - 1;
+        if (count == 0) {
+            return start; /* Empty segment, no length field */
         }
-        binary[pos] = newbit;
-        binary_length++;
-    }
 
-    private void insertValueAt(int posn, int streamlen, char newbit) {
-        int i;
+        if (count <= 249) {
+            target[start] = count;
+        } else {
+            System.arraycopy(target, start + 1, target, start + 2, count);
+            target[start] = (count / 250) + 249;
+            target[start + 1] = count % 250;
+            tp++;
+        }
 
-        for (i = streamlen; i > posn; i--) {
-            target[i] = target[i - 1];
+        for (int i = start; i < tp; i++) {
+            int prn = ((149 * (i + 1)) % 255) + 1;
+            int temp = target[i] + prn;
+            if (temp <= 255) {
+                target[i] = temp;
+            } else {
+                target[i] = temp - 256;
+            }
         }
-        target[posn] = newbit;
+
+        return tp;
     }
 
     private void addPadBits(int tp, int tail_length) {
@@ -1571,7 +1741,7 @@ private void addPadBits(int tp, int tail_length) {
         }
     }
 
-    private void placeData(int NR, int NC) {
+    private static void placeData(int[] places, int NR, int NC) {
         int r, c, p;
         // invalidate
         for (r = 0; r < NR; r++) {
@@ -1586,21 +1756,21 @@ private void placeData(int NR, int NC) {
         do {
             // check corner
             if (r == NR && (c == 0)) {
-                placeCornerA(NR, NC, p++);
+                placeCornerA(places, NR, NC, p++);
             }
             if (r == NR - 2 && (c == 0) && ((NC % 4) != 0)) {
-                placeCornerB(NR, NC, p++);
+                placeCornerB(places, NR, NC, p++);
             }
             if (r == NR - 2 && (c == 0) && (NC % 8) == 4) {
-                placeCornerC(NR, NC, p++);
+                placeCornerC(places, NR, NC, p++);
             }
             if (r == NR + 4 && c == 2 && ((NC % 8) == 0)) {
-                placeCornerD(NR, NC, p++);
+                placeCornerD(places, NR, NC, p++);
             }
             // up/right
             do {
                 if (r < NR && c >= 0 && (places[r * NC + c] == 0)) {
-                    placeBlock(NR, NC, r, c, p++);
+                    placeBlock(places, NR, NC, r, c, p++);
                 }
                 r -= 2;
                 c += 2;
@@ -1610,7 +1780,7 @@ private void placeData(int NR, int NC) {
             // down/left
             do {
                 if (r >= 0 && c < NC && (places[r * NC + c] == 0)) {
-                    placeBlock(NR, NC, r, c, p++);
+                    placeBlock(places, NR, NC, r, c, p++);
                 }
                 r += 2;
                 c -= 2;
@@ -1624,62 +1794,62 @@ private void placeData(int NR, int NC) {
         }
     }
 
-    private void placeCornerA(int NR, int NC, int p) {
-        placeBit(NR, NC, NR - 1, 0, p, 7);
-        placeBit(NR, NC, NR - 1, 1, p, 6);
-        placeBit(NR, NC, NR - 1, 2, p, 5);
-        placeBit(NR, NC, 0, NC - 2, p, 4);
-        placeBit(NR, NC, 0, NC - 1, p, 3);
-        placeBit(NR, NC, 1, NC - 1, p, 2);
-        placeBit(NR, NC, 2, NC - 1, p, 1);
-        placeBit(NR, NC, 3, NC - 1, p, 0);
+    private static void placeCornerA(int[] places, int NR, int NC, int p) {
+        placeBit(places, NR, NC, NR - 1, 0, p, 7);
+        placeBit(places, NR, NC, NR - 1, 1, p, 6);
+        placeBit(places, NR, NC, NR - 1, 2, p, 5);
+        placeBit(places, NR, NC, 0, NC - 2, p, 4);
+        placeBit(places, NR, NC, 0, NC - 1, p, 3);
+        placeBit(places, NR, NC, 1, NC - 1, p, 2);
+        placeBit(places, NR, NC, 2, NC - 1, p, 1);
+        placeBit(places, NR, NC, 3, NC - 1, p, 0);
     }
 
-    private void placeCornerB(int NR, int NC, int p) {
-        placeBit(NR, NC, NR - 3, 0, p, 7);
-        placeBit(NR, NC, NR - 2, 0, p, 6);
-        placeBit(NR, NC, NR - 1, 0, p, 5);
-        placeBit(NR, NC, 0, NC - 4, p, 4);
-        placeBit(NR, NC, 0, NC - 3, p, 3);
-        placeBit(NR, NC, 0, NC - 2, p, 2);
-        placeBit(NR, NC, 0, NC - 1, p, 1);
-        placeBit(NR, NC, 1, NC - 1, p, 0);
+    private static void placeCornerB(int[] places, int NR, int NC, int p) {
+        placeBit(places, NR, NC, NR - 3, 0, p, 7);
+        placeBit(places, NR, NC, NR - 2, 0, p, 6);
+        placeBit(places, NR, NC, NR - 1, 0, p, 5);
+        placeBit(places, NR, NC, 0, NC - 4, p, 4);
+        placeBit(places, NR, NC, 0, NC - 3, p, 3);
+        placeBit(places, NR, NC, 0, NC - 2, p, 2);
+        placeBit(places, NR, NC, 0, NC - 1, p, 1);
+        placeBit(places, NR, NC, 1, NC - 1, p, 0);
     }
 
-    private void placeCornerC(int NR, int NC, int p) {
-        placeBit(NR, NC, NR - 3, 0, p, 7);
-        placeBit(NR, NC, NR - 2, 0, p, 6);
-        placeBit(NR, NC, NR - 1, 0, p, 5);
-        placeBit(NR, NC, 0, NC - 2, p, 4);
-        placeBit(NR, NC, 0, NC - 1, p, 3);
-        placeBit(NR, NC, 1, NC - 1, p, 2);
-        placeBit(NR, NC, 2, NC - 1, p, 1);
-        placeBit(NR, NC, 3, NC - 1, p, 0);
+    private static void placeCornerC(int[] places, int NR, int NC, int p) {
+        placeBit(places, NR, NC, NR - 3, 0, p, 7);
+        placeBit(places, NR, NC, NR - 2, 0, p, 6);
+        placeBit(places, NR, NC, NR - 1, 0, p, 5);
+        placeBit(places, NR, NC, 0, NC - 2, p, 4);
+        placeBit(places, NR, NC, 0, NC - 1, p, 3);
+        placeBit(places, NR, NC, 1, NC - 1, p, 2);
+        placeBit(places, NR, NC, 2, NC - 1, p, 1);
+        placeBit(places, NR, NC, 3, NC - 1, p, 0);
     }
 
-    private void placeCornerD(int NR, int NC, int p) {
-        placeBit(NR, NC, NR - 1, 0, p, 7);
-        placeBit(NR, NC, NR - 1, NC - 1, p, 6);
-        placeBit(NR, NC, 0, NC - 3, p, 5);
-        placeBit(NR, NC, 0, NC - 2, p, 4);
-        placeBit(NR, NC, 0, NC - 1, p, 3);
-        placeBit(NR, NC, 1, NC - 3, p, 2);
-        placeBit(NR, NC, 1, NC - 2, p, 1);
-        placeBit(NR, NC, 1, NC - 1, p, 0);
+    private static void placeCornerD(int[] places, int NR, int NC, int p) {
+        placeBit(places, NR, NC, NR - 1, 0, p, 7);
+        placeBit(places, NR, NC, NR - 1, NC - 1, p, 6);
+        placeBit(places, NR, NC, 0, NC - 3, p, 5);
+        placeBit(places, NR, NC, 0, NC - 2, p, 4);
+        placeBit(places, NR, NC, 0, NC - 1, p, 3);
+        placeBit(places, NR, NC, 1, NC - 3, p, 2);
+        placeBit(places, NR, NC, 1, NC - 2, p, 1);
+        placeBit(places, NR, NC, 1, NC - 1, p, 0);
     }
 
-    private void placeBlock(int NR, int NC, int r, int c, int p) {
-        placeBit(NR, NC, r - 2, c - 2, p, 7);
-        placeBit(NR, NC, r - 2, c - 1, p, 6);
-        placeBit(NR, NC, r - 1, c - 2, p, 5);
-        placeBit(NR, NC, r - 1, c - 1, p, 4);
-        placeBit(NR, NC, r - 1, c - 0, p, 3);
-        placeBit(NR, NC, r - 0, c - 2, p, 2);
-        placeBit(NR, NC, r - 0, c - 1, p, 1);
-        placeBit(NR, NC, r - 0, c - 0, p, 0);
+    private static void placeBlock(int[] places, int NR, int NC, int r, int c, int p) {
+        placeBit(places, NR, NC, r - 2, c - 2, p, 7);
+        placeBit(places, NR, NC, r - 2, c - 1, p, 6);
+        placeBit(places, NR, NC, r - 1, c - 2, p, 5);
+        placeBit(places, NR, NC, r - 1, c - 1, p, 4);
+        placeBit(places, NR, NC, r - 1, c - 0, p, 3);
+        placeBit(places, NR, NC, r - 0, c - 2, p, 2);
+        placeBit(places, NR, NC, r - 0, c - 1, p, 1);
+        placeBit(places, NR, NC, r - 0, c - 0, p, 0);
     }
 
-    private void placeBit(int NR, int NC, int r, int c, int p, int b) {
+    private static void placeBit(int[] places, int NR, int NC, int r, int c, int p, int b) {
         if (r < 0) {
             r += NR;
             c += 4 - ((NR + 4) % 8);
@@ -1690,4 +1860,248 @@ private void placeBit(int NR, int NC, int r, int c, int p, int b) {
         }
         places[r * NC + c] = (p << 3) + b;
     }
+
+    /**
+     * Creates a list of Data Matrix symbols for structured append from a string, using a template symbol.
+     * The template's settings (including the structured append file ID) are cloned for each symbol created.
+     *
+     * @param data the input data
+     * @param template the template Data Matrix symbol
+     * @return a list of Data Matrix symbols with structured append set
+     * @throws OkapiException if no data or data is invalid
+     */
+    public static List< DataMatrix > createStructuredAppendSymbols(String data, DataMatrix template) {
+        return createStructuredAppendSymbols(data, template, null);
+    }
+
+    /**
+     * Creates a list of Data Matrix symbols for structured append from a string, using a template symbol.
+     * The template's settings (including the structured append file ID) are cloned for each symbol created.
+     * Once the data has been split, the symbols are encoded in parallel using the specified executor (for
+     * example, {@link java.util.concurrent.ForkJoinPool#commonPool()}).
+     *
+     * @param data the input data
+     * @param template the template Data Matrix symbol
+     * @param executor the executor to use to encode the symbols, or <code>null</code> to encode them on the calling thread
+     * @return a list of Data Matrix symbols with structured append set, in segment order
+     * @throws OkapiException if no data or data is invalid
+     */
+    public static List< DataMatrix > createStructuredAppendSymbols(String data, DataMatrix template, Executor executor) {
+        List< String > split = splitData(data, template);
+        int count = split.size();
+        return createSymbols(count, i -> {
+            DataMatrix symbol = new DataMatrix();
+            clone(template, symbol);
+            symbol.setStructuredAppendPosition(i + 1);
+            symbol.setStructuredAppendTotal(count);
+            symbol.setContent(split.get(i));
+            return symbol;
+        }, executor);
+    }
+
+    private static List< String > splitData(String data, DataMatrix template) {
+        DataMatrix testSymbol = new DataMatrix() {
+            @Override protected void plotSymbol() {} // expensive plotting is not required
+        };
+        clone(template, testSymbol);
+        testSymbol.setStructuredAppendTotal(2);
+        return split(data, testSymbol, DataMatrix::fits, new CodewordCostModel(template), MAX_STRUCTURED_APPEND_SYMBOLS);
+    }
+
+    private static boolean fits(String data, DataMatrix testSymbol, boolean last) {
+        if (!data.isEmpty()) {
+            testSymbol.eciMode = -1; // each check needs to auto-detect the ECI mode afresh
+            try {
+                testSymbol.setContent(data);
+            } catch (OkapiInputException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void clone(DataMatrix template, DataMatrix target) {
+        target.setFontName(template.getFontName());
+        target.setFontSize(template.getFontSize());
+        target.setDataType(template.getDataType());
+        target.setEmptyContentAllowed(template.getEmptyContentAllowed());
+        target.setHumanReadableAlignment(template.getHumanReadableAlignment());
+        target.setHumanReadableLocation(template.getHumanReadableLocation());
+        target.setModuleWidth(template.getModuleWidth());
+        target.setQuietZoneHorizontal(template.getQuietZoneHorizontal());
+        target.setQuietZoneVertical(template.getQuietZoneVertical());
+        target.setReaderInit(template.getReaderInit());
+        target.setBarHeight(template.getBarHeight());
+        target.setForceMode(template.getForceMode());
+        target.setPreferredSize(template.getPreferredSize());
+        target.setStructuredAppendFileId(template.getStructuredAppendFileId());
+        target.setGs1SeparatorGs(template.getGs1SeparatorGs());
+        target.setOptimalEncodation(template.getOptimalEncodation());
+    }
+
+    /**
+     * Estimates the number of codewords needed to encode a structured append segment, in twelfths of a codeword
+     * (so that the 2-characters-per-codeword ASCII digit pairs and the 3-characters-per-2-codewords C40 and Text
+     * triplets can be tracked exactly). The cheapest segmentation into ASCII, C40, Text and Base 256 encodation is
+     * tracked incrementally, one character at a time. The actual encoder uses the look-ahead heuristics defined in
+     * the specification, so this estimate is usually slightly optimistic.
+     */
+    private static final class CodewordCostModel implements CostModel {
+
+        private final int baseOverhead;
+        private final int capacity;
+
+        private int overhead;
+        private int ascii;   // cheapest cost so far, ending in ASCII encodation
+        private int c40;     // cheapest cost so far, ending in C40 encodation
+        private int text;    // cheapest cost so far, ending in Text encodation
+        private int base256; // cheapest cost so far, ending in Base 256 encodation
+
+        private CodewordCostModel(DataMatrix template) {
+
+            int codewords = 4; // structured append header
+            if (template.getDataType() == DataType.GS1) {
+                codewords++;
+            }
+            if (template.getReaderInit()) {
+                codewords++;
+            }
+
+            int bytes = 0;
+            int size = template.getPreferredSize();
+            if (size >= 1 && size <= DM_SIZES_COUNT) {
+                bytes = MATRIX_BYTES[INT_SYMBOL[size - 1]];
+            } else {
+                ForceMode forceMode = template.getForceMode();
+                for (int i = 0; i < DM_SIZES_COUNT; i++) {
+                    boolean square = (MATRIX_H[i] == MATRIX_W[i]);
+                    if ((forceMode != ForceMode.SQUARE || square) && (forceMode != ForceMode.RECTANGULAR || !square)) {
+                        bytes = Math.max(bytes, MATRIX_BYTES[i]);
+                    }
+                }
+            }
+
+            this.baseOverhead = codewords * 12;
+            this.capacity = bytes * 12;
+
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            overhead = baseOverhead;
+            ascii = 0;
+            c40 = INFINITY;
+            text = INFINITY;
+            base256 = INFINITY;
+        }
+
+        @Override
+        public int add(char c) {
+
+            if (c > 0xff && overhead == baseOverhead) {
+                overhead += 2 * 12; // auto-detected ECI will need to be specified explicitly
+            }
+
+            int best = Math.min(Math.min(ascii, c40), Math.min(text, base256));
+            int bytes = (c <= 0xff ? 1 : c < 0x800 ? 2 : 3);
+            boolean extended = (c > 127);
+            boolean digit = (c >= '0' && c <= '9');
+
+            ascii = Math.min(ascii, best + 12) + (digit ? 6 : extended ? bytes * 24 : 12);
+            c40 = Math.min(c40, best + 12) + (extended ? bytes * 32 : digit || c == ' ' || (c >= 'A' && c <= 'Z') ? 8 : 16);
+            text = Math.min(text, best + 12) + (extended ? bytes * 32 : digit || c == ' ' || (c >= 'a' && c <= 'z') ? 8 : 16);
+            base256 = Math.min(base256, best + 24) + (bytes * 12);
+
+            return overhead + Math.min(Math.min(ascii, c40), Math.min(text, base256));
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * The parts of a Data Matrix symbol which depend only on the symbol size: the finder and alignment patterns,
+     * and the grid position of each codeword bit (as determined by the ECC 200 placement algorithm). Templates are
+     * immutable, created lazily and shared across threads, so that placing the codewords in a symbol of a given
+     * size is a single pass over a precomputed table.
+     */
+    private static final class Template {
+
+        private final int[] grid;    // finder and alignment patterns, plus the fixed module in the unused corner (if any)
+        private final int[] modules; // the grid position of each codeword bit
+        private final int[] bits;    // the codeword index and bit index of each codeword bit: (codeword << 3) | bit
+
+        private Template(int symbolsize) {
+
+            int H = MATRIX_H[symbolsize];
+            int W = MATRIX_W[symbolsize];
+            int FH = MATRIX_FH[symbolsize];
+            int FW = MATRIX_FW[symbolsize];
+            int NC = W - 2 * (W / FW);
+            int NR = H - 2 * (H / FH);
+
+            int[] places = new int[NC * NR];
+            placeData(places, NR, NC);
+
+            grid = new int[W * H];
+            for (int y = 0; y < H; y += FH) {
+                for (int x = 0; x < W; x++) {
+                    grid[y * W + x] = 1;
+                }
+                for (int x = 0; x < W; x += 2) {
+                    grid[(y + FH - 1) * W + x] = 1;
+                }
+            }
+            for (int x = 0; x < W; x += FW) {
+                for (int y = 0; y < H; y++) {
+                    grid[y * W + x] = 1;
+                }
+                for (int y = 0; y < H; y += 2) {
+                    grid[y * W + x + FW - 1] = 1;
+                }
+            }
+
+            int count = 0;
+            for (int v : places) {
+                if (v > 7) {
+                    count++;
+                }
+            }
+
+            modules = new int[count];
+            bits = new int[count];
+            int i = 0;
+            for (int y = 0; y < NR; y++) {
+                for (int x = 0; x < NC; x++) {
+                    int v = places[(NR - y - 1) * NC + x];
+                    int position = (1 + y + 2 * (y / (FH - 2))) * W + 1 + x + 2 * (x / (FW - 2));
+                    if (v == 1) {
+                        grid[position] = 1;
+                    } else if (v > 7) {
+                        modules[i] = position;
+                        bits[i] = v - 8;
+                        i++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns a new symbol grid containing the finder and alignment patterns, as well as the specified codewords.
+         *
+         * @param codewords the codewords to place in the grid (data codewords followed by error correction codewords)
+         * @return a new symbol grid
+         */
+        private int[] fill(int[] codewords) {
+            int[] filled = grid.clone();
+            for (int i = 0; i < modules.length; i++) {
+                int b = bits[i];
+                filled[modules[i]] = (codewords[b >> 3] >> (b & 7)) & 1;
+            }
+            return filled;
+        }
+    }
 }
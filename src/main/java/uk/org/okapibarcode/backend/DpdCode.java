@@ -83,7 +83,7 @@ protected void encode() {
                      check;                                            // D
 
         readable = hrt;
-        pattern = new String[] { code128.pattern[0] };
+        widths = new byte[][] { code128.widths[0] };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
         encodeInfo = deleteLastLine(code128.encodeInfo); // remove shape count, our shape count is added later
@@ -20,6 +20,8 @@
 import static uk.org.okapibarcode.backend.HumanReadableLocation.NONE;
 import static uk.org.okapibarcode.backend.HumanReadableLocation.TOP;
 
+import java.util.function.IntPredicate;
+
 import uk.org.okapibarcode.graphics.Rectangle;
 import uk.org.okapibarcode.graphics.TextAlignment;
 import uk.org.okapibarcode.graphics.TextBox;
@@ -59,14 +61,28 @@ public enum Mode {
         "ABABAB", "ABABBA", "ABBABA"
     };
 
-    private static final String[] EAN_SET_A = {
-        "3211", "2221", "2122", "1411", "1132", "1231", "1114", "1312", "1213", "3112"
+    private static final byte[][] EAN_SET_A = {
+        { 3, 2, 1, 1 }, { 2, 2, 2, 1 }, { 2, 1, 2, 2 }, { 1, 4, 1, 1 }, { 1, 1, 3, 2 },
+        { 1, 2, 3, 1 }, { 1, 1, 1, 4 }, { 1, 3, 1, 2 }, { 1, 2, 1, 3 }, { 3, 1, 1, 2 }
     };
 
-    private static final String[] EAN_SET_B = {
-        "1123", "1222", "2212", "1141", "2311", "1321", "4111", "2131", "3121", "2113"
+    private static final byte[][] EAN_SET_B = {
+        { 1, 1, 2, 3 }, { 1, 2, 2, 2 }, { 2, 2, 1, 2 }, { 1, 1, 4, 1 }, { 2, 3, 1, 1 },
+        { 1, 3, 2, 1 }, { 4, 1, 1, 1 }, { 2, 1, 3, 1 }, { 3, 1, 2, 1 }, { 2, 1, 1, 3 }
     };
 
+    /** Normal guard pattern (start and end of the symbol). */
+    protected static final byte[] NORMAL_GUARD = { 1, 1, 1 };
+
+    /** Centre guard pattern. */
+    protected static final byte[] CENTRE_GUARD = { 1, 1, 1, 1, 1 };
+
+    /** Whether or not the bar at a given position (in modules) is part of an EAN-13 guard pattern. */
+    private static final IntPredicate EAN13_GUARDS = x -> x < 3 || x > 91 || (x > 45 && x < 49);
+
+    /** Whether or not the bar at a given position (in modules) is part of an EAN-8 guard pattern. */
+    private static final IntPredicate EAN8_GUARDS = x -> x < 3 || x > 62 || (x > 30 && x < 35);
+
     private Mode mode;
     private int guardPatternExtraHeight = 5;
     private boolean linkageFlag;
@@ -193,25 +209,26 @@ private void ean13() {
         String parity = EAN13_PARITY[parityChar - '0'];
         infoLine("Parity Digit: ", parityChar);
 
-        StringBuilder dest = new StringBuilder("111");
+        widths = singleRow(widths, 3 + (12 * 4) + 5 + 3);
+        byte[] dest = widths[0];
+        int index = append(dest, 0, NORMAL_GUARD);
         for (int i = 1; i < 13; i++) {
             if (i == 7) {
-                dest.append("11111");
+                index = append(dest, index, CENTRE_GUARD);
             }
             if (i <= 6) {
                 if (parity.charAt(i - 1) == 'B') {
-                    dest.append(EAN_SET_B[hrt.charAt(i) - '0']);
+                    index = append(dest, index, EAN_SET_B[hrt.charAt(i) - '0']);
                 } else {
-                    dest.append(EAN_SET_A[hrt.charAt(i) - '0']);
+                    index = append(dest, index, EAN_SET_A[hrt.charAt(i) - '0']);
                 }
             } else {
-                dest.append(EAN_SET_A[hrt.charAt(i) - '0']);
+                index = append(dest, index, EAN_SET_A[hrt.charAt(i) - '0']);
             }
         }
-        dest.append("111");
+        append(dest, index, NORMAL_GUARD);
 
         readable = hrt;
-        pattern = new String[] { dest.toString() };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
@@ -225,25 +242,29 @@ private void ean8() {
 
         String hrt = content + check;
 
-        StringBuilder dest = new StringBuilder("111");
+        widths = singleRow(widths, 3 + (8 * 4) + 5 + 3);
+        byte[] dest = widths[0];
+        int index = append(dest, 0, NORMAL_GUARD);
         for (int i = 0; i < 8; i++) {
             if (i == 4) {
-                dest.append("11111");
+                index = append(dest, index, CENTRE_GUARD);
             }
-            dest.append(EAN_SET_A[hrt.charAt(i) - '0']);
+            index = append(dest, index, EAN_SET_A[hrt.charAt(i) - '0']);
         }
-        dest.append("111");
+        append(dest, index, NORMAL_GUARD);
 
         readable = hrt;
-        pattern = new String[] { dest.toString() };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
 
     protected static String validateAndPad(String s, int targetLength) {
 
-        if (!s.matches("[0-9]*")) {
-            throw OkapiInputException.invalidCharactersInInput();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                throw OkapiInputException.invalidCharactersInInput();
+            }
         }
 
         if (s.length() > targetLength) {
@@ -259,6 +280,52 @@ protected static String validateAndPad(String s, int targetLength) {
         return s;
     }
 
+    /**
+     * Returns the specified bar / space widths if they consist of a single row of the specified length (in which case they
+     * can be reused), otherwise new bar / space widths with a single row of the specified length.
+     *
+     * @param widths the current bar / space widths (may be <code>null</code>)
+     * @param length the required row length
+     * @return bar / space widths with a single row of the specified length
+     */
+    protected static byte[][] singleRow(byte[][] widths, int length) {
+        if (widths != null && widths.length == 1 && widths[0].length == length) {
+            return widths;
+        } else {
+            return new byte[][] { new byte[length] };
+        }
+    }
+
+    /**
+     * Copies the specified bar / space widths into the specified row, returning the index after the last copied width.
+     *
+     * @param row the row to write to
+     * @param index the index at which to start writing
+     * @param values the widths to write
+     * @return the index after the last width written
+     */
+    protected static int append(byte[] row, int index, byte[] values) {
+        System.arraycopy(values, 0, row, index, values.length);
+        return index + values.length;
+    }
+
+    /**
+     * Returns a new row containing the specified main symbol bar / space widths, followed by a gap of the specified width,
+     * followed by the specified add-on symbol bar / space widths.
+     *
+     * @param main the main symbol bar / space widths
+     * @param gap the gap between the two symbols, in modules
+     * @param addOn the add-on symbol bar / space widths
+     * @return the combined bar / space widths
+     */
+    protected static byte[] appendAddOn(byte[] main, int gap, byte[] addOn) {
+        byte[] row = new byte[main.length + 1 + addOn.length];
+        int index = append(row, 0, main);
+        row[index++] = (byte) gap;
+        append(row, index, addOn);
+        return row;
+    }
+
     protected static char calcDigit(String s) {
 
         int count = 0;
@@ -287,55 +354,33 @@ protected void plotSymbol() {
         resetPlotElements();
 
         int xBlock;
-        int x, y, w, h;
+        int x, w;
         boolean black = true;
-        int compositeOffset = (linkageFlag ? 6 : 0); // space for composite separator above
         int hrtOffset = (humanReadableLocation == TOP ? getTheoreticalHumanReadableHeight() : 0); // space for HRT above
 
         x = 0;
 
+        /* Reuse the shared bars for this layout */
+        EanUpcBars bars;
+        if (mode == Mode.EAN13) {
+            bars = EanUpcBars.get(mode, EAN13_GUARDS, 94, moduleWidth, defaultHeight, guardPatternExtraHeight, linkageFlag, hrtOffset);
+        } else {
+            bars = EanUpcBars.get(mode, EAN8_GUARDS, 66, moduleWidth, defaultHeight, guardPatternExtraHeight, linkageFlag, hrtOffset);
+        }
+
         /* Add top separator for composite symbology, if necessary */
-        if (linkageFlag) {
-            if (mode == Mode.EAN13) {
-                addRectangle(new Rectangle(scale(0),  0, scale(1), 2));
-                addRectangle(new Rectangle(scale(94), 0, scale(1), 2));
-                addRectangle(new Rectangle(scale(-1), 2, scale(1), 2));
-                addRectangle(new Rectangle(scale(95), 2, scale(1), 2));
-            } else { // EAN8
-                addRectangle(new Rectangle(scale(0),  0, scale(1), 2));
-                addRectangle(new Rectangle(scale(66), 0, scale(1), 2));
-                addRectangle(new Rectangle(scale(-1), 2, scale(1), 2));
-                addRectangle(new Rectangle(scale(67), 2, scale(1), 2));
-            }
+        for (Rectangle rect : bars.separator()) {
+            addRectangle(rect);
         }
 
         /* Draw the bars in the symbology */
-        for (xBlock = 0; xBlock < pattern[0].length(); xBlock++) {
+        byte[] row = widths[0];
+        for (xBlock = 0; xBlock < row.length; xBlock++) {
 
-            w = pattern[0].charAt(xBlock) - '0';
+            w = row[xBlock];
 
             if (black) {
-                y = 0;
-                h = defaultHeight;
-                /* Add extension to guide bars */
-                if (mode == Mode.EAN13) {
-                    if (x < 3 || x > 91 || (x > 45 && x < 49)) {
-                        h += guardPatternExtraHeight;
-                    }
-                    if (linkageFlag && (x == 0 || x == 94)) {
-                        h += 2;
-                        y -= 2;
-                    }
-                } else {
-                    if (x < 3 || x > 62 || (x > 30 && x < 35)) {
-                        h += guardPatternExtraHeight;
-                    }
-                    if (linkageFlag && (x == 0 || x == 66)) {
-                        h += 2;
-                        y -= 2;
-                    }
-                }
-                Rectangle rect = new Rectangle(scale(x), y + compositeOffset + hrtOffset, scale(w), h);
+                Rectangle rect = bars.get(x, w);
                 addRectangle(rect);
                 symbolWidth = Math.max(symbolWidth, (int) (rect.x + rect.width));
                 symbolHeight = Math.max(symbolHeight, (int) (rect.y + rect.height - hrtOffset));
@@ -377,7 +422,7 @@ protected void plotSymbol() {
                 addRectangle(new Rectangle(baseX + r.x, baseY + r.y, r.width, r.height));
             }
             symbolWidth += scale(gap) + addOn.symbolWidth;
-            pattern[0] = pattern[0] + gap + addOn.pattern[0];
+            widths[0] = appendAddOn(widths[0], gap, addOn.widths[0]);
         }
     }
 
@@ -16,6 +16,8 @@
 
 package uk.org.okapibarcode.backend;
 
+import static uk.org.okapibarcode.backend.Ean.append;
+
 /**
  * <p>Implements EAN/UPC add-on bar code symbology according to BS EN 797:1996.
  *
@@ -25,14 +27,20 @@
  */
 public class EanUpcAddOn extends Symbol {
 
-    private static final String[] EAN_SET_A = {
-        "3211", "2221", "2122", "1411", "1132", "1231", "1114", "1312", "1213", "3112"
+    private static final byte[][] EAN_SET_A = {
+        { 3, 2, 1, 1 }, { 2, 2, 2, 1 }, { 2, 1, 2, 2 }, { 1, 4, 1, 1 }, { 1, 1, 3, 2 },
+        { 1, 2, 3, 1 }, { 1, 1, 1, 4 }, { 1, 3, 1, 2 }, { 1, 2, 1, 3 }, { 3, 1, 1, 2 }
     };
 
-    private static final String[] EAN_SET_B = {
-        "1123", "1222", "2212", "1141", "2311", "1321", "4111", "2131", "3121", "2113"
+    private static final byte[][] EAN_SET_B = {
+        { 1, 1, 2, 3 }, { 1, 2, 2, 2 }, { 2, 2, 1, 2 }, { 1, 1, 4, 1 }, { 2, 3, 1, 1 },
+        { 1, 3, 2, 1 }, { 4, 1, 1, 1 }, { 2, 1, 3, 1 }, { 3, 1, 2, 1 }, { 2, 1, 1, 3 }
     };
 
+    private static final byte[] START = { 1, 1, 2 };
+
+    private static final byte[] SEPARATOR = { 1, 1 };
+
     private static final String[] EAN2_PARITY = {
         "AA", "AB", "BA", "BB"
     };
@@ -60,37 +68,37 @@ protected void encode() {
             }
         }
 
-        String bars = (targetLength == 2 ? ean2(content) : ean5(content));
+        byte[] bars = (targetLength == 2 ? ean2(content) : ean5(content));
 
         readable = content;
-        pattern = new String[] { bars };
+        widths = new byte[][] { bars };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
 
-    private static String ean2(String content) {
+    private static byte[] ean2(String content) {
 
         int sum = ((content.charAt(0) - '0') * 10) + (content.charAt(1) - '0');
         String parity = EAN2_PARITY[sum % 4];
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("112"); /* Start */
+        byte[] bars = new byte[3 + (2 * 4) + 2];
+        int index = append(bars, 0, START); /* Start */
         for (int i = 0; i < 2; i++) {
             int val = content.charAt(i) - '0';
             if (parity.charAt(i) == 'B') {
-                sb.append(EAN_SET_B[val]);
+                index = append(bars, index, EAN_SET_B[val]);
             } else {
-                sb.append(EAN_SET_A[val]);
+                index = append(bars, index, EAN_SET_A[val]);
             }
             if (i != 1) { /* Glyph separator */
-                sb.append("11");
+                index = append(bars, index, SEPARATOR);
             }
         }
 
-        return sb.toString();
+        return bars;
     }
 
-    private static String ean5(String content) {
+    private static byte[] ean5(String content) {
 
         int sum = 0;
         for (int i = 0; i < 5; i++) {
@@ -102,20 +110,20 @@ private static String ean5(String content) {
         }
         String parity = EAN5_PARITY[sum % 10];
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("112"); /* Start */
+        byte[] bars = new byte[3 + (5 * 4) + (4 * 2)];
+        int index = append(bars, 0, START); /* Start */
         for (int i = 0; i < 5; i++) {
             int val = content.charAt(i) - '0';
             if (parity.charAt(i) == 'B') {
-                sb.append(EAN_SET_B[val]);
+                index = append(bars, index, EAN_SET_B[val]);
             } else {
-                sb.append(EAN_SET_A[val]);
+                index = append(bars, index, EAN_SET_A[val]);
             }
             if (i != 4) { /* Glyph separator */
-                sb.append("11");
+                index = append(bars, index, SEPARATOR);
             }
         }
 
-        return sb.toString();
+        return bars;
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import java.util.function.IntPredicate;
+
+import uk.org.okapibarcode.graphics.Rectangle;
+
+/**
+ * The bar rectangles used to plot EAN and UPC symbols with a specific layout (mode, module width, bar height, guard
+ * pattern height, linkage flag and human-readable text offset). These symbols have a fixed geometry: every digit is
+ * exactly 7 modules wide, and the guard patterns are always in the same place. As a result, a bar's rectangle depends
+ * only on its position and width, and there are only a few hundred distinct bars for any given layout. These templates
+ * are created once per layout, shared by all symbols, and allow symbols which encode many different GTINs using the
+ * same layout to be plotted without creating any new rectangles. This is safe because rectangles are immutable.
+ */
+final class EanUpcBars {
+
+    /** The maximum supported bar position, in modules (EAN-13 and UPC-A symbols are 95 modules wide). */
+    private static final int MAX_X = 96;
+
+    /** The maximum supported bar width, in modules. */
+    private static final int MAX_WIDTH = 4;
+
+    /** The maximum number of layouts kept, after which the least recently created layout is discarded. */
+    private static final int MAX_TEMPLATES = 32;
+
+    /** The shared templates, most recently created first; the array is never modified once published. */
+    private static volatile EanUpcBars[] templates = new EanUpcBars[0];
+
+    private final Object mode;
+    private final int moduleWidth;
+    private final int height;
+    private final int guardPatternExtraHeight;
+    private final boolean linkageFlag;
+    private final int offset;
+    private final Rectangle[] bars = new Rectangle[MAX_X * MAX_WIDTH];
+    private final Rectangle[] separator;
+
+    private EanUpcBars(Object mode, IntPredicate guard, int end, int moduleWidth, int height, int guardPatternExtraHeight,
+                    boolean linkageFlag, int offset) {
+
+        this.mode = mode;
+        this.moduleWidth = moduleWidth;
+        this.height = height;
+        this.guardPatternExtraHeight = guardPatternExtraHeight;
+        this.linkageFlag = linkageFlag;
+        this.offset = offset;
+
+        int compositeOffset = (linkageFlag ? 6 : 0); // space for composite separator above
+        for (int x = 0; x < MAX_X; x++) {
+            for (int w = 1; w <= MAX_WIDTH; w++) {
+                int y = 0;
+                int h = height;
+                /* Add extension to guide bars */
+                if (guard.test(x)) {
+                    h += guardPatternExtraHeight;
+                }
+                if (linkageFlag && (x == 0 || x == end)) {
+                    h += 2;
+                    y -= 2;
+                }
+                bars[(x * MAX_WIDTH) + w - 1] = new Rectangle(moduleWidth * x, y + compositeOffset + offset, moduleWidth * w, h);
+            }
+        }
+
+        if (linkageFlag) {
+            separator = new Rectangle[] {
+                new Rectangle(moduleWidth * 0,         0, moduleWidth, 2),
+                new Rectangle(moduleWidth * end,       0, moduleWidth, 2),
+                new Rectangle(moduleWidth * -1,        2, moduleWidth, 2),
+                new Rectangle(moduleWidth * (end + 1), 2, moduleWidth, 2)
+            };
+        } else {
+            separator = new Rectangle[0];
+        }
+    }
+
+    /**
+     * Returns the shared bars for the specified layout, creating them if necessary.
+     *
+     * @param mode the symbol mode
+     * @param guard whether or not the bar at a given position (in modules) is part of a guard pattern
+     * @param end the position of the last bar, in modules
+     * @param moduleWidth the module width
+     * @param height the bar height, excluding any guard pattern extension
+     * @param guardPatternExtraHeight the extra height used for the guard patterns
+     * @param linkageFlag whether or not the symbol is part of a composite symbol
+     * @param offset the vertical offset of the bars (space for the human-readable text, if it is above the bars)
+     * @return the shared bars for the specified layout
+     */
+    static EanUpcBars get(Object mode, IntPredicate guard, int end, int moduleWidth, int height, int guardPatternExtraHeight,
+                    boolean linkageFlag, int offset) {
+
+        for (EanUpcBars bars : templates) {
+            if (bars.matches(mode, moduleWidth, height, guardPatternExtraHeight, linkageFlag, offset)) {
+                return bars;
+            }
+        }
+
+        EanUpcBars created = new EanUpcBars(mode, guard, end, moduleWidth, height, guardPatternExtraHeight, linkageFlag, offset);
+        synchronized (EanUpcBars.class) {
+            EanUpcBars[] old = templates;
+            EanUpcBars[] updated = new EanUpcBars[Math.min(old.length + 1, MAX_TEMPLATES)];
+            updated[0] = created;
+            System.arraycopy(old, 0, updated, 1, updated.length - 1);
+            templates = updated;
+        }
+        return created;
+    }
+
+    private boolean matches(Object mode, int moduleWidth, int height, int guardPatternExtraHeight, boolean linkageFlag, int offset) {
+        return this.mode == mode &&
+               this.moduleWidth == moduleWidth &&
+               this.height == height &&
+               this.guardPatternExtraHeight == guardPatternExtraHeight &&
+               this.linkageFlag == linkageFlag &&
+               this.offset == offset;
+    }
+
+    /**
+     * Returns the rectangle for the bar at the specified position, with the specified width.
+     *
+     * @param x the bar position, in modules
+     * @param w the bar width, in modules
+     * @return the rectangle for the bar
+     */
+    Rectangle get(int x, int w) {
+        return bars[(x * MAX_WIDTH) + w - 1];
+    }
+
+    /**
+     * Returns the composite separator rectangles to draw above the bars (empty if the symbol is not part of a composite
+     * symbol). The returned array must not be modified.
+     *
+     * @return the composite separator rectangles
+     */
+    Rectangle[] separator() {
+        return separator;
+    }
+}
@@ -71,10 +71,9 @@ private enum qrMode {
     // internal state calculated when setContent() is called
 
     private qrMode[] inputMode;
-    private StringBuilder binary;
+    private final BitBuffer binary = new BitBuffer(256);
     private int[] binaryCount = new int[4];
     private int[] grid;
-    private int[] eval;
 
     /**
      * Creates a new instance.
@@ -156,7 +155,6 @@ protected void encode() {
         int version, autoversion;
         int bitmask;
         int format, format_full;
-        StringBuilder bin = new StringBuilder();
         boolean byteModeUsed;
         boolean alphanumModeUsed;
         boolean kanjiModeUsed;
@@ -310,7 +308,7 @@ protected void encode() {
             ecc_level = EccMode.M;
         }
 
-        binary = new StringBuilder();
+        binary.clear();
         generateBinary(version);
         if (binary.length() > 128) {
             throw OkapiInputException.inputTooLong();
@@ -589,18 +587,6 @@ private boolean isAlphanumeric(char cglyph) {
         return retval;
     }
 
-    private String toBinary(int data, int h) {
-        StringBuilder binary = new StringBuilder();
-        for (; h != 0; h >>= 1) {
-            if ((data & h) != 0) {
-                binary.append('1');
-            } else {
-                binary.append('0');
-            }
-        }
-        return binary.toString();
-    }
-
     private void getBinaryLength() {
         int i;
         qrMode currentMode = qrMode.NULL;
@@ -716,15 +702,15 @@ private void generateBinary(int version) {
                 /* Mode indicator */
                 switch (version) {
                 case 2:
-                    binary.append("11");
+                    binary.append(0b11, 2);
                     break;
                 case 3:
-                    binary.append("011");
+                    binary.append(0b011, 3);
                     break;
                 }
 
                 /* Character count indicator */
-                binary.append(toBinary(blockLength, 1 << version)); /* version = 2..3 */
+                binary.append(blockLength, version + 1); /* version = 2..3 */
 
                 info("KANJ (" + blockLength + ") ");
 
@@ -754,7 +740,7 @@ private void generateBinary(int version) {
                     lsb = (jis & 0xff);
                     prod = (msb * 0xc0) + lsb;
 
-                    binary.append(toBinary(prod, 0x1000));
+                    binary.append(prod, 13);
 
                     infoSpace(prod);
                 }
@@ -765,22 +751,22 @@ private void generateBinary(int version) {
                 /* Mode indicator */
                 switch (version) {
                 case 2:
-                    binary.append("10");
+                    binary.append(0b10, 2);
                     break;
                 case 3:
-                    binary.append("010");
+                    binary.append(0b010, 3);
                     break;
                 }
 
                 /* Character count indicator */
-                binary.append(toBinary(blockLength, 2 << version)); /* version = 2..3 */
+                binary.append(blockLength, version + 2); /* version = 2..3 */
 
                 info("BYTE (" + blockLength + ") ");
 
                 /* Character representation */
                 for (i = 0; i < blockLength; i++) {
                     int lbyte = content.charAt(position + i);
-                    binary.append(toBinary(lbyte, 0x80));
+                    binary.append(lbyte, 8);
                     infoSpace(lbyte);
                 }
 
@@ -790,18 +776,18 @@ private void generateBinary(int version) {
                 /* Mode indicator */
                 switch (version) {
                 case 1:
-                    binary.append("1");
+                    binary.append(0b1, 1);
                     break;
                 case 2:
-                    binary.append("01");
+                    binary.append(0b01, 2);
                     break;
                 case 3:
-                    binary.append("001");
+                    binary.append(0b001, 3);
                     break;
                 }
 
                 /* Character count indicator */
-                binary.append(toBinary(blockLength, 2 << version)); /* version = 1..3 */
+                binary.append(blockLength, version + 2); /* version = 1..3 */
 
                 info("ALPH (" + blockLength + ") ");
 
@@ -820,7 +806,7 @@ private void generateBinary(int version) {
                         }
                     }
 
-                    binary.append(toBinary(prod, 1 << (5 * count))); /* count = 1..2 */
+                    binary.append(prod, (5 * count) + 1); /* count = 1..2 */
 
                     infoSpace(prod);
 
@@ -833,18 +819,18 @@ private void generateBinary(int version) {
                 /* Mode indicator */
                 switch (version) {
                 case 1:
-                    binary.append("0");
+                    binary.append(0b0, 1);
                     break;
                 case 2:
-                    binary.append("00");
+                    binary.append(0b00, 2);
                     break;
                 case 3:
-                    binary.append("000");
+                    binary.append(0b000, 3);
                     break;
                 }
 
                 /* Character count indicator */
-                binary.append(toBinary(blockLength, 4 << version)); /* version = 0..3 */
+                binary.append(blockLength, version + 3); /* version = 0..3 */
 
                 info("NUMB (" + blockLength + ") ");
 
@@ -871,7 +857,7 @@ private void generateBinary(int version) {
                         }
                     }
 
-                    binary.append(toBinary(prod, 1 << (3 * count))); /* count = 1..3 */
+                    binary.append(prod, (3 * count) + 1); /* count = 1..3 */
 
                     infoSpace(prod);
 
@@ -886,21 +872,21 @@ private void generateBinary(int version) {
         /* Add terminator */
         switch(version) {
             case 0:
-                binary.append("000");
+                binary.appendZeros(3);
                 break;
             case 1:
                 if (binary.length() < 37) {
-                    binary.append("00000");
+                    binary.appendZeros(5);
                 }
                 break;
             case 2:
                 if (binary.length() < 81) {
-                    binary.append("0000000");
+                    binary.appendZeros(7);
                 }
                 break;
             case 3:
                 if (binary.length() < 125) {
-                    binary.append("000000000");
+                    binary.appendZeros(9);
                 }
                 break;
         }
@@ -921,9 +907,7 @@ private void generateM1Symbol() {
         /* Manage last (4-bit) block */
         bits_left = bits_total - binary.length();
         if (bits_left <= 4) {
-            for (i = 0; i < bits_left; i++) {
-                binary.append("0");
-            }
+            binary.appendZeros(bits_left);
             latch = 1;
         }
 
@@ -933,9 +917,7 @@ private void generateM1Symbol() {
             if (remainder == 8) {
                 remainder = 0;
             }
-            for (i = 0; i < remainder; i++) {
-                binary.append("0");
-            }
+            binary.appendZeros(remainder);
 
             /* Add padding */
             bits_left = bits_total - binary.length();
@@ -943,13 +925,13 @@ private void generateM1Symbol() {
                 remainder = (bits_left - 4) / 8;
                 for (i = 0; i < remainder; i++) {
                     if ((i & 1) != 0) {
-                        binary.append("00010001");
+                        binary.append(0x11, 8);
                     } else {
-                        binary.append("11101100");
+                        binary.append(0xec, 8);
                     }
                 }
             }
-            binary.append("0000");
+            binary.appendZeros(4);
         }
 
         data_codewords = 3;
@@ -957,45 +939,9 @@ private void generateM1Symbol() {
 
         /* Copy data into codewords */
         for (i = 0; i < (data_codewords - 1); i++) {
-            data_blocks[i] = 0;
-            if (binary.charAt(i * 8) == '1') {
-                data_blocks[i] += 0x80;
-            }
-            if (binary.charAt((i * 8) + 1) == '1') {
-                data_blocks[i] += 0x40;
-            }
-            if (binary.charAt((i * 8) + 2) == '1') {
-                data_blocks[i] += 0x20;
-            }
-            if (binary.charAt((i * 8) + 3) == '1') {
-                data_blocks[i] += 0x10;
-            }
-            if (binary.charAt((i * 8) + 4) == '1') {
-                data_blocks[i] += 0x08;
-            }
-            if (binary.charAt((i * 8) + 5) == '1') {
-                data_blocks[i] += 0x04;
-            }
-            if (binary.charAt((i * 8) + 6) == '1') {
-                data_blocks[i] += 0x02;
-            }
-            if (binary.charAt((i * 8) + 7) == '1') {
-                data_blocks[i] += 0x01;
-            }
-        }
-        data_blocks[2] = 0;
-        if (binary.charAt(16) == '1') {
-            data_blocks[2] += 0x08;
-        }
-        if (binary.charAt(17) == '1') {
-            data_blocks[2] += 0x04;
-        }
-        if (binary.charAt(18) == '1') {
-            data_blocks[2] += 0x02;
-        }
-        if (binary.charAt(19) == '1') {
-            data_blocks[2] += 0x01;
+            data_blocks[i] = binary.get(i * 8, 8);
         }
+        data_blocks[2] = binary.get(16, 4);
 
         info("Codewords: ");
         for (i = 0; i < data_codewords; i++) {
@@ -1010,7 +956,7 @@ private void generateM1Symbol() {
 
         /* Add Reed-Solomon codewords to binary data */
         for (i = 0; i < ecc_codewords; i++) {
-            binary.append(toBinary(ecc_blocks[ecc_codewords - i - 1], 0x80));
+            binary.append(ecc_blocks[ecc_codewords - i - 1], 8);
         }
     }
 
@@ -1031,18 +977,16 @@ private void generateM2Symbol(EccMode ecc_mode) {
         if (remainder == 8) {
             remainder = 0;
         }
-        for (i = 0; i < remainder; i++) {
-            binary.append("0");
-        }
+        binary.appendZeros(remainder);
 
         /* Add padding */
         bits_left = bits_total - binary.length();
         remainder = bits_left / 8;
         for (i = 0; i < remainder; i++) {
             if ((i & 1) != 0) {
-                binary.append("00010001");
+                binary.append(0x11, 8);
             } else {
-                binary.append("11101100");
+                binary.append(0xec, 8);
             }
         }
 
@@ -1055,31 +999,7 @@ private void generateM2Symbol(EccMode ecc_mode) {
 
         /* Copy data into codewords */
         for (i = 0; i < data_codewords; i++) {
-            data_blocks[i] = 0;
-            if (binary.charAt(i * 8) == '1') {
-                data_blocks[i] += 0x80;
-            }
-            if (binary.charAt((i * 8) + 1) == '1') {
-                data_blocks[i] += 0x40;
-            }
-            if (binary.charAt((i * 8) + 2) == '1') {
-                data_blocks[i] += 0x20;
-            }
-            if (binary.charAt((i * 8) + 3) == '1') {
-                data_blocks[i] += 0x10;
-            }
-            if (binary.charAt((i * 8) + 4) == '1') {
-                data_blocks[i] += 0x08;
-            }
-            if (binary.charAt((i * 8) + 5) == '1') {
-                data_blocks[i] += 0x04;
-            }
-            if (binary.charAt((i * 8) + 6) == '1') {
-                data_blocks[i] += 0x02;
-            }
-            if (binary.charAt((i * 8) + 7) == '1') {
-                data_blocks[i] += 0x01;
-            }
+            data_blocks[i] = binary.get(i * 8, 8);
         }
 
         info("Codewords: ");
@@ -1095,7 +1015,7 @@ private void generateM2Symbol(EccMode ecc_mode) {
 
         /* Add Reed-Solomon codewords to binary data */
         for (i = 0; i < ecc_codewords; i++) {
-            binary.append(toBinary(ecc_blocks[ecc_codewords - i - 1], 0x80));
+            binary.append(ecc_blocks[ecc_codewords - i - 1], 8);
         }
     }
 
@@ -1116,9 +1036,7 @@ private void generateM3Symbol(EccMode ecc_mode) {
         /* Manage last (4-bit) block */
         bits_left = bits_total - binary.length();
         if (bits_left <= 4) {
-            for (i = 0; i < bits_left; i++) {
-                binary.append("0");
-            }
+            binary.appendZeros(bits_left);
             latch = 1;
         }
 
@@ -1128,9 +1046,7 @@ private void generateM3Symbol(EccMode ecc_mode) {
             if (remainder == 8) {
                 remainder = 0;
             }
-            for (i = 0; i < remainder; i++) {
-                binary.append("0");
-            }
+            binary.appendZeros(remainder);
 
             /* Add padding */
             bits_left = bits_total - binary.length();
@@ -1138,13 +1054,13 @@ private void generateM3Symbol(EccMode ecc_mode) {
                 remainder = (bits_left - 4) / 8;
                 for (i = 0; i < remainder; i++) {
                     if ((i & 1) != 0) {
-                        binary.append("00010001");
+                        binary.append(0x11, 8);
                     } else {
-                        binary.append("11101100");
+                        binary.append(0xec, 8);
                     }
                 }
             }
-            binary.append("0000");
+            binary.appendZeros(4);
         }
 
         data_codewords = 11;
@@ -1156,63 +1072,15 @@ private void generateM3Symbol(EccMode ecc_mode) {
 
         /* Copy data into codewords */
         for (i = 0; i < (data_codewords - 1); i++) {
-            data_blocks[i] = 0;
-            if (binary.charAt(i * 8) == '1') {
-                data_blocks[i] += 0x80;
-            }
-            if (binary.charAt((i * 8) + 1) == '1') {
-                data_blocks[i] += 0x40;
-            }
-            if (binary.charAt((i * 8) + 2) == '1') {
-                data_blocks[i] += 0x20;
-            }
-            if (binary.charAt((i * 8) + 3) == '1') {
-                data_blocks[i] += 0x10;
-            }
-            if (binary.charAt((i * 8) + 4) == '1') {
-                data_blocks[i] += 0x08;
-            }
-            if (binary.charAt((i * 8) + 5) == '1') {
-                data_blocks[i] += 0x04;
-            }
-            if (binary.charAt((i * 8) + 6) == '1') {
-                data_blocks[i] += 0x02;
-            }
-            if (binary.charAt((i * 8) + 7) == '1') {
-                data_blocks[i] += 0x01;
-            }
+            data_blocks[i] = binary.get(i * 8, 8);
         }
 
         if (ecc_mode == EccMode.L) {
-            data_blocks[10] = 0;
-            if (binary.charAt(80) == '1') {
-                data_blocks[10] += 0x08;
-            }
-            if (binary.charAt(81) == '1') {
-                data_blocks[10] += 0x04;
-            }
-            if (binary.charAt(82) == '1') {
-                data_blocks[10] += 0x02;
-            }
-            if (binary.charAt(83) == '1') {
-                data_blocks[10] += 0x01;
-            }
+            data_blocks[10] = binary.get(80, 4);
         }
 
         if (ecc_mode == EccMode.M) {
-            data_blocks[8] = 0;
-            if (binary.charAt(64) == '1') {
-                data_blocks[8] += 0x08;
-            }
-            if (binary.charAt(65) == '1') {
-                data_blocks[8] += 0x04;
-            }
-            if (binary.charAt(66) == '1') {
-                data_blocks[8] += 0x02;
-            }
-            if (binary.charAt(67) == '1') {
-                data_blocks[8] += 0x01;
-            }
+            data_blocks[8] = binary.get(64, 4);
         }
 
         info("Codewords: ");
@@ -1228,7 +1096,7 @@ private void generateM3Symbol(EccMode ecc_mode) {
 
         /* Add Reed-Solomon codewords to binary data */
         for (i = 0; i < ecc_codewords; i++) {
-            binary.append(toBinary(ecc_blocks[ecc_codewords - i - 1], 0x80));
+            binary.append(ecc_blocks[ecc_codewords - i - 1], 8);
         }
     }
 
@@ -1252,18 +1120,16 @@ private void generateM4Symbol(EccMode ecc_mode) {
         if (remainder == 8) {
             remainder = 0;
         }
-        for (i = 0; i < remainder; i++) {
-            binary.append("0");
-        }
+        binary.appendZeros(remainder);
 
         /* Add padding */
         bits_left = bits_total - binary.length();
         remainder = bits_left / 8;
         for (i = 0; i < remainder; i++) {
             if ((i & 1) != 0) {
-                binary.append("00010001");
+                binary.append(0x11, 8);
             } else {
-                binary.append("11101100");
+                binary.append(0xec, 8);
             }
         }
 
@@ -1280,31 +1146,7 @@ private void generateM4Symbol(EccMode ecc_mode) {
 
         /* Copy data into codewords */
         for (i = 0; i < data_codewords; i++) {
-            data_blocks[i] = 0;
-            if (binary.charAt(i * 8) == '1') {
-                data_blocks[i] += 0x80;
-            }
-            if (binary.charAt((i * 8) + 1) == '1') {
-                data_blocks[i] += 0x40;
-            }
-            if (binary.charAt((i * 8) + 2) == '1') {
-                data_blocks[i] += 0x20;
-            }
-            if (binary.charAt((i * 8) + 3) == '1') {
-                data_blocks[i] += 0x10;
-            }
-            if (binary.charAt((i * 8) + 4) == '1') {
-                data_blocks[i] += 0x08;
-            }
-            if (binary.charAt((i * 8) + 5) == '1') {
-                data_blocks[i] += 0x04;
-            }
-            if (binary.charAt((i * 8) + 6) == '1') {
-                data_blocks[i] += 0x02;
-            }
-            if (binary.charAt((i * 8) + 7) == '1') {
-                data_blocks[i] += 0x01;
-            }
+            data_blocks[i] = binary.get(i * 8, 8);
         }
 
         info("Codewords: ");
@@ -1320,7 +1162,7 @@ private void generateM4Symbol(EccMode ecc_mode) {
 
         /* Add Reed-Solomon codewords to binary data */
         for (i = 0; i < ecc_codewords; i++) {
-            binary.append(toBinary(ecc_blocks[ecc_codewords - i - 1], 0x80));
+            binary.append(ecc_blocks[ecc_codewords - i - 1], 8);
         }
     }
 
@@ -1396,21 +1238,13 @@ private void populateBitGrid(int size) {
             x = (size - 2) - (row * 2);
 
             if ((grid[(y * size) + (x + 1)] & 0xf0) == 0) {
-                if (binary.charAt(i) == '1') {
-                    grid[(y * size) + (x + 1)] = 0x01;
-                } else {
-                    grid[(y * size) + (x + 1)] = 0x00;
-                }
+                grid[(y * size) + (x + 1)] = binary.get(i) ? 0x01 : 0x00;
                 i++;
             }
 
             if (i < n) {
                 if ((grid[(y * size) + x] & 0xf0) == 0) {
-                    if (binary.charAt(i) == '1') {
-                        grid[(y * size) + x] = 0x01;
-                    } else {
-                        grid[(y * size) + x] = 0x00;
-                    }
+                    grid[(y * size) + x] = binary.get(i) ? 0x01 : 0x00;
                     i++;
                 }
             }
@@ -1436,142 +1270,65 @@ private void populateBitGrid(int size) {
     }
 
     private int applyBitmask(int size) {
-        int x, y;
-        int p;
-        int local_pattern;
-        int[] value = new int[8];
-        int best_val, best_pattern;
-        int bit;
 
+        /* Perform data masking: bit N of each mask value indicates whether or not mask pattern N inverts the module */
         int[] mask = new int[size * size];
-        eval = new int[size * size];
-
-        /* Perform data masking */
-        for (x = 0; x < size; x++) {
-            for (y = 0; y < size; y++) {
-                mask[(y * size) + x] = 0x00;
-
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
                 if ((grid[(y * size) + x] & 0xf0) == 0) {
+                    int m = 0;
                     if ((y & 1) == 0) {
-                        mask[(y * size) + x] += 0x01;
+                        m |= 0x01;
                     }
-
                     if ((((y / 2) + (x / 3)) & 1) == 0) {
-                        mask[(y * size) + x] += 0x02;
+                        m |= 0x02;
                     }
-
                     if (((((y * x) & 1) + ((y * x) % 3)) & 1) == 0) {
-                        mask[(y * size) + x] += 0x04;
+                        m |= 0x04;
                     }
-
                     if (((((y + x) & 1) + ((y * x) % 3)) & 1) == 0) {
-                        mask[(y * size) + x] += 0x08;
+                        m |= 0x08;
                     }
+                    mask[(y * size) + x] = m;
                 }
             }
         }
 
-
-        for (x = 0; x < size; x++) {
-            for (y = 0; y < size; y++) {
-                if ((grid[(y * size) + x] & 0x01) != 0) {
-                    p = 0xff;
-                } else {
-                    p = 0x00;
-                }
-
-                eval[(y * size) + x] = mask[(y * size) + x] ^ p;
-            }
-        }
-
         /* Evaluate result */
-        for (local_pattern = 0; local_pattern < 4; local_pattern++) {
-            value[local_pattern] = evaluateBitmask(size, local_pattern);
-        }
-
-        best_pattern = 0;
-        best_val = value[0];
-        for (local_pattern = 1; local_pattern < 4; local_pattern++) {
-            if (value[local_pattern] > best_val) {
-                best_pattern = local_pattern;
-                best_val = value[local_pattern];
+        int bestPattern = 0;
+        int bestValue = evaluateBitmask(size, mask, 0);
+        for (int pattern = 1; pattern < 4; pattern++) {
+            int value = evaluateBitmask(size, mask, pattern);
+            if (value > bestValue) {
+                bestPattern = pattern;
+                bestValue = value;
             }
         }
 
         /* Apply mask */
-        for (x = 0; x < size; x++) {
-            for (y = 0; y < size; y++) {
-                bit = 0;
-                switch (best_pattern) {
-                case 0:
-                    if ((mask[(y * size) + x] & 0x01) != 0) {
-                        bit = 1;
-                    }
-                    break;
-                case 1:
-                    if ((mask[(y * size) + x] & 0x02) != 0) {
-                        bit = 1;
-                    }
-                    break;
-                case 2:
-                    if ((mask[(y * size) + x] & 0x04) != 0) {
-                        bit = 1;
-                    }
-                    break;
-                case 3:
-                    if ((mask[(y * size) + x] & 0x08) != 0) {
-                        bit = 1;
-                    }
-                    break;
-                }
-                if (bit == 1) {
-                    if ((grid[(y * size) + x] & 0x01) != 0) {
-                        grid[(y * size) + x] = 0x00;
-                    } else {
-                        grid[(y * size) + x] = 0x01;
-                    }
-                }
-            }
+        for (int i = 0; i < mask.length; i++) {
+            grid[i] ^= (mask[i] >> bestPattern) & 1;
         }
 
-        return best_pattern;
+        return bestPattern;
     }
 
-    private int evaluateBitmask(int size, int pattern) {
-        int sum1, sum2, i, filter = 0, retval;
-
-        switch (pattern) {
-        case 0:
-            filter = 0x01;
-            break;
-        case 1:
-            filter = 0x02;
-            break;
-        case 2:
-            filter = 0x04;
-            break;
-        case 3:
-            filter = 0x08;
-            break;
-        }
+    /** Only the right column and the bottom row are evaluated, so there is no need to mask the whole symbol up front. */
+    private int evaluateBitmask(int size, int[] mask, int pattern) {
 
-        sum1 = 0;
-        sum2 = 0;
-        for (i = 1; i < size; i++) {
-            if ((eval[(i * size) + size - 1] & filter) != 0) {
-                sum1++;
-            }
-            if ((eval[((size - 1) * size) + i] & filter) != 0) {
-                sum2++;
-            }
+        int sum1 = 0;
+        int sum2 = 0;
+        for (int i = 1; i < size; i++) {
+            int right = (i * size) + size - 1;
+            int bottom = ((size - 1) * size) + i;
+            sum1 += (grid[right] ^ (mask[right] >> pattern)) & 1;
+            sum2 += (grid[bottom] ^ (mask[bottom] >> pattern)) & 1;
         }
 
         if (sum1 <= sum2) {
-            retval = (sum1 * 16) + sum2;
+            return (sum1 * 16) + sum2;
         } else {
-            retval = (sum2 * 16) + sum1;
+            return (sum2 * 16) + sum1;
         }
-
-        return retval;
     }
 }
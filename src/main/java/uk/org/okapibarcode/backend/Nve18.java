@@ -73,7 +73,7 @@ protected void encode() {
         code128.setContent(content);
 
         readable = code128.readable;
-        pattern = new String[] { code128.pattern[0] };
+        widths = new byte[][] { code128.widths[0] };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
 
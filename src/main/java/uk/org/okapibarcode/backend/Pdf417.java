@@ -17,16 +17,24 @@
 package uk.org.okapibarcode.backend;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
-import static uk.org.okapibarcode.util.Arrays.positionOf;
 
-import java.math.BigInteger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
 
 import uk.org.okapibarcode.util.EciMode;
+import uk.org.okapibarcode.util.LargeIntegers;
 
 /**
  * <p>Implements PDF417 bar code symbology and MicroPDF417 bar code symbology
@@ -60,6 +68,7 @@ private enum EncodingMode {
     private int codeWordCount;
     private Mode symbolMode;
     private boolean forceByteCompaction;
+    private boolean optimalEncoding;
     private Integer columns;
     private Integer rows;
     private int preferredEccLevel = -1;
@@ -71,321 +80,7 @@ private enum EncodingMode {
 
     private static final int MAX_NUMERIC_COMPACTION_BLOCK_SIZE = 44;
 
-    private static final int[] COEFRS = {
-        /* k = 2 */
-        27, 917,
-
-        /* k = 4 */
-        522, 568, 723, 809,
-
-        /* k = 8 */
-        237, 308, 436, 284, 646, 653, 428, 379,
-
-        /* k = 16 */
-        274, 562, 232, 755, 599, 524, 801, 132, 295, 116, 442, 428, 295, 42, 176, 65,
-
-        /* k = 32 */
-        361, 575, 922, 525, 176, 586, 640, 321, 536, 742, 677, 742, 687, 284, 193, 517,
-        273, 494, 263, 147, 593, 800, 571, 320, 803, 133, 231, 390, 685, 330, 63, 410,
-
-        /* k = 64 */
-        539, 422, 6, 93, 862, 771, 453, 106, 610, 287, 107, 505, 733, 877, 381, 612,
-        723, 476, 462, 172, 430, 609, 858, 822, 543, 376, 511, 400, 672, 762, 283, 184,
-        440, 35, 519, 31, 460, 594, 225, 535, 517, 352, 605, 158, 651, 201, 488, 502,
-        648, 733, 717, 83, 404, 97, 280, 771, 840, 629, 4, 381, 843, 623, 264, 543,
-
-        /* k = 128 */
-        521, 310, 864, 547, 858, 580, 296, 379, 53, 779, 897, 444, 400, 925, 749, 415,
-        822, 93, 217, 208, 928, 244, 583, 620, 246, 148, 447, 631, 292, 908, 490, 704,
-        516, 258, 457, 907, 594, 723, 674, 292, 272, 96, 684, 432, 686, 606, 860, 569,
-        193, 219, 129, 186, 236, 287, 192, 775, 278, 173, 40, 379, 712, 463, 646, 776,
-        171, 491, 297, 763, 156, 732, 95, 270, 447, 90, 507, 48, 228, 821, 808, 898,
-        784, 663, 627, 378, 382, 262, 380, 602, 754, 336, 89, 614, 87, 432, 670, 616,
-        157, 374, 242, 726, 600, 269, 375, 898, 845, 454, 354, 130, 814, 587, 804, 34,
-        211, 330, 539, 297, 827, 865, 37, 517, 834, 315, 550, 86, 801, 4, 108, 539,
-
-        /* k = 256 */
-        524, 894, 75, 766, 882, 857, 74, 204, 82, 586, 708, 250, 905, 786, 138, 720,
-        858, 194, 311, 913, 275, 190, 375, 850, 438, 733, 194, 280, 201, 280, 828, 757,
-        710, 814, 919, 89, 68, 569, 11, 204, 796, 605, 540, 913, 801, 700, 799, 137,
-        439, 418, 592, 668, 353, 859, 370, 694, 325, 240, 216, 257, 284, 549, 209, 884,
-        315, 70, 329, 793, 490, 274, 877, 162, 749, 812, 684, 461, 334, 376, 849, 521,
-        307, 291, 803, 712, 19, 358, 399, 908, 103, 511, 51, 8, 517, 225, 289, 470,
-        637, 731, 66, 255, 917, 269, 463, 830, 730, 433, 848, 585, 136, 538, 906, 90,
-        2, 290, 743, 199, 655, 903, 329, 49, 802, 580, 355, 588, 188, 462, 10, 134,
-        628, 320, 479, 130, 739, 71, 263, 318, 374, 601, 192, 605, 142, 673, 687, 234,
-        722, 384, 177, 752, 607, 640, 455, 193, 689, 707, 805, 641, 48, 60, 732, 621,
-        895, 544, 261, 852, 655, 309, 697, 755, 756, 60, 231, 773, 434, 421, 726, 528,
-        503, 118, 49, 795, 32, 144, 500, 238, 836, 394, 280, 566, 319, 9, 647, 550,
-        73, 914, 342, 126, 32, 681, 331, 792, 620, 60, 609, 441, 180, 791, 893, 754,
-        605, 383, 228, 749, 760, 213, 54, 297, 134, 54, 834, 299, 922, 191, 910, 532,
-        609, 829, 189, 20, 167, 29, 872, 449, 83, 402, 41, 656, 505, 579, 481, 173,
-        404, 251, 688, 95, 497, 555, 642, 543, 307, 159, 924, 558, 648, 55, 497, 10,
-
-        /* k = 512 */
-        352, 77, 373, 504, 35, 599, 428, 207, 409, 574, 118, 498, 285, 380, 350, 492,
-        197, 265, 920, 155, 914, 299, 229, 643, 294, 871, 306, 88, 87, 193, 352, 781,
-        846, 75, 327, 520, 435, 543, 203, 666, 249, 346, 781, 621, 640, 268, 794, 534,
-        539, 781, 408, 390, 644, 102, 476, 499, 290, 632, 545, 37, 858, 916, 552, 41,
-        542, 289, 122, 272, 383, 800, 485, 98, 752, 472, 761, 107, 784, 860, 658, 741,
-        290, 204, 681, 407, 855, 85, 99, 62, 482, 180, 20, 297, 451, 593, 913, 142,
-        808, 684, 287, 536, 561, 76, 653, 899, 729, 567, 744, 390, 513, 192, 516, 258,
-        240, 518, 794, 395, 768, 848, 51, 610, 384, 168, 190, 826, 328, 596, 786, 303,
-        570, 381, 415, 641, 156, 237, 151, 429, 531, 207, 676, 710, 89, 168, 304, 402,
-        40, 708, 575, 162, 864, 229, 65, 861, 841, 512, 164, 477, 221, 92, 358, 785,
-        288, 357, 850, 836, 827, 736, 707, 94, 8, 494, 114, 521, 2, 499, 851, 543,
-        152, 729, 771, 95, 248, 361, 578, 323, 856, 797, 289, 51, 684, 466, 533, 820,
-        669, 45, 902, 452, 167, 342, 244, 173, 35, 463, 651, 51, 699, 591, 452, 578,
-        37, 124, 298, 332, 552, 43, 427, 119, 662, 777, 475, 850, 764, 364, 578, 911,
-        283, 711, 472, 420, 245, 288, 594, 394, 511, 327, 589, 777, 699, 688, 43, 408,
-        842, 383, 721, 521, 560, 644, 714, 559, 62, 145, 873, 663, 713, 159, 672, 729,
-        624, 59, 193, 417, 158, 209, 563, 564, 343, 693, 109, 608, 563, 365, 181, 772,
-        677, 310, 248, 353, 708, 410, 579, 870, 617, 841, 632, 860, 289, 536, 35, 777,
-        618, 586, 424, 833, 77, 597, 346, 269, 757, 632, 695, 751, 331, 247, 184, 45,
-        787, 680, 18, 66, 407, 369, 54, 492, 228, 613, 830, 922, 437, 519, 644, 905,
-        789, 420, 305, 441, 207, 300, 892, 827, 141, 537, 381, 662, 513, 56, 252, 341,
-        242, 797, 838, 837, 720, 224, 307, 631, 61, 87, 560, 310, 756, 665, 397, 808,
-        851, 309, 473, 795, 378, 31, 647, 915, 459, 806, 590, 731, 425, 216, 548, 249,
-        321, 881, 699, 535, 673, 782, 210, 815, 905, 303, 843, 922, 281, 73, 469, 791,
-        660, 162, 498, 308, 155, 422, 907, 817, 187, 62, 16, 425, 535, 336, 286, 437,
-        375, 273, 610, 296, 183, 923, 116, 667, 751, 353, 62, 366, 691, 379, 687, 842,
-        37, 357, 720, 742, 330, 5, 39, 923, 311, 424, 242, 749, 321, 54, 669, 316,
-        342, 299, 534, 105, 667, 488, 640, 672, 576, 540, 316, 486, 721, 610, 46, 656,
-        447, 171, 616, 464, 190, 531, 297, 321, 762, 752, 533, 175, 134, 14, 381, 433,
-        717, 45, 111, 20, 596, 284, 736, 138, 646, 411, 877, 669, 141, 919, 45, 780,
-        407, 164, 332, 899, 165, 726, 600, 325, 498, 655, 357, 752, 768, 223, 849, 647,
-        63, 310, 863, 251, 366, 304, 282, 738, 675, 410, 389, 244, 31, 121, 303, 263
-    };
-
-    private static final String[] CODAGEMC = {
-        "urA", "xfs", "ypy", "unk", "xdw", "yoz", "pDA", "uls", "pBk", "eBA",
-        "pAs", "eAk", "prA", "uvs", "xhy", "pnk", "utw", "xgz", "fDA", "pls", "fBk", "frA", "pvs",
-        "uxy", "fnk", "ptw", "uwz", "fls", "psy", "fvs", "pxy", "ftw", "pwz", "fxy", "yrx", "ufk",
-        "xFw", "ymz", "onA", "uds", "xEy", "olk", "ucw", "dBA", "oks", "uci", "dAk", "okg", "dAc",
-        "ovk", "uhw", "xaz", "dnA", "ots", "ugy", "dlk", "osw", "ugj", "dks", "osi", "dvk", "oxw",
-        "uiz", "dts", "owy", "dsw", "owj", "dxw", "oyz", "dwy", "dwj", "ofA", "uFs", "xCy", "odk",
-        "uEw", "xCj", "clA", "ocs", "uEi", "ckk", "ocg", "ckc", "ckE", "cvA", "ohs", "uay", "ctk",
-        "ogw", "uaj", "css", "ogi", "csg", "csa", "cxs", "oiy", "cww", "oij", "cwi", "cyy", "oFk",
-        "uCw", "xBj", "cdA", "oEs", "uCi", "cck", "oEg", "uCb", "ccc", "oEa", "ccE", "oED", "chk",
-        "oaw", "uDj", "cgs", "oai", "cgg", "oab", "cga", "cgD", "obj", "cib", "cFA", "oCs", "uBi",
-        "cEk", "oCg", "uBb", "cEc", "oCa", "cEE", "oCD", "cEC", "cas", "cag", "caa", "cCk", "uAr",
-        "oBa", "oBD", "cCB", "tfk", "wpw", "yez", "mnA", "tds", "woy", "mlk", "tcw", "woj", "FBA",
-        "mks", "FAk", "mvk", "thw", "wqz", "FnA", "mts", "tgy", "Flk", "msw", "Fks", "Fkg", "Fvk",
-        "mxw", "tiz", "Fts", "mwy", "Fsw", "Fsi", "Fxw", "myz", "Fwy", "Fyz", "vfA", "xps", "yuy",
-        "vdk", "xow", "yuj", "qlA", "vcs", "xoi", "qkk", "vcg", "xob", "qkc", "vca", "mfA", "tFs",
-        "wmy", "qvA", "mdk", "tEw", "wmj", "qtk", "vgw", "xqj", "hlA", "Ekk", "mcg", "tEb", "hkk",
-        "qsg", "hkc", "EvA", "mhs", "tay", "hvA", "Etk", "mgw", "taj", "htk", "qww", "vij", "hss",
-        "Esg", "hsg", "Exs", "miy", "hxs", "Eww", "mij", "hww", "qyj", "hwi", "Eyy", "hyy", "Eyj",
-        "hyj", "vFk", "xmw", "ytj", "qdA", "vEs", "xmi", "qck", "vEg", "xmb", "qcc", "vEa", "qcE",
-        "qcC", "mFk", "tCw", "wlj", "qhk", "mEs", "tCi", "gtA", "Eck", "vai", "tCb", "gsk", "Ecc",
-        "mEa", "gsc", "qga", "mED", "EcC", "Ehk", "maw", "tDj", "gxk", "Egs", "mai", "gws", "qii",
-        "mab", "gwg", "Ega", "EgD", "Eiw", "mbj", "gyw", "Eii", "gyi", "Eib", "gyb", "gzj", "qFA",
-        "vCs", "xli", "qEk", "vCg", "xlb", "qEc", "vCa", "qEE", "vCD", "qEC", "qEB", "EFA", "mCs",
-        "tBi", "ghA", "EEk", "mCg", "tBb", "ggk", "qag", "vDb", "ggc", "EEE", "mCD", "ggE", "qaD",
-        "ggC", "Eas", "mDi", "gis", "Eag", "mDb", "gig", "qbb", "gia", "EaD", "giD", "gji", "gjb",
-        "qCk", "vBg", "xkr", "qCc", "vBa", "qCE", "vBD", "qCC", "qCB", "ECk", "mBg", "tAr", "gak",
-        "ECc", "mBa", "gac", "qDa", "mBD", "gaE", "ECC", "gaC", "ECB", "EDg", "gbg", "gba", "gbD",
-        "vAq", "vAn", "qBB", "mAq", "EBE", "gDE", "gDC", "gDB", "lfA", "sps", "wey", "ldk", "sow",
-        "ClA", "lcs", "soi", "Ckk", "lcg", "Ckc", "CkE", "CvA", "lhs", "sqy", "Ctk", "lgw", "sqj",
-        "Css", "lgi", "Csg", "Csa", "Cxs", "liy", "Cww", "lij", "Cwi", "Cyy", "Cyj", "tpk", "wuw",
-        "yhj", "ndA", "tos", "wui", "nck", "tog", "wub", "ncc", "toa", "ncE", "toD", "lFk", "smw",
-        "wdj", "nhk", "lEs", "smi", "atA", "Cck", "tqi", "smb", "ask", "ngg", "lEa", "asc", "CcE",
-        "asE", "Chk", "law", "snj", "axk", "Cgs", "trj", "aws", "nii", "lab", "awg", "Cga", "awa",
-        "Ciw", "lbj", "ayw", "Cii", "ayi", "Cib", "Cjj", "azj", "vpA", "xus", "yxi", "vok", "xug",
-        "yxb", "voc", "xua", "voE", "xuD", "voC", "nFA", "tms", "wti", "rhA", "nEk", "xvi", "wtb",
-        "rgk", "vqg", "xvb", "rgc", "nEE", "tmD", "rgE", "vqD", "nEB", "CFA", "lCs", "sli", "ahA",
-        "CEk", "lCg", "slb", "ixA", "agk", "nag", "tnb", "iwk", "rig", "vrb", "lCD", "iwc", "agE",
-        "naD", "iwE", "CEB", "Cas", "lDi", "ais", "Cag", "lDb", "iys", "aig", "nbb", "iyg", "rjb",
-        "CaD", "aiD", "Cbi", "aji", "Cbb", "izi", "ajb", "vmk", "xtg", "ywr", "vmc", "xta", "vmE",
-        "xtD", "vmC", "vmB", "nCk", "tlg", "wsr", "rak", "nCc", "xtr", "rac", "vna", "tlD", "raE",
-        "nCC", "raC", "nCB", "raB", "CCk", "lBg", "skr", "aak", "CCc", "lBa", "iik", "aac", "nDa",
-        "lBD", "iic", "rba", "CCC", "iiE", "aaC", "CCB", "aaB", "CDg", "lBr", "abg", "CDa", "ijg",
-        "aba", "CDD", "ija", "abD", "CDr", "ijr", "vlc", "xsq", "vlE", "xsn", "vlC", "vlB", "nBc",
-        "tkq", "rDc", "nBE", "tkn", "rDE", "vln", "rDC", "nBB", "rDB", "CBc", "lAq", "aDc", "CBE",
-        "lAn", "ibc", "aDE", "nBn", "ibE", "rDn", "CBB", "ibC", "aDB", "ibB", "aDq", "ibq", "ibn",
-        "xsf", "vkl", "tkf", "nAm", "nAl", "CAo", "aBo", "iDo", "CAl", "aBl", "kpk", "BdA", "kos",
-        "Bck", "kog", "seb", "Bcc", "koa", "BcE", "koD", "Bhk", "kqw", "sfj", "Bgs", "kqi", "Bgg",
-        "kqb", "Bga", "BgD", "Biw", "krj", "Bii", "Bib", "Bjj", "lpA", "sus", "whi", "lok", "sug",
-        "loc", "sua", "loE", "suD", "loC", "BFA", "kms", "sdi", "DhA", "BEk", "svi", "sdb", "Dgk",
-        "lqg", "svb", "Dgc", "BEE", "kmD", "DgE", "lqD", "BEB", "Bas", "kni", "Dis", "Bag", "knb",
-        "Dig", "lrb", "Dia", "BaD", "Bbi", "Dji", "Bbb", "Djb", "tuk", "wxg", "yir", "tuc", "wxa",
-        "tuE", "wxD", "tuC", "tuB", "lmk", "stg", "nqk", "lmc", "sta", "nqc", "tva", "stD", "nqE",
-        "lmC", "nqC", "lmB", "nqB", "BCk", "klg", "Dak", "BCc", "str", "bik", "Dac", "lna", "klD",
-        "bic", "nra", "BCC", "biE", "DaC", "BCB", "DaB", "BDg", "klr", "Dbg", "BDa", "bjg", "Dba",
-        "BDD", "bja", "DbD", "BDr", "Dbr", "bjr", "xxc", "yyq", "xxE", "yyn", "xxC", "xxB", "ttc",
-        "wwq", "vvc", "xxq", "wwn", "vvE", "xxn", "vvC", "ttB", "vvB", "llc", "ssq", "nnc", "llE",
-        "ssn", "rrc", "nnE", "ttn", "rrE", "vvn", "llB", "rrC", "nnB", "rrB", "BBc", "kkq", "DDc",
-        "BBE", "kkn", "bbc", "DDE", "lln", "jjc", "bbE", "nnn", "BBB", "jjE", "rrn", "DDB", "jjC",
-        "BBq", "DDq", "BBn", "bbq", "DDn", "jjq", "bbn", "jjn", "xwo", "yyf", "xwm", "xwl", "tso",
-        "wwf", "vto", "xwv", "vtm", "tsl", "vtl", "lko", "ssf", "nlo", "lkm", "rno", "nlm", "lkl",
-        "rnm", "nll", "rnl", "BAo", "kkf", "DBo", "lkv", "bDo", "DBm", "BAl", "jbo", "bDm", "DBl",
-        "jbm", "bDl", "jbl", "DBv", "jbv", "xwd", "vsu", "vst", "nku", "rlu", "rlt", "DAu", "bBu",
-        "jDu", "jDt", "ApA", "Aok", "keg", "Aoc", "AoE", "AoC", "Aqs", "Aqg", "Aqa", "AqD", "Ari",
-        "Arb", "kuk", "kuc", "sha", "kuE", "shD", "kuC", "kuB", "Amk", "kdg", "Bqk", "kvg", "kda",
-        "Bqc", "kva", "BqE", "kvD", "BqC", "AmB", "BqB", "Ang", "kdr", "Brg", "kvr", "Bra", "AnD",
-        "BrD", "Anr", "Brr", "sxc", "sxE", "sxC", "sxB", "ktc", "lvc", "sxq", "sgn", "lvE", "sxn",
-        "lvC", "ktB", "lvB", "Alc", "Bnc", "AlE", "kcn", "Drc", "BnE", "AlC", "DrE", "BnC", "AlB",
-        "DrC", "BnB", "Alq", "Bnq", "Aln", "Drq", "Bnn", "Drn", "wyo", "wym", "wyl", "swo", "txo",
-        "wyv", "txm", "swl", "txl", "kso", "sgf", "lto", "swv", "nvo", "ltm", "ksl", "nvm", "ltl",
-        "nvl", "Ako", "kcf", "Blo", "ksv", "Dno", "Blm", "Akl", "bro", "Dnm", "Bll", "brm", "Dnl",
-        "Akv", "Blv", "Dnv", "brv", "yze", "yzd", "wye", "xyu", "wyd", "xyt", "swe", "twu", "swd",
-        "vxu", "twt", "vxt", "kse", "lsu", "ksd", "ntu", "lst", "rvu", "ypk", "zew", "xdA", "yos",
-        "zei", "xck", "yog", "zeb", "xcc", "yoa", "xcE", "yoD", "xcC", "xhk", "yqw", "zfj", "utA",
-        "xgs", "yqi", "usk", "xgg", "yqb", "usc", "xga", "usE", "xgD", "usC", "uxk", "xiw", "yrj",
-        "ptA", "uws", "xii", "psk", "uwg", "xib", "psc", "uwa", "psE", "uwD", "psC", "pxk", "uyw",
-        "xjj", "ftA", "pws", "uyi", "fsk", "pwg", "uyb", "fsc", "pwa", "fsE", "pwD", "fxk", "pyw",
-        "uzj", "fws", "pyi", "fwg", "pyb", "fwa", "fyw", "pzj", "fyi", "fyb", "xFA", "yms", "zdi",
-        "xEk", "ymg", "zdb", "xEc", "yma", "xEE", "ymD", "xEC", "xEB", "uhA", "xas", "yni", "ugk",
-        "xag", "ynb", "ugc", "xaa", "ugE", "xaD", "ugC", "ugB", "oxA", "uis", "xbi", "owk", "uig",
-        "xbb", "owc", "uia", "owE", "uiD", "owC", "owB", "dxA", "oys", "uji", "dwk", "oyg", "ujb",
-        "dwc", "oya", "dwE", "oyD", "dwC", "dys", "ozi", "dyg", "ozb", "dya", "dyD", "dzi", "dzb",
-        "xCk", "ylg", "zcr", "xCc", "yla", "xCE", "ylD", "xCC", "xCB", "uak", "xDg", "ylr", "uac",
-        "xDa", "uaE", "xDD", "uaC", "uaB", "oik", "ubg", "xDr", "oic", "uba", "oiE", "ubD", "oiC",
-        "oiB", "cyk", "ojg", "ubr", "cyc", "oja", "cyE", "ojD", "cyC", "cyB", "czg", "ojr", "cza",
-        "czD", "czr", "xBc", "ykq", "xBE", "ykn", "xBC", "xBB", "uDc", "xBq", "uDE", "xBn", "uDC",
-        "uDB", "obc", "uDq", "obE", "uDn", "obC", "obB", "cjc", "obq", "cjE", "obn", "cjC", "cjB",
-        "cjq", "cjn", "xAo", "ykf", "xAm", "xAl", "uBo", "xAv", "uBm", "uBl", "oDo", "uBv", "oDm",
-        "oDl", "cbo", "oDv", "cbm", "cbl", "xAe", "xAd", "uAu", "uAt", "oBu", "oBt", "wpA", "yes",
-        "zFi", "wok", "yeg", "zFb", "woc", "yea", "woE", "yeD", "woC", "woB", "thA", "wqs", "yfi",
-        "tgk", "wqg", "yfb", "tgc", "wqa", "tgE", "wqD", "tgC", "tgB", "mxA", "tis", "wri", "mwk",
-        "tig", "wrb", "mwc", "tia", "mwE", "tiD", "mwC", "mwB", "FxA", "mys", "tji", "Fwk", "myg",
-        "tjb", "Fwc", "mya", "FwE", "myD", "FwC", "Fys", "mzi", "Fyg", "mzb", "Fya", "FyD", "Fzi",
-        "Fzb", "yuk", "zhg", "hjs", "yuc", "zha", "hbw", "yuE", "zhD", "hDy", "yuC", "yuB", "wmk",
-        "ydg", "zEr", "xqk", "wmc", "zhr", "xqc", "yva", "ydD", "xqE", "wmC", "xqC", "wmB", "xqB",
-        "tak", "wng", "ydr", "vik", "tac", "wna", "vic", "xra", "wnD", "viE", "taC", "viC", "taB",
-        "viB", "mik", "tbg", "wnr", "qyk", "mic", "tba", "qyc", "vja", "tbD", "qyE", "miC", "qyC",
-        "miB", "qyB", "Eyk", "mjg", "tbr", "hyk", "Eyc", "mja", "hyc", "qza", "mjD", "hyE", "EyC",
-        "hyC", "EyB", "Ezg", "mjr", "hzg", "Eza", "hza", "EzD", "hzD", "Ezr", "ytc", "zgq", "grw",
-        "ytE", "zgn", "gny", "ytC", "glz", "ytB", "wlc", "ycq", "xnc", "wlE", "ycn", "xnE", "ytn",
-        "xnC", "wlB", "xnB", "tDc", "wlq", "vbc", "tDE", "wln", "vbE", "xnn", "vbC", "tDB", "vbB",
-        "mbc", "tDq", "qjc", "mbE", "tDn", "qjE", "vbn", "qjC", "mbB", "qjB", "Ejc", "mbq", "gzc",
-        "EjE", "mbn", "gzE", "qjn", "gzC", "EjB", "gzB", "Ejq", "gzq", "Ejn", "gzn", "yso", "zgf",
-        "gfy", "ysm", "gdz", "ysl", "wko", "ycf", "xlo", "ysv", "xlm", "wkl", "xll", "tBo", "wkv",
-        "vDo", "tBm", "vDm", "tBl", "vDl", "mDo", "tBv", "qbo", "vDv", "qbm", "mDl", "qbl", "Ebo",
-        "mDv", "gjo", "Ebm", "gjm", "Ebl", "gjl", "Ebv", "gjv", "yse", "gFz", "ysd", "wke", "xku",
-        "wkd", "xkt", "tAu", "vBu", "tAt", "vBt", "mBu", "qDu", "mBt", "qDt", "EDu", "gbu", "EDt",
-        "gbt", "ysF", "wkF", "xkh", "tAh", "vAx", "mAx", "qBx", "wek", "yFg", "zCr", "wec", "yFa",
-        "weE", "yFD", "weC", "weB", "sqk", "wfg", "yFr", "sqc", "wfa", "sqE", "wfD", "sqC", "sqB",
-        "lik", "srg", "wfr", "lic", "sra", "liE", "srD", "liC", "liB", "Cyk", "ljg", "srr", "Cyc",
-        "lja", "CyE", "ljD", "CyC", "CyB", "Czg", "ljr", "Cza", "CzD", "Czr", "yhc", "zaq", "arw",
-        "yhE", "zan", "any", "yhC", "alz", "yhB", "wdc", "yEq", "wvc", "wdE", "yEn", "wvE", "yhn",
-        "wvC", "wdB", "wvB", "snc", "wdq", "trc", "snE", "wdn", "trE", "wvn", "trC", "snB", "trB",
-        "lbc", "snq", "njc", "lbE", "snn", "njE", "trn", "njC", "lbB", "njB", "Cjc", "lbq", "azc",
-        "CjE", "lbn", "azE", "njn", "azC", "CjB", "azB", "Cjq", "azq", "Cjn", "azn", "zio", "irs",
-        "rfy", "zim", "inw", "rdz", "zil", "ily", "ikz", "ygo", "zaf", "afy", "yxo", "ziv", "ivy",
-        "adz", "yxm", "ygl", "itz", "yxl", "wco", "yEf", "wto", "wcm", "xvo", "yxv", "wcl", "xvm",
-        "wtl", "xvl", "slo", "wcv", "tno", "slm", "vro", "tnm", "sll", "vrm", "tnl", "vrl", "lDo",
-        "slv", "nbo", "lDm", "rjo", "nbm", "lDl", "rjm", "nbl", "rjl", "Cbo", "lDv", "ajo", "Cbm",
-        "izo", "ajm", "Cbl", "izm", "ajl", "izl", "Cbv", "ajv", "zie", "ifw", "rFz", "zid", "idy",
-        "icz", "yge", "aFz", "ywu", "ygd", "ihz", "ywt", "wce", "wsu", "wcd", "xtu", "wst", "xtt",
-        "sku", "tlu", "skt", "vnu", "tlt", "vnt", "lBu", "nDu", "lBt", "rbu", "nDt", "rbt", "CDu",
-        "abu", "CDt", "iju", "abt", "ijt", "ziF", "iFy", "iEz", "ygF", "ywh", "wcF", "wsh", "xsx",
-        "skh", "tkx", "vlx", "lAx", "nBx", "rDx", "CBx", "aDx", "ibx", "iCz", "wFc", "yCq", "wFE",
-        "yCn", "wFC", "wFB", "sfc", "wFq", "sfE", "wFn", "sfC", "sfB", "krc", "sfq", "krE", "sfn",
-        "krC", "krB", "Bjc", "krq", "BjE", "krn", "BjC", "BjB", "Bjq", "Bjn", "yao", "zDf", "Dfy",
-        "yam", "Ddz", "yal", "wEo", "yCf", "who", "wEm", "whm", "wEl", "whl", "sdo", "wEv", "svo",
-        "sdm", "svm", "sdl", "svl", "kno", "sdv", "lro", "knm", "lrm", "knl", "lrl", "Bbo", "knv",
-        "Djo", "Bbm", "Djm", "Bbl", "Djl", "Bbv", "Djv", "zbe", "bfw", "npz", "zbd", "bdy", "bcz",
-        "yae", "DFz", "yiu", "yad", "bhz", "yit", "wEe", "wgu", "wEd", "wxu", "wgt", "wxt", "scu",
-        "stu", "sct", "tvu", "stt", "tvt", "klu", "lnu", "klt", "nru", "lnt", "nrt", "BDu", "Dbu",
-        "BDt", "bju", "Dbt", "bjt", "jfs", "rpy", "jdw", "roz", "jcy", "jcj", "zbF", "bFy", "zjh",
-        "jhy", "bEz", "jgz", "yaF", "yih", "yyx", "wEF", "wgh", "wwx", "xxx", "sch", "ssx", "ttx",
-        "vvx", "kkx", "llx", "nnx", "rrx", "BBx", "DDx", "bbx", "jFw", "rmz", "jEy", "jEj", "bCz",
-        "jaz", "jCy", "jCj", "jBj", "wCo", "wCm", "wCl", "sFo", "wCv", "sFm", "sFl", "kfo", "sFv",
-        "kfm", "kfl", "Aro", "kfv", "Arm", "Arl", "Arv", "yDe", "Bpz", "yDd", "wCe", "wau", "wCd",
-        "wat", "sEu", "shu", "sEt", "sht", "kdu", "kvu", "kdt", "kvt", "Anu", "Bru", "Ant", "Brt",
-        "zDp", "Dpy", "Doz", "yDF", "ybh", "wCF", "wah", "wix", "sEh", "sgx", "sxx", "kcx", "ktx",
-        "lvx", "Alx", "Bnx", "Drx", "bpw", "nuz", "boy", "boj", "Dmz", "bqz", "jps", "ruy", "jow",
-        "ruj", "joi", "job", "bmy", "jqy", "bmj", "jqj", "jmw", "rtj", "jmi", "jmb", "blj", "jnj",
-        "jli", "jlb", "jkr", "sCu", "sCt", "kFu", "kFt", "Afu", "Aft", "wDh", "sCh", "sax", "kEx",
-        "khx", "Adx", "Avx", "Buz", "Duy", "Duj", "buw", "nxj", "bui", "bub", "Dtj", "bvj", "jus",
-        "rxi", "jug", "rxb", "jua", "juD", "bti", "jvi", "btb", "jvb", "jtg", "rwr", "jta", "jtD",
-        "bsr", "jtr", "jsq", "jsn", "Bxj", "Dxi", "Dxb", "bxg", "nyr", "bxa", "bxD", "Dwr", "bxr",
-        "bwq", "bwn", "pjk", "urw", "ejA", "pbs", "uny", "ebk", "pDw", "ulz", "eDs", "pBy", "eBw",
-        "zfc", "fjk", "prw", "zfE", "fbs", "pny", "zfC", "fDw", "plz", "zfB", "fBy", "yrc", "zfq",
-        "frw", "yrE", "zfn", "fny", "yrC", "flz", "yrB", "xjc", "yrq", "xjE", "yrn", "xjC", "xjB",
-        "uzc", "xjq", "uzE", "xjn", "uzC", "uzB", "pzc", "uzq", "pzE", "uzn", "pzC", "djA", "ors",
-        "ufy", "dbk", "onw", "udz", "dDs", "oly", "dBw", "okz", "dAy", "zdo", "drs", "ovy", "zdm",
-        "dnw", "otz", "zdl", "dly", "dkz", "yno", "zdv", "dvy", "ynm", "dtz", "ynl", "xbo", "ynv",
-        "xbm", "xbl", "ujo", "xbv", "ujm", "ujl", "ozo", "ujv", "ozm", "ozl", "crk", "ofw", "uFz",
-        "cns", "ody", "clw", "ocz", "cky", "ckj", "zcu", "cvw", "ohz", "zct", "cty", "csz", "ylu",
-        "cxz", "ylt", "xDu", "xDt", "ubu", "ubt", "oju", "ojt", "cfs", "oFy", "cdw", "oEz", "ccy",
-        "ccj", "zch", "chy", "cgz", "ykx", "xBx", "uDx", "cFw", "oCz", "cEy", "cEj", "caz", "cCy",
-        "cCj", "FjA", "mrs", "tfy", "Fbk", "mnw", "tdz", "FDs", "mly", "FBw", "mkz", "FAy", "zFo",
-        "Frs", "mvy", "zFm", "Fnw", "mtz", "zFl", "Fly", "Fkz", "yfo", "zFv", "Fvy", "yfm", "Ftz",
-        "yfl", "wro", "yfv", "wrm", "wrl", "tjo", "wrv", "tjm", "tjl", "mzo", "tjv", "mzm", "mzl",
-        "qrk", "vfw", "xpz", "hbA", "qns", "vdy", "hDk", "qlw", "vcz", "hBs", "qky", "hAw", "qkj",
-        "hAi", "Erk", "mfw", "tFz", "hrk", "Ens", "mdy", "hns", "qty", "mcz", "hlw", "Eky", "hky",
-        "Ekj", "hkj", "zEu", "Evw", "mhz", "zhu", "zEt", "hvw", "Ety", "zht", "hty", "Esz", "hsz",
-        "ydu", "Exz", "yvu", "ydt", "hxz", "yvt", "wnu", "xru", "wnt", "xrt", "tbu", "vju", "tbt",
-        "vjt", "mju", "mjt", "grA", "qfs", "vFy", "gnk", "qdw", "vEz", "gls", "qcy", "gkw", "qcj",
-        "gki", "gkb", "Efs", "mFy", "gvs", "Edw", "mEz", "gtw", "qgz", "gsy", "Ecj", "gsj", "zEh",
-        "Ehy", "zgx", "gxy", "Egz", "gwz", "ycx", "ytx", "wlx", "xnx", "tDx", "vbx", "mbx", "gfk",
-        "qFw", "vCz", "gds", "qEy", "gcw", "qEj", "gci", "gcb", "EFw", "mCz", "ghw", "EEy", "ggy",
-        "EEj", "ggj", "Eaz", "giz", "gFs", "qCy", "gEw", "qCj", "gEi", "gEb", "ECy", "gay", "ECj",
-        "gaj", "gCw", "qBj", "gCi", "gCb", "EBj", "gDj", "gBi", "gBb", "Crk", "lfw", "spz", "Cns",
-        "ldy", "Clw", "lcz", "Cky", "Ckj", "zCu", "Cvw", "lhz", "zCt", "Cty", "Csz", "yFu", "Cxz",
-        "yFt", "wfu", "wft", "sru", "srt", "lju", "ljt", "arA", "nfs", "tpy", "ank", "ndw", "toz",
-        "als", "ncy", "akw", "ncj", "aki", "akb", "Cfs", "lFy", "avs", "Cdw", "lEz", "atw", "ngz",
-        "asy", "Ccj", "asj", "zCh", "Chy", "zax", "axy", "Cgz", "awz", "yEx", "yhx", "wdx", "wvx",
-        "snx", "trx", "lbx", "rfk", "vpw", "xuz", "inA", "rds", "voy", "ilk", "rcw", "voj", "iks",
-        "rci", "ikg", "rcb", "ika", "afk", "nFw", "tmz", "ivk", "ads", "nEy", "its", "rgy", "nEj",
-        "isw", "aci", "isi", "acb", "isb", "CFw", "lCz", "ahw", "CEy", "ixw", "agy", "CEj", "iwy",
-        "agj", "iwj", "Caz", "aiz", "iyz", "ifA", "rFs", "vmy", "idk", "rEw", "vmj", "ics", "rEi",
-        "icg", "rEb", "ica", "icD", "aFs", "nCy", "ihs", "aEw", "nCj", "igw", "raj", "igi", "aEb",
-        "igb", "CCy", "aay", "CCj", "iiy", "aaj", "iij", "iFk", "rCw", "vlj", "iEs", "rCi", "iEg",
-        "rCb", "iEa", "iED", "aCw", "nBj", "iaw", "aCi", "iai", "aCb", "iab", "CBj", "aDj", "ibj",
-        "iCs", "rBi", "iCg", "rBb", "iCa", "iCD", "aBi", "iDi", "aBb", "iDb", "iBg", "rAr", "iBa",
-        "iBD", "aAr", "iBr", "iAq", "iAn", "Bfs", "kpy", "Bdw", "koz", "Bcy", "Bcj", "Bhy", "Bgz",
-        "yCx", "wFx", "sfx", "krx", "Dfk", "lpw", "suz", "Dds", "loy", "Dcw", "loj", "Dci", "Dcb",
-        "BFw", "kmz", "Dhw", "BEy", "Dgy", "BEj", "Dgj", "Baz", "Diz", "bfA", "nps", "tuy", "bdk",
-        "now", "tuj", "bcs", "noi", "bcg", "nob", "bca", "bcD", "DFs", "lmy", "bhs", "DEw", "lmj",
-        "bgw", "DEi", "bgi", "DEb", "bgb", "BCy", "Day", "BCj", "biy", "Daj", "bij", "rpk", "vuw",
-        "xxj", "jdA", "ros", "vui", "jck", "rog", "vub", "jcc", "roa", "jcE", "roD", "jcC", "bFk",
-        "nmw", "ttj", "jhk", "bEs", "nmi", "jgs", "rqi", "nmb", "jgg", "bEa", "jga", "bED", "jgD",
-        "DCw", "llj", "baw", "DCi", "jiw", "bai", "DCb", "jii", "bab", "jib", "BBj", "DDj", "bbj",
-        "jjj", "jFA", "rms", "vti", "jEk", "rmg", "vtb", "jEc", "rma", "jEE", "rmD", "jEC", "jEB",
-        "bCs", "nli", "jas", "bCg", "nlb", "jag", "rnb", "jaa", "bCD", "jaD", "DBi", "bDi", "DBb",
-        "jbi", "bDb", "jbb", "jCk", "rlg", "vsr", "jCc", "rla", "jCE", "rlD", "jCC", "jCB", "bBg",
-        "nkr", "jDg", "bBa", "jDa", "bBD", "jDD", "DAr", "bBr", "jDr", "jBc", "rkq", "jBE", "rkn",
-        "jBC", "jBB", "bAq", "jBq", "bAn", "jBn", "jAo", "rkf", "jAm", "jAl", "bAf", "jAv", "Apw",
-        "kez", "Aoy", "Aoj", "Aqz", "Bps", "kuy", "Bow", "kuj", "Boi", "Bob", "Amy", "Bqy", "Amj",
-        "Bqj", "Dpk", "luw", "sxj", "Dos", "lui", "Dog", "lub", "Doa", "DoD", "Bmw", "ktj", "Dqw",
-        "Bmi", "Dqi", "Bmb", "Dqb", "Alj", "Bnj", "Drj", "bpA", "nus", "txi", "bok", "nug", "txb",
-        "boc", "nua", "boE", "nuD", "boC", "boB", "Dms", "lti", "bqs", "Dmg", "ltb", "bqg", "nvb",
-        "bqa", "DmD", "bqD", "Bli", "Dni", "Blb", "bri", "Dnb", "brb", "ruk", "vxg", "xyr", "ruc",
-        "vxa", "ruE", "vxD", "ruC", "ruB", "bmk", "ntg", "twr", "jqk", "bmc", "nta", "jqc", "rva",
-        "ntD", "jqE", "bmC", "jqC", "bmB", "jqB", "Dlg", "lsr", "bng", "Dla", "jrg", "bna", "DlD",
-        "jra", "bnD", "jrD", "Bkr", "Dlr", "bnr", "jrr", "rtc", "vwq", "rtE", "vwn", "rtC", "rtB",
-        "blc", "nsq", "jnc", "blE", "nsn", "jnE", "rtn", "jnC", "blB", "jnB", "Dkq", "blq", "Dkn",
-        "jnq", "bln", "jnn", "rso", "vwf", "rsm", "rsl", "bko", "nsf", "jlo", "bkm", "jlm", "bkl",
-        "jll", "Dkf", "bkv", "jlv", "rse", "rsd", "bke", "jku", "bkd", "jkt", "Aey", "Aej", "Auw",
-        "khj", "Aui", "Aub", "Adj", "Avj", "Bus", "kxi", "Bug", "kxb", "Bua", "BuD", "Ati", "Bvi",
-        "Atb", "Bvb", "Duk", "lxg", "syr", "Duc", "lxa", "DuE", "lxD", "DuC", "DuB", "Btg", "kwr",
-        "Dvg", "lxr", "Dva", "BtD", "DvD", "Asr", "Btr", "Dvr", "nxc", "tyq", "nxE", "tyn", "nxC",
-        "nxB", "Dtc", "lwq", "bvc", "nxq", "lwn", "bvE", "DtC", "bvC", "DtB", "bvB", "Bsq", "Dtq",
-        "Bsn", "bvq", "Dtn", "bvn", "vyo", "xzf", "vym", "vyl", "nwo", "tyf", "rxo", "nwm", "rxm",
-        "nwl", "rxl", "Dso", "lwf", "bto", "Dsm", "jvo", "btm", "Dsl", "jvm", "btl", "jvl", "Bsf",
-        "Dsv", "btv", "jvv", "vye", "vyd", "nwe", "rwu", "nwd", "rwt", "Dse", "bsu", "Dsd", "jtu",
-        "bst", "jtt", "vyF", "nwF", "rwh", "DsF", "bsh", "jsx", "Ahi", "Ahb", "Axg", "kir", "Axa",
-        "AxD", "Agr", "Axr", "Bxc", "kyq", "BxE", "kyn", "BxC", "BxB", "Awq", "Bxq", "Awn", "Bxn",
-        "lyo", "szf", "lym", "lyl", "Bwo", "kyf", "Dxo", "lyv", "Dxm", "Bwl", "Dxl", "Awf", "Bwv",
-        "Dxv", "tze", "tzd", "lye", "nyu", "lyd", "nyt", "Bwe", "Dwu", "Bwd", "bxu", "Dwt", "bxt",
-        "tzF", "lyF", "nyh", "BwF", "Dwh", "bwx", "Aiq", "Ain", "Ayo", "kjf", "Aym", "Ayl", "Aif",
-        "Ayv", "kze", "kzd", "Aye", "Byu", "Ayd", "Byt", "szp"
-    };
-
-    private static final char[] BR_SET = {
-        'A', 'B', 'C', 'D', 'E', 'F', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
-        'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '*', '+', '-'
-    };
-
-    private static final String[] PDF_TTF = {
-        "00000", "00001", "00010", "00011", "00100", "00101", "00110", "00111",
-        "01000", "01001", "01010", "01011", "01100", "01101", "01110", "01111", "10000", "10001",
-        "10010", "10011", "10100", "10101", "10110", "10111", "11000", "11001", "11010",
-        "11011", "11100", "11101", "11110", "11111", "01", "1111111101010100", "11111101000101001"
-    };
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000 };
 
     private static final int[] ASCII_X = {
         7, 8, 8, 4, 12, 4, 4, 8, 8, 8, 12, 4, 12, 12, 12, 12, 4, 4, 4, 4, 4, 4, 4, 4,
@@ -401,17 +96,46 @@ private enum EncodingMode {
         11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 21, 27, 9
     };
 
+    /* Text compaction submodes, in the same order as the bits in ASCII_X */
+    private static final int ALPHA = 0;
+    private static final int LOWER = 1;
+    private static final int MIXED = 2;
+    private static final int PUNCT = 3;
+
+    /* Text compaction values required to latch from one submode (first index) to another (second index) */
+    private static final int[][][] TEXT_LATCHES = {
+        { {},         { 27 },     { 28 },     { 28, 25 } }, // from alpha
+        { { 28, 28 }, {},         { 28 },     { 28, 25 } }, // from lower
+        { { 28 },     { 27 },     {},         { 25 } },     // from mixed
+        { { 29 },     { 29, 27 }, { 29, 28 }, {} }          // from punctuation
+    };
+
+    /* Text compaction value used to pad a codeword before a byte shift, and the resultant submode (latches, not shifts,
+     * so that the submode in effect after the shifted byte is never in doubt) */
+    private static final int[] SHIFT_PADS = { 28, 28, 28, 29 };
+    private static final int[] SHIFT_PAD_SUBMODES = { MIXED, MIXED, ALPHA, ALPHA };
+
+    /* States tracked by the optimal encoder: 8 text states (submode and codeword half), 6 byte states (bytes in the
+     * current group of 6), 2 numeric states (after a short group, and after a full group which can be followed by
+     * another group without a new latch), and 1 initial state used when text compaction must be latched explicitly */
+    private static final int TEXT_STATE = 0;
+    private static final int BYTE_STATE = 8;
+    private static final int NUMERIC_STATE = 14;
+    private static final int NUMERIC_FULL_STATE = 15;
+    private static final int START_STATE = 16;
+    private static final int STATES = 17;
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
     private static final int[] MICRO_AUTOSIZE = {
         4, 6,  7, 8, 8,  10, 10, 12, 12, 13, 14, 16, 18, 18, 19, 20, 24, 24, 24, 29, 30, 33, 34, 37, 39, 46, 54, 58, 70, 72, 82, 90, 108, 126, // max codeword counts
         1, 14, 2, 7, 24, 3,  15, 25, 4,  8,  16, 5,  17, 26, 9,  6,  10, 18, 27, 11, 28, 12, 19, 13, 29, 20, 30, 21, 22, 31, 23, 32, 33,  34   // corresponding variant
     };
 
-    /* Rows, columns, error codewords, k-offset of valid MicroPDF417 sizes from ISO/IEC 24728:2006 */
+    /* Rows, columns and error codewords of valid MicroPDF417 sizes from ISO/IEC 24728:2006 */
     private static final int[] MICRO_VARIANTS = {
         1,  1,  1,  1,  1,  1,  2, 2,  2,  2,  2,  2,  2,  3,  3,  3,  3,   3,   3,   3,   3,   3,   3,   4, 4,  4,  4,  4,   4,   4,   4,   4,   4,   4,  // columns
         11, 14, 17, 20, 24, 28, 8, 11, 14, 17, 20, 23, 26, 6,  8,  10, 12,  15,  20,  26,  32,  38,  44,  4, 6,  8,  10, 12,  15,  20,  26,  32,  38,  44, // rows
-        7,  7,  7,  8,  8,  8,  8, 9,  9,  10, 11, 13, 15, 12, 14, 16, 18,  21,  26,  32,  38,  44,  50,  8, 12, 14, 16, 18,  21,  26,  32,  38,  44,  50, // k (EC codewords)
-        0,  0,  0,  7,  7,  7,  7, 15, 15, 24, 34, 57, 84, 45, 70, 99, 115, 133, 154, 180, 212, 250, 294, 7, 45, 70, 99, 115, 133, 154, 180, 212, 250, 294 // offset
+        7,  7,  7,  8,  8,  8,  8, 9,  9,  10, 11, 13, 15, 12, 14, 16, 18,  21,  26,  32,  38,  44,  50,  8, 12, 14, 16, 18,  21,  26,  32,  38,  44,  50  // k (EC codewords)
     };
 
     /* Following is Left RAP, Centre RAP, Right RAP and Start Cluster from ISO/IEC 24728:2006 tables 10, 11 and 12 */
@@ -422,91 +146,6 @@ private enum EncodingMode {
         0, 3, 6,  0,  6,  0,  0, 0, 3, 6,  0,  6,  6,  0, 0, 6,  0,  0,  0,  0,  6,  6,  0,  3,  0, 0, 6,  0,  0,  0,  0,  6,  6,  0   // start cluster
     };
 
-    /* Left and Right Row Address Pattern from Table 2 */
-    private static final String[] RAPLR = {
-        "",       "221311", "311311", "312211", "222211", "213211", "214111", "223111",
-        "313111", "322111", "412111", "421111", "331111", "241111", "232111", "231211", "321211",
-        "411211", "411121", "411112", "321112", "312112", "311212", "311221", "311131", "311122",
-        "311113", "221113", "221122", "221131", "221221", "222121", "312121", "321121", "231121",
-        "231112", "222112", "213112", "212212", "212221", "212131", "212122", "212113", "211213",
-        "211123", "211132", "211141", "211231", "211222", "211312", "211321", "211411", "212311"
-    };
-
-    /* Centre Row Address Pattern from Table 2 */
-    private static final String[] RAPC = {
-        "",       "112231", "121231", "122131", "131131", "131221", "132121", "141121",
-        "141211", "142111", "133111", "132211", "131311", "122311", "123211", "124111", "115111",
-        "114211", "114121", "123121", "123112", "122212", "122221", "121321", "121411", "112411",
-        "113311", "113221", "113212", "113122", "122122", "131122", "131113", "122113", "113113",
-        "112213", "112222", "112312", "112321", "111421", "111331", "111322", "111232", "111223",
-        "111133", "111124", "111214", "112114", "121114", "121123", "121132", "112132", "112141"
-    };
-
-    /* MicroPDF417 coefficients from ISO/IEC 24728:2006 Annex F */
-    private static final int[] MICRO_COEFFS = {
-        /* k = 7 */
-        76, 925, 537, 597, 784, 691, 437,
-
-        /* k = 8 */
-        237, 308, 436, 284, 646, 653, 428, 379,
-
-        /* k = 9 */
-        567, 527, 622, 257, 289, 362, 501, 441, 205,
-
-        /* k = 10 */
-        377, 457, 64, 244, 826, 841, 818, 691, 266, 612,
-
-        /* k = 11 */
-        462, 45, 565, 708, 825, 213, 15, 68, 327, 602, 904,
-
-        /* k = 12 */
-        597, 864, 757, 201, 646, 684, 347, 127, 388, 7, 69, 851,
-
-        /* k = 13 */
-        764, 713, 342, 384, 606, 583, 322, 592, 678, 204, 184, 394, 692,
-
-        /* k = 14 */
-        669, 677, 154, 187, 241, 286, 274, 354, 478, 915, 691, 833, 105, 215,
-
-        /* k = 15 */
-        460, 829, 476, 109, 904, 664, 230, 5, 80, 74, 550, 575, 147, 868, 642,
-
-        /* k = 16 */
-        274, 562, 232, 755, 599, 524, 801, 132, 295, 116, 442, 428, 295, 42, 176, 65,
-
-        /* k = 18 */
-        279, 577, 315, 624, 37, 855, 275, 739, 120, 297, 312, 202, 560, 321, 233, 756,
-        760, 573,
-
-        /* k = 21 */
-        108, 519, 781, 534, 129, 425, 681, 553, 422, 716, 763, 693, 624, 610, 310, 691,
-        347, 165, 193, 259, 568,
-
-        /* k = 26 */
-        443, 284, 887, 544, 788, 93, 477, 760, 331, 608, 269, 121, 159, 830, 446, 893,
-        699, 245, 441, 454, 325, 858, 131, 847, 764, 169,
-
-        /* k = 32 */
-        361, 575, 922, 525, 176, 586, 640, 321, 536, 742, 677, 742, 687, 284, 193, 517,
-        273, 494, 263, 147, 593, 800, 571, 320, 803, 133, 231, 390, 685, 330, 63, 410,
-
-        /* k = 38 */
-        234, 228, 438, 848, 133, 703, 529, 721, 788, 322, 280, 159, 738, 586, 388, 684,
-        445, 680, 245, 595, 614, 233, 812, 32, 284, 658, 745, 229, 95, 689, 920, 771,
-        554, 289, 231, 125, 117, 518,
-
-        /* k = 44 */
-        476, 36, 659, 848, 678, 64, 764, 840, 157, 915, 470, 876, 109, 25, 632, 405,
-        417, 436, 714, 60, 376, 97, 413, 706, 446, 21, 3, 773, 569, 267, 272, 213,
-        31, 560, 231, 758, 103, 271, 572, 436, 339, 730, 82, 285,
-
-        /* k = 50 */
-        923, 797, 576, 875, 156, 706, 63, 81, 257, 874, 411, 416, 778, 50, 205, 303,
-        188, 535, 909, 155, 637, 230, 534, 96, 575, 102, 264, 233, 919, 593, 865, 26,
-        579, 623, 766, 146, 10, 739, 246, 127, 71, 244, 211, 477, 920, 876, 427, 820,
-        718, 435
-    };
-
     /**
      * Creates a new instance, using mode {@link Mode#NORMAL}.
      */
@@ -782,6 +421,32 @@ public boolean getForceByteCompaction() {
         return forceByteCompaction;
     }
 
+    /**
+     * Sets whether or not to choose the compaction modes, text submodes, latches and shifts which minimize the number of
+     * codewords required to encode the data, instead of using the default block-based mode selection. Optimal encoding
+     * minimizes the number of data codewords, not the symbol size: the rows and columns are still chosen from the
+     * codeword count, so although the symbol is usually the same size or smaller, it is sometimes larger than the
+     * symbol generated by the default encoder. Optimal encoding is also somewhat slower, and generates different
+     * codewords than other encoders for the same data. Ignored if byte compaction has been forced. By default, optimal
+     * encoding is not used.
+     *
+     * @param optimalEncoding whether or not to choose the modes which minimize the number of codewords required
+     * @see #setForceByteCompaction(boolean)
+     */
+    public void setOptimalEncoding(boolean optimalEncoding) {
+        this.optimalEncoding = optimalEncoding;
+    }
+
+    /**
+     * Returns whether or not this symbol chooses the compaction modes, text submodes, latches and shifts which minimize
+     * the number of codewords required to encode the data, instead of using the default block-based mode selection.
+     *
+     * @return whether or not this symbol chooses the modes which minimize the number of codewords required
+     */
+    public boolean getOptimalEncoding() {
+        return optimalEncoding;
+    }
+
     /**
      * <p>Sets the binary data to be encoded and triggers encoding. Input data will
      * be assumed to be of the type set by {@link #setDataType(DataType)}.
@@ -820,16 +485,11 @@ protected void encode() {
     }
 
     private void processPdf417() {
-        int j, loop, offset;
-        int[] mccorrection = new int[520];
-        int total;
+        int j, cluster;
         int c1, c2, c3;
         int[] dummy = new int[35];
         int selectedECCLevel;
-        StringBuilder codebarre = new StringBuilder();
-        StringBuilder bin = new StringBuilder();
-
-        List< Block > blocks = createBlocks(inputData, forceByteCompaction);
+        StringBuilder row = new StringBuilder();
 
         /* now compress the data */
         codeWordCount = 0;
@@ -841,28 +501,33 @@ private void processPdf417() {
 
         processEci(eciMode);
 
-        int blockCount = 0;
-        for (int i = 0; i < blocks.size(); i++) {
-            Block block = blocks.get(i);
-            switch (block.mode) {
-                case TEX:
-                    /* text mode */
-                    boolean firstBlock = (i == 0);
-                    processText(inputData, blockCount, block.length, firstBlock);
-                    break;
-                case BYT:
-                    /* octet stream mode */
-                    EncodingMode lastMode = (i == 0 ? EncodingMode.TEX : blocks.get(i - 1).mode);
-                    processBytes(inputData, blockCount, block.length, lastMode);
-                    break;
-                case NUM:
-                    /* numeric mode */
-                    processNumbers(inputData, blockCount, block.length, false);
-                    break;
-                default:
-                    throw new OkapiInternalException("Unknown block type: " + block.mode);
+        if (optimalEncoding && !forceByteCompaction) {
+            processOptimal(inputData, false);
+        } else {
+            List< Block > blocks = createBlocks(inputData, forceByteCompaction);
+            int blockCount = 0;
+            for (int i = 0; i < blocks.size(); i++) {
+                Block block = blocks.get(i);
+                switch (block.mode) {
+                    case TEX:
+                        /* text mode */
+                        boolean firstBlock = (i == 0);
+                        processText(inputData, blockCount, block.length, firstBlock);
+                        break;
+                    case BYT:
+                        /* octet stream mode */
+                        EncodingMode lastMode = (i == 0 ? EncodingMode.TEX : blocks.get(i - 1).mode);
+                        processBytes(inputData, blockCount, block.length, lastMode);
+                        break;
+                    case NUM:
+                        /* numeric mode */
+                        processNumbers(inputData, blockCount, block.length, false);
+                        break;
+                    default:
+                        throw new OkapiInternalException("Unknown block type: " + block.mode);
+                }
+                blockCount += block.length;
             }
-            blockCount += block.length;
         }
 
         int dataCount = codeWordCount;
@@ -943,56 +608,12 @@ private void processPdf417() {
         infoLine("ECC Codewords: ", k);
         infoLine("Total Codewords: ", columns * rows);
 
-        /* 796 - we now take care of the Reed Solomon codes */
-        switch (selectedECCLevel) {
-            case 1:
-                offset = 2;
-                break;
-            case 2:
-                offset = 6;
-                break;
-            case 3:
-                offset = 14;
-                break;
-            case 4:
-                offset = 30;
-                break;
-            case 5:
-                offset = 62;
-                break;
-            case 6:
-                offset = 126;
-                break;
-            case 7:
-                offset = 254;
-                break;
-            case 8:
-                offset = 510;
-                break;
-            default:
-                offset = 0;
-                break;
-        }
-
-        for (loop = 0; loop < 520; loop++) {
-            mccorrection[loop] = 0;
-        }
-
-        for (int i = 0; i < codeWordCount; i++) {
-            total = (codeWords[i] + mccorrection[k - 1]) % 929;
-            for (j = k - 1; j > 0; j--) {
-                mccorrection[j] = (mccorrection[j - 1] + 929 - (total * COEFRS[offset + j]) % 929) % 929;
-            }
-            mccorrection[0] = (929 - (total * COEFRS[offset + j]) % 929) % 929;
-        }
-
-        /* we add these codes to the string */
-        for (int i = k - 1; i >= 0; i--) {
-            codeWords[codeWordCount++] = mccorrection[i] != 0 ? 929 - mccorrection[i] : 0;
-        }
-
         /* make sure total codeword count isn't too high */
-        checkCodewordCount(codeWordCount);
+        checkCodewordCount(codeWordCount + k);
+
+        /* 796 - we now take care of the Reed Solomon codes */
+        Pdf417ReedSolomon.encode(codeWords, codeWordCount, k);
+        codeWordCount += k;
 
         assert 1 + dataCount + padCount + macroCount + k == columns * rows;
         assert codeWordCount == columns * rows;
@@ -1016,56 +637,48 @@ private void processPdf417() {
             k = (i / 3) * 30;
             switch (i % 3) {
                 case 0:
-                    offset = 0; // cluster 0
+                    cluster = 0; // cluster 0
                     dummy[0] = k + c1; // left row indicator
                     dummy[columns + 1] = k + c3; // right row indicator
                     break;
                 case 1:
-                    offset = 929; // cluster 3
+                    cluster = 1; // cluster 3
                     dummy[0] = k + c2; // left row indicator
                     dummy[columns + 1] = k + c1; // right row indicator
                     break;
-                case 2:
-                    offset = 1858; // cluster 6
+                default:
+                    cluster = 2; // cluster 6
                     dummy[0] = k + c3; // left row indicator
                     dummy[columns + 1] = k + c2; // right row indicator
                     break;
             }
-            codebarre.setLength(0);
-            codebarre.append("+*");
+            row.setLength(0);
+            Pdf417Patterns.appendStart(row);
             for (j = 0; j <= columns + 1; j++) {
                 if (!(symbolMode == Mode.TRUNCATED && j > columns)) {
-                    codebarre.append(CODAGEMC[offset + dummy[j]]);
-                    codebarre.append('*');
+                    Pdf417Patterns.appendCodeword(row, cluster, dummy[j]);
                 }
             }
-            if(symbolMode != Mode.TRUNCATED) {
-                codebarre.append('-');
-            }
-            bin.setLength(0);
-            for (j = 0; j < codebarre.length(); j++) {
-                bin.append(PDF_TTF[positionOf(codebarre.charAt(j), BR_SET)]);
+            if (symbolMode == Mode.TRUNCATED) {
+                row.append('1'); // single module stop bar
+            } else {
+                Pdf417Patterns.appendStop(row);
             }
-            pattern[i] = bin2pat(bin);
+            pattern[i] = row.toString();
             rowHeight[i] = defaultHeight;
         }
     }
 
     private void processMicroPdf417() { /* like PDF417 only much smaller! */
 
-        int k, j, longueur, offset;
-        int total;
+        int k, j, longueur;
         int LeftRAPStart, CentreRAPStart, RightRAPStart, StartCluster;
-        int LeftRAP, CentreRAP, RightRAP, Cluster, flip, loop;
+        int LeftRAP, CentreRAP, RightRAP, Cluster;
         int[] dummy = new int[5];
-        int[] mccorrection = new int[50];
-        StringBuilder codebarre = new StringBuilder();
-        StringBuilder bin = new StringBuilder();
+        StringBuilder row = new StringBuilder();
 
         /* Encoding starts out the same as PDF417, so use the same code */
 
-        List< Block > blocks = createBlocks(inputData, forceByteCompaction);
-
         /* 541 - now compress the data */
         codeWordCount = 0;
         if (readerInit) {
@@ -1075,27 +688,32 @@ private void processMicroPdf417() { /* like PDF417 only much smaller! */
 
         processEci(eciMode);
 
-        int blockCount = 0;
-        for (int i = 0; i < blocks.size(); i++) {
-            Block block = blocks.get(i);
-            switch (block.mode) {
-                case TEX:
-                    /* text mode */
-                    processText(inputData, blockCount, block.length, false); // TODO: this shouldn't always be false?
-                    break;
-                case BYT:
-                    /* octet stream mode */
-                    EncodingMode lastMode = (i == 0 ? EncodingMode.TEX : blocks.get(i - 1).mode);
-                    processBytes(inputData, blockCount, block.length, lastMode);
-                    break;
-                case NUM:
-                    /* numeric mode */
-                    processNumbers(inputData, blockCount, block.length, false);
-                    break;
-                default:
-                    throw new OkapiInternalException("Unknown block type: " + block.mode);
+        if (optimalEncoding && !forceByteCompaction) {
+            processOptimal(inputData, true);
+        } else {
+            List< Block > blocks = createBlocks(inputData, forceByteCompaction);
+            int blockCount = 0;
+            for (int i = 0; i < blocks.size(); i++) {
+                Block block = blocks.get(i);
+                switch (block.mode) {
+                    case TEX:
+                        /* text mode */
+                        processText(inputData, blockCount, block.length, false); // TODO: this shouldn't always be false?
+                        break;
+                    case BYT:
+                        /* octet stream mode */
+                        EncodingMode lastMode = (i == 0 ? EncodingMode.TEX : blocks.get(i - 1).mode);
+                        processBytes(inputData, blockCount, block.length, lastMode);
+                        break;
+                    case NUM:
+                        /* numeric mode */
+                        processNumbers(inputData, blockCount, block.length, false);
+                        break;
+                    default:
+                        throw new OkapiInternalException("Unknown block type: " + block.mode);
+                }
+                blockCount += block.length;
             }
-            blockCount += block.length;
         }
 
         int dataCount = codeWordCount;
@@ -1118,7 +736,6 @@ private void processMicroPdf417() { /* like PDF417 only much smaller! */
         k = MICRO_VARIANTS[variant + 68]; /* number of EC CWs */
         longueur = (columns * rows) - k; /* number of non-EC CWs */
         int padCount = longueur - codeWordCount; /* amount of padding required */
-        offset = MICRO_VARIANTS[variant + 102]; /* coefficient offset */
 
         /* add the padding (before the Macro PDF417 control block, if it exists) */
         int macroStart = codeWordCount - macroCount;
@@ -1139,32 +756,8 @@ private void processMicroPdf417() { /* like PDF417 only much smaller! */
         infoLine("Total Codewords: ", columns * rows);
 
         /* Reed-Solomon error correction */
-        longueur = codeWordCount;
-        for (loop = 0; loop < 50; loop++) {
-            mccorrection[loop] = 0;
-        }
-
-        for (int i = 0; i < longueur; i++) {
-            total = (codeWords[i] + mccorrection[k - 1]) % 929;
-            for (j = k - 1; j >= 0; j--) {
-                if (j == 0) {
-                    mccorrection[j] = (929 - (total * MICRO_COEFFS[offset + j]) % 929) % 929;
-                } else {
-                    mccorrection[j] = (mccorrection[j - 1] + 929 - (total * MICRO_COEFFS[offset + j]) % 929) % 929;
-                }
-            }
-        }
-
-        for (j = 0; j < k; j++) {
-            if (mccorrection[j] != 0) {
-                mccorrection[j] = 929 - mccorrection[j];
-            }
-        }
-        /* we add these codes to the string */
-        for (int i = k - 1; i >= 0; i--) {
-            codeWords[codeWordCount] = mccorrection[i];
-            codeWordCount++;
-        }
+        Pdf417ReedSolomon.encode(codeWords, codeWordCount, k);
+        codeWordCount += k;
 
         assert dataCount + padCount + macroCount + k == columns * rows;
         assert codeWordCount == columns * rows;
@@ -1190,8 +783,7 @@ private void processMicroPdf417() { /* like PDF417 only much smaller! */
         infoLine("Grid Size: " + columns + " X " + rowCount);
 
         for (int i = 0; i < rows; i++) {
-            codebarre.setLength(0);
-            offset = 929 * Cluster;
+            row.setLength(0);
             for (j = 0; j < 5; j++) {
                 dummy[j] = 0;
             }
@@ -1199,60 +791,28 @@ private void processMicroPdf417() { /* like PDF417 only much smaller! */
                 dummy[j + 1] = codeWords[i * columns + j];
             }
 
-            /* Copy the data into codebarre */
-            codebarre.append(RAPLR[LeftRAP]);
-            codebarre.append('1');
-            codebarre.append(CODAGEMC[offset + dummy[1]]);
-            codebarre.append('1');
+            /* Copy the data into the row */
+            Pdf417Patterns.appendSideRap(row, LeftRAP);
+            Pdf417Patterns.appendCodeword(row, Cluster, dummy[1]);
             if (columns == 3) {
-                codebarre.append(RAPC[CentreRAP]);
+                Pdf417Patterns.appendCentreRap(row, CentreRAP);
             }
             if (columns >= 2) {
-                codebarre.append('1');
-                codebarre.append(CODAGEMC[offset + dummy[2]]);
-                codebarre.append('1');
+                Pdf417Patterns.appendCodeword(row, Cluster, dummy[2]);
             }
             if (columns == 4) {
-                codebarre.append(RAPC[CentreRAP]);
+                Pdf417Patterns.appendCentreRap(row, CentreRAP);
             }
             if (columns >= 3) {
-                codebarre.append('1');
-                codebarre.append(CODAGEMC[offset + dummy[3]]);
-                codebarre.append('1');
+                Pdf417Patterns.appendCodeword(row, Cluster, dummy[3]);
             }
             if (columns == 4) {
-                codebarre.append('1');
-                codebarre.append(CODAGEMC[offset + dummy[4]]);
-                codebarre.append('1');
-            }
-            codebarre.append(RAPLR[RightRAP]);
-            codebarre.append('1'); /* stop */
-
-            /* Now codebarre is a mixture of letters and numbers */
-
-            flip = 1;
-            bin.setLength(0);
-            for (loop = 0; loop < codebarre.length(); loop++) {
-                if ((codebarre.charAt(loop) >= '0') && (codebarre.charAt(loop) <= '9')) {
-                    for (k = 0; k < Character.getNumericValue(codebarre.charAt(loop)); k++) {
-                        if (flip == 0) {
-                            bin.append('0');
-                        } else {
-                            bin.append('1');
-                        }
-                    }
-                    if (flip == 0) {
-                        flip = 1;
-                    } else {
-                        flip = 0;
-                    }
-                } else {
-                    bin.append(PDF_TTF[positionOf(codebarre.charAt(loop), BR_SET)]);
-                }
+                Pdf417Patterns.appendCodeword(row, Cluster, dummy[4]);
             }
+            Pdf417Patterns.appendSideRap(row, RightRAP);
+            row.append('1'); /* stop */
 
-            /* so now pattern[] holds the string of '1's and '0's. - copy this to the symbol */
-            pattern[i] = bin2pat(bin);
+            pattern[i] = row.toString();
             rowHeight[i] = defaultHeight;
 
             /* Set up RAPs and Cluster for next row */
@@ -1462,6 +1022,237 @@ private static void mergeBlocks(List< Block > blocks) {
         }
     }
 
+    /**
+     * Encodes the specified data using the combination of compaction modes, text submodes, latches and shifts which
+     * minimizes the number of codewords required. The cheapest way to reach each state at each position is tracked in
+     * half codewords (the size of a single text compaction value), after which the cheapest path is replayed backwards.
+     *
+     * @param data the data to encode
+     * @param textLatch whether or not text compaction needs to be latched explicitly before use
+     */
+    private void processOptimal(int[] data, boolean textLatch) {
+
+        int length = data.length;
+        int[] cost = new int[(length + 1) * STATES];
+        int[] previous = new int[(length + 1) * STATES]; // position * STATES + state
+        Arrays.fill(cost, INFINITY);
+        cost[textLatch ? START_STATE : TEXT_STATE] = 0;
+
+        int[] digits = new int[length + 1]; // length of the digit run starting at each position
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (data[i] >= '0' && data[i] <= '9' ? digits[i + 1] + 1 : 0);
+        }
+
+        for (int i = 0; i < length; i++) {
+            int mask = textMask(data[i]);
+            int bestNumeric = INFINITY; // cheapest cost after latching to (or staying in) numeric compaction
+            int bestNumericState = -1;
+            for (int state = 0; state < STATES; state++) {
+                int c = cost[i * STATES + state];
+                if (c >= INFINITY) {
+                    continue;
+                }
+                int from = i * STATES + state;
+                int exit; // cost of leaving the current mode
+                if (state < BYTE_STATE) {
+                    int submode = state >> 1;
+                    int half = state & 1;
+                    exit = half;
+                    if (mask != 0) {
+                        relaxText(cost, previous, i + 1, from, submode, half, c, mask);
+                    } else {
+                        // shift to byte compaction for a single byte (padding to a full codeword first, if necessary)
+                        int next = (half == 0 ? submode : SHIFT_PAD_SUBMODES[submode]);
+                        relax(cost, previous, (i + 1) * STATES + TEXT_STATE + (next << 1), from, c + half + 4);
+                    }
+                    relax(cost, previous, (i + 1) * STATES + BYTE_STATE + 1, from, c + half + 4);
+                } else if (state < NUMERIC_STATE) {
+                    int group = state - BYTE_STATE;
+                    exit = 0;
+                    int next = (group + 1) % 6;
+                    relax(cost, previous, (i + 1) * STATES + BYTE_STATE + next, from, c + (group == 5 ? 0 : 2));
+                    if (mask != 0) {
+                        relaxText(cost, previous, i + 1, from, ALPHA, 0, c + 2, mask);
+                    }
+                } else {
+                    exit = 0;
+                    relax(cost, previous, (i + 1) * STATES + BYTE_STATE + 1, from, c + 4);
+                    if (mask != 0) {
+                        relaxText(cost, previous, i + 1, from, ALPHA, 0, c + 2, mask);
+                    }
+                }
+                // decoders read numeric compaction in groups of 15 codewords (44 digits), and only the last group in a
+                // sequence may be shorter, so a new group only continues the sequence after a full group
+                int numeric = c + exit + (state == NUMERIC_FULL_STATE ? 0 : 2);
+                if (numeric < bestNumeric) {
+                    bestNumeric = numeric;
+                    bestNumericState = state;
+                }
+            }
+            int max = Math.min(digits[i], MAX_NUMERIC_COMPACTION_BLOCK_SIZE);
+            for (int d = 1; d <= max; d++) {
+                int c = bestNumeric + (((d / 3) + 1) * 2); // leading 1 plus d digits, in base 900
+                int next = (d == MAX_NUMERIC_COMPACTION_BLOCK_SIZE ? NUMERIC_FULL_STATE : NUMERIC_STATE);
+                relax(cost, previous, (i + d) * STATES + next, i * STATES + bestNumericState, c);
+            }
+        }
+
+        int best = INFINITY;
+        int last = -1;
+        for (int state = 0; state < STATES; state++) {
+            int c = cost[length * STATES + state];
+            if (state < BYTE_STATE) {
+                c += state & 1; // final padding
+            }
+            if (c < best) {
+                best = c;
+                last = length * STATES + state;
+            }
+        }
+
+        int steps = 0;
+        int[] path = new int[length + 1];
+        int p = last;
+        while (p >= STATES) {
+            path[steps++] = p;
+            p = previous[p];
+        }
+        path[steps++] = p;
+
+        /* now replay the cheapest path, from the beginning */
+
+        checkCodewordCount(codeWordCount + (best / 2));
+
+        int[] values = new int[4];
+        int valueCount = 0;
+        int byteStart = -1;
+        for (int s = steps - 1; s > 0; s--) {
+            int from = path[s];
+            int to = path[s - 1];
+            int state = from % STATES;
+            int next = to % STATES;
+            int i = from / STATES;
+            if (next < BYTE_STATE) {
+                int submode = state >> 1;
+                if (state >= BYTE_STATE) {
+                    if (byteStart != -1) {
+                        processBytes(data, byteStart, i - byteStart, EncodingMode.BYT);
+                        byteStart = -1;
+                    }
+                    codeWords[codeWordCount++] = 900;
+                    submode = ALPHA;
+                }
+                int nextSubmode = next >> 1;
+                int mask = textMask(data[i]);
+                if (mask == 0) {
+                    // byte shift
+                    if ((valueCount & 1) != 0) {
+                        values[valueCount++] = SHIFT_PADS[submode];
+                    }
+                    valueCount = flushText(values, valueCount);
+                    codeWords[codeWordCount++] = 913;
+                    codeWords[codeWordCount++] = data[i];
+                } else {
+                    int[] latch = TEXT_LATCHES[submode][nextSubmode];
+                    if (nextSubmode == submode && (mask & (1 << submode)) == 0) {
+                        values[valueCount++] = (submode == LOWER && (mask & (1 << ALPHA)) != 0 ? 27 : 29); // AS or PS
+                    }
+                    for (int value : latch) {
+                        values[valueCount++] = value;
+                    }
+                    values[valueCount++] = textValue(data[i]);
+                    valueCount = flushText(values, valueCount);
+                }
+            } else {
+                if (state < BYTE_STATE && (valueCount & 1) != 0) {
+                    values[valueCount++] = 29;
+                    valueCount = flushText(values, valueCount);
+                }
+                if (next < NUMERIC_STATE) {
+                    if (state < BYTE_STATE || state >= NUMERIC_STATE) {
+                        byteStart = i;
+                    }
+                } else {
+                    if (byteStart != -1) {
+                        processBytes(data, byteStart, i - byteStart, EncodingMode.BYT);
+                        byteStart = -1;
+                    }
+                    processNumbers(data, i, (to / STATES) - i, state == NUMERIC_FULL_STATE);
+                }
+            }
+        }
+
+        if (byteStart != -1) {
+            processBytes(data, byteStart, length - byteStart, EncodingMode.BYT);
+        }
+        if ((valueCount & 1) != 0) {
+            values[valueCount++] = 29;
+            flushText(values, valueCount);
+        }
+    }
+
+    /** Records the specified cost to reach the specified state, if it is the cheapest found so far. */
+    private static void relax(int[] cost, int[] previous, int to, int from, int c) {
+        if (c < cost[to]) {
+            cost[to] = c;
+            previous[to] = from;
+        }
+    }
+
+    /** Records the costs to reach the text states available for the next character, from the specified text submode. */
+    private static void relaxText(int[] cost, int[] previous, int position, int from, int submode, int half, int c, int mask) {
+        int base = position * STATES + TEXT_STATE;
+        for (int next = ALPHA; next <= PUNCT; next++) {
+            if ((mask & (1 << next)) != 0) {
+                int count = TEXT_LATCHES[submode][next].length + 1;
+                relax(cost, previous, base + (next << 1) + ((half + count) & 1), from, c + count);
+            }
+        }
+        if ((mask & (1 << submode)) == 0 &&
+            ((submode == LOWER && (mask & (1 << ALPHA)) != 0) || (submode != PUNCT && (mask & (1 << PUNCT)) != 0))) {
+            relax(cost, previous, base + (submode << 1) + half, from, c + 2); // AS or PS
+        }
+    }
+
+    /** Adds complete text compaction codewords, returning the number of values left over (zero or one). */
+    private int flushText(int[] values, int count) {
+        int pairs = count & ~1;
+        for (int i = 0; i < pairs; i += 2) {
+            codeWords[codeWordCount++] = (30 * values[i]) + values[i + 1];
+        }
+        if (pairs != count) {
+            values[0] = values[pairs];
+        }
+        return count & 1;
+    }
+
+    /** Returns the text compaction submodes which contain the specified character, as a bit mask (see ASCII_X). */
+    private static int textMask(int c) {
+        switch (c) {
+            case '\t':
+            case '\r':
+                return 12;
+            case '\n':
+                return 8;
+            default:
+                return (c >= ' ' && c <= '~' ? ASCII_X[c - 32] : 0);
+        }
+    }
+
+    /** Returns the text compaction value of the specified character (the same in all submodes which contain it). */
+    private static int textValue(int c) {
+        switch (c) {
+            case '\t':
+                return 12;
+            case '\n':
+                return 15;
+            case '\r':
+                return 11;
+            default:
+                return ASCII_Y[c - 32];
+        }
+    }
+
     private void processEci(int eci) {
         if (eci == 3) {
             return; // default, no need to specify
@@ -1691,12 +1482,7 @@ private void processText(int[] data, int start, int length, boolean skipLatch) {
     private void processBytes(int[] data, int start, int length, EncodingMode lastMode) {
         int len = 0;
         int chunkLen = 0;
-        BigInteger mantisa;
-        BigInteger total;
-        BigInteger word;
-
-        mantisa = new BigInteger("0");
-        total = new BigInteger("0");
+        long total;
 
         checkCodewordCount(codeWordCount + 1 + (5 * length / 6) + (length % 6));
 
@@ -1716,20 +1502,17 @@ private void processBytes(int[] data, int start, int length, EncodingMode lastMo
                 if (6 <= chunkLen) /* Take groups of 6 */{
                     chunkLen = 6;
                     len += chunkLen;
-                    total = BigInteger.valueOf(0);
+                    total = 0;
 
                     while ((chunkLen--) != 0) {
-                        mantisa = BigInteger.valueOf(data[start++]);
-                        total = total.or(mantisa.shiftLeft(chunkLen * 8));
+                        total |= (long) data[start++] << (chunkLen * 8);
                     }
 
                     chunkLen = 5;
 
                     while ((chunkLen--) != 0) {
-
-                        word = total.mod(BigInteger.valueOf(900));
-                        codeWords[codeWordCount + chunkLen] = word.intValue();
-                        total = total.divide(BigInteger.valueOf(900));
+                        codeWords[codeWordCount + chunkLen] = (int) (total % 900);
+                        total /= 900;
                     }
                     codeWordCount += 5;
                 } else /* If it remain a group of less than 6 bytes */{
@@ -1744,25 +1527,26 @@ private void processBytes(int[] data, int start, int length, EncodingMode lastMo
 
     private void processNumbers(int[] data, int start, int length, boolean skipLatch) {
 
-        BigInteger tVal, dVal;
         int[] d = new int[16];
         int cw_count;
 
-        StringBuilder t = new StringBuilder(length + 1);
-        t.append('1');
-        for (int i = 0; i < length; i++) {
-            t.append((char) data[start + i]);
+        /* the value to convert to base 900 is the digits with a leading 1, read up to 9 digits at a time */
+        int[] value = new int[LargeIntegers.limbsForDigits(length + 1)];
+        LargeIntegers.set(value, 1);
+        for (int i = 0; i < length; i += 9) {
+            int digits = Math.min(9, length - i);
+            int chunk = 0;
+            for (int j = 0; j < digits; j++) {
+                chunk = (chunk * 10) + (data[start + i + j] - '0');
+            }
+            LargeIntegers.multiplyAdd(value, POWERS_OF_TEN[digits], chunk);
         }
 
-        tVal = new BigInteger(t.toString());
-
         cw_count = 0;
         do {
-            dVal = tVal.mod(BigInteger.valueOf(900));
-            d[cw_count] = dVal.intValue();
-            tVal = tVal.divide(BigInteger.valueOf(900));
+            d[cw_count] = LargeIntegers.divide(value, 900);
             cw_count++;
-        } while (tVal.compareTo(BigInteger.ZERO) == 1);
+        } while (!LargeIntegers.isZero(value));
 
         checkCodewordCount(codeWordCount + (skipLatch ? 0 : 1) + cw_count);
 
@@ -1861,6 +1645,116 @@ public String toString() {
         }
     }
 
+    /**
+     * Estimates the number of codewords needed to encode a structured append segment, in 264ths of a codeword
+     * (so that text compaction at 2 characters per codeword, numeric compaction at 15 codewords per 44 digits,
+     * and byte compaction at 5 codewords per 6 bytes can all be tracked exactly). The cheapest combination of
+     * compaction modes is tracked incrementally, one character at a time.
+     */
+    private static final class CodewordCostModel implements CostModel {
+
+        private static final int LATCH = 264;
+
+        private final boolean byteOnly;
+        private final int capacity;
+
+        private int text;    // cheapest cost so far, ending in text compaction mode
+        private int numeric; // cheapest cost so far, ending in numeric compaction mode
+        private int bytes;   // cheapest cost so far, ending in byte compaction mode
+
+        private CodewordCostModel(Pdf417 template) {
+
+            int overhead = 3 + (template.structuredAppendFileId.length() / 3); // macro marker, segment index, file ID
+            String fileName = template.structuredAppendFileName;
+            if (fileName != null && !fileName.isEmpty()) {
+                overhead += 2 + ((fileName.length() + 1) / 2);
+            }
+            if (template.structuredAppendIncludeSegmentCount) {
+                overhead += 4;
+            }
+            if (template.readerInit) {
+                overhead++;
+            }
+
+            int data;
+            if (template.symbolMode == Mode.MICRO) {
+                data = 0;
+                for (int i = 0; i < 34; i++) {
+                    int variant = MICRO_AUTOSIZE[i + 34];
+                    int c = MICRO_VARIANTS[variant - 1];
+                    int r = MICRO_VARIANTS[variant - 1 + 34];
+                    if ((template.columns == null || template.columns == c) && (template.rows == null || template.rows == r)) {
+                        data = Math.max(data, MICRO_AUTOSIZE[i]);
+                    }
+                }
+                data -= overhead;
+            } else {
+                int total;
+                if (template.columns != null && template.rows != null) {
+                    total = template.columns * template.rows;
+                } else if (template.columns != null) {
+                    total = template.columns * 90;
+                } else if (template.rows != null) {
+                    total = template.rows * 30;
+                } else {
+                    total = 929;
+                }
+                total = Math.min(total, 929);
+                for (data = total; data > 0; data--) {
+                    int count = data + overhead;
+                    int eccLevel = template.preferredEccLevel;
+                    if (eccLevel < 0) {
+                        eccLevel = (count <= 40 ? 2 : count <= 160 ? 3 : count <= 320 ? 4 : 5);
+                    }
+                    if (1 + count + (1 << (eccLevel + 1)) <= total) {
+                        break;
+                    }
+                }
+            }
+
+            this.byteOnly = template.forceByteCompaction;
+            this.capacity = Math.max(data, 0) * 264;
+
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            text = 0; // text compaction is the initial mode
+            numeric = INFINITY;
+            bytes = INFINITY;
+        }
+
+        @Override
+        public int add(char c) {
+
+            int best = Math.min(Math.min(text, numeric), bytes);
+            int size = (c <= 0xff ? 1 : c < 0x800 ? 2 : 3);
+            EncodingMode mode = (byteOnly || size > 1 ? EncodingMode.BYT : chooseMode(c));
+
+            bytes = Math.min(bytes, best + LATCH) + (size * 220);
+
+            if (mode == EncodingMode.NUM) {
+                numeric = Math.min(numeric, best + LATCH) + 90;
+            } else {
+                numeric = INFINITY;
+            }
+
+            if (mode != EncodingMode.BYT) {
+                text = Math.min(text, best + LATCH) + 132;
+            } else {
+                text = INFINITY;
+            }
+
+            return Math.min(Math.min(text, numeric), bytes);
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+    }
+
     /**
      * Splits up the data into a series of structured append PDF417 symbols which include
      * segment macro data <code>total</code> and <code>position</code>.
@@ -1877,8 +1771,25 @@ public String toString() {
      * @throws OkapiException if no data or data is invalid
      */
     public static List< Pdf417 > createStructuredAppendSymbols(String data, Pdf417 template) {
+        return createStructuredAppendSymbols(data, template, null);
+    }
+
+    /**
+     * Overloaded method of {@link #createStructuredAppendSymbols(String, Pdf417)} which
+     * encodes the symbols in parallel using the specified executor (for example,
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}), once the data has been split.
+     *
+     * @param data     the data to encode
+     * @param template the PDF417 symbol template which will be used for all created symbols
+     * @param executor the executor to use to encode the symbols, or <code>null</code> to
+     *                 encode them on the calling thread
+     * @return the PDF417 symbols, in segment order
+     * @throws OkapiException if no data or data is invalid
+     * @see #createStructuredAppendSymbols(String, Pdf417)
+     */
+    public static List< Pdf417 > createStructuredAppendSymbols(String data, Pdf417 template, Executor executor) {
         List< String > dataList = splitData(data, template);
-        return createStructuredAppendSymbols(dataList, template);
+        return createStructuredAppendSymbols(dataList, template, executor);
     }
 
     /**
@@ -1891,17 +1802,85 @@ public static List< Pdf417 > createStructuredAppendSymbols(byte[] data, Pdf417 t
         return createStructuredAppendSymbols(new String(data, ISO_8859_1), template);
     }
 
+    /**
+     * Overloaded method of {@link #createStructuredAppendSymbols(String, Pdf417, Executor)} which
+     * accepts binary data.
+     *
+     * @see #createStructuredAppendSymbols(String, Pdf417, Executor)
+     */
+    public static List< Pdf417 > createStructuredAppendSymbols(byte[] data, Pdf417 template, Executor executor) {
+        return createStructuredAppendSymbols(new String(data, ISO_8859_1), template, executor);
+    }
+
+    /**
+     * <p>Lazily splits up the binary data read from the specified stream into a series of structured append PDF417
+     * symbols, in the same way as {@link #createStructuredAppendSymbols(byte[], Pdf417)}. Data is read and symbols
+     * are encoded one at a time, as the returned iterator is advanced, so that memory use is bounded by the size of a
+     * single symbol rather than by the size of the data. The stream is not closed by this method or by the iterator.
+     *
+     * <p>The total number of symbols in the series is not known until all of the data has been read, so the template
+     * may not request that the segment count be included in the symbols (use
+     * {@link #createStructuredAppendIterator(ByteBuffer, Pdf417)} instead). The last symbol in the series is still
+     * marked as such, but the structured append total reported by the other symbols is not meaningful.
+     *
+     * <p>Any I/O errors encountered while reading the stream are rethrown as {@link UncheckedIOException}.
+     *
+     * @param data     the stream from which to read the data to encode
+     * @param template the PDF417 symbol template which will be used for all created symbols
+     * @return an iterator over the PDF417 symbols, in segment order
+     * @throws OkapiException if the template requests that the segment count be included, or if the data is invalid
+     * @see #createStructuredAppendSymbols(byte[], Pdf417)
+     */
+    public static Iterator< Pdf417 > createStructuredAppendIterator(InputStream data, Pdf417 template) {
+        return createStructuredAppendIterator(Channels.newChannel(data), template);
+    }
+
+    /**
+     * Overloaded method of {@link #createStructuredAppendIterator(InputStream, Pdf417)} which reads the
+     * data from a (blocking) channel. The channel is not closed by this method or by the iterator.
+     *
+     * @see #createStructuredAppendIterator(InputStream, Pdf417)
+     */
+    public static Iterator< Pdf417 > createStructuredAppendIterator(ReadableByteChannel data, Pdf417 template) {
+        if (template.getStructuredAppendIncludeSegmentCount()) {
+            throw new OkapiInputException("The structured append segment count cannot be included when the data size is not known in advance");
+        }
+        return new StructuredAppendIterator(data, template, 0);
+    }
+
+    /**
+     * Overloaded method of {@link #createStructuredAppendIterator(InputStream, Pdf417)} which reads the data
+     * between the position and the limit of the specified buffer (for example, a memory-mapped file). The buffer's
+     * position is not modified. Because the buffer can be read more than once, the template may request that the
+     * segment count be included in the symbols, in which case the data is split once up front in order to count
+     * the symbols (without retaining the segments), and then split again as the iterator is advanced.
+     *
+     * @see #createStructuredAppendIterator(InputStream, Pdf417)
+     */
+    public static Iterator< Pdf417 > createStructuredAppendIterator(ByteBuffer data, Pdf417 template) {
+        int total = 0;
+        if (template.getStructuredAppendIncludeSegmentCount()) {
+            StructuredAppendIterator counter = new StructuredAppendIterator(new BufferChannel(data.duplicate()), template, 0);
+            while (counter.hasNext()) {
+                counter.nextSegment();
+            }
+            total = counter.position;
+        }
+        return new StructuredAppendIterator(new BufferChannel(data.duplicate()), template, total);
+    }
+
     private static List< String > splitData(String data, Pdf417 template) {
         Pdf417 testSymbol = new Pdf417() {
             @Override protected void plotSymbol() {} // expensive plotting is not required
         };
         clone(template, testSymbol);
         testSymbol.setStructuredAppendTotal(2);
-        return split(data, testSymbol, Pdf417::fits, 99_999);
+        return split(data, testSymbol, Pdf417::fits, new CodewordCostModel(template), 99_999);
     }
 
     private static boolean fits(String data, Pdf417 testSymbol, boolean last) {
         if (!data.isEmpty()) {
+            testSymbol.eciMode = -1; // each check needs to auto-detect the ECI mode afresh
             testSymbol.setStructuredAppendPosition(last ? 2 : 1);
             try {
                 testSymbol.setContent(data);
@@ -1912,19 +1891,141 @@ private static boolean fits(String data, Pdf417 testSymbol, boolean last) {
         return true;
     }
 
-    private static List< Pdf417 > createStructuredAppendSymbols(List< String > split, Pdf417 template) {
+    private static List< Pdf417 > createStructuredAppendSymbols(List< String > split, Pdf417 template, Executor executor) {
         int count = split.size();
-        List< Pdf417 > symbols = new ArrayList<>(count);
-        for (int i = 0; i < count; i++) {
-            String data = split.get(i);
+        return createSymbols(count, i -> {
             Pdf417 symbol = new Pdf417();
-            symbols.add(symbol);
             clone(template, symbol);
             symbol.setStructuredAppendPosition(i + 1);
             symbol.setStructuredAppendTotal(count);
-            symbol.setContent(data);
+            symbol.setContent(split.get(i));
+            return symbol;
+        }, executor);
+    }
+
+    /**
+     * Splits up the data read from a channel and encodes the resultant symbols, one at a time. Only a window of data
+     * larger than the capacity of any single symbol is kept in memory, and each segment is removed from the window
+     * once its symbol has been created.
+     */
+    private static final class StructuredAppendIterator implements Iterator< Pdf417 > {
+
+        /** More than the largest amount of data that can fit in a single symbol (about 2,700 digits). */
+        private static final int WINDOW_SIZE = 4_096;
+
+        private final ReadableByteChannel channel;
+        private final Pdf417 template;
+        private final Pdf417 testSymbol;
+        private final CostModel model;
+        private final ByteBuffer window;
+        private final int total; // total number of symbols in the series, or 0 if unknown
+        private boolean eof;
+        private boolean last;
+        private int position;
+
+        private StructuredAppendIterator(ReadableByteChannel channel, Pdf417 template, int total) {
+            this.channel = channel;
+            this.template = template;
+            this.testSymbol = new Pdf417() {
+                @Override protected void plotSymbol() {} // expensive plotting is not required
+            };
+            Pdf417.clone(template, this.testSymbol);
+            this.testSymbol.setStructuredAppendTotal(2);
+            this.model = new CodewordCostModel(template);
+            this.window = ByteBuffer.allocate(WINDOW_SIZE);
+            this.total = total;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!eof && window.hasRemaining()) {
+                try {
+                    eof = (channel.read(window) < 0);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return window.position() > 0;
+        }
+
+        @Override
+        public Pdf417 next() {
+            String segment = nextSegment();
+            Pdf417 symbol = new Pdf417();
+            Pdf417.clone(template, symbol);
+            symbol.setStructuredAppendPosition(position);
+            symbol.setStructuredAppendTotal(total > 0 ? total : last ? position : position + 1);
+            symbol.setContent(segment);
+            return symbol;
+        }
+
+        /** Finds the next segment and removes it from the window, without creating the corresponding symbol. */
+        private String nextSegment() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            String data = new String(window.array(), 0, window.position(), ISO_8859_1);
+            int end = splitNext(data, 0, testSymbol, Pdf417::fits, model);
+            last = eof && end == data.length();
+            if (end == WINDOW_SIZE) {
+                throw new OkapiInternalException("PDF417 structured append segment exceeds window size");
+            }
+
+            // the last symbol also includes a terminator, so the last segment may need to be split one more time
+            if (last && !fits(data, testSymbol, true)) {
+                end--;
+                last = false;
+                if (end == 0) {
+                    throw new OkapiInputException("The specified template is too small to hold both data and structured append metadata");
+                }
+            }
+
+            if (!last && position + 1 == 99_999) {
+                throw new OkapiInputException("The specified template is too small to hold both data and structured append metadata");
+            }
+
+            position++;
+            window.flip();
+            window.position(end);
+            window.compact();
+
+            return data.substring(0, end);
+        }
+    }
+
+    /** Reads the remaining data in a buffer, as a channel. */
+    private static final class BufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer buffer;
+
+        private BufferChannel(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(buffer.remaining(), dst.remaining());
+            ByteBuffer chunk = buffer.duplicate();
+            chunk.limit(chunk.position() + count);
+            dst.put(chunk);
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // nothing to do
         }
-        return symbols;
     }
 
     private static void clone(Pdf417 template, Pdf417 target) {
@@ -1946,6 +2047,7 @@ private static void clone(Pdf417 template, Pdf417 target) {
         target.setMode(template.getMode());
         target.setStructuredAppendIncludeSegmentCount(template.getStructuredAppendIncludeSegmentCount());
         target.setForceByteCompaction(template.getForceByteCompaction());
+        target.setOptimalEncoding(template.getOptimalEncoding());
         if (template.getPreferredEccLevel() != -1) {
             target.setPreferredEccLevel(template.getPreferredEccLevel());
         }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reed-Solomon error correction over the prime field GF(929), as used by PDF417, MicroPDF417 and the PDF417-based
+ * composite components. Since 929 is prime, field addition is integer addition modulo 929, and multiplication is
+ * performed using exponent and logarithm tables. The generator polynomial for each error correction codeword count is
+ * calculated once and then cached.
+ */
+final class Pdf417ReedSolomon {
+
+    private static final int GF = 929;
+    private static final int PRIMITIVE = 3;
+
+    /* Exponent table, repeated so that the sum of two logarithms never needs to be reduced, and padded with zeros so
+     * that any sum involving the logarithm of zero (see below) looks up a product of zero */
+    private static final int[] EXP = new int[(4 * (GF - 1)) + 1];
+
+    /* Logarithm table, with the logarithm of zero set to an index into the zero padding of the exponent table */
+    private static final int[] LOG = new int[GF];
+
+    /* Logarithms of the generator polynomial coefficients, highest degree first, keyed by polynomial degree */
+    private static final Map< Integer, int[] > GENERATORS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0, x = 1; i < GF - 1; i++) {
+            EXP[i] = x;
+            EXP[i + GF - 1] = x;
+            LOG[x] = i;
+            x = (x * PRIMITIVE) % GF;
+        }
+        LOG[0] = 2 * (GF - 1);
+    }
+
+    private Pdf417ReedSolomon() {
+        // utility class
+    }
+
+    /**
+     * Calculates the error correction codewords for the specified data codewords, and writes them to the array
+     * immediately after the data codewords.
+     *
+     * @param codewords the codeword array, containing the data codewords, with room for the error correction codewords
+     * @param length the number of data codewords
+     * @param eccCount the number of error correction codewords to calculate
+     */
+    static void encode(int[] codewords, int length, int eccCount) {
+
+        int[] generator = GENERATORS.computeIfAbsent(eccCount, Pdf417ReedSolomon::createGenerator);
+        int end = length + eccCount;
+        int last = end - 1;
+        Arrays.fill(codewords, length, end, 0);
+
+        /* The remainder is kept negated, so that it can be used as-is once all of the data has been processed */
+        for (int i = 0; i < length; i++) {
+            int feedback = codewords[i] - codewords[length];
+            if (feedback < 0) {
+                feedback += GF;
+            }
+            int log = LOG[feedback];
+            for (int j = length, g = 0; j < last; j++, g++) {
+                int value = codewords[j + 1] + EXP[log + generator[g]];
+                codewords[j] = value >= GF ? value - GF : value;
+            }
+            codewords[last] = EXP[log + generator[eccCount - 1]];
+        }
+    }
+
+    /**
+     * Returns the logarithms of the coefficients of the generator polynomial (x - 3)(x - 3^2) ... (x - 3^k), excluding
+     * the leading coefficient, highest degree first.
+     *
+     * @param eccCount the number of error correction codewords (k)
+     * @return the logarithms of the generator polynomial coefficients
+     */
+    private static int[] createGenerator(int eccCount) {
+
+        int[] coefficients = new int[eccCount + 1]; // lowest degree first
+        coefficients[0] = 1;
+        for (int i = 1; i <= eccCount; i++) {
+            int root = EXP[i];
+            for (int j = i; j > 0; j--) {
+                coefficients[j] = (coefficients[j - 1] + GF - (root * coefficients[j]) % GF) % GF;
+            }
+            coefficients[0] = (GF - (root * coefficients[0]) % GF) % GF;
+        }
+
+        int[] logs = new int[eccCount];
+        for (int i = 0; i < eccCount; i++) {
+            logs[i] = LOG[coefficients[eccCount - 1 - i]];
+        }
+        return logs;
+    }
+}
@@ -21,11 +21,13 @@
 import static uk.org.okapibarcode.util.Arrays.positionOf;
 import static uk.org.okapibarcode.util.Strings.binaryAppend;
 
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * <p>Implements QR Code bar code symbology According to ISO/IEC 18004:2015.
@@ -393,14 +395,7 @@ protected void encode() {
 
         if (eciMode == 20) {
             /* Shift-JIS encoding, 2-byte Kanji characters need to be combined */
-            Charset sjis = Charset.forName("Shift_JIS");
-            inputData = new int[content.length()];
-            for (i = 0; i < inputData.length; i++) {
-                CharBuffer buffer = CharBuffer.wrap(content, i, i + 1);
-                byte[] bytes = sjis.encode(buffer).array();
-                int value = (bytes.length == 2 && bytes[1] != 0 ? ((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff) : bytes[0]);
-                inputData[i] = value;
-            }
+            inputData = ShiftJis.toValues(content);
         } else {
             /* inputData already initialized in eciProcess() */
         }
@@ -1841,9 +1836,25 @@ protected void customize(int[] grid, int size) {
      * @throws OkapiException if no data or data is invalid
      */
     public static List< QrCode > createStructuredAppendSymbols(String data, QrCode template) {
+        return createStructuredAppendSymbols(data, template, null);
+    }
+
+    /**
+     * Creates a list of QR Code symbols for structured append from a string, using a template symbol.
+     * The template's settings are cloned for each symbol created. Once the data has been split, the
+     * symbols are encoded in parallel using the specified executor (for example,
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}).
+     *
+     * @param data the input data
+     * @param template the template QrCode symbol
+     * @param executor the executor to use to encode the symbols, or <code>null</code> to encode them on the calling thread
+     * @return a list of QrCode symbols with structured append set, in segment order
+     * @throws OkapiException if no data or data is invalid
+     */
+    public static List< QrCode > createStructuredAppendSymbols(String data, QrCode template, Executor executor) {
         List< String > dataList = splitData(data, template);
         int parity = calculateStructuredAppendParity(data, template);
-        return createStructuredAppendSymbols(dataList, parity, template);
+        return createStructuredAppendSymbols(dataList, parity, template, executor);
     }
 
     private static List< String > splitData(String data, QrCode template) {
@@ -1852,11 +1863,12 @@ private static List< String > splitData(String data, QrCode template) {
         };
         clone(template, testSymbol);
         testSymbol.setStructuredAppendTotal(2);
-        return split(data, testSymbol, QrCode::fits, MAX_STRUCTURED_APPEND_SYMBOLS);
+        return split(data, testSymbol, QrCode::fits, new BitCostModel(template), MAX_STRUCTURED_APPEND_SYMBOLS);
     }
 
     private static boolean fits(String data, QrCode testSymbol, boolean last) {
         if (!data.isEmpty()) {
+            testSymbol.eciMode = -1; // each check needs to auto-detect the ECI mode afresh
             try {
                 testSymbol.setContent(data);
             } catch (OkapiInputException e) {
@@ -1866,20 +1878,17 @@ private static boolean fits(String data, QrCode testSymbol, boolean last) {
         return true;
     }
 
-    private static List< QrCode > createStructuredAppendSymbols(List< String > split, int parity, QrCode template) {
+    private static List< QrCode > createStructuredAppendSymbols(List< String > split, int parity, QrCode template, Executor executor) {
         int count = split.size();
-        List< QrCode > symbols = new ArrayList<>(count);
-        for (int i = 0; i < count; i++) {
-            String data = split.get(i);
+        return createSymbols(count, i -> {
             QrCode symbol = new QrCode();
-            symbols.add(symbol);
             clone(template, symbol);
             symbol.setStructuredAppendPosition(i + 1);
             symbol.setStructuredAppendTotal(count);
             symbol.setStructuredAppendParity(parity);
-            symbol.setContent(data);
-        }
-        return symbols;
+            symbol.setContent(split.get(i));
+            return symbol;
+        }, executor);
     }
 
     private static int calculateStructuredAppendParity(String content, QrCode template) {
@@ -1910,4 +1919,167 @@ private static void clone(QrCode template, QrCode target) {
             target.setPreferredVersion(template.getPreferredVersion());
         }
     }
+
+    /**
+     * Estimates the number of bits needed to encode a structured append segment, in sixths of a bit (so that the
+     * 10-bits-per-3-digits numeric mode and the 11-bits-per-2-characters alphanumeric mode can be tracked exactly).
+     * The cheapest segmentation into numeric, alphanumeric and byte mode is tracked incrementally, one character
+     * at a time. The actual encoder uses heuristics, so this estimate is usually slightly optimistic.
+     */
+    private static final class BitCostModel implements CostModel {
+
+        private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+        private final boolean byteOnly;
+        private final int baseOverhead;
+        private final int numericHeader;
+        private final int alphaHeader;
+        private final int binaryHeader;
+        private final int capacity;
+
+        private int overhead;
+        private int numeric; // cheapest cost so far, ending in numeric mode
+        private int alpha;   // cheapest cost so far, ending in alphanumeric mode
+        private int binary;  // cheapest cost so far, ending in byte mode
+
+        private BitCostModel(QrCode template) {
+
+            int version = (template.preferredVersion > 0 ? template.preferredVersion : 40);
+            int[] dataCodewords;
+            switch (template.preferredEccLevel) {
+                case M:
+                    dataCodewords = QR_DATA_CODEWORDS_M;
+                    break;
+                case Q:
+                    dataCodewords = QR_DATA_CODEWORDS_Q;
+                    break;
+                case H:
+                    dataCodewords = QR_DATA_CODEWORDS_H;
+                    break;
+                case L:
+                default:
+                    dataCodewords = QR_DATA_CODEWORDS_L;
+                    break;
+            }
+
+            int bits = 20; // structured append header
+            if (template.getDataType() == DataType.GS1) {
+                bits += 4;
+            }
+
+            this.byteOnly = template.forceByteCompaction;
+            this.baseOverhead = bits * 6;
+            this.numericHeader = (4 + tribus(version, 10, 12, 14)) * 6;
+            this.alphaHeader = (4 + tribus(version, 9, 11, 13)) * 6;
+            this.binaryHeader = (4 + tribus(version, 8, 16, 16)) * 6;
+            this.capacity = dataCodewords[version - 1] * 8 * 6;
+
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            overhead = baseOverhead;
+            numeric = INFINITY;
+            alpha = INFINITY;
+            binary = INFINITY;
+        }
+
+        @Override
+        public int add(char c) {
+
+            if (c > 0xff && overhead == baseOverhead) {
+                overhead += 12 * 6; // auto-detected ECI will need to be specified explicitly
+            }
+
+            int best = Math.min(Math.min(numeric, alpha), binary);
+            if (best == INFINITY) {
+                best = 0; // first character in the segment
+            }
+
+            int bytes = (c <= 0xff ? 1 : c < 0x800 ? 2 : 3);
+            binary = Math.min(binary, best + binaryHeader) + (bytes * 8 * 6);
+
+            if (!byteOnly && c >= '0' && c <= '9') {
+                numeric = Math.min(numeric, best + numericHeader) + 20;
+            } else {
+                numeric = INFINITY;
+            }
+
+            if (!byteOnly && isAlpha(c)) {
+                alpha = Math.min(alpha, best + alphaHeader) + 33;
+            } else {
+                alpha = INFINITY;
+            }
+
+            return overhead + Math.min(Math.min(numeric, alpha), binary);
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * Unicode to Shift JIS lookup table. ASCII characters map to themselves, so only the rest of the BMP is covered,
+     * in pages of 256 characters which are only created the first time that a character in the page is encoded. Each
+     * character maps to its Shift JIS value, with double-byte (Kanji) values packed into a single value.
+     */
+    private static final class ShiftJis {
+
+        private static final Charset SHIFT_JIS = Charset.forName("Shift_JIS");
+
+        private static final AtomicReferenceArray< char[] > PAGES = new AtomicReferenceArray<>(256);
+
+        private static char[] getPage(int page) {
+            char[] values = PAGES.get(page);
+            if (values == null) {
+                values = createPage(page);
+                PAGES.set(page, values); // pages are always identical, so it doesn't matter which thread wins
+            }
+            return values;
+        }
+
+        private static char[] createPage(int page) {
+            /* encode the entire page in a single pass, then unpack the 1-byte and 2-byte values */
+            char[] chars = new char[256];
+            for (int i = 0; i < chars.length; i++) {
+                char c = (char) ((page << 8) | i);
+                chars[i] = Character.isSurrogate(c) ? '?' : c; // lone surrogates cannot be encoded
+            }
+            ByteBuffer bytes = SHIFT_JIS.encode(CharBuffer.wrap(chars));
+            char[] values = new char[chars.length];
+            for (int i = 0; i < values.length; i++) {
+                int b = bytes.get() & 0xff;
+                if ((b >= 0x81 && b <= 0x9f) || (b >= 0xe0 && b <= 0xfc)) {
+                    values[i] = (char) ((b << 8) | (bytes.get() & 0xff));
+                } else {
+                    values[i] = (char) b;
+                }
+            }
+            return values;
+        }
+
+        /**
+         * Converts the specified content to Shift JIS values, one per character. Double-byte values are returned
+         * as a single combined value; single-byte values are sign-extended, as they always have been.
+         *
+         * @param content the content to convert
+         * @return the Shift JIS values
+         */
+        private static int[] toValues(String content) {
+            int[] values = new int[content.length()];
+            for (int i = 0; i < values.length; i++) {
+                char c = content.charAt(i);
+                if (c < 0x80) {
+                    values[i] = c;
+                } else {
+                    char value = getPage(c >> 8)[c & 0xff];
+                    values[i] = (value > 0xff ? value : (byte) value);
+                }
+            }
+            return values;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package uk.org.okapibarcode.backend;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -88,8 +89,16 @@ private ReedSolomon(int poly, int nsym, int index) {
 
     public int[] encode(int len, int[] data) {
         int[] res = new int[rlen];
-        for (int i = 0; i < len; i++) {
-            int m = res[rlen - 1] ^ data[i];
+        encode(data, 0, 1, len, res);
+        return res;
+    }
+
+    // reads data[offset], data[offset + stride], ... so that interleaved blocks can be encoded in place,
+    // and writes the (reversed) results to the start of res, so that the same result array can be reused
+    public void encode(int[] data, int offset, int stride, int len, int[] res) {
+        Arrays.fill(res, 0, rlen, 0);
+        for (int i = 0, j = offset; i < len; i++, j += stride) {
+            int m = res[rlen - 1] ^ data[j];
             for (int k = rlen - 1; k > 0; k--) {
                 if (m != 0 && rspoly[k] != 0) {
                     res[k] = res[k - 1] ^ alog[(logt[m] + logt[rspoly[k]]) % logmod];
@@ -103,7 +112,6 @@ public int[] encode(int len, int[] data) {
                 res[0] = 0;
             }
         }
-        return res;
     }
 
     private static final class Key {
@@ -33,6 +33,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
 
 import uk.org.okapibarcode.graphics.Circle;
 import uk.org.okapibarcode.graphics.Hexagon;
@@ -105,7 +109,8 @@ public enum DataType {
     protected int eciMode = -1;
     protected int[] inputData; // usually bytes (values 0-255), but may also contain FNC flags
     protected String readable = "";
-    protected String[] pattern;
+    protected String[] pattern; // row bar / space widths, as width characters (ignored if widths is set)
+    protected byte[][] widths;  // row bar / space widths, as numbers (see getPattern())
     protected int[] rowHeight;
     protected int rowCount = 0;
     protected int symbolHeight = 0;
@@ -115,7 +120,7 @@ public enum DataType {
     protected List< Hexagon > hexagons = new ArrayList<>();     // note positions do not account for quiet zones (handled in renderers)
     protected List< Circle > target = new ArrayList<>();        // note positions do not account for quiet zones (handled in renderers)
     protected List< Rectangle > rectangles = new ArrayList<>(); // note positions do not account for quiet zones (handled in renderers)
-    protected Map< Double, Rectangle > prevRectangles = new HashMap<>(); // x-position -> last seen rectangle at that position (optimization)
+    protected Map< Double, Integer > prevRectangles = new HashMap<>(); // x-position -> index of last seen rectangle at that position (optimization)
 
     /**
      * <p>Sets the type of input data. This setting influences what pre-processing is done on
@@ -514,16 +519,19 @@ protected void addRectangle(Rectangle rect) {
             return;
         }
 
-        // if this is a 2D barcode, try to merge rectangles
-        Rectangle prev = prevRectangles.get(rect.x);
-        if (prev != null &&
-            roughlyEqual(prev.width, rect.width) &&
-            roughlyEqual(prev.y + prev.height, rect.y)) {
-            prev.height += rect.height;
-        } else {
-            rectangles.add(rect);
-            prevRectangles.put(rect.x, rect);
+        // if this is a 2D barcode, try to merge rectangles (rectangles are immutable, and may be shared
+        // with other symbols, so the merged rectangle replaces the previous rectangle)
+        Integer index = prevRectangles.get(rect.x);
+        if (index != null) {
+            Rectangle prev = rectangles.get(index);
+            if (roughlyEqual(prev.width, rect.width) &&
+                roughlyEqual(prev.y + prev.height, rect.y)) {
+                rectangles.set(index, new Rectangle(prev.x, prev.y, prev.width, prev.height + rect.height));
+                return;
+            }
         }
+        prevRectangles.put(rect.x, rectangles.size());
+        rectangles.add(rect);
     }
 
     /**
@@ -647,6 +655,71 @@ protected static String bin2pat(boolean[] bin, int index, int size, StringBuilde
         return pat.toString();
     }
 
+    protected static byte[] bin2widths(CharSequence bin, WidthBuffer widths) {
+
+        int len = 0;
+        char prev = '1';
+        widths.clear();
+
+        for (int i = 0; i < bin.length(); i++) {
+            char val = bin.charAt(i);
+            if (val == prev) {
+                len++;
+            } else {
+                widths.append(len);
+                prev = val;
+                len = 1;
+            }
+        }
+
+        widths.append(len);
+        return widths.toArray();
+    }
+
+    protected static byte[] bin2widths(int[] bin, int index, int size, WidthBuffer widths) {
+
+        int len = 0;
+        int prev = 1;
+        int end = index + size;
+        widths.clear();
+
+        for (int i = index; i < end; i++) {
+            int val = bin[i] & 0x01;
+            if (val == prev) {
+                len++;
+            } else {
+                widths.append(len);
+                prev = val;
+                len = 1;
+            }
+        }
+
+        widths.append(len);
+        return widths.toArray();
+    }
+
+    protected static byte[] bin2widths(boolean[] bin, int index, int size, WidthBuffer widths) {
+
+        int len = 0;
+        boolean prev = true;
+        int end = index + size;
+        widths.clear();
+
+        for (int i = index; i < end; i++) {
+            boolean val = bin[i];
+            if (val == prev) {
+                len++;
+            } else {
+                widths.append(len);
+                prev = val;
+                len = 1;
+            }
+        }
+
+        widths.append(len);
+        return widths.toArray();
+    }
+
     /**
      * Sets whether or not empty content is allowed. Some symbologies may be able to generate empty symbols when no data is
      * present, though this is not usually desired behavior. The default value is <code>false</code> (no empty content allowed).
@@ -879,9 +952,11 @@ protected void plotSymbol() {
             black = true;
             x = 0;
             h = rowHeight[yBlock];
-            for (xBlock = 0; xBlock < pattern[yBlock].length(); xBlock++) {
-                char c = pattern[yBlock].charAt(xBlock);
-                w = getModuleWidth(c - '0') * moduleWidth;
+            byte[] row = (widths != null ? widths[yBlock] : null);
+            int count = (row != null ? row.length : pattern[yBlock].length());
+            for (xBlock = 0; xBlock < count; xBlock++) {
+                int width = (row != null ? row[xBlock] : pattern[yBlock].charAt(xBlock) - '0');
+                w = getModuleWidth(width) * moduleWidth;
                 if (black) {
                     if (w != 0 && h != 0) {
                         addRectangle(new Rectangle(x, y, w, h));
@@ -972,6 +1047,23 @@ protected int[] getCodewords() {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns the bar and space widths of each row of this bar code, as strings of width characters (<code>'0'</code>
+     * plus the width). For symbols which record their widths as numbers, this view is derived from the widths on demand.
+     *
+     * @return the bar and space widths of each row of this bar code
+     */
+    protected String[] getPattern() {
+        if (widths == null) {
+            return pattern;
+        }
+        String[] rows = new String[widths.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = WidthBuffer.toString(widths[i], 0, widths[i].length);
+        }
+        return rows;
+    }
+
     /**
      * Returns this bar code's pattern, converted into a set of corresponding codewords.
      * Useful for bar codes that encode their content as a pattern.
@@ -983,6 +1075,7 @@ protected int[] getPatternAsCodewords(int size) {
         if (size >= 10) {
             throw new IllegalArgumentException("Pattern groups of 10 or more digits are likely to be too large to parse as integers.");
         }
+        String[] pattern = getPattern();
         if (pattern == null || pattern.length == 0) {
             return new int[0];
         } else {
@@ -1042,36 +1135,33 @@ protected void infoLine() {
 
     /**
      * Splits the specified data so that it will fit across N symbols configured like the test symbol.
-     * Uses binary search instead of linear search, for performance reasons.
+     * The cost model is used to walk through the data once, predicting where each symbol will overflow;
+     * each prediction is then confirmed (and corrected, if necessary) by encoding the test symbol, using
+     * an exponential search outward from the predicted split point. As long as the cost model is reasonably
+     * accurate, only a small, constant number of test encodings are needed per symbol, and the time required
+     * to split the data grows linearly with the size of the data.
      *
      * @param <T> the type of symbol
      * @param data the data to split
      * @param testSymbol the test symbol
      * @param check custom logic to check whether a symbol fits or not
+     * @param model the cost model used to predict the split points
      * @param max the maximum number of symbols to allow
      * @return the split data
      */
-    protected static < T extends Symbol > List< String > split(String data, T testSymbol, FitsCheck< T > check, int max) {
+    protected static < T extends Symbol > List< String > split(String data, T testSymbol, FitsCheck< T > check, CostModel model, int max) {
 
         List< String > split = new ArrayList<>();
+        int length = data.length();
+        int start = 0;
 
-        while (!data.isEmpty()) {
-            int low = 0;
-            int high = data.length();
-            while (low <= high) {
-                int mid = (low + high) >>> 1;
-                String candidate = data.substring(0, mid);
-                if (check.fits(candidate, testSymbol, false)) {
-                    low = mid + 1;
-                } else {
-                    high = mid - 1;
-                }
-            }
-            if (high == 0) {
+        while (start < length) {
+            if (split.size() == max) {
                 throw new OkapiInputException("The specified template is too small to hold both data and structured append metadata");
             }
-            split.add(data.substring(0, high));
-            data = data.substring(high);
+            int end = splitNext(data, start, testSymbol, check, model);
+            split.add(data.substring(start, end));
+            start = end;
         }
 
         if (!split.isEmpty()) {
@@ -1094,8 +1184,169 @@ protected static < T extends Symbol > List< String > split(String data, T testSy
         return split;
     }
 
+    /**
+     * Finds the end index of the next segment of the specified data, starting at the specified index, such that the
+     * segment fits in a symbol configured like the test symbol which is not the last symbol in the series. The cost
+     * model is used to predict the split point, which is then confirmed (and corrected, if necessary) by encoding the
+     * test symbol.
+     *
+     * @param <T> the type of symbol
+     * @param data the data to split
+     * @param start the start index of the segment
+     * @param testSymbol the test symbol
+     * @param check custom logic to check whether a symbol fits or not
+     * @param model the cost model used to predict the split point
+     * @return the end index of the segment
+     * @throws OkapiInputException if not even a single character fits in the test symbol
+     */
+    protected static < T extends Symbol > int splitNext(String data, int start, T testSymbol, FitsCheck< T > check, CostModel model) {
+
+        model.reset();
+        int capacity = model.capacity();
+        int length = data.length();
+        int guess = start;
+        while (guess < length && model.add(data.charAt(guess)) <= capacity) {
+            guess++;
+        }
+
+        int end = findSplit(data, start, Math.max(guess, start + 1), testSymbol, check);
+        if (end == start) {
+            throw new OkapiInputException("The specified template is too small to hold both data and structured append metadata");
+        }
+
+        return end;
+    }
+
+    /**
+     * Creates the symbols in a structured append series, one per data segment. Each symbol is independent of the others,
+     * so if an executor is provided the symbols are encoded in parallel; either way, the symbols are returned in segment order.
+     *
+     * @param <T> the type of symbol
+     * @param count the number of symbols to create
+     * @param factory creates and encodes the symbol at the specified (zero-based) position in the series
+     * @param executor the executor to use to encode the symbols in parallel, or <code>null</code> to encode them
+     *        sequentially on the calling thread
+     * @return the symbols, in segment order
+     */
+    protected static < T extends Symbol > List< T > createSymbols(int count, IntFunction< T > factory, Executor executor) {
+
+        List< T > symbols = new ArrayList<>(count);
+
+        if (executor == null || count < 2) {
+            for (int i = 0; i < count; i++) {
+                symbols.add(factory.apply(i));
+            }
+            return symbols;
+        }
+
+        List< CompletableFuture< T > > futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> factory.apply(index), executor));
+        }
+
+        for (CompletableFuture< T > future : futures) {
+            try {
+                symbols.add(future.join());
+            } catch (CompletionException e) {
+                // rethrow the original exception, as if the symbol had been encoded on the calling thread
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw e;
+                }
+            }
+        }
+
+        return symbols;
+    }
+
+    /**
+     * Finds the end index of the longest segment starting at the specified index which still fits in the test symbol,
+     * searching outward from the specified guess.
+     *
+     * @param <T> the type of symbol
+     * @param data the data being split
+     * @param start the start index of the segment
+     * @param guess the predicted end index of the segment
+     * @param testSymbol the test symbol
+     * @param check custom logic to check whether a symbol fits or not
+     * @return the end index of the longest segment which fits, or <code>start</code> if not even one character fits
+     */
+    private static < T extends Symbol > int findSplit(String data, int start, int guess, T testSymbol, FitsCheck< T > check) {
+
+        // find the bounds: lo is an end index which fits, hi is an end index which does not fit
+        int length = data.length();
+        int lo, hi;
+        if (check.fits(data.substring(start, guess), testSymbol, false)) {
+            lo = guess;
+            hi = length + 1;
+            for (int step = 1; lo < length; step <<= 1) {
+                int probe = Math.min(lo + step, length);
+                if (check.fits(data.substring(start, probe), testSymbol, false)) {
+                    lo = probe;
+                } else {
+                    hi = probe;
+                    break;
+                }
+            }
+        } else {
+            lo = start;
+            hi = guess;
+            for (int step = 1; hi - 1 > start; step <<= 1) {
+                int probe = Math.max(hi - step, start + 1);
+                if (check.fits(data.substring(start, probe), testSymbol, false)) {
+                    lo = probe;
+                    break;
+                } else {
+                    hi = probe;
+                }
+            }
+        }
+
+        // binary search between the bounds
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (check.fits(data.substring(start, mid), testSymbol, false)) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
     @FunctionalInterface
     protected interface FitsCheck< T extends Symbol > {
         boolean fits(String data, T testSymbol, boolean last);
     }
+
+    /**
+     * Incremental model of the space required to encode a segment of data, used to predict structured append
+     * split points. Costs and capacities may use any unit, as long as they are consistent within the model.
+     */
+    protected interface CostModel {
+
+        /** Resets the model to the start of a new segment. */
+        void reset();
+
+        /**
+         * Adds the specified character to the current segment.
+         *
+         * @param c the character to add
+         * @return the estimated cost of the current segment, including the specified character
+         */
+        int add(char c);
+
+        /**
+         * Returns the estimated capacity of a single symbol.
+         *
+         * @return the estimated capacity of a single symbol
+         */
+        int capacity();
+    }
 }
@@ -16,13 +16,19 @@
 
 package uk.org.okapibarcode.backend;
 
+import static uk.org.okapibarcode.backend.Ean.CENTRE_GUARD;
+import static uk.org.okapibarcode.backend.Ean.NORMAL_GUARD;
+import static uk.org.okapibarcode.backend.Ean.append;
+import static uk.org.okapibarcode.backend.Ean.appendAddOn;
 import static uk.org.okapibarcode.backend.Ean.calcDigit;
+import static uk.org.okapibarcode.backend.Ean.singleRow;
 import static uk.org.okapibarcode.backend.Ean.validateAndPad;
 import static uk.org.okapibarcode.backend.HumanReadableLocation.BOTTOM;
 import static uk.org.okapibarcode.backend.HumanReadableLocation.NONE;
 import static uk.org.okapibarcode.backend.HumanReadableLocation.TOP;
 
 import java.util.Arrays;
+import java.util.function.IntPredicate;
 
 import uk.org.okapibarcode.graphics.Rectangle;
 import uk.org.okapibarcode.graphics.TextAlignment;
@@ -60,14 +66,19 @@ public enum Mode {
         UPCE
     }
 
-    private static final String[] SET_AC = {
-        "3211", "2221", "2122", "1411", "1132", "1231", "1114", "1312", "1213", "3112"
+    private static final byte[][] SET_AC = {
+        { 3, 2, 1, 1 }, { 2, 2, 2, 1 }, { 2, 1, 2, 2 }, { 1, 4, 1, 1 }, { 1, 1, 3, 2 },
+        { 1, 2, 3, 1 }, { 1, 1, 1, 4 }, { 1, 3, 1, 2 }, { 1, 2, 1, 3 }, { 3, 1, 1, 2 }
     };
 
-    private static final String[] SET_B = {
-        "1123", "1222", "2212", "1141", "2311", "1321", "4111", "2131", "3121", "2113"
+    private static final byte[][] SET_B = {
+        { 1, 1, 2, 3 }, { 1, 2, 2, 2 }, { 2, 2, 1, 2 }, { 1, 1, 4, 1 }, { 2, 3, 1, 1 },
+        { 1, 3, 2, 1 }, { 4, 1, 1, 1 }, { 2, 1, 3, 1 }, { 3, 1, 2, 1 }, { 2, 1, 1, 3 }
     };
 
+    /* UPC-E end guard pattern (special guard pattern plus a normal guard pattern) */
+    private static final byte[] UPCE_END_GUARD = { 1, 1, 1, 1, 1, 1 };
+
     /* Number set for UPC-E symbol (EN Table 4) */
     private static final String[] UPC_PARITY_0 = {
         "BBBAAA", "BBABAA", "BBAABA", "BBAAAB", "BABBAA", "BAABBA", "BAAABB",
@@ -80,6 +91,12 @@ public enum Mode {
         "ABABAB", "ABABBA", "ABBABA"
     };
 
+    /** Whether or not the bar at a given position (in modules) is part of a UPC-A guard pattern. */
+    private static final IntPredicate UPCA_GUARDS = x -> x < 10 || x > 84 || (x > 45 && x < 49);
+
+    /** Whether or not the bar at a given position (in modules) is part of a UPC-E guard pattern. */
+    private static final IntPredicate UPCE_GUARDS = x -> x < 4 || x > 45;
+
     private Mode mode;
     private boolean showCheckDigit = true;
     private int guardPatternExtraHeight = 5;
@@ -222,19 +239,18 @@ private void upca() {
 
         String hrt = content + check;
 
-        int length = 3 + (12 * 4) + 5 + 3;
-        StringBuilder dest = new StringBuilder(length);
-        dest.append("111");
+        widths = singleRow(widths, 3 + (12 * 4) + 5 + 3);
+        byte[] dest = widths[0];
+        int index = append(dest, 0, NORMAL_GUARD);
         for (int i = 0; i < 12; i++) {
             if (i == 6) {
-                dest.append("11111");
+                index = append(dest, index, CENTRE_GUARD);
             }
-            dest.append(SET_AC[hrt.charAt(i) - '0']);
+            index = append(dest, index, SET_AC[hrt.charAt(i) - '0']);
         }
-        dest.append("111");
+        append(dest, index, NORMAL_GUARD);
 
         readable = hrt;
-        pattern = new String[] { dest.toString() };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
@@ -255,20 +271,19 @@ private void upce() {
         String[] parityArray = (numberSystem == 1 ? UPC_PARITY_1 : UPC_PARITY_0);
         String parity = parityArray[check - '0'];
 
-        int length = 3 + (6 * 4) + 6;
-        StringBuilder dest = new StringBuilder(length);
-        dest.append("111");
+        widths = singleRow(widths, 3 + (6 * 4) + 6);
+        byte[] dest = widths[0];
+        int index = append(dest, 0, NORMAL_GUARD);
         for (int i = 0; i < 6; i++) {
             if (parity.charAt(i) == 'A') {
-                dest.append(SET_AC[content.charAt(i + 1) - '0']);
+                index = append(dest, index, SET_AC[content.charAt(i + 1) - '0']);
             } else { // B
-                dest.append(SET_B[content.charAt(i + 1) - '0']);
+                index = append(dest, index, SET_B[content.charAt(i + 1) - '0']);
             }
         }
-        dest.append("111111");
+        append(dest, index, UPCE_END_GUARD);
 
         readable = hrt;
-        pattern = new String[] { dest.toString() };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
@@ -351,55 +366,33 @@ protected void plotSymbol() {
         resetPlotElements();
 
         int xBlock;
-        int x, y, w, h;
+        int x, w;
         boolean black = true;
-        int compositeOffset = (linkageFlag ? 6 : 0); // space for composite separator above
         int hrtOffset = (humanReadableLocation == TOP ? getTheoreticalHumanReadableHeight() : 0); // space for HRT above
 
         x = 0;
 
+        /* Reuse the shared bars for this layout */
+        EanUpcBars bars;
+        if (mode == Mode.UPCA) {
+            bars = EanUpcBars.get(mode, UPCA_GUARDS, 94, moduleWidth, defaultHeight, guardPatternExtraHeight, linkageFlag, hrtOffset);
+        } else {
+            bars = EanUpcBars.get(mode, UPCE_GUARDS, 50, moduleWidth, defaultHeight, guardPatternExtraHeight, linkageFlag, hrtOffset);
+        }
+
         /* Add top separator for composite symbology, if necessary */
-        if (linkageFlag) {
-            if (mode == Mode.UPCA) {
-                addRectangle(new Rectangle(scale(0),  0, scale(1), 2));
-                addRectangle(new Rectangle(scale(94), 0, scale(1), 2));
-                addRectangle(new Rectangle(scale(-1), 2, scale(1), 2));
-                addRectangle(new Rectangle(scale(95), 2, scale(1), 2));
-            } else { // UPCE
-                addRectangle(new Rectangle(scale(0),  0, scale(1), 2));
-                addRectangle(new Rectangle(scale(50), 0, scale(1), 2));
-                addRectangle(new Rectangle(scale(-1), 2, scale(1), 2));
-                addRectangle(new Rectangle(scale(51), 2, scale(1), 2));
-            }
+        for (Rectangle rect : bars.separator()) {
+            addRectangle(rect);
         }
 
         /* Draw the bars in the symbology */
-        for (xBlock = 0; xBlock < pattern[0].length(); xBlock++) {
+        byte[] row = widths[0];
+        for (xBlock = 0; xBlock < row.length; xBlock++) {
 
-            w = pattern[0].charAt(xBlock) - '0';
+            w = row[xBlock];
 
             if (black) {
-                y = 0;
-                h = defaultHeight;
-                /* Add extension to guide bars */
-                if (mode == Mode.UPCA) {
-                    if (x < 10 || x > 84 || (x > 45 && x < 49)) {
-                        h += guardPatternExtraHeight;
-                    }
-                    if (linkageFlag && (x == 0 || x == 94)) {
-                        h += 2;
-                        y -= 2;
-                    }
-                } else {
-                    if (x < 4 || x > 45) {
-                        h += guardPatternExtraHeight;
-                    }
-                    if (linkageFlag && (x == 0 || x == 50)) {
-                        h += 2;
-                        y -= 2;
-                    }
-                }
-                Rectangle rect = new Rectangle(scale(x), y + compositeOffset + hrtOffset, scale(w), h);
+                Rectangle rect = bars.get(x, w);
                 addRectangle(rect);
                 symbolWidth = Math.max(symbolWidth, (int) (rect.x + rect.width));
                 symbolHeight = Math.max(symbolHeight, (int) (rect.y + rect.height - hrtOffset));
@@ -447,7 +440,7 @@ protected void plotSymbol() {
                 addRectangle(new Rectangle(baseX + r.x, baseY + r.y, r.width, r.height));
             }
             symbolWidth += scale(gap) + addOn.symbolWidth;
-            pattern[0] = pattern[0] + gap + addOn.pattern[0];
+            widths[0] = appendAddOn(widths[0], gap, addOn.widths[0]);
         }
     }
 
@@ -19,7 +19,7 @@
 import static uk.org.okapibarcode.backend.HumanReadableLocation.NONE;
 import static uk.org.okapibarcode.backend.HumanReadableLocation.TOP;
 
-import java.math.BigInteger;
+import java.util.function.Consumer;
 
 import uk.org.okapibarcode.graphics.Rectangle;
 import uk.org.okapibarcode.graphics.TextAlignment;
@@ -194,6 +194,29 @@ public class UspsOneCode extends Symbol {
         5, 74, 22, 101, 128, 58, 118, 48, 108, 38, 98, 93, 23, 83, 13, 73, 3
     };
 
+    /** Character (high bits) and character bit (low 4 bits) which determine each bar's descender (0 - 64) and ascender (65 - 129) */
+    private static final int[] BAR_SOURCES = new int[130];
+
+    /** CRC-11 lookup table, indexed by the top 8 bits of the frame check sequence XOR the next data byte */
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < APPX_D_IV.length; i++) {
+            BAR_SOURCES[APPX_D_IV[i] - 1] = ((i / 13) << 4) | (i % 13);
+        }
+        for (int i = 0; i < CRC_TABLE.length; i++) {
+            int fcs = i << 3;
+            for (int bit = 0; bit < 8; bit++) {
+                fcs = ((fcs & 0x400) != 0 ? (fcs << 1) ^ 0x0F35 : fcs << 1) & 0x7FF;
+            }
+            CRC_TABLE[i] = fcs;
+        }
+    }
+
+    /** The binary data (102 bits) is held in two longs, with this many bits in the low long */
+    private static final int LOW_BITS = 51;
+    private static final long LOW_MASK = (1L << LOW_BITS) - 1;
+
     private double moduleWidthRatio;
     private double shortHeightPercentage;
     private double longHeightPercentage;
@@ -267,21 +290,144 @@ public double getLongHeightPercentage() {
         return longHeightPercentage;
     }
 
+    /**
+     * <p>Encodes a sequence of symbols whose tracking codes differ only in the serial number, passing each symbol to the
+     * specified consumer as soon as it has been encoded. The serial number is the last field in the tracking code, so
+     * successive symbols are encoded by incrementing the binary data directly, rather than by rebuilding and parsing
+     * the content of each symbol.
+     *
+     * <p>The tracking code prefix consists of the barcode identifier, the service type identifier and (if present) the
+     * mailer identifier. The serial number occupies the rest of the 20-digit tracking code, and is zero-padded as needed:
+     * for example, the serial number field is 9 digits long for a 6-digit mailer identifier, and 6 digits long for a 9-digit
+     * mailer identifier. The content of each symbol is the same as if it had been set via {@link #setContent(String)}.
+     *
+     * @param prefix      the tracking code digits which precede the serial number
+     * @param firstSerial the serial number of the first symbol
+     * @param count       the number of symbols to encode
+     * @param zip         the delivery point ZIP code (0, 5, 9 or 11 digits)
+     * @param template    the symbol template which will be used for all created symbols; the content will be ignored
+     * @param consumer    the consumer to which the symbols are passed, in serial number order
+     * @throws OkapiException if the prefix or the ZIP code is invalid, or if the serial numbers don't fit in the tracking code
+     */
+    public static void createSequence(String prefix, long firstSerial, long count, String zip, UspsOneCode template,
+                    Consumer< ? super UspsOneCode > consumer) {
+
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+
+        if (!prefix.matches("[0-9]*") || !zip.matches("[0-9]*")) {
+            throw OkapiInputException.invalidCharactersInInput();
+        }
+
+        if (prefix.length() < 2 || prefix.length() > 19) {
+            throw new OkapiInputException("Tracking code prefix is not correct length");
+        }
+
+        int serialLength = 20 - prefix.length();
+        if (firstSerial < 0 || (count > 0 && Long.toString(firstSerial + count - 1).length() > serialLength)) {
+            throw new OkapiInputException("Serial numbers do not fit in " + serialLength + " digits");
+        }
+
+        if (count == 0) {
+            return;
+        }
+
+        char[] content = new char[zip.isEmpty() ? 20 : 21 + zip.length()];
+        prefix.getChars(0, prefix.length(), content, 0);
+        setDigits(content, 20, serialLength, firstSerial);
+        if (!zip.isEmpty()) {
+            content[20] = '-';
+            zip.getChars(0, zip.length(), content, 21);
+        }
+
+        /* the first symbol validates the input, and everything else can be derived from it */
+        UspsOneCode first = new UspsOneCode();
+        clone(template, first);
+        first.setContent(new String(content));
+        consumer.accept(first);
+
+        /* find the serial number digits in the human readable text (the field layout
+         * depends on the first 6 digits, so a shorter prefix needs the text to be reformatted) */
+        boolean fixedLayout = prefix.length() >= 6;
+        char[] readable = first.readable.toCharArray();
+        int[] readablePositions = new int[serialLength];
+        for (int i = 0, digit = 0; fixedLayout && i < readable.length && digit < 20; i++) {
+            if (readable[i] >= '0' && readable[i] <= '9') {
+                if (digit >= prefix.length()) {
+                    readablePositions[digit - prefix.length()] = i;
+                }
+                digit++;
+            }
+        }
+
+        /* the serial number is the least significant part of the binary data, so it can simply be incremented */
+        long[] binary = toBinaryData(first.content.substring(0, 20), zip);
+        long high = binary[0];
+        long low = binary[1];
+
+        for (long serial = firstSerial + 1; serial < firstSerial + count; serial++) {
+            low++;
+            high += low >>> LOW_BITS;
+            low &= LOW_MASK;
+            setDigits(content, 20, serialLength, serial);
+            String text = new String(content);
+            String hrt;
+            if (fixedLayout) {
+                for (int i = 0, j = prefix.length(); i < serialLength; i++, j++) {
+                    readable[readablePositions[i]] = content[j];
+                }
+                hrt = new String(readable);
+            } else {
+                hrt = formatHumanReadableText(text);
+            }
+            UspsOneCode symbol = new UspsOneCode();
+            clone(template, symbol);
+            symbol.encodeSequenceItem(text, hrt, high, low);
+            consumer.accept(symbol);
+        }
+    }
+
+    private static void setDigits(char[] chars, int end, int length, long value) {
+        for (int i = end - 1; i >= end - length; i--) {
+            chars[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+    }
+
+    private static void clone(UspsOneCode template, UspsOneCode target) {
+        target.setFontName(template.getFontName());
+        target.setFontSize(template.getFontSize());
+        target.setHumanReadableAlignment(template.getHumanReadableAlignment());
+        target.setHumanReadableLocation(template.getHumanReadableLocation());
+        target.setModuleWidth(template.getModuleWidth());
+        target.setQuietZoneHorizontal(template.getQuietZoneHorizontal());
+        target.setQuietZoneVertical(template.getQuietZoneVertical());
+        target.setBarHeight(template.getBarHeight());
+        target.setModuleWidthRatio(template.getModuleWidthRatio());
+        target.setShortHeightPercentage(template.getShortHeightPercentage());
+        target.setLongHeightPercentage(template.getLongHeightPercentage());
+    }
+
+    /**
+     * Encodes the next symbol in a sequence, exactly as {@link #setContent(String)} would, but using the specified
+     * pre-calculated human readable text and binary data.
+     */
+    private void encodeSequenceItem(String content, String readable, long high, long low) {
+        encodeInfo.setLength(0); // clear
+        this.content = content;
+        encodeBinaryData(high, low);
+        this.readable = readable;
+        plotSymbol();
+        infoLine("Shapes: ", rectangles.size() + hexagons.size() + target.size());
+    }
+
     @Override
     protected void encode() {
         StringBuilder tracker = new StringBuilder(20);
         StringBuilder zip = new StringBuilder(11);
-        String zip_adder;
         int i, j;
         int length = content.length();
-        BigInteger accum;
-        BigInteger x_reg;
-        BigInteger mask;
-        int usps_crc;
-        int[] codeword = new int[10];
-        int[] characters = new int[10];
-        boolean[] bar_map = new boolean[130];
-        char c;
 
         if (!content.matches("[0-9\u002D]*")) {
             throw OkapiInputException.invalidCharactersInInput();
@@ -315,65 +461,79 @@ protected void encode() {
             throw new OkapiInputException("ZIP code is not correct length");
         }
 
+        long[] binary = toBinaryData(tracker, zip);
+        encodeBinaryData(binary[0], binary[1]);
+
+        readable = formatHumanReadableText(content);
+    }
+
+    /**
+     * Converts the tracking code and the routing code into binary data (102 bits), returned as two longs: the high
+     * bits and the low {@link #LOW_BITS} bits.
+     */
+    private static long[] toBinaryData(CharSequence tracker, CharSequence zip) {
+
+        long zip_adder, x_reg, high, low;
+        int multiplier;
+
         /* *** Step 1 - Conversion of Data Fields into Binary Data *** */
 
         /* Routing code first */
         if (zip.length() > 0) {
-            x_reg = new BigInteger(zip.toString());
+            x_reg = Long.parseLong(zip.toString());
         } else {
-            x_reg = new BigInteger("0");
+            x_reg = 0;
         }
 
         /* add weight to routing code */
         if (zip.length() > 9) {
-            zip_adder = "1000100001";
+            zip_adder = 1_000_100_001L;
         } else {
             if (zip.length() > 5) {
-                zip_adder = "100001";
+                zip_adder = 100_001;
             } else {
                 if (zip.length() > 0) {
-                    zip_adder = "1";
+                    zip_adder = 1;
                 } else {
-                    zip_adder = "0";
+                    zip_adder = 0;
                 }
             }
         }
 
-        accum = new BigInteger(zip_adder);
-        accum = accum.add(x_reg);
-        accum = accum.multiply(BigInteger.valueOf(10));
-        accum = accum.add(BigInteger.valueOf(Character.getNumericValue(tracker.charAt(0))));
-        accum = accum.multiply(BigInteger.valueOf(5));
-        accum = accum.add(BigInteger.valueOf(Character.getNumericValue(tracker.charAt(1))));
-        for (i = 2; i < tracker.length(); i++) {
-            accum = accum.multiply(BigInteger.valueOf(10));
-            accum = accum.add(BigInteger.valueOf(Character.getNumericValue(tracker.charAt(i))));
+        /* the second digit of the barcode identifier is base 5, the rest of the tracking code is base 10 */
+        high = 0;
+        low = zip_adder + x_reg;
+        for (int i = 0; i < tracker.length(); i++) {
+            multiplier = (i == 1 ? 5 : 10);
+            low = (low * multiplier) + Character.getNumericValue(tracker.charAt(i));
+            high = (high * multiplier) + (low >>> LOW_BITS);
+            low &= LOW_MASK;
         }
 
-        /* *** Step 2 - Generation of 11-bit CRC on Binary Data *** */
+        return new long[] { high, low };
+    }
 
-        int[] byte_array = new int[13];
-        for (i = 0; i < byte_array.length; i++) {
-            mask = accum.shiftRight(96 - (8 * i));
-            mask = mask.and(new BigInteger("255"));
-            byte_array[i] = mask.intValue();
-        }
+    private void encodeBinaryData(long high, long low) {
+
+        int i, divisor, usps_crc;
+        long remainder;
+        int[] codeword = new int[10];
+        int[] characters = new int[10];
 
-        usps_crc = USPS_MSB_Math_CRC11GenerateFrameCheckSequence(byte_array);
+        /* *** Step 2 - Generation of 11-bit CRC on Binary Data *** */
 
-        /* *** Step 3 - Conversion from Binary Data to Codewords *** */
+        usps_crc = USPS_MSB_Math_CRC11GenerateFrameCheckSequence(high, low);
 
-        /* start with codeword J which is base 636 */
-        x_reg = accum.mod(BigInteger.valueOf(636));
-        codeword[9] = x_reg.intValue();
-        accum = accum.subtract(x_reg);
-        accum = accum.divide(BigInteger.valueOf(636));
+        /* *** Step 3 - Conversion from Binary Data to Codewords *** */
 
-        for (i = 8; i >= 0; i--) {
-            x_reg = accum.mod(BigInteger.valueOf(1365));
-            codeword[i] = x_reg.intValue();
-            accum = accum.subtract(x_reg);
-            accum = accum.divide(BigInteger.valueOf(1365));
+        /* start with codeword J which is base 636, the rest are base 1365 */
+        for (i = 9; i >= 0; i--) {
+            divisor = (i == 9 ? 636 : 1365);
+            remainder = high % divisor;
+            high /= divisor;
+            low |= remainder << LOW_BITS;
+            codeword[i] = (int) (low % divisor);
+            low /= divisor;
         }
 
         for (i = 0; i < 9; i++) {
@@ -414,49 +574,34 @@ protected void encode() {
 
         /* *** Step 6 - Conversion from Characters to the Intelligent Mail Barcode *** */
 
-        for (i = 0; i < 10; i++) {
-            for (j = 0; j < 13; j++) {
-                if ((characters[i] & (1 << j)) == 0) {
-                    bar_map[APPX_D_IV[(13 * i) + j] - 1] = false;
-                } else {
-                    bar_map[APPX_D_IV[(13 * i) + j] - 1] = true;
-                }
-            }
-        }
-
-        StringBuilder pat = new StringBuilder(65);
+        char[] pat = new char[65];
         for (i = 0; i < 65; i++) {
-            c = 'T';
-            if (bar_map[i]) {
-                c = 'D';
-            }
-            if (bar_map[i + 65]) {
-                c = 'A';
-            }
-            if (bar_map[i] && bar_map[i + 65]) {
-                c = 'F';
-            }
-            pat.append(c);
+            int descender = characterBit(characters, BAR_SOURCES[i]);
+            int ascender = characterBit(characters, BAR_SOURCES[i + 65]);
+            pat[i] = "TDAF".charAt(descender | (ascender << 1));
         }
-        infoLine("Encoding: ", pat);
 
-        readable = formatHumanReadableText(content);
-        pattern = new String[] { pat.toString() };
+        String encoding = new String(pat);
+        infoLine("Encoding: ", encoding);
+
+        pattern = new String[] { encoding };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
     }
 
-    private static int USPS_MSB_Math_CRC11GenerateFrameCheckSequence(int[] bytes) {
+    private static int characterBit(int[] characters, int source) {
+        return (characters[source >>> 4] >>> (source & 15)) & 1;
+    }
+
+    private static int USPS_MSB_Math_CRC11GenerateFrameCheckSequence(long high, long low) {
 
         int generatorPolynomial = 0x0F35;
         int frameCheckSequence = 0x07FF;
         int data;
-        int byteIndex, bit;
-        int byteArrayPtr = 0;
+        int bit, shift;
 
         /* Do most significant byte skipping the 2 most significant bits */
-        data = bytes[byteArrayPtr] << 5;
-        byteArrayPtr++;
+        data = (int) (high >>> (96 - LOW_BITS)) << 5;
         for (bit = 2; bit < 8; bit++) {
             if (((frameCheckSequence ^ data) & 0x400) != 0)
                 frameCheckSequence = (frameCheckSequence << 1) ^ generatorPolynomial;
@@ -466,19 +611,14 @@ private static int USPS_MSB_Math_CRC11GenerateFrameCheckSequence(int[] bytes) {
             data <<= 1;
         }
 
-        /* Do rest of the bytes */
-        for (byteIndex = 1; byteIndex < 13; byteIndex++) {
-            data = bytes[byteArrayPtr] << 3;
-            byteArrayPtr++;
-            for (bit = 0; bit < 8; bit++) {
-                if (((frameCheckSequence ^ data) & 0x0400) != 0) {
-                    frameCheckSequence = (frameCheckSequence << 1) ^ generatorPolynomial;
-                } else {
-                    frameCheckSequence = (frameCheckSequence << 1);
-                }
-                frameCheckSequence &= 0x7FF;
-                data <<= 1;
+        /* Do rest of the bytes, a byte at a time */
+        for (shift = 88; shift >= 0; shift -= 8) {
+            if (shift >= LOW_BITS) {
+                data = (int) (high >>> (shift - LOW_BITS)) & 0xFF;
+            } else {
+                data = (int) ((high << (LOW_BITS - shift)) | (low >>> shift)) & 0xFF;
             }
+            frameCheckSequence = ((frameCheckSequence << 8) ^ CRC_TABLE[(frameCheckSequence >>> 3) ^ data]) & 0x7FF;
         }
 
         return frameCheckSequence;
@@ -72,7 +72,7 @@ protected void encode() {
         }
 
         readable = hrt.toString();
-        pattern = new String[] { code128.pattern[0] };
+        widths = new byte[][] { code128.widths[0] };
         rowHeight = new int[] { defaultHeight };
         rowCount = 1;
         encodeInfo = deleteLastLine(code128.encodeInfo); // remove shape count, our shape count is added later
@@ -90,8 +90,8 @@ protected void plotSymbol() {
         int h = defaultHeight;
         boolean black = true;
 
-        for (int xBlock = 0; xBlock < pattern[0].length(); xBlock++) {
-            int w = pattern[0].charAt(xBlock) - '0';
+        for (int xBlock = 0; xBlock < widths[0].length; xBlock++) {
+            int w = widths[0][xBlock];
             if (black) {
                 addRectangle(new Rectangle(x + offset, y, w, h));
                 symbolWidth = x + w + (2 * offset);
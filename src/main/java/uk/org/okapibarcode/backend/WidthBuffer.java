@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import java.util.Arrays;
+
+/**
+ * A growable sequence of alternating bar and space widths (starting with a bar), one <code>byte</code> per element.
+ * Used by linear and stacked symbologies to build the rows in {@link Symbol#widths} directly from numeric width tables,
+ * without the overhead of building width digit strings which then need to be parsed again when the symbol is plotted.
+ */
+final class WidthBuffer {
+
+    private byte[] widths;
+    private int length;
+
+    /**
+     * Creates a new width buffer with the specified initial capacity.
+     *
+     * @param capacity the initial capacity, in elements
+     */
+    WidthBuffer(int capacity) {
+        widths = new byte[Math.max(capacity, 8)];
+    }
+
+    /**
+     * Returns the number of elements in this buffer.
+     *
+     * @return the number of elements in this buffer
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Removes all elements from this buffer, retaining the current capacity.
+     */
+    void clear() {
+        length = 0;
+    }
+
+    /**
+     * Appends the specified element width.
+     *
+     * @param width the width to append (0 - 127)
+     * @return this buffer
+     */
+    WidthBuffer append(int width) {
+        if (length == widths.length) {
+            widths = Arrays.copyOf(widths, widths.length * 2);
+        }
+        widths[length++] = (byte) width;
+        return this;
+    }
+
+    /**
+     * Appends the specified element widths.
+     *
+     * @param values the widths to append
+     * @return this buffer
+     */
+    WidthBuffer append(byte[] values) {
+        if (length + values.length > widths.length) {
+            widths = Arrays.copyOf(widths, Math.max(widths.length * 2, length + values.length));
+        }
+        System.arraycopy(values, 0, widths, length, values.length);
+        length += values.length;
+        return this;
+    }
+
+    /**
+     * Appends the bar and space widths of the specified packed module pattern. The first module is assumed to be a bar.
+     *
+     * @param modules the packed module pattern, one bit per module, most significant bit first
+     * @param count the number of modules in the packed module pattern (1 - 32)
+     * @return this buffer
+     */
+    WidthBuffer appendModules(int modules, int count) {
+        int bits = modules << (32 - count); // align the first module with the most significant bit
+        boolean bar = true;
+        while (count > 0) {
+            int width = Math.min(count, Integer.numberOfLeadingZeros(bar ? ~bits : bits));
+            append(width);
+            bits <<= width;
+            count -= width;
+            bar = !bar;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the element width at the specified index.
+     *
+     * @param index the index of the element to return
+     * @return the element width at the specified index
+     */
+    int get(int index) {
+        return widths[index];
+    }
+
+    /**
+     * Returns a copy of the elements in this buffer.
+     *
+     * @return a copy of the elements in this buffer
+     */
+    byte[] toArray() {
+        return Arrays.copyOf(widths, length);
+    }
+
+    @Override
+    public String toString() {
+        return toString(widths, 0, length);
+    }
+
+    /**
+     * Returns the specified widths as a string of width characters (<code>'0'</code> plus the width).
+     *
+     * @param widths the widths to convert
+     * @param start the index of the first width to convert
+     * @param end the index after the last width to convert
+     * @return the widths as a string of width characters
+     */
+    static String toString(byte[] widths, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) ('0' + widths[i]);
+        }
+        return new String(chars);
+    }
+}
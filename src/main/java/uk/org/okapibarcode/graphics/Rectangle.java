@@ -19,7 +19,7 @@
 import java.util.Objects;
 
 /**
- * A rectangular shape.
+ * A rectangular shape. Rectangles are immutable, and may be shared between symbols.
  *
  * @author Daniel Gredler
  */
@@ -35,7 +35,7 @@ public final class Rectangle {
     public final double width;
 
     /** The height of the rectangle. */
-    public double height;
+    public final double height;
 
     /**
      * Creates a new instance.
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.util;
+
+/**
+ * Fixed width unsigned integer arithmetic, for values which do not fit into a <code>long</code>. Values are stored
+ * in <code>int</code> arrays of 32-bit limbs, most significant limb first, and are modified in place, so that
+ * encoders can avoid the many intermediate objects created when using <code>BigInteger</code>. Only the operations
+ * required by the symbologies (multiplying and dividing by small constants) are provided.
+ */
+public final class LargeIntegers {
+
+    private static final long MASK = 0xffff_ffffL;
+
+    private LargeIntegers() {
+        // utility class
+    }
+
+    /**
+     * Returns the number of limbs required to hold any unsigned integer with the specified number of decimal digits.
+     *
+     * @param digits the number of decimal digits
+     * @return the number of limbs required
+     */
+    public static int limbsForDigits(int digits) {
+        return Math.max(1, (digits + 8) / 9); // 10^9 < 2^32
+    }
+
+    /**
+     * Sets the specified value to the specified non-negative <code>long</code> value.
+     *
+     * @param value the value to modify
+     * @param v the new value
+     */
+    public static void set(int[] value, long v) {
+        for (int i = value.length - 1; i >= 0; i--) {
+            value[i] = (int) v;
+            v >>>= 32;
+        }
+    }
+
+    /**
+     * Multiplies the specified value by the specified multiplier, and then adds the specified addend.
+     *
+     * @param value the value to modify
+     * @param multiplier the multiplier, treated as unsigned
+     * @param addend the addend, treated as unsigned
+     * @return any overflow which did not fit into the value (zero if the result fit)
+     */
+    public static int multiplyAdd(int[] value, int multiplier, int addend) {
+        long m = multiplier & MASK;
+        long carry = addend & MASK;
+        for (int i = value.length - 1; i >= 0; i--) {
+            long product = ((value[i] & MASK) * m) + carry;
+            value[i] = (int) product;
+            carry = product >>> 32;
+        }
+        return (int) carry;
+    }
+
+    /**
+     * Divides the specified value by the specified divisor, returning the remainder.
+     *
+     * @param value the value to modify
+     * @param divisor the divisor
+     * @return the remainder
+     * @throws IllegalArgumentException if the divisor is not positive
+     */
+    public static int divide(int[] value, int divisor) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Invalid divisor: " + divisor);
+        }
+        long remainder = 0;
+        for (int i = 0; i < value.length; i++) {
+            long dividend = (remainder << 32) | (value[i] & MASK);
+            value[i] = (int) (dividend / divisor);
+            remainder = dividend % divisor;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Returns the specified number of bits from the specified value, starting at the specified bit position.
+     *
+     * @param value the value to read
+     * @param shift the position of the least significant bit to return, where position zero is the least significant
+     *        bit of the value
+     * @param bits the number of bits to return (1 - 32)
+     * @return the requested bits
+     */
+    public static int bits(int[] value, int shift, int bits) {
+        int i = value.length - 1 - (shift >>> 5);
+        if (i < 0) {
+            return 0;
+        }
+        int offset = shift & 31;
+        long v = (value[i] & MASK) >>> offset;
+        if (offset + bits > 32 && i > 0) {
+            v |= (value[i - 1] & MASK) << (32 - offset);
+        }
+        return (int) (v & (MASK >>> (32 - bits)));
+    }
+
+    /**
+     * Returns whether or not the specified value is zero.
+     *
+     * @param value the value to check
+     * @return whether or not the specified value is zero
+     */
+    public static boolean isZero(int[] value) {
+        for (int limb : value) {
+            if (limb != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.org.okapibarcode.backend.SymbolTest.assertSameSymbols;
+import static uk.org.okapibarcode.backend.SymbolTest.decode;
+import static uk.org.okapibarcode.backend.SymbolTest.draw;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.aztec.AztecReader;
+
+/**
+ * {@link AztecCode} tests that can't be run via the {@link SymbolTest}.
+ */
+public class AztecCodeTest {
+
+    @Test
+    public void testCreateStructuredAppendSymbols() throws Exception {
+
+        AztecCode template = new AztecCode();
+        template.setPreferredSize(2); // compact, 2 layers
+        template.setStructuredAppendMessageId("DOC42");
+
+        String content = "Lorem ipsum dolor sit amet, consectetur adipiscing elit 0123456789 ÀÉÎÕÜ";
+        List< AztecCode > symbols = AztecCode.createStructuredAppendSymbols(content, template);
+        assertEquals(3, symbols.size());
+
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < symbols.size(); i++) {
+            AztecCode symbol = symbols.get(i);
+            assertEquals(i + 1, symbol.getStructuredAppendPosition());
+            assertEquals(symbols.size(), symbol.getStructuredAppendTotal());
+            assertEquals("DOC42", symbol.getStructuredAppendMessageId());
+            assertEquals(2, symbol.getPreferredSize());
+            // ZXing returns the structured append metadata as part of the text: message ID, position and total
+            String header = " DOC42 " + (char) ('A' + i) + (char) ('A' + symbols.size() - 1);
+            assertEquals(header + symbol.getContent(), decode(draw(symbol), new AztecReader()).getText());
+            joined.append(symbol.getContent());
+        }
+        assertEquals(content, joined.toString());
+
+        List< AztecCode > parallel = AztecCode.createStructuredAppendSymbols(content, template, ForkJoinPool.commonPool());
+        assertSameSymbols(symbols, parallel);
+
+        // data which fits in a single symbol does not need any structured append metadata
+        List< AztecCode > single = AztecCode.createStructuredAppendSymbols("Lorem ipsum", template);
+        assertEquals(1, single.size());
+        assertEquals(1, single.get(0).getStructuredAppendTotal());
+        assertEquals("Lorem ipsum", decode(draw(single.get(0)), new AztecReader()).getText());
+
+        // 26 symbols is the maximum allowed
+        OkapiInputException e = assertThrows(OkapiInputException.class, () -> AztecCode.createStructuredAppendSymbols(content.repeat(10), template));
+        assertEquals("The specified template is too small to hold both data and structured append metadata", e.getMessage());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.util.Strings;
+
+/**
+ * Tests for {@link BitBuffer}.
+ */
+public class BitBufferTest {
+
+    @Test
+    void testAppend() {
+
+        BitBuffer buffer = new BitBuffer(8);
+        buffer.append(0b101, 3);
+        buffer.append(0xffff_ffff, 32);
+        buffer.append(0x12, 8);
+        buffer.appendZeros(2);
+        buffer.appendZeros(-1); // ignored
+        buffer.append(0b1, 1);
+
+        assertEquals(46, buffer.length());
+        assertEquals("1011111111111111111111111111111111100010010001", buffer.toString());
+        assertTrue(buffer.get(0));
+        assertFalse(buffer.get(1));
+        assertEquals(0b101, buffer.get(0, 3));
+        assertEquals(0xffff_ffff, buffer.get(3, 32));
+        assertEquals(0x12, buffer.get(35, 8));
+        assertEquals(0b001, buffer.get(43, 3));
+
+        buffer.clear();
+        assertEquals(0, buffer.length());
+        assertEquals("", buffer.toString());
+        buffer.append(0b0110, 4);
+        assertEquals("0110", buffer.toString());
+    }
+
+    @Test
+    void testSetAndTruncate() {
+
+        BitBuffer buffer = new BitBuffer(8);
+        buffer.append(0xffff_ffff, 32);
+        buffer.append(0xffff_ffff, 32);
+        buffer.append(0b101, 3);
+        assertEquals("ffffffffffffffffa", buffer.toHexString());
+
+        buffer.set(0, false);
+        buffer.set(63, false);
+        buffer.set(65, true);
+        assertEquals("7ffffffffffffffee", buffer.toHexString());
+
+        buffer.truncate(70); // ignored
+        assertEquals(67, buffer.length());
+        buffer.truncate(62);
+        assertEquals(62, buffer.length());
+        assertEquals("7ffffffffffffffc", buffer.toHexString());
+        buffer.append(0, 8); // truncated bits are not resurrected
+        assertEquals("7ffffffffffffffc00", buffer.toHexString());
+        buffer.truncate(1);
+        assertEquals("0", buffer.toString());
+        buffer.truncate(0);
+        assertEquals("", buffer.toHexString());
+    }
+
+    @Test
+    void testWordBoundaries() {
+
+        // compare against the equivalent string-based approach, using all sorts of word boundary alignments
+        Random random = new Random(7);
+        BitBuffer buffer = new BitBuffer(0);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            int bits = 1 + random.nextInt(31);
+            int value = random.nextInt();
+            buffer.append(value, bits);
+            Strings.binaryAppend(expected, value, bits);
+        }
+
+        assertEquals(expected.toString(), buffer.toString());
+        for (int i = 0; i + 32 <= expected.length(); i += 13) {
+            int bits = 1 + (i % 32);
+            assertEquals(Integer.parseUnsignedInt(expected.substring(i, i + bits), 2), buffer.get(i, bits));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ChannelCode} tests that can't be run via the {@link SymbolTest}.
+ */
+public class ChannelCodeTest {
+
+    private static final int[] MAX_VALUES = { 26, 292, 3493, 44072, 576688, 7742862 };
+
+    @Test
+    public void testPatternsExhaustive() {
+        for (int channels = 3; channels <= 6; channels++) {
+            List< String > expected = new Search(channels, 1).run();
+            assertEquals(MAX_VALUES[channels - 3] + 1, expected.size());
+            ChannelCode code = new ChannelCode();
+            code.setPreferredNumberOfChannels(channels);
+            for (int value = 0; value < expected.size(); value++) {
+                code.setContent(String.valueOf(value));
+                assertEquals(expected.get(value), code.getPattern()[0], channels + " channels, value " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testPatternsSampled() {
+        for (int channels = 7; channels <= 8; channels++) {
+            int step = (channels == 7 ? 97 : 997);
+            List< String > expected = new Search(channels, step).run();
+            ChannelCode code = new ChannelCode();
+            code.setPreferredNumberOfChannels(channels);
+            for (int i = 0; i < expected.size(); i++) {
+                int value = i * step;
+                code.setContent(String.valueOf(value));
+                assertEquals(expected.get(i), code.getPattern()[0], channels + " channels, value " + value);
+            }
+            code.setContent(String.valueOf(MAX_VALUES[channels - 3]));
+            assertEquals("Channels Used: " + channels, code.getEncodeInfo().split("\n")[0]);
+        }
+    }
+
+    /** The original exhaustive pattern search, used to verify the patterns calculated directly from the values. */
+    private static final class Search {
+
+        private final int channels;
+        private final int step;
+        private final int[] space = new int[11];
+        private final int[] bar = new int[11];
+        private final List< String > patterns = new ArrayList<>();
+        private int currentValue;
+
+        private Search(int channels, int step) {
+            this.channels = channels;
+            this.step = step;
+        }
+
+        /** Returns every {@code step}th pattern, in value order. */
+        private List< String > run() {
+            bar[0] = space[1] = bar[1] = space[2] = bar[2] = 1;
+            nextSpace(3, channels, channels);
+            return patterns;
+        }
+
+        private void nextSpace(int i, int maxSpace, int maxBar) {
+            for (int s = (i < channels + 2) ? 1 : maxSpace; s <= maxSpace; s++) {
+                space[i] = s;
+                nextBar(i, maxBar, maxSpace + 1 - s);
+            }
+        }
+
+        private void nextBar(int i, int maxBar, int maxSpace) {
+            int b = (space[i] + bar[i - 1] + space[i - 1] + bar[i - 2] > 4) ? 1 : 2;
+            if (i < channels + 2) {
+                for (; b <= maxBar; b++) {
+                    bar[i] = b;
+                    nextSpace(i + 1, maxSpace, maxBar + 1 - b);
+                }
+            } else if (b <= maxBar) {
+                bar[i] = maxBar;
+                if (currentValue % step == 0) {
+                    StringBuilder sb = new StringBuilder("11110");
+                    for (int j = 0; j < 11; j++) {
+                        sb.append((char) (space[j] + '0'));
+                        sb.append((char) (bar[j] + '0'));
+                    }
+                    patterns.add(sb.toString());
+                }
+                currentValue++;
+            }
+        }
+    }
+}
@@ -18,9 +18,16 @@
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
+import uk.org.okapibarcode.backend.Code128.CodeSet;
+import uk.org.okapibarcode.backend.Symbol.DataType;
+
 /**
  * {@link Code128} tests that can't be run via the {@link SymbolTest}.
  */
@@ -49,4 +56,53 @@ public void testCanReuse() {
                         code128.getEncodeInfo());
     }
 
+    @Test
+    public void testOptimalEncoding() {
+
+        Code128 code128 = new Code128();
+        code128.setDataType(DataType.GS1);
+        code128.setContent("[10]1[21]ABCDEFG1234567[240]12");
+        assertEquals(29, code128.getCodewords().length);
+        assertFalse(code128.getOptimalEncoding());
+
+        code128.setOptimalEncoding(true);
+        code128.setContent("[10]1[21]ABCDEFG1234567[240]12");
+        assertEquals(28, code128.getCodewords().length);
+        assertTrue(code128.getOptimalEncoding());
+        assertEquals("Encoding: STARTB FNC1 17 16 17 FNC1 18 17 33 34 35 36 37 38 39 17 CODEC 23 45 67 FNC1 24 1 CODEB 18 \n" +
+                     "Data Codewords: 25\n" +
+                     "Check Digit: 11\n" +
+                     "Shapes: 82\n",
+                     code128.getEncodeInfo());
+
+        // optimal encoding should never require more symbol characters than the default encoding
+        Random random = new Random(42);
+        Code128 normal = new Code128(CodeSet.ABC);
+        Code128 optimal = new Code128(CodeSet.ABC);
+        optimal.setOptimalEncoding(true);
+        for (int i = 0; i < 1_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                int type = random.nextInt(10);
+                if (type < 5) {
+                    sb.append((char) ('0' + random.nextInt(10)));
+                } else if (type < 7) {
+                    sb.append((char) ('A' + random.nextInt(26)));
+                } else if (type < 8) {
+                    sb.append((char) ('a' + random.nextInt(26)));
+                } else if (type < 9) {
+                    sb.append((char) random.nextInt(32));
+                } else {
+                    sb.append((char) (128 + random.nextInt(128)));
+                }
+            }
+            String content = sb.toString();
+            normal.setContent(content);
+            optimal.setContent(content);
+            int normalLength = normal.getCodewords().length;
+            int optimalLength = optimal.getCodewords().length;
+            assertTrue(optimalLength <= normalLength, content);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Composite.CompositeMode;
+import uk.org.okapibarcode.backend.Composite.LinearEncoding;
+
+/**
+ * {@link Composite} tests that can't be run via the {@link SymbolTest}.
+ */
+public class CompositeTest {
+
+    @Test
+    public void testCanReuse() {
+
+        // the linear component is cached and reused between symbols with the same linear settings, so make sure
+        // that reused symbols always match new symbols, even when the linear settings change between symbols
+        Composite composite = new Composite();
+        LinearEncoding[] linears = { LinearEncoding.CODE_128, LinearEncoding.EAN, LinearEncoding.DATABAR_14, LinearEncoding.DATABAR_EXPANDED_STACK };
+        String[] linearContents = { "[01]12345678901231", "501234567890", "1234567890123", "[01]98898765432106[3202]012345[15]991231" };
+        String[] contents = { "[10]ABC123", "[21]A12345678", "[17]010200[10]ABCD1234", "[90]ZX12345[91]ABC" };
+        HumanReadableLocation[] locations = { HumanReadableLocation.BOTTOM, HumanReadableLocation.TOP, HumanReadableLocation.NONE };
+
+        for (int i = 0; i < 40; i++) {
+
+            int linear = (i / 5) % linears.length;
+            String content = contents[i % contents.length];
+            int moduleWidth = 1 + ((i / 3) % 2);
+            HumanReadableLocation location = locations[(i / 7) % locations.length];
+            CompositeMode mode = (linears[linear] == LinearEncoding.CODE_128 && i % 4 == 3 ? CompositeMode.CC_C : CompositeMode.CC_A);
+
+            composite.setSymbology(linears[linear]);
+            composite.setLinearContent(linearContents[linear]);
+            composite.setPreferredMode(mode);
+            composite.setModuleWidth(moduleWidth);
+            composite.setHumanReadableLocation(location);
+            composite.setContent(content);
+
+            Composite expected = new Composite();
+            expected.setSymbology(linears[linear]);
+            expected.setLinearContent(linearContents[linear]);
+            expected.setPreferredMode(mode);
+            expected.setModuleWidth(moduleWidth);
+            expected.setHumanReadableLocation(location);
+            expected.setContent(content);
+
+            assertArrayEquals(expected.getPattern(), composite.getPattern());
+            assertEquals(expected.getRectangles(), composite.getRectangles());
+            assertEquals(expected.getTexts(), composite.getTexts());
+            assertEquals(expected.getWidth(), composite.getWidth());
+            assertEquals(expected.getHeight(), composite.getHeight());
+            assertEquals(expected.getModeUsed(), composite.getModeUsed());
+            assertEquals(expected.getEncodeInfo(), composite.getEncodeInfo());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link DataBarLimited} tests that can't be run via the {@link SymbolTest}.
+ */
+public class DataBarLimitedTest {
+
+    @Test
+    public void testWidthsTable() {
+        // { modules, elements, widest element, no narrow, number of values }
+        int[][] subsets = {
+            { 12, 4, 8, 1, 161 }, { 4, 4, 1, 0, 1 }, { 11, 4, 8, 0, 100 }, { 13, 4, 8, 1, 204 },
+            { 17, 7, 6, 1, 6538 }, { 9, 7, 3, 0, 28 }, { 19, 7, 8, 1, 17094 }, { 19, 7, 8, 0, 16632 }
+        };
+        for (int[] subset : subsets) {
+            int n = subset[0];
+            int elements = subset[1];
+            int maxWidth = subset[2];
+            int noNarrow = subset[3];
+            byte[] table = DataBarLimited.getWidthsTable(n, elements, maxWidth, noNarrow);
+            assertEquals(subset[4] * elements, table.length);
+            for (int value = 0; value < subset[4]; value++) {
+                int[] widths = DataBarLimited.getWidths(value, n, elements, maxWidth, noNarrow);
+                for (int i = 0; i < elements; i++) {
+                    assertEquals(widths[i], table[(value * elements) + i], n + " modules, value " + value);
+                }
+            }
+        }
+    }
+}
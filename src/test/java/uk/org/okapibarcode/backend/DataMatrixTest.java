@@ -16,8 +16,17 @@
 
 package uk.org.okapibarcode.backend;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static uk.org.okapibarcode.backend.SymbolTest.assertSameSymbols;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
@@ -99,4 +108,100 @@ public void testActualSize() {
         assertEquals(10, dm.getActualHeight());
         assertEquals(ForceMode.SQUARE, dm.getForceMode());
     }
+
+    @Test
+    public void testOptimalEncodationNeverLonger() {
+
+        assertEquals(35, countDataCodewords("0EH918FFI51JBECGC4H2C5970794 30 I5H0I9BD8A4118F81D", false));
+        assertEquals(35, countDataCodewords("0EH918FFI51JBECGC4H2C5970794 30 I5H0I9BD8A4118F81D", true));
+
+        String[] alphabets = {
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ", // C40-heavy
+            "abcdefghijklmnopqrstuvwxyz0123456789 ", // Text-heavy
+            "abcdefghijklmnopqrstuvwxyz0123456789 ABC",
+            "ABCDEFGHIJ0123456789 *>\r", // X12-heavy
+            "ABCDEFGHIJ0123456789 .,@^", // EDIFACT-heavy
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 *>\r.-/\u00e9"
+        };
+
+        Random random = new Random(929);
+        for (String alphabet : alphabets) {
+            for (int i = 0; i < 300; i++) {
+                int length = 1 + random.nextInt(60);
+                StringBuilder sb = new StringBuilder(length);
+                for (int j = 0; j < length; j++) {
+                    sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                String content = sb.toString();
+                int annexP = countDataCodewords(content, false);
+                int optimal = countDataCodewords(content, true);
+                assertTrue(optimal <= annexP, content + ": " + optimal + " > " + annexP);
+            }
+        }
+    }
+
+    @Test
+    public void testOptimalEncodationTrailingCodewords() {
+
+        // C40 needs 5 codewords plus an unlatch which is only written if there is room, ASCII needs 6 codewords;
+        // the unlatch must not count towards the symbol size, otherwise we would need a 14x14 symbol
+        DataMatrix dm = new DataMatrix();
+        dm.setOptimalEncodation(true);
+        dm.setContent("BV0MCV");
+        assertEquals(12, dm.getActualWidth());
+        assertEquals(12, dm.getActualHeight());
+        assertEquals(5, countDataCodewords("BV0MCV", true));
+
+        // EDIFACT and C40 both need 7 codewords and fit in a 14x14 symbol (8 data codewords), but with only 1 spare
+        // codeword the EDIFACT unlatch value is not written, whereas the C40 unlatch is written
+        dm.setContent("8HE.H3C9");
+        assertEquals(14, dm.getActualWidth());
+        assertEquals(14, dm.getActualHeight());
+        assertEquals(7, countDataCodewords("8HE.H3C9", true));
+    }
+
+    private static int countDataCodewords(String content, boolean optimalEncodation) {
+        DataMatrix dm = new DataMatrix();
+        dm.setOptimalEncodation(optimalEncodation);
+        dm.setContent(content);
+        String info = dm.getEncodeInfo();
+        int start = info.indexOf("Codewords: ") + "Codewords: ".length();
+        int end = info.indexOf('\n', start);
+        return info.substring(start, end).trim().split(" ").length;
+    }
+
+    @Test
+    public void testCreateStructuredAppendSymbols() {
+
+        DataMatrix template = new DataMatrix();
+        template.setPreferredSize(5); // 18 x 18, 18 data codewords
+        template.setStructuredAppendFileId(1000);
+
+        String content = "Lorem ipsum dolor sit amet, consectetur adipiscing elit 0123456789 ÀÉÎÕÜ";
+        List< DataMatrix > symbols = DataMatrix.createStructuredAppendSymbols(content, template);
+        assertEquals(4, symbols.size());
+
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < symbols.size(); i++) {
+            DataMatrix symbol = symbols.get(i);
+            assertEquals(i + 1, symbol.getStructuredAppendPosition());
+            assertEquals(symbols.size(), symbol.getStructuredAppendTotal());
+            assertEquals(1000, symbol.getStructuredAppendFileId());
+            assertEquals(5, symbol.getActualSize());
+            // ZXing does not support structured append in Data Matrix symbols, so check the FNC2 header instead:
+            // symbol sequence indicator (position + total) and file identification (1 + 999 / 254, 1 + 999 % 254)
+            int[] codewords = symbol.getCodewords();
+            int ssi = (i << 4) | (17 - symbols.size());
+            assertArrayEquals(new int[] { 233, ssi, 4, 238 }, Arrays.copyOf(codewords, 4));
+            joined.append(symbol.getContent());
+        }
+        assertEquals(content, joined.toString());
+
+        List< DataMatrix > parallel = DataMatrix.createStructuredAppendSymbols(content, template, ForkJoinPool.commonPool());
+        assertSameSymbols(symbols, parallel);
+
+        // 16 symbols is the maximum allowed
+        OkapiInputException e = assertThrows(OkapiInputException.class, () -> DataMatrix.createStructuredAppendSymbols(content.repeat(5), template));
+        assertEquals("The specified template is too small to hold both data and structured append metadata", e.getMessage());
+    }
 }
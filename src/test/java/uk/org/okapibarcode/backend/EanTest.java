@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Ean} and {@link Upc} tests that can't be run via the {@link SymbolTest}.
+ */
+public class EanTest {
+
+    @Test
+    public void testCanReuse() {
+
+        // bars are cached and reused between symbols with the same layout, so make sure that
+        // reused symbols always match new symbols, even when the layout changes between symbols
+        Ean ean = new Ean();
+        Upc upc = new Upc();
+        String[] contents = { "501234567890", "400638133393", "978020137962+12", "590123412345", "0123456+12345" };
+        HumanReadableLocation[] locations = { HumanReadableLocation.BOTTOM, HumanReadableLocation.TOP, HumanReadableLocation.NONE };
+
+        for (int i = 0; i < 30; i++) {
+
+            String content = contents[i % contents.length];
+            int moduleWidth = 1 + (i % 2);
+            int barHeight = 40 + (i % 3);
+            HumanReadableLocation location = locations[i % locations.length];
+            Ean.Mode mode = (i % 5 == 4 ? Ean.Mode.EAN8 : Ean.Mode.EAN13);
+
+            ean.setMode(mode);
+            ean.setModuleWidth(moduleWidth);
+            ean.setBarHeight(barHeight);
+            ean.setHumanReadableLocation(location);
+            ean.setContent(content);
+
+            Ean expected = new Ean(mode);
+            expected.setModuleWidth(moduleWidth);
+            expected.setBarHeight(barHeight);
+            expected.setHumanReadableLocation(location);
+            expected.setContent(content);
+
+            assertEqual(expected, ean);
+
+            String upcContent = content.substring(1);
+            Upc.Mode upcMode = (i % 5 == 4 ? Upc.Mode.UPCE : Upc.Mode.UPCA);
+
+            upc.setMode(upcMode);
+            upc.setModuleWidth(moduleWidth);
+            upc.setBarHeight(barHeight);
+            upc.setHumanReadableLocation(location);
+            upc.setContent(upcContent);
+
+            Upc expectedUpc = new Upc(upcMode);
+            expectedUpc.setModuleWidth(moduleWidth);
+            expectedUpc.setBarHeight(barHeight);
+            expectedUpc.setHumanReadableLocation(location);
+            expectedUpc.setContent(upcContent);
+
+            assertEqual(expectedUpc, upc);
+        }
+    }
+
+    @Test
+    public void testBarsReused() {
+
+        Ean ean = new Ean();
+        ean.setContent("501234567890");
+        Object guard = ean.getRectangles().get(0);
+
+        ean.setContent("400638133393");
+        assertSame(guard, ean.getRectangles().get(0));
+
+        // bars are shared by all symbols with the same layout, not just by a single instance
+        Ean ean2 = new Ean();
+        ean2.setContent("978020137962");
+        assertSame(guard, ean2.getRectangles().get(0));
+
+        ean.setModuleWidth(2);
+        ean.setContent("400638133393");
+        assertEquals(2, ean.getRectangles().get(0).width);
+    }
+
+    private static void assertEqual(Symbol expected, Symbol actual) {
+        assertArrayEquals(expected.getPattern(), actual.getPattern());
+        assertEquals(expected.getRectangles(), actual.getRectangles());
+        assertEquals(expected.getTexts(), actual.getTexts());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getHumanReadableText(), actual.getHumanReadableText());
+    }
+}
@@ -20,14 +20,21 @@
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.org.okapibarcode.backend.SymbolTest.assertSameSymbols;
 import static uk.org.okapibarcode.graphics.Color.BLACK;
 import static uk.org.okapibarcode.graphics.Color.WHITE;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -89,6 +96,95 @@ public void testCreateStructuredAppendSymbols(int dataLength, int expectedSymbol
         assertions(symbolsByteEncoded, bytes, expectedSymbolsCountByteCompaction);
     }
 
+    @Test
+    public void testCreateStructuredAppendSymbolsInParallel() throws Exception {
+
+        Pdf417 template = new Pdf417();
+        template.setPreferredEccLevel(4);
+        template.setBarHeight(1);
+        template.setRows(12);
+        template.setDataColumns(13);
+        template.setStructuredAppendIncludeSegmentCount(true);
+
+        byte[] bytes = bytes(2048);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List< Pdf417 > sequential = Pdf417.createStructuredAppendSymbols(bytes, template);
+            List< Pdf417 > parallel = Pdf417.createStructuredAppendSymbols(bytes, template, executor);
+            assertions(parallel, bytes, sequential.size());
+            assertSameSymbols(sequential, parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCreateStructuredAppendIterator() throws Exception {
+
+        Pdf417 template = new Pdf417();
+        template.setPreferredEccLevel(4);
+        template.setBarHeight(1);
+        template.setRows(12);
+        template.setDataColumns(13);
+
+        // stream: no segment count
+        byte[] bytes = bytes(2048);
+        List< Pdf417 > expected = Pdf417.createStructuredAppendSymbols(bytes, template);
+        List< Pdf417 > actual = new ArrayList<>();
+        Pdf417.createStructuredAppendIterator(new ByteArrayInputStream(bytes), template).forEachRemaining(actual::add);
+        assertions(actual, bytes, expected.size());
+        assertSameSymbols(expected, actual);
+
+        // buffer: segment count allowed, since the data can be read twice
+        template.setStructuredAppendIncludeSegmentCount(true);
+        expected = Pdf417.createStructuredAppendSymbols(bytes, template);
+        actual.clear();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Pdf417.createStructuredAppendIterator(buffer, template).forEachRemaining(actual::add);
+        assertions(actual, bytes, expected.size());
+        assertEquals(0, buffer.position());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStructuredAppendTotal(), actual.get(i).getStructuredAppendTotal());
+            assertArrayEquals(expected.get(i).pattern, actual.get(i).pattern);
+        }
+
+        // stream: segment count not allowed, since the total is not known in advance
+        InputStream stream = new ByteArrayInputStream(bytes);
+        assertThrows(OkapiInputException.class, () -> Pdf417.createStructuredAppendIterator(stream, template));
+    }
+
+    @Test
+    public void testCreateStructuredAppendIteratorReadsLazily() throws Exception {
+
+        Pdf417 template = new Pdf417();
+        template.setRows(12);
+        template.setDataColumns(13);
+
+        int length = 64 * 1024;
+        int[] read = new int[1];
+        InputStream stream = new InputStream() {
+            @Override
+            public int read() {
+                return read[0] < length ? read[0]++ & 0xff : -1;
+            }
+        };
+
+        int consumed = 0;
+        int count = 0;
+        Iterator< Pdf417 > symbols = Pdf417.createStructuredAppendIterator(stream, template);
+        while (symbols.hasNext()) {
+            Pdf417 symbol = symbols.next();
+            count++;
+            consumed += symbol.getContent().length();
+            assertEquals(count, symbol.getStructuredAppendPosition());
+            assertTrue(read[0] - consumed <= 4_096, "read: " + read[0] + ", consumed: " + consumed);
+        }
+
+        assertEquals(length, consumed);
+        assertEquals(length, read[0]);
+        assertEquals(count, Pdf417.createStructuredAppendSymbols(bytes(length), template).size());
+    }
+
     @Test
     @Disabled // very slow: keep around for manual testing only
     public void bruteForce() throws Exception {
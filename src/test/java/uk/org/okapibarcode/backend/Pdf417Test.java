@@ -23,6 +23,7 @@
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -60,6 +61,79 @@ public void testSetContentBytes() throws Exception {
         assertTrue(info.indexOf("Padding Codewords: 4\n") != -1, info); // we use 900 (latch text compaction) for padding
         assertTrue(count(info, "900") == 4, info); // only the 4 padding 900s exist (no actual latching to text compaction)
 
+        assertArrayEquals(bytes, decode(barcode));
+    }
+
+    @Test
+    public void testOptimalEncoding() throws Exception {
+
+        // random runs of digits, upper case, lower case, punctuation and binary data, to exercise
+        // all of the mode and submode transitions (including byte shifts and the padding before them)
+        String[] runs = { "0123456789", "ABCDEFGHIJKLMNOPQRSTUVWXYZ", "abcdefghijklmnopqrstuvwxyz", " &,:#-.$/+%*=^\t\r", ";<>@[\\]_`~!\n\"|(){}'?" };
+        Random random = new Random(39);
+
+        for (int i = 0; i < 100; i++) {
+
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 80) {
+                int type = random.nextInt(runs.length + 1);
+                int length = 1 + random.nextInt(12);
+                for (int j = 0; j < length; j++) {
+                    if (type < runs.length) {
+                        sb.append(runs[type].charAt(random.nextInt(runs[type].length())));
+                    } else {
+                        sb.append((char) (0x80 + random.nextInt(0x80)));
+                    }
+                }
+            }
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+            Pdf417 standard = new Pdf417();
+            standard.setContent(bytes);
+
+            Pdf417 optimal = new Pdf417();
+            optimal.setOptimalEncoding(true);
+            optimal.setContent(bytes);
+
+            String info1 = standard.getEncodeInfo();
+            String info2 = optimal.getEncodeInfo();
+            assertTrue(dataCodewords(info2) <= dataCodewords(info1), info1 + "\n" + info2);
+            assertArrayEquals(bytes, decode(optimal), info2);
+        }
+    }
+
+    @Test
+    public void testOptimalEncodingLongNumericRuns() throws Exception {
+
+        // numeric compaction is decoded in groups of 15 codewords (44 digits), so a numeric sequence
+        // can only continue into another group without a new latch after a full group
+        Random random = new Random(902);
+
+        for (int n = 45; n <= 150; n++) {
+
+            StringBuilder sb = new StringBuilder("AB");
+            for (int j = 0; j < n; j++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            sb.append("xy");
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+            Pdf417 optimal = new Pdf417();
+            optimal.setOptimalEncoding(true);
+            optimal.setContent(bytes);
+
+            assertArrayEquals(bytes, decode(optimal), optimal.getEncodeInfo());
+        }
+    }
+
+    private static int dataCodewords(String info) {
+        int start = info.indexOf("Data Codewords: ") + 16;
+        int end = info.indexOf('\n', start);
+        return Integer.parseInt(info.substring(start, end));
+    }
+
+    private static byte[] decode(Pdf417 barcode) throws Exception {
+
         BufferedImage img = new BufferedImage(barcode.getWidth(), barcode.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
         Graphics2D g2d = img.createGraphics();
         Java2DRenderer renderer = new Java2DRenderer(g2d, 1, Color.WHITE, Color.BLACK);
@@ -72,8 +146,7 @@ public void testSetContentBytes() throws Exception {
         Result result = reader.decode(bitmap);
 
         // result.getRawBytes() doesn't work: https://github.com/zxing/zxing/issues/555
-        byte[] output = result.getText().getBytes(StandardCharsets.ISO_8859_1);
-        assertArrayEquals(bytes, output);
+        return result.getText().getBytes(StandardCharsets.ISO_8859_1);
     }
 
 }
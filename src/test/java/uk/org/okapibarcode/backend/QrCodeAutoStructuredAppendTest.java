@@ -22,6 +22,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.org.okapibarcode.backend.SymbolTest.assertSameSymbols;
 import static uk.org.okapibarcode.graphics.Color.BLACK;
 import static uk.org.okapibarcode.graphics.Color.WHITE;
 
@@ -30,6 +31,7 @@
 import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -109,6 +111,45 @@ public void testCreateStructuredAppendSymbolsWithTooSmallTemplate() throws Excep
         assertEquals("The specified template is too small to hold both data and structured append metadata", exception.getMessage());
     }
 
+    @Test
+    public void testCreateStructuredAppendSymbolsWithMixedEci() throws Exception {
+
+        // the first symbol can use the default ECI, the remaining symbols need Shift JIS
+        QrCode template = new QrCode();
+        template.setPreferredVersion(5);
+        String content = "A".repeat(150) + "祈れ".repeat(100);
+
+        List< QrCode > symbols = QrCode.createStructuredAppendSymbols(content, template);
+        assertEquals(5, symbols.size());
+
+        int[] expectedLengths = { 150, 63, 63, 63, 11 };
+        int[] expectedEciModes = { 3, 20, 20, 20, 20 };
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < symbols.size(); i++) {
+            QrCode symbol = symbols.get(i);
+            assertEquals(expectedLengths[i], symbol.getContent().length());
+            assertEquals(expectedEciModes[i], symbol.getEciMode());
+            joined.append(symbol.getContent());
+        }
+        assertEquals(content, joined.toString());
+    }
+
+    @Test
+    public void testCreateStructuredAppendSymbolsInParallel() throws Exception {
+
+        QrCode template = new QrCode();
+        template.setPreferredVersion(1);
+        template.setPreferredEccLevel(EccLevel.H);
+        template.setForceByteCompaction(true);
+
+        byte[] bytes = bytes(80);
+        String data = new String(bytes, ISO_8859_1);
+        List< QrCode > sequential = QrCode.createStructuredAppendSymbols(data, template);
+        List< QrCode > parallel = QrCode.createStructuredAppendSymbols(data, template, ForkJoinPool.commonPool());
+        assertions(parallel, bytes, 16, (qrCode, result) -> { /* no custom assertions */ });
+        assertSameSymbols(sequential, parallel);
+    }
+
     private byte[] bytes(int length) {
         return "A".repeat(length).getBytes(ISO_8859_1);
     }
@@ -19,6 +19,7 @@
 import static java.lang.Integer.toHexString;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -258,7 +259,7 @@ private static void verifySuccess(TestConfig config, File pngFile, Symbol symbol
             }
         } catch (UnsupportedOperationException e) {
             // codewords aren't supported, try to verify patterns
-            String[] actualPatterns = symbol.pattern;
+            String[] actualPatterns = symbol.getPattern();
             assertEquals(config.expectedCodewords.size(), actualPatterns.length);
             for (int i = 0; i < actualPatterns.length; i++) {
                 String expected = config.expectedCodewords.get(i);
@@ -679,7 +680,7 @@ private static void addExpectedCodewords(TestConfig config, Symbol symbol) throw
                     sb.append(codeword).append(EOL);
                 }
             } catch (UnsupportedOperationException e) {
-                for (String pattern : symbol.pattern) {
+                for (String pattern : symbol.getPattern()) {
                     sb.append(pattern).append(EOL);
                 }
             }
@@ -869,6 +870,21 @@ public boolean accept(File dir, String name) {
         }
     }
 
+    /**
+     * Verifies that the specified structured append symbols (for example, symbols encoded in parallel) have the same
+     * content and patterns as the expected symbols (for example, the same symbols encoded sequentially).
+     *
+     * @param expected the expected symbols
+     * @param actual the actual symbols
+     */
+    public static void assertSameSymbols(List< ? extends Symbol > expected, List< ? extends Symbol > actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getContent(), actual.get(i).getContent());
+            assertArrayEquals(expected.get(i).pattern, actual.get(i).pattern);
+        }
+    }
+
     /**
      * Verifies that the specified actual value matches the specified expected value, where the actual
      * value was generated using the specified inputs.
@@ -16,9 +16,14 @@
 
 package uk.org.okapibarcode.backend;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static uk.org.okapibarcode.backend.UspsOneCode.formatHumanReadableText;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -64,4 +69,61 @@ public void testFormatHumanReadableText() {
         assertEquals("94 009 5 1234 1234567890 12345 6789 01", formatHumanReadableText("94.009.5.1234.1234567890.12345678901")); // zip code: 11 digits
     }
 
+    @Test
+    public void testCreateSequence() {
+
+        UspsOneCode template = new UspsOneCode();
+        template.setHumanReadableLocation(HumanReadableLocation.BOTTOM);
+        template.setModuleWidth(2);
+        template.setModuleWidthRatio(1.5);
+
+        // 6-digit mailer ID (9-digit serial), crossing a carry into the high bits of the binary data
+        assertSequence("01234567094", 987654321L, 300, "01234567891", template);
+        assertSequence("01234567094", 0, 50, "", template);
+        assertSequence("01234567094", 999_999_900L, 100, "12345", template);
+
+        // 9-digit mailer ID (6-digit serial), pIMb and tracing layouts, short prefixes
+        assertSequence("00270900000", 123, 50, "123456789", template);
+        assertSequence("94009112341", 0, 50, "12345", template);
+        assertSequence("12050", 123456789012340L, 20, "123456789", template);
+        assertSequence("94", 0, 20, "", template);
+    }
+
+    private static void assertSequence(String prefix, long firstSerial, int count, String zip, UspsOneCode template) {
+        List< UspsOneCode > symbols = new ArrayList<>();
+        UspsOneCode.createSequence(prefix, firstSerial, count, zip, template, symbols::add);
+        assertEquals(count, symbols.size());
+        for (int i = 0; i < count; i++) {
+            String serial = String.valueOf(firstSerial + i);
+            String tracker = prefix + "0".repeat(20 - prefix.length() - serial.length()) + serial;
+            UspsOneCode expected = new UspsOneCode();
+            expected.setHumanReadableLocation(template.getHumanReadableLocation());
+            expected.setModuleWidth(template.getModuleWidth());
+            expected.setModuleWidthRatio(template.getModuleWidthRatio());
+            expected.setContent(zip.isEmpty() ? tracker : tracker + "-" + zip);
+            UspsOneCode actual = symbols.get(i);
+            assertEquals(expected.getContent(), actual.getContent());
+            assertEquals(expected.getHumanReadableText(), actual.getHumanReadableText());
+            assertArrayEquals(expected.getPattern(), actual.getPattern());
+            assertEquals(expected.getRectangles(), actual.getRectangles());
+            assertEquals(expected.getTexts(), actual.getTexts());
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+            assertEquals(expected.getEncodeInfo(), actual.getEncodeInfo());
+        }
+    }
+
+    @Test
+    public void testCreateSequenceInvalid() {
+        UspsOneCode template = new UspsOneCode();
+        List< UspsOneCode > symbols = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> UspsOneCode.createSequence("01234567094", 0, -1, "", template, symbols::add));
+        assertThrows(OkapiInputException.class, () -> UspsOneCode.createSequence("0", 0, 1, "", template, symbols::add));
+        assertThrows(OkapiInputException.class, () -> UspsOneCode.createSequence("0123456709A", 0, 1, "", template, symbols::add));
+        assertThrows(OkapiInputException.class, () -> UspsOneCode.createSequence("01234567094", 999_999_999L, 2, "", template, symbols::add));
+        assertThrows(OkapiInputException.class, () -> UspsOneCode.createSequence("01234567094", -1, 1, "", template, symbols::add));
+        assertThrows(OkapiInputException.class, () -> UspsOneCode.createSequence("01234567094", 0, 1, "123-4", template, symbols::add));
+        assertEquals(0, symbols.size());
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.backend;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link WidthBuffer}.
+ */
+public class WidthBufferTest {
+
+    @Test
+    void testAppend() {
+
+        WidthBuffer buffer = new WidthBuffer(0);
+        buffer.append(2);
+        buffer.append(new byte[] { 1, 1, 4, 1, 1, 1, 1, 4, 1, 1, 1 });
+        buffer.append(3);
+
+        assertEquals(13, buffer.length());
+        assertEquals("2114111141113", buffer.toString());
+        assertEquals(2, buffer.get(0));
+        assertEquals(4, buffer.get(3));
+        assertEquals(3, buffer.get(12));
+        assertArrayEquals(new byte[] { 2, 1, 1, 4, 1, 1, 1, 1, 4, 1, 1, 1, 3 }, buffer.toArray());
+
+        buffer.clear();
+        assertEquals(0, buffer.length());
+        assertEquals("", buffer.toString());
+        assertArrayEquals(new byte[0], buffer.toArray());
+        buffer.append(0).append(4);
+        assertEquals("04", buffer.toString());
+    }
+
+    @Test
+    void testAppendModules() {
+
+        WidthBuffer buffer = new WidthBuffer(0);
+        buffer.appendModules(0xbe5c, 16); // Code 49 even parity character 0
+        assertEquals("11521132", buffer.toString());
+
+        buffer.clear();
+        buffer.appendModules(0x72, 7).append(1).appendModules(0x6b8, 11); // Code 16K start 0, separator bar, character 106
+        assertEquals("32111211133", buffer.toString());
+
+        buffer.clear();
+        buffer.appendModules(0xffff0000, 32).appendModules(0b1, 1);
+        assertArrayEquals(new byte[] { 16, 16, 1 }, buffer.toArray());
+    }
+
+    @Test
+    void testSymbolPattern() {
+
+        // the derived string pattern must match the original width digit representation
+        Code128 code128 = new Code128();
+        code128.setContent("ABC123");
+        assertEquals("2112141113231311231313211232212232112211321411222331112", code128.getPattern()[0]);
+        assertEquals(code128.getPattern()[0], WidthBuffer.toString(code128.widths[0], 0, code128.widths[0].length));
+
+        DataBarLimited limited = new DataBarLimited();
+        limited.setLinkageFlag();
+        limited.setContent("1234567890123");
+        assertEquals(2, limited.getPattern().length);
+        assertEquals("04", limited.getPattern()[0].substring(0, 2));
+    }
+}
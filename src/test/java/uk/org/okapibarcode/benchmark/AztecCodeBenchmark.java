@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.AztecCode;
+
+/**
+ * Benchmarks for {@link AztecCode}.
+ */
+public class AztecCodeBenchmark {
+
+    private static final String SHORT_CONTENT = "ABC-123456";
+
+    private static final String LONG_CONTENT = "Lorem ipsum dolor sit amet, 0123456789; ".repeat(50);
+
+    @Test
+    public void benchmarkFirstEncodeCompact() throws Exception {
+        Benchmarks.runFirstUse("Aztec Code first encode (compact)", loader -> {
+            int width = firstEncode(loader, SHORT_CONTENT, 0);
+            assertEquals(15, width); // 1 layer
+        });
+    }
+
+    @Test
+    public void benchmarkFirstEncodeFullRange() throws Exception {
+        Benchmarks.runFirstUse("Aztec Code first encode (full range)", loader -> {
+            int width = firstEncode(loader, LONG_CONTENT, 36);
+            assertEquals(151, width); // 32 layers
+        });
+    }
+
+    @Test
+    public void benchmarkFullRange() {
+        AztecCode symbol = new AztecCode();
+        symbol.setPreferredSize(36); // 32 layers
+        Benchmarks.run("Aztec Code full range", () -> symbol.setContent(LONG_CONTENT));
+        assertEquals(151, symbol.getWidth());
+    }
+
+    @Test
+    public void benchmarkLongInput() {
+        AztecCode symbol = new AztecCode();
+        Benchmarks.run("Aztec Code long input", () -> symbol.setContent(LONG_CONTENT));
+    }
+
+    @Test
+    public void benchmarkLongInputOptimal() {
+        AztecCode symbol = new AztecCode();
+        symbol.setOptimalEncoding(true);
+        Benchmarks.run("Aztec Code long input (optimal encoding)", () -> symbol.setContent(LONG_CONTENT));
+    }
+
+    private static int firstEncode(ClassLoader loader, String content, int preferredSize) throws Exception {
+        Class< ? > type = loader.loadClass(AztecCode.class.getName());
+        Object symbol = type.getConstructor().newInstance();
+        if (preferredSize != 0) {
+            type.getMethod("setPreferredSize", int.class).invoke(symbol, preferredSize);
+        }
+        type.getMethod("setContent", String.class).invoke(symbol, content);
+        return (Integer) type.getMethod("getWidth").invoke(symbol);
+    }
+}
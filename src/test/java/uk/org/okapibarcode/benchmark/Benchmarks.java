@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+
+import uk.org.okapibarcode.backend.Symbol;
+
+/**
+ * Minimal benchmark harness, used to track the performance of hot paths without requiring a separate benchmarking
+ * framework. Each benchmark is warmed up before being measured over a number of iterations, and the median time per
+ * operation is reported, along with the average number of bytes allocated per operation (if the JVM supports thread
+ * allocation tracking). Benchmarks are not run as part of the standard unit tests; use {@code gradlew benchmark}.
+ */
+final class Benchmarks {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long ITERATION_NANOS = 500_000_000L;
+    private static final int ITERATIONS = 10;
+    private static final int FIRST_USE_ITERATIONS = 25;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_TRACKING = THREADS instanceof com.sun.management.ThreadMXBean &&
+                    ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+    private Benchmarks() {
+        // utility class
+    }
+
+    /**
+     * Runs the specified benchmark, printing the median time per operation and the average allocation per operation
+     * to standard output.
+     *
+     * @param name the benchmark name
+     * @param operation the operation to benchmark
+     * @return the median time per operation, in nanoseconds
+     */
+    static long run(String name, Runnable operation) {
+
+        for (long end = System.nanoTime() + WARMUP_NANOS; System.nanoTime() < end; ) {
+            operation.run();
+        }
+
+        long[] results = new long[ITERATIONS];
+        long totalOps = 0;
+        long allocated = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long ops = 0;
+            long start = System.nanoTime();
+            long end = start + ITERATION_NANOS;
+            long now;
+            do {
+                operation.run();
+                ops++;
+                now = System.nanoTime();
+            } while (now < end);
+            results[i] = (now - start) / ops;
+            totalOps += ops;
+        }
+        allocated = allocatedBytes() - allocated;
+
+        Arrays.sort(results);
+        long median = results[ITERATIONS / 2];
+        String allocation = ALLOCATION_TRACKING ? String.format(", %,d B/op", allocated / totalOps) : "";
+        System.out.printf("%s: %,d ns/op (min %,d ns/op, max %,d ns/op)%s%n", name, median, results[0], results[ITERATIONS - 1], allocation);
+        return median;
+    }
+
+    /**
+     * Runs the specified first use (cold start) benchmark, printing the median time taken to standard output. Each
+     * iteration loads the Okapi Barcode classes afresh in a new class loader, so that the time measured includes
+     * class loading and static initialization, as well as running the operation without any JIT warmup.
+     *
+     * @param name the benchmark name
+     * @param operation the operation to benchmark, which must only use Okapi Barcode classes from the class loader provided
+     * @return the median time taken, in nanoseconds
+     * @throws Exception if there is an error running the operation
+     */
+    static long runFirstUse(String name, FirstUseOperation operation) throws Exception {
+
+        URL classes = Symbol.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent(); // excludes the application class path
+
+        long[] results = new long[FIRST_USE_ITERATIONS];
+        for (int i = 0; i < FIRST_USE_ITERATIONS; i++) {
+            try (URLClassLoader loader = new URLClassLoader(new URL[] { classes }, parent)) {
+                long start = System.nanoTime();
+                operation.run(loader);
+                results[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(results);
+        long median = results[FIRST_USE_ITERATIONS / 2];
+        System.out.printf("%s: %,d ns (min %,d ns, max %,d ns)%n", name, median, results[0], results[FIRST_USE_ITERATIONS - 1]);
+        return median;
+    }
+
+    /**
+     * Returns the total number of bytes allocated so far by the current thread, if allocation tracking is available.
+     *
+     * @return the total number of bytes allocated so far by the current thread, or zero if allocation tracking is not available
+     */
+    private static long allocatedBytes() {
+        if (ALLOCATION_TRACKING) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * An operation to run in a first use benchmark.
+     */
+    interface FirstUseOperation {
+        void run(ClassLoader loader) throws Exception;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.ChannelCode;
+
+/**
+ * Benchmarks for {@link ChannelCode}.
+ */
+public class ChannelCodeBenchmark {
+
+    @Test
+    public void benchmarkEncode() {
+        ChannelCode symbol = new ChannelCode();
+        Benchmarks.run("Channel Code (8 channels)", () -> symbol.setContent("7742862"));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.CodablockF;
+
+/**
+ * Benchmarks for {@link CodablockF}.
+ */
+public class CodablockFBenchmark {
+
+    private static final String TEXT = "Codablock F 2014 #123456 ÄÖ abc\tDEF 0987654321 ".repeat(60).substring(0, 2400);
+
+    private static final String DIGITS = "8675309".repeat(750).substring(0, 5000);
+
+    @Test
+    public void benchmarkShort() {
+        CodablockF symbol = new CodablockF();
+        Benchmarks.run("Codablock F (short)", () -> symbol.setContent("Okapi Barcode 0123456789 abcdef"));
+    }
+
+    @Test
+    public void benchmarkText() {
+        CodablockF symbol = new CodablockF();
+        Benchmarks.run("Codablock F (2400 chars)", () -> symbol.setContent(TEXT));
+    }
+
+    @Test
+    public void benchmarkDigits() {
+        CodablockF symbol = new CodablockF();
+        Benchmarks.run("Codablock F (5000 digits)", () -> symbol.setContent(DIGITS));
+    }
+}
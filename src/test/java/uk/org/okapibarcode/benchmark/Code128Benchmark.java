@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Code128;
+import uk.org.okapibarcode.backend.Symbol.DataType;
+
+/**
+ * Benchmarks for {@link Code128}.
+ */
+public class Code128Benchmark {
+
+    private static final String GS1_CONTENT = "[01]09501101530008[17]251231[10]AB-123/45[21]9876543210";
+
+    @Test
+    public void benchmarkGs1() {
+        Code128 symbol = new Code128();
+        symbol.setDataType(DataType.GS1);
+        Benchmarks.run("GS1-128", () -> symbol.setContent(GS1_CONTENT));
+    }
+
+    @Test
+    public void benchmarkGs1Optimal() {
+        Code128 symbol = new Code128();
+        symbol.setDataType(DataType.GS1);
+        symbol.setOptimalEncoding(true);
+        Benchmarks.run("GS1-128 (optimal)", () -> symbol.setContent(GS1_CONTENT));
+    }
+}
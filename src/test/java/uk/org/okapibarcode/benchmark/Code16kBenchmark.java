@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Code16k;
+
+/**
+ * Benchmarks for {@link Code16k}.
+ */
+public class Code16kBenchmark {
+
+    private static final String[] CONTENTS = {
+        "Okapi Barcode 16K", "0123456789012345678901234567890123456789", "ABC-123/DEF 987654 xyz",
+        "abcdefghijklmnopqrstuvwxyz", "Okapi 16K 2026-10-18T12:00"
+    };
+
+    @Test
+    public void benchmarkCode16k() {
+        Code16k symbol = new Code16k();
+        int[] i = new int[1];
+        Benchmarks.run("Code 16K", () -> symbol.setContent(CONTENTS[i[0]++ % CONTENTS.length]));
+    }
+}
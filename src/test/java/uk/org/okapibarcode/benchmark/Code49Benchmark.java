@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Code49;
+
+/**
+ * Benchmarks for {@link Code49}.
+ */
+public class Code49Benchmark {
+
+    private static final String[] CONTENTS = {
+        "Okapi Barcode 49", "012345678901234567890123456789012345678901234567890123", "ABC-123/abc def XYZ",
+        "THE QUICK BROWN FOX 0123456789"
+    };
+
+    @Test
+    public void benchmarkCode49() {
+        Code49 symbol = new Code49();
+        int[] i = new int[1];
+        Benchmarks.run("Code 49", () -> symbol.setContent(CONTENTS[i[0]++ % CONTENTS.length]));
+    }
+}
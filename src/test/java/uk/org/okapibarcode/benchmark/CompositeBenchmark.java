@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Composite;
+import uk.org.okapibarcode.backend.Composite.CompositeMode;
+import uk.org.okapibarcode.backend.Composite.LinearEncoding;
+
+/**
+ * Benchmarks for {@link Composite}.
+ */
+public class CompositeBenchmark {
+
+    private static final String[] CONTENTS = {
+        "[10]ABC123", "[17]010200[10]ABCD1234", "[21]A12345678", "[11]111279[420]1A2B3C", "[90]ZX12345[91]ABC"
+    };
+
+    @Test
+    public void benchmarkCompositeDataBar14() {
+        Composite symbol = new Composite();
+        symbol.setSymbology(LinearEncoding.DATABAR_14);
+        symbol.setLinearContent("1234567890123");
+        int[] i = new int[1];
+        Benchmarks.run("Composite DataBar-14 CC-A", () -> symbol.setContent(CONTENTS[i[0]++ % CONTENTS.length]));
+    }
+
+    @Test
+    public void benchmarkCompositeCode128() {
+        Composite symbol = new Composite();
+        symbol.setSymbology(LinearEncoding.CODE_128);
+        symbol.setLinearContent("[01]12345678901231");
+        symbol.setPreferredMode(CompositeMode.CC_C);
+        int[] i = new int[1];
+        Benchmarks.run("Composite Code 128 CC-C", () -> symbol.setContent(CONTENTS[i[0]++ % CONTENTS.length]));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.DataBar14;
+import uk.org.okapibarcode.backend.DataBarExpanded;
+import uk.org.okapibarcode.backend.DataBarLimited;
+
+/**
+ * Benchmarks for {@link DataBar14}, {@link DataBarLimited} and {@link DataBarExpanded}.
+ */
+public class DataBarBenchmark {
+
+    private static final String[] GTINS = {
+        "501234567890", "400638133393", "978020137962", "590123412345", "871125300160",
+        "161234567890", "101234567890", "141234567890", "140509040147", "001234567890"
+    };
+
+    private static final String[] ELEMENT_STRINGS = {
+        "[01]98898765432106[3202]012345[15]991231",
+        "[01]90614141000015[3202]000150",
+        "[01]00012345678905[10]ABC123[17]261231[21]ABCDEFGHIJ",
+        "[01]95012345678903[3103]000123[15]270101[10]LOT42",
+        "[255]5412345000013[3900]12345[10]AB-12/34"
+    };
+
+    @Test
+    public void benchmarkDataBar14() {
+        DataBar14 symbol = new DataBar14();
+        int[] i = new int[1];
+        Benchmarks.run("DataBar-14", () -> symbol.setContent(GTINS[i[0]++ % GTINS.length]));
+    }
+
+    @Test
+    public void benchmarkDataBarLimited() {
+        DataBarLimited symbol = new DataBarLimited();
+        int[] i = new int[1];
+        Benchmarks.run("DataBar Limited", () -> symbol.setContent(GTINS[i[0]++ % GTINS.length]));
+    }
+
+    @Test
+    public void benchmarkDataBarExpandedStacked() {
+        DataBarExpanded symbol = new DataBarExpanded();
+        symbol.setStacked(true);
+        symbol.setPreferredColumns(2);
+        int[] i = new int[1];
+        Benchmarks.run("DataBar Expanded Stacked", () -> symbol.setContent(ELEMENT_STRINGS[i[0]++ % ELEMENT_STRINGS.length]));
+    }
+}
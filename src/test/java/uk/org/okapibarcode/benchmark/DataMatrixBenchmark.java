@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.DataMatrix;
+
+/**
+ * Benchmarks for {@link DataMatrix}.
+ */
+public class DataMatrixBenchmark {
+
+    @Test
+    public void benchmarkLargestSymbol() {
+
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 1_500) {
+            sb.append("Lorem ipsum dolor sit amet, 0123456789 ");
+        }
+        String content = sb.toString();
+
+        DataMatrix symbol = new DataMatrix();
+        symbol.setPreferredSize(24); // 144 x 144
+        Benchmarks.run("Data Matrix 144 x 144", () -> symbol.setContent(content));
+        assertEquals(144, symbol.getActualWidth());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Ean;
+import uk.org.okapibarcode.backend.Upc;
+
+/**
+ * Benchmarks for {@link Ean} and {@link Upc}.
+ */
+public class EanBenchmark {
+
+    private static final String[] GTINS = {
+        "501234567890", "400638133393", "978020137962", "590123412345", "871125300160",
+        "761234567890", "301234567890", "541234567890", "640509040147", "001234567890"
+    };
+
+    @Test
+    public void benchmarkEan13() {
+        Ean symbol = new Ean();
+        int[] i = new int[1];
+        Benchmarks.run("EAN-13", () -> symbol.setContent(GTINS[i[0]++ % GTINS.length]));
+    }
+
+    @Test
+    public void benchmarkUpcA() {
+        Upc symbol = new Upc();
+        int[] i = new int[1];
+        Benchmarks.run("UPC-A", () -> symbol.setContent(GTINS[i[0]++ % GTINS.length].substring(1)));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.Pdf417;
+
+/**
+ * Benchmarks for {@link Pdf417}.
+ */
+public class Pdf417Benchmark {
+
+    private static final String NUMERIC_CONTENT = "31415926535897932384626433832795028841971693993751".repeat(20);
+
+    private static final String BYTE_CONTENT = "été à Évry: ½ × £¥§¶ ".repeat(40);
+
+    private static final String MIXED_CONTENT = "Order 20260412-0017: 3x Widget (blue), £12.50/ea; ship to Zürich\n".repeat(8);
+
+    @Test
+    public void benchmarkNumericCompaction() {
+        Pdf417 symbol = new Pdf417();
+        Benchmarks.run("PDF417 numeric compaction", () -> symbol.setContent(NUMERIC_CONTENT));
+    }
+
+    @Test
+    public void benchmarkByteCompaction() {
+        Pdf417 symbol = new Pdf417();
+        Benchmarks.run("PDF417 byte compaction", () -> symbol.setContent(BYTE_CONTENT));
+    }
+
+    @Test
+    public void benchmarkMixedContent() {
+        Pdf417 symbol = new Pdf417();
+        Benchmarks.run("PDF417 mixed content", () -> symbol.setContent(MIXED_CONTENT));
+    }
+
+    @Test
+    public void benchmarkMixedContentOptimal() {
+        Pdf417 symbol = new Pdf417();
+        symbol.setOptimalEncoding(true);
+        Benchmarks.run("PDF417 mixed content (optimal encoding)", () -> symbol.setContent(MIXED_CONTENT));
+    }
+
+    @Test
+    public void benchmarkMaxCapacity() {
+        Pdf417 symbol = new Pdf417();
+        symbol.setPreferredEccLevel(8); // 512 error correction codewords
+        String content = "PDF417 MAX CAPACITY ".repeat(36); // 918 codewords
+        Benchmarks.run("PDF417 max capacity (ECC level 8)", () -> symbol.setContent(content));
+    }
+
+    @Test
+    public void benchmarkMicroPdf417() {
+        Pdf417 symbol = new Pdf417();
+        symbol.setMode(Pdf417.Mode.MICRO);
+        symbol.setDataColumns(4);
+        Benchmarks.run("MicroPDF417 4 columns", () -> symbol.setContent("MicroPDF417 ABC-0123456789 abc"));
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.okapibarcode.backend.UspsOneCode;
+
+/**
+ * Benchmarks for {@link UspsOneCode}.
+ */
+public class UspsOneCodeBenchmark {
+
+    @Test
+    public void benchmarkEncode() {
+        UspsOneCode symbol = new UspsOneCode();
+        Benchmarks.run("USPS OneCode", () -> symbol.setContent("01234567094987654321-01234567891"));
+    }
+
+    @Test
+    public void benchmarkCreateSequence() {
+        UspsOneCode template = new UspsOneCode();
+        Benchmarks.run("USPS OneCode sequence (1,000 symbols)", () -> UspsOneCode.createSequence("01234567094", 987_654_321L, 1_000, "01234567891", template, symbol -> {}));
+    }
+}
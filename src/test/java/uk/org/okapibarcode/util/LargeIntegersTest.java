@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2015 Robin Stuart, Robert Elliott, Daniel Gredler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.org.okapibarcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LargeIntegers}.
+ */
+public class LargeIntegersTest {
+
+    @Test
+    void testLimbsForDigits() {
+        assertEquals(1, LargeIntegers.limbsForDigits(0));
+        assertEquals(1, LargeIntegers.limbsForDigits(1));
+        assertEquals(1, LargeIntegers.limbsForDigits(9));
+        assertEquals(2, LargeIntegers.limbsForDigits(10));
+        assertEquals(5, LargeIntegers.limbsForDigits(45));
+    }
+
+    @Test
+    void testSet() {
+        int[] value = new int[3];
+        LargeIntegers.set(value, 0x1234_5678_9abc_def0L);
+        assertEquals(new BigInteger("123456789abcdef0", 16), toBigInteger(value));
+        LargeIntegers.set(value, 0);
+        assertTrue(LargeIntegers.isZero(value));
+    }
+
+    @Test
+    void testArithmetic() {
+
+        // compare against the equivalent BigInteger operations, using random 45-digit numbers
+        Random random = new Random(11);
+        for (int i = 0; i < 1_000; i++) {
+
+            int[] value = new int[LargeIntegers.limbsForDigits(45)];
+            BigInteger expected = BigInteger.ZERO;
+            for (int j = 0; j < 45; j++) {
+                int digit = random.nextInt(10);
+                assertEquals(0, LargeIntegers.multiplyAdd(value, 10, digit));
+                expected = expected.multiply(BigInteger.TEN).add(BigInteger.valueOf(digit));
+            }
+            assertEquals(expected, toBigInteger(value));
+
+            int shift = random.nextInt(150);
+            int bits = 1 + random.nextInt(32);
+            int expectedBits = expected.shiftRight(shift).and(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE)).intValue();
+            assertEquals(expectedBits, LargeIntegers.bits(value, shift, bits));
+
+            BigInteger divisor = BigInteger.valueOf(900);
+            while (!LargeIntegers.isZero(value)) {
+                assertEquals(expected.mod(divisor).intValue(), LargeIntegers.divide(value, 900));
+                expected = expected.divide(divisor);
+                assertEquals(expected, toBigInteger(value));
+            }
+            assertEquals(BigInteger.ZERO, expected);
+        }
+    }
+
+    @Test
+    void testOverflow() {
+        int[] value = { 0x8000_0000 };
+        assertEquals(1, LargeIntegers.multiplyAdd(value, 2, 5));
+        assertEquals(5, value[0]);
+        assertFalse(LargeIntegers.isZero(value));
+        assertEquals(0, LargeIntegers.bits(value, 64, 8));
+    }
+
+    @Test
+    void testInvalidDivisor() {
+        assertThrows(IllegalArgumentException.class, () -> LargeIntegers.divide(new int[1], 0));
+        assertThrows(IllegalArgumentException.class, () -> LargeIntegers.divide(new int[1], -900));
+    }
+
+    private static BigInteger toBigInteger(int[] value) {
+        BigInteger result = BigInteger.ZERO;
+        for (int limb : value) {
+            result = result.shiftLeft(32).or(BigInteger.valueOf(limb & 0xffff_ffffL));
+        }
+        return result;
+    }
+}